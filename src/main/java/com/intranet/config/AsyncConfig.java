@@ -1,28 +1,154 @@
 package com.intranet.config;
 
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.annotation.AsyncConfigurer;
 import org.springframework.scheduling.annotation.EnableAsync;
 import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.security.core.context.SecurityContext;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.web.context.request.RequestAttributes;
+import org.springframework.web.context.request.RequestContextHolder;
 
 import java.util.concurrent.Executor;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinWorkerThread;
+import java.util.concurrent.ThreadPoolExecutor;
 
 @Configuration
 @EnableAsync
-public class AsyncConfig {
+public class AsyncConfig implements AsyncConfigurer {
 
     /**
-     * Dedicated thread pool for audit log persistence.
-     * Keeps audit logging from blocking API response times.
+     * Executor for plain @Async methods; explicit because there are several
+     * TaskExecutor beans. Audit logs no longer go through a pool, see
+     * AuditLogWriter. A full queue runs the task on the caller instead of
+     * throwing TaskRejectedException.
      */
-    @Bean(name = "auditLogExecutor")
-    public Executor auditLogExecutor() {
+    @Override
+    public Executor getAsyncExecutor() {
+        return asyncExecutor();
+    }
+
+    @Bean(name = "asyncExecutor")
+    public Executor asyncExecutor() {
         ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
         executor.setCorePoolSize(2);
         executor.setMaxPoolSize(5);
         executor.setQueueCapacity(500);
-        executor.setThreadNamePrefix("audit-log-");
+        executor.setThreadNamePrefix("async-");
+        executor.setRejectedExecutionHandler(new ThreadPoolExecutor.CallerRunsPolicy());
+        executor.initialize();
+        return executor;
+    }
+
+    /**
+     * Workers of MailQueueDispatcher; each sends one batch over one SMTP
+     * connection. The dispatcher never hands out more batches than workers.
+     */
+    @Bean(name = "mailDispatchExecutor")
+    public Executor mailDispatchExecutor(@Value("${app.mail.queue.workers:2}") int workers) {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(Math.max(1, workers));
+        executor.setMaxPoolSize(Math.max(1, workers));
+        executor.setQueueCapacity(Math.max(1, workers));
+        executor.setThreadNamePrefix("mail-dispatch-");
+        executor.setWaitForTasksToCompleteOnShutdown(true);
+        executor.setAwaitTerminationSeconds(30);
+        executor.initialize();
+        return executor;
+    }
+
+    /**
+     * Single thread of DomainEventDispatcher, so events are handed to
+     * listeners one at a time and in order. At most one drain waits behind the
+     * running one; further wake-ups are dropped because that drain covers them.
+     */
+    @Bean(name = "eventDispatchExecutor")
+    public Executor eventDispatchExecutor() {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(1);
+        executor.setMaxPoolSize(1);
+        executor.setQueueCapacity(1);
+        executor.setThreadNamePrefix("event-dispatch-");
+        executor.setRejectedExecutionHandler(new ThreadPoolExecutor.DiscardPolicy());
+        executor.setWaitForTasksToCompleteOnShutdown(true);
+        executor.setAwaitTerminationSeconds(30);
+        executor.initialize();
+        return executor;
+    }
+
+    /**
+     * Threads of ManagerPushService: change feed reads, pending-count queries
+     * and SSE writes. A write to a client that stopped reading holds its
+     * thread until the stream is closed as stalled, so all threads are started
+     * before anything queues (core = max) and idle ones time out. A full queue
+     * rejects the task; the push service drops that update instead of
+     * blocking the caller.
+     */
+    @Bean(name = "managerPushExecutor")
+    public Executor managerPushExecutor() {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(8);
+        executor.setMaxPoolSize(8);
+        executor.setQueueCapacity(64);
+        executor.setAllowCoreThreadTimeOut(true);
+        executor.setThreadNamePrefix("manager-push-");
         executor.initialize();
         return executor;
     }
+
+    /**
+     * Pool for report fan-out (see UpstreamCalls). Tasks see the submitting
+     * request's attributes and security context; when the queue is full the
+     * caller runs the call itself, i.e. falls back to sequential.
+     */
+    @Bean(name = "upstreamCallExecutor")
+    public Executor upstreamCallExecutor() {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(16);
+        executor.setMaxPoolSize(16);
+        executor.setQueueCapacity(200);
+        executor.setAllowCoreThreadTimeOut(true);
+        executor.setThreadNamePrefix("upstream-call-");
+        executor.setRejectedExecutionHandler(new ThreadPoolExecutor.CallerRunsPolicy());
+        executor.setTaskDecorator(task -> {
+            RequestAttributes requestAttributes = RequestContextHolder.getRequestAttributes();
+            SecurityContext securityContext = SecurityContextHolder.getContext();
+            Thread submitter = Thread.currentThread();
+            return () -> {
+                if (Thread.currentThread() == submitter) {
+                    task.run();   // CallerRunsPolicy: context is already in place
+                    return;
+                }
+                try {
+                    RequestContextHolder.setRequestAttributes(requestAttributes);
+                    SecurityContextHolder.setContext(securityContext);
+                    task.run();
+                } finally {
+                    RequestContextHolder.resetRequestAttributes();
+                    SecurityContextHolder.clearContext();
+                }
+            };
+        });
+        executor.initialize();
+        return executor;
+    }
+
+    /**
+     * CPU pool for per-resource report math (see ParallelCompute). Sized to
+     * the CPUs the JVM sees (container limits included) unless
+     * app.compute.parallelism is set; kept apart from the common pool so
+     * reports do not compete with other parallel streams.
+     */
+    @Bean(name = "reportComputePool", destroyMethod = "shutdown")
+    public ForkJoinPool reportComputePool(@Value("${app.compute.parallelism:0}") int parallelism) {
+        int threads = parallelism > 0 ? parallelism : Runtime.getRuntime().availableProcessors();
+        return new ForkJoinPool(threads, pool -> {
+            ForkJoinWorkerThread thread = ForkJoinPool.defaultForkJoinWorkerThreadFactory.newThread(pool);
+            thread.setName("report-compute-" + thread.getPoolIndex());
+            return thread;
+        }, null, false);
+    }
 }
@@ -0,0 +1,55 @@
+package com.intranet.config;
+
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.CaffeineSpec;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.annotation.EnableCaching;
+import org.springframework.cache.caffeine.CaffeineCacheManager;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.env.Environment;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Bounded, TTL-based caches for the PMS / LMS directory lookups and the
+ * PMS task-duration sums. UMS users come from UserDirectoryReplica.
+ *
+ * Every cache is registered up front so actuator can bind hit/miss/load
+ * metrics to it at startup (see /actuator/metrics/cache.gets). The default
+ * spec of each cache can be overridden with
+ * {@code app.cache.spec.<cacheName>=maximumSize=..,expireAfterWrite=..}.
+ */
+@Configuration
+@EnableCaching
+public class CacheConfig {
+
+    public static final String PROJECT_CACHE = "projectCache";
+    public static final String LEAVE_CACHE = "leaveCache";
+    public static final String TASK_DURATION_CACHE = "taskDurationCache";
+
+    private static final Map<String, String> DEFAULT_SPECS = new LinkedHashMap<>();
+
+    static {
+        // Projects change rarely; leaves are reviewed during the day.
+        DEFAULT_SPECS.put(PROJECT_CACHE, "maximumSize=200,expireAfterWrite=10m");
+        DEFAULT_SPECS.put(LEAVE_CACHE, "maximumSize=2000,expireAfterWrite=5m");
+        // Per project; evicted by TaskDurationCache when the project's entries change.
+        DEFAULT_SPECS.put(TASK_DURATION_CACHE, "maximumSize=1000,expireAfterWrite=30m");
+    }
+
+    @Bean
+    public CacheManager cacheManager(Environment environment) {
+        CaffeineCacheManager cacheManager = new CaffeineCacheManager();
+        // Failed upstream calls must never be remembered as "no data".
+        cacheManager.setAllowNullValues(false);
+
+        DEFAULT_SPECS.forEach((name, defaultSpec) -> {
+            String spec = environment.getProperty("app.cache.spec." + name, defaultSpec);
+            cacheManager.registerCustomCache(name,
+                    Caffeine.from(CaffeineSpec.parse(spec)).recordStats().build());
+        });
+        return cacheManager;
+    }
+}
@@ -0,0 +1,43 @@
+package com.intranet.config;
+
+import java.util.regex.Pattern;
+
+import org.springframework.http.client.observation.ClientHttpObservationDocumentation.LowCardinalityKeyNames;
+import org.springframework.http.client.observation.ClientRequestObservationContext;
+import org.springframework.http.client.observation.DefaultClientRequestObservationConvention;
+
+import io.micrometer.common.KeyValue;
+
+/**
+ * Most callers build URLs with String.format, so RestTemplate sees the final
+ * URL as the "template". Collapse ids and drop the query string so the uri tag
+ * of http.client.requests stays one value per endpoint
+ * (e.g. /api/leave-requests/getLeaveRequests/{id}).
+ */
+public class OutboundRequestObservationConvention extends DefaultClientRequestObservationConvention {
+
+    private static final Pattern SCHEME_AND_HOST = Pattern.compile("^https?://[^/]+");
+    private static final Pattern ID_SEGMENT = Pattern.compile("/(\\d+|[0-9a-fA-F-]{32,36})(?=/|$)");
+
+    @Override
+    protected KeyValue uri(ClientRequestObservationContext context) {
+        String template = context.getUriTemplate();
+        if (template == null && context.getCarrier() != null) {
+            template = context.getCarrier().getURI().toString();
+        }
+        if (template == null) {
+            return super.uri(context);
+        }
+        return KeyValue.of(LowCardinalityKeyNames.URI, normalize(template));
+    }
+
+    static String normalize(String url) {
+        String path = SCHEME_AND_HOST.matcher(url).replaceFirst("");
+        int query = path.indexOf('?');
+        if (query >= 0) {
+            path = path.substring(0, query);
+        }
+        path = ID_SEGMENT.matcher(path).replaceAll("/{id}");
+        return path.isEmpty() ? "/" : path;
+    }
+}
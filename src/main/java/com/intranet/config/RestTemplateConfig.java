@@ -1,14 +1,127 @@
 package com.intranet.config;
 
+import java.net.URI;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import org.apache.hc.client5.http.HttpRoute;
+import org.apache.hc.client5.http.config.ConnectionConfig;
+import org.apache.hc.client5.http.config.RequestConfig;
+import org.apache.hc.client5.http.impl.classic.CloseableHttpClient;
+import org.apache.hc.client5.http.impl.classic.HttpClients;
+import org.apache.hc.client5.http.impl.io.PoolingHttpClientConnectionManager;
+import org.apache.hc.client5.http.impl.io.PoolingHttpClientConnectionManagerBuilder;
+import org.apache.hc.core5.http.HttpHost;
+import org.apache.hc.core5.util.TimeValue;
+import org.apache.hc.core5.util.Timeout;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.web.client.RestTemplateBuilder;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.core.env.Environment;
+import org.springframework.http.client.HttpComponentsClientHttpRequestFactory;
+import org.springframework.http.client.observation.ClientRequestObservationConvention;
 import org.springframework.web.client.RestTemplate;
 
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Shared outbound HTTP client for UMS / PMS / LMS (and every other upstream).
+ *
+ * - One keep-alive connection pool; each upstream host is its own route with
+ *   its own connection limit (app.http.client.max-per-route.<ums|pms|lms|...>).
+ * - Connect, response and pool-wait timeouts.
+ * - gzip/deflate responses are requested and decoded by HttpClient.
+ * - Built from Boot's RestTemplateBuilder, so every call is recorded in the
+ *   http.client.requests timer (client.name = upstream host, uri = endpoint
+ *   with ids collapsed, outcome/status/exception for error counts).
+ */
+@Slf4j
 @Configuration
 public class RestTemplateConfig {
 
+    private static final String[] UPSTREAMS = {"ums", "pms", "lms", "tms", "eos"};
+
+    @Value("${app.http.client.connect-timeout-ms:5000}")
+    private long connectTimeoutMs;
+
+    @Value("${app.http.client.read-timeout-ms:30000}")
+    private long readTimeoutMs;
+
+    @Value("${app.http.client.pool-timeout-ms:5000}")
+    private long poolTimeoutMs;
+
+    @Value("${app.http.client.max-total:100}")
+    private int maxTotal;
+
+    @Value("${app.http.client.max-per-route:20}")
+    private int defaultMaxPerRoute;
+
+    @Bean(destroyMethod = "close")
+    public PoolingHttpClientConnectionManager outboundConnectionManager(Environment environment) {
+        PoolingHttpClientConnectionManager connectionManager = PoolingHttpClientConnectionManagerBuilder.create()
+                .setMaxConnTotal(maxTotal)
+                .setMaxConnPerRoute(defaultMaxPerRoute)
+                .setDefaultConnectionConfig(ConnectionConfig.custom()
+                        .setConnectTimeout(Timeout.ofMilliseconds(connectTimeoutMs))
+                        .setSocketTimeout(Timeout.ofMilliseconds(readTimeoutMs))
+                        .setValidateAfterInactivity(TimeValue.ofSeconds(10))
+                        .setTimeToLive(TimeValue.ofMinutes(5))
+                        .build())
+                .build();
+
+        upstreamRoutes(environment).forEach((name, route) -> {
+            int limit = environment.getProperty("app.http.client.max-per-route." + name, Integer.class, defaultMaxPerRoute);
+            connectionManager.setMaxPerRoute(route, limit);
+        });
+        return connectionManager;
+    }
+
+    @Bean(destroyMethod = "close")
+    public CloseableHttpClient outboundHttpClient(PoolingHttpClientConnectionManager outboundConnectionManager) {
+        return HttpClients.custom()
+                .setConnectionManager(outboundConnectionManager)
+                .setDefaultRequestConfig(RequestConfig.custom()
+                        .setConnectionRequestTimeout(Timeout.ofMilliseconds(poolTimeoutMs))
+                        .setResponseTimeout(Timeout.ofMilliseconds(readTimeoutMs))
+                        .build())
+                .evictExpiredConnections()
+                .evictIdleConnections(TimeValue.ofSeconds(30))
+                .build();
+    }
+
     @Bean
-    public RestTemplate restTemplate() {
-        return new RestTemplate();
+    public RestTemplate restTemplate(RestTemplateBuilder builder, CloseableHttpClient outboundHttpClient) {
+        return builder
+                .requestFactory(() -> new HttpComponentsClientHttpRequestFactory(outboundHttpClient))
+                .build();
+    }
+
+    @Bean
+    public ClientRequestObservationConvention outboundRequestObservationConvention() {
+        return new OutboundRequestObservationConvention();
+    }
+
+    private Map<String, HttpRoute> upstreamRoutes(Environment environment) {
+        Map<String, HttpRoute> routes = new LinkedHashMap<>();
+        for (String name : UPSTREAMS) {
+            String baseUrl = null;
+            try {
+                baseUrl = environment.getProperty(name + ".api.base-url");
+                if (baseUrl == null || baseUrl.isBlank()) {
+                    continue;
+                }
+                URI uri = URI.create(baseUrl.trim());
+                if (uri.getHost() == null) {
+                    continue;
+                }
+                boolean secure = "https".equalsIgnoreCase(uri.getScheme());
+                int port = uri.getPort() != -1 ? uri.getPort() : (secure ? 443 : 80);
+                routes.put(name, new HttpRoute(new HttpHost(uri.getScheme(), uri.getHost(), port), null, secure));
+            } catch (IllegalArgumentException e) {
+                log.warn("⚠ Ignoring {}.api.base-url '{}' for connection pool sizing: {}", name, baseUrl, e.getMessage());
+            }
+        }
+        return routes;
     }
 }
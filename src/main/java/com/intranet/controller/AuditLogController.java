@@ -1,13 +1,10 @@
 package com.intranet.controller;
 
+import com.intranet.dto.audit.AuditLogPageDTO;
 import com.intranet.entity.AuditAction;
-import com.intranet.entity.AuditLog;
 import com.intranet.service.AuditLogService;
 import io.swagger.v3.oas.annotations.Operation;
 import lombok.RequiredArgsConstructor;
-import org.springframework.data.domain.Page;
-import org.springframework.data.domain.PageRequest;
-import org.springframework.data.domain.Pageable;
 import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
@@ -33,33 +30,47 @@ public class AuditLogController {
      *   - entityType   (TIMESHEET, TIMESHEET_REVIEW, HOLIDAY_EXCLUDE_USERS, etc.)
      *   - startDate    (from date, inclusive)
      *   - endDate      (to date, inclusive)
-     *   - page         (0-indexed page number, default 0)
-     *   - size         (page size, default 50)
+     *   - cursor       (nextCursor of the previous page; omit for the first page)
+     *   - size         (page size, default 50, max 500)
+     *
+     * Results are newest first and paged by (createdAt, id), so a page deep
+     * into the history costs the same as the first one.
+     *
+     * Breaking change: this endpoint used to return a Spring Page<AuditLog>
+     * (page parameter; content, totalElements, totalPages, number, ...). It
+     * now returns AuditLogPageDTO { content, size, hasMore, nextCursor }.
+     * The page parameter is ignored, there is no total count, and an invalid
+     * cursor is answered with 400.
      *
      * Example:
-     *   GET /api/audit-logs?action=CREATE&entityType=TIMESHEET&startDate=2026-05-01&endDate=2026-05-31&page=0&size=20
+     *   GET /api/audit-logs?action=CREATE&entityType=TIMESHEET&startDate=2026-05-01&endDate=2026-05-31&size=20
+     *   GET /api/audit-logs?action=CREATE&entityType=TIMESHEET&startDate=2026-05-01&endDate=2026-05-31&size=20&cursor=...
      */
     @GetMapping
     @PreAuthorize("hasAuthority('TIMESHEET_ADMIN')")
-    @Operation(summary = "Get all audit logs with optional filters (Admin only)")
-    public ResponseEntity<Page<AuditLog>> getAuditLogs(
+    @Operation(summary = "Get all audit logs with optional filters (Admin only)",
+            description = "Newest first, cursor paged: pass nextCursor of the previous response as cursor. "
+                    + "BREAKING: the response is no longer a Page<AuditLog> (page / totalElements / totalPages) "
+                    + "but { content, size, hasMore, nextCursor }; an invalid cursor returns 400.")
+    public ResponseEntity<?> getAuditLogs(
             @RequestParam(required = false) Long userId,
             @RequestParam(required = false) AuditAction action,
             @RequestParam(required = false) String entityType,
             @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate startDate,
             @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate endDate,
-            @RequestParam(defaultValue = "0") int page,
+            @RequestParam(required = false) String cursor,
             @RequestParam(defaultValue = "50") int size) {
 
         // Convert LocalDate to LocalDateTime for the query
         LocalDateTime startDateTime = startDate != null ? startDate.atStartOfDay() : null;
         LocalDateTime endDateTime = endDate != null ? endDate.atTime(LocalTime.MAX) : null;
 
-        Pageable pageable = PageRequest.of(page, size);
-
-        Page<AuditLog> auditLogs = auditLogService.getAuditLogs(
-                userId, action, entityType, startDateTime, endDateTime, pageable);
-
-        return ResponseEntity.ok(auditLogs);
+        try {
+            AuditLogPageDTO auditLogs = auditLogService.getAuditLogs(
+                    userId, action, entityType, startDateTime, endDateTime, cursor, size);
+            return ResponseEntity.ok(auditLogs);
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(e.getMessage());
+        }
     }
 }
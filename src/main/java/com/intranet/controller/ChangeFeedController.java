@@ -0,0 +1,61 @@
+package com.intranet.controller;
+
+import java.util.Arrays;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.stream.Collectors;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import com.intranet.service.events.ChangeFeedService;
+import com.intranet.service.events.ChangeFeedService.ChangeFeedPage;
+
+import io.swagger.v3.oas.annotations.Operation;
+import lombok.RequiredArgsConstructor;
+
+@RestController
+@RequestMapping("/api/timesheets")
+@RequiredArgsConstructor
+public class ChangeFeedController {
+
+    private final ChangeFeedService changeFeedService;
+
+    @GetMapping("/changes")
+    @Operation(summary = "Timesheet, entry and review changes after a cursor (NDJSON); waitMs long-polls when there are none yet. "
+            + "Continue from X-Next-Cursor; 410 means the cursor is outside the retained feed")
+    public CompletableFuture<ResponseEntity<String>> getChanges(
+            @RequestParam(defaultValue = "0") long after,
+            @RequestParam(required = false) Integer limit,
+            @RequestParam(required = false) String types,
+            @RequestParam(defaultValue = "0") long waitMs) {
+
+        Set<String> typeFilter = types == null ? Set.of() : Arrays.stream(types.split(","))
+                .map(String::trim)
+                .filter(t -> !t.isEmpty())
+                .collect(Collectors.toSet());
+
+        return changeFeedService.changesAfter(after, limit, typeFilter, waitMs)
+                .thenApply(ChangeFeedController::toResponse);
+    }
+
+    private static ResponseEntity<String> toResponse(ChangeFeedPage page) {
+        if (page.resyncRequired()) {
+            return ResponseEntity.status(HttpStatus.GONE)
+                    .header("X-Next-Cursor", String.valueOf(page.nextCursor()))
+                    .contentType(MediaType.TEXT_PLAIN)
+                    .body("Cursor is outside the retained change feed; resync from the summary endpoints and continue after "
+                            + page.nextCursor());
+        }
+        return ResponseEntity.ok()
+                .header("X-Next-Cursor", String.valueOf(page.nextCursor()))
+                .header("X-Has-More", String.valueOf(page.hasMore()))
+                .contentType(MediaType.APPLICATION_NDJSON)
+                .body(page.ndjson());
+    }
+}
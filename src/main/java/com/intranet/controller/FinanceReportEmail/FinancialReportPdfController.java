@@ -3,8 +3,9 @@ package com.intranet.controller.FinanceReportEmail;
 import com.intranet.dto.UserDTO;
 import com.intranet.security.CurrentUser;
 import com.intranet.service.FinanceReportEmail.FinancialPdfEmailSender;
-import com.intranet.service.FinanceReportEmail.FinancialPdfGeneratorService;
 import com.intranet.service.FinanceReportEmail.FinancialPdfTemplateBuilder;
+import com.intranet.service.pdf.RenderedPdf;
+import com.intranet.service.pdf.ReportPdfCache;
 import com.intranet.service.report.TimesheetFinanceReportService;
 
 import io.swagger.v3.oas.annotations.Operation;
@@ -22,7 +23,7 @@ public class FinancialReportPdfController {
 
     private final TimesheetFinanceReportService financeService;
     private final FinancialPdfTemplateBuilder templateBuilder;
-    private final FinancialPdfGeneratorService pdfGenerator;
+    private final ReportPdfCache reportPdfCache;
     private final FinancialPdfEmailSender emailSender;
 
     @GetMapping("/monthly_pdf")
@@ -34,20 +35,23 @@ public class FinancialReportPdfController {
             @RequestParam int year
     ) {
         try {
-            Map<String, Object> financeData =
-                    financeService.getTimesheetFinanceReport(month, year);
-
             String monthName = java.time.Month.of(month)
                     .getDisplayName(java.time.format.TextStyle.FULL,
                             java.util.Locale.ENGLISH);
 
-            String html = templateBuilder.buildFinanceHtml(financeData, monthName, year);
-            byte[] pdfBytes = pdfGenerator.generatePdfFromHtml(html);
-
+            // Report data is only fetched when the closed month's PDF is not cached
+            ReportPdfCache.HtmlSource html = () -> {
+                Map<String, Object> financeData =
+                        financeService.getTimesheetFinanceReport(month, year);
+                return templateBuilder.buildFinanceHtml(financeData, monthName, year);
+            };
             String toEmail = currentUser.getEmail();
             String adminName = currentUser.getName();
 
-            emailSender.sendFinancialReportPdf(toEmail, pdfBytes, monthName, year, adminName);
+            try (RenderedPdf pdf = reportPdfCache.attachment(
+                    ReportPdfCache.ReportType.FINANCE_MONTHLY, null, month, year, html)) {
+                emailSender.sendFinancialReportPdf(toEmail, pdf.resource(), monthName, year, adminName);
+            }
 
             return ResponseEntity.ok("Financial report emailed to " + toEmail);
 
@@ -14,6 +14,7 @@ import com.intranet.service.report.ManagerMonthlyReportService;
 import io.swagger.v3.oas.annotations.Operation;
 
 import java.time.LocalDate;
+import java.util.concurrent.Callable;
 import jakarta.servlet.http.HttpServletRequest;
 
 @RestController
@@ -47,14 +48,15 @@ public class ManagerMonthlyReportPdfController {
             LocalDate endDate = startDate.withDayOfMonth(startDate.lengthOfMonth());
             String managerEmail = currentUser.getEmail();
             
-            // Generate report data map
-            java.util.Map<String, Object> report = managerMonthlyReportService.generateManagerMonthlyReport(
-                    currentUser.getId(), currentUser.getName(), startDate, endDate, selectedMonth, selectedYear, authHeader
-            );
-            
-            report=ManagerReportDtoAdapter.adapt(report);
+            // Generate report data map (skipped when the closed month's PDF is cached)
+            Callable<java.util.Map<String, Object>> report = () -> ManagerReportDtoAdapter.adapt(
+                    managerMonthlyReportService.generateManagerMonthlyReport(
+                            currentUser.getId(), currentUser.getName(), startDate, endDate, selectedMonth, selectedYear, authHeader
+                    ));
+
             // Generate & send PDF (async can be added later, but now blocking per requirement)
-            emailService.generateAndSendManagerPdf(managerEmail, report, currentUser.getName());
+            emailService.generateAndSendManagerPdf(
+                    managerEmail, currentUser.getId(), currentUser.getName(), selectedMonth, selectedYear, report);
 
             return ResponseEntity.ok("Manager monthly report sent to " + managerEmail);
 
@@ -1,10 +1,16 @@
 package com.intranet.controller.MonthReportSendEmail;
 
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import org.springframework.core.io.FileSystemResource;
 import org.springframework.http.HttpHeaders;
 import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 import com.intranet.dto.MonthlyUserReportDTO;
 import com.intranet.dto.UserDTO;
 import com.intranet.security.CurrentUser;
@@ -12,8 +18,11 @@ import com.intranet.service.MonthlyUserReportService;
 import com.intranet.service.MonthReportEmailSend.EmailPdfSenderService;
 import com.intranet.service.MonthReportEmailSend.PdfGeneratorService;
 import com.intranet.service.MonthReportEmailSend.PdfTemplateBuilder;
+import com.intranet.service.pdf.RenderedPdf;
+import com.intranet.service.pdf.ReportPdfCache;
 
 import io.swagger.v3.oas.annotations.Operation;
+import jakarta.servlet.http.HttpServletRequest;
 import lombok.RequiredArgsConstructor;
 
 @RestController
@@ -25,6 +34,7 @@ public class MonthlyReportPdfController {
     private final PdfGeneratorService pdfGenerator;
     private final EmailPdfSenderService emailSender;
     private final MonthlyUserReportService reportService;
+    private final ReportPdfCache reportPdfCache;
 
     @GetMapping("/userMonthlyPdf")
     @Operation(summary = "Generate Monthly Report PDF for the current user and send via email")
@@ -36,23 +46,25 @@ public class MonthlyReportPdfController {
 
     try {
 
-        // 1️⃣ Fetch report
-        MonthlyUserReportDTO reportDTO =
-                reportService.getMonthlyUserReport(currentUser.getId(), month, year);
-    
         String monthName = java.time.Month.of(month)
         .getDisplayName(java.time.format.TextStyle.FULL, java.util.Locale.ENGLISH);
 
         String userEmail = currentUser.getEmail();
 
-        // 3️⃣ Convert to HTML
-        String html = templateBuilder.buildUserMonthlyReportHtml(reportDTO, monthName, year);
+        // 1️⃣ Fetch report + 3️⃣ convert to HTML (skipped when the closed month is cached)
+        ReportPdfCache.HtmlSource html = () -> {
+            MonthlyUserReportDTO reportDTO =
+                    reportService.getMonthlyUserReport(currentUser.getId(), month, year);
+            return templateBuilder.buildUserMonthlyReportHtml(reportDTO, monthName, year);
+        };
 
-        // 4️⃣ Convert to PDF
-        byte[] pdfBytes = pdfGenerator.generatePdfFromHtml(html);
+        // 4️⃣ Convert to PDF (cached file, or temporary file deleted once sent)
+        try (RenderedPdf pdf = reportPdfCache.attachment(
+                ReportPdfCache.ReportType.USER_MONTHLY, currentUser.getId(), month, year, html)) {
 
-        // 5️⃣ Email the report
-        emailSender.sendPdfReport(userEmail, pdfBytes, reportDTO.getEmployeeName());
+            // 5️⃣ Email the report
+            emailSender.sendPdfReport(userEmail, pdf.resource(), currentUser.getName());
+        }
 
         return ResponseEntity.ok("Report generated and sent to " + userEmail);
 
@@ -65,26 +77,50 @@ public class MonthlyReportPdfController {
         value = "/downloadMonthlyPdf",
         produces = MediaType.APPLICATION_PDF_VALUE
     )
-    public ResponseEntity<byte[]> downloadMonthlyPdf(
+    public ResponseEntity<?> downloadMonthlyPdf(
         @CurrentUser UserDTO currentUser,
         @RequestParam int month,
-        @RequestParam int year) {
+        @RequestParam int year,
+        HttpServletRequest request) {
 
     try {
 
-        MonthlyUserReportDTO reportDTO =
-                reportService.getMonthlyUserReport(currentUser.getId(), month, year);
-
         String monthName = java.time.Month.of(month)
                 .getDisplayName(java.time.format.TextStyle.FULL, java.util.Locale.ENGLISH);
 
-        String html = templateBuilder.buildUserMonthlyReportHtml(reportDTO, monthName, year);
-        byte[] pdfBytes = pdfGenerator.generatePdfFromHtml(html);
-
-        return ResponseEntity.ok()
-                .header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=Monthly_Report.pdf")
-                .contentType(MediaType.APPLICATION_PDF)
-                .body(pdfBytes);
+        ReportPdfCache.HtmlSource html = () -> {
+            MonthlyUserReportDTO reportDTO =
+                    reportService.getMonthlyUserReport(currentUser.getId(), month, year);
+            return templateBuilder.buildUserMonthlyReportHtml(reportDTO, monthName, year);
+        };
+
+        // Closed month: served from the PDF cache
+        if (reportPdfCache.isCacheable(month, year)) {
+            Path file = reportPdfCache.getOrRender(
+                    ReportPdfCache.ReportType.USER_MONTHLY, currentUser.getId(), month, year, html);
+            return pdfFile(request, file);
+        }
+
+        // Rendered to a temporary file before the response starts, so a busy
+        // renderer or a render error is still an error status and the render
+        // slot is not held while a slow client downloads the file
+        RenderedPdf pdf = pdfGenerator.generatePdfFileFromHtml(html.build());
+        try {
+            long size = pdf.size();
+            StreamingResponseBody body = out -> {
+                try (pdf) {
+                    Files.copy(pdf.path(), out);
+                }
+            };
+            return ResponseEntity.ok()
+                    .header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=Monthly_Report.pdf")
+                    .contentType(MediaType.APPLICATION_PDF)
+                    .contentLength(size)
+                    .body(body);
+        } catch (IOException | RuntimeException e) {
+            pdf.close();
+            throw e;
+        }
 
     } catch (Exception e) {
         e.printStackTrace();
@@ -92,6 +128,26 @@ public class MonthlyReportPdfController {
     }
     }
 
+    /**
+     * Sends a file from disk. On Tomcat the connector transfers it with
+     * sendfile (no copy through the JVM); otherwise it is streamed.
+     */
+    private static ResponseEntity<?> pdfFile(HttpServletRequest request, Path file) throws IOException {
+        long size = Files.size(file);
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok()
+                .header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=Monthly_Report.pdf")
+                .contentType(MediaType.APPLICATION_PDF)
+                .contentLength(size);
+
+        if (Boolean.TRUE.equals(request.getAttribute("org.apache.tomcat.sendfile.support"))) {
+            request.setAttribute("org.apache.tomcat.sendfile.filename", file.toRealPath().toString());
+            request.setAttribute("org.apache.tomcat.sendfile.start", 0L);
+            request.setAttribute("org.apache.tomcat.sendfile.end", size);
+            return response.build();
+        }
+        return response.body(new FileSystemResource(file));
+    }
+
 
 
 }   
@@ -9,11 +9,11 @@ import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
-import org.springframework.web.client.RestTemplate;
 import org.springframework.web.context.request.RequestContextHolder;
 import org.springframework.web.context.request.ServletRequestAttributes;
 
 import com.intranet.dto.AddEntryDTO;
+import com.intranet.dto.HolidayDTO;
 import com.intranet.dto.DeleteTimeSheetEntriesRequest;
 import com.intranet.dto.TimeSheetEntryCreateDTO;
 import com.intranet.dto.TimeSheetUpdateRequest;
@@ -21,13 +21,15 @@ import com.intranet.entity.TimeSheet;
 import com.intranet.entity.WeekInfo;
 import com.intranet.entity.WeeklyTimeSheetReview;
 import com.intranet.repository.HolidayExcludeUsersRepo;
-import com.intranet.repository.WeekInfoRepo;
 import com.intranet.repository.WeeklyTimeSheetReviewRepo;
 import com.intranet.dto.UserDTO;
 import com.intranet.entity.TimesheetSettings;
 import com.intranet.security.CurrentUser;
 import com.intranet.service.TimeSheetService;
 import com.intranet.service.TimesheetSettingsService;
+import com.intranet.service.holiday.HolidayCalendar;
+import com.intranet.service.holiday.HolidayCalendarService;
+import com.intranet.service.week.WeekCalendarService;
 
 import io.swagger.v3.oas.annotations.Operation;
 import jakarta.servlet.http.HttpServletRequest;
@@ -35,17 +37,13 @@ import jakarta.servlet.http.HttpServletRequest;
 import java.math.BigDecimal;
 import java.time.LocalDate;
 import java.util.List;
-import java.util.Map;
 import java.util.Optional;
 import java.util.stream.Collectors;
 
 import org.springframework.beans.factory.annotation.Autowired;
-import org.springframework.beans.factory.annotation.Value;
-import org.springframework.core.ParameterizedTypeReference;
 import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.http.HttpEntity;
 import org.springframework.http.HttpHeaders;
-import org.springframework.http.HttpMethod;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import com.intranet.service.TimeUtil;
@@ -62,7 +60,7 @@ public class TimeSheetController {
     private HolidayExcludeUsersRepo holidayExcludeUsersRepo;
 
     @Autowired
-    private WeekInfoRepo weekInfoRepo;
+    private WeekCalendarService weekCalendarService;
 
     @Autowired
     private WeeklyTimeSheetReviewRepo weeklyTimeSheetReviewRepo;
@@ -89,10 +87,8 @@ public class TimeSheetController {
     return new HttpEntity<>(headers);
     }
 
-    private final RestTemplate restTemplate = new RestTemplate();
-
-    @Value("${lms.api.base-url}")
-    private String lmsBaseUrl;
+    @Autowired
+    private HolidayCalendarService holidayCalendarService;
 
     private int convertToMinutes(BigDecimal hhmm) {
     if (hhmm == null) return 0;
@@ -143,8 +139,7 @@ public class TimeSheetController {
         }
 
         // 🔹 Step 1.2: Validate that the week is not approved
-        Optional<WeekInfo> optionalWeekInfo = weekInfoRepo
-                .findByStartDateLessThanEqualAndEndDateGreaterThanEqual(workDate, workDate);
+        Optional<WeekInfo> optionalWeekInfo = weekCalendarService.find(workDate);
 
         if (optionalWeekInfo.isPresent()) {
             WeekInfo weekInfo = optionalWeekInfo.get();
@@ -165,24 +160,20 @@ public class TimeSheetController {
         // 🔹 Step 2: Build auth headers
         HttpEntity<Void> entity = buildEntityWithAuth();
 
-        // 🔹 Step 3: Check if the given date is a public holiday (via LMS API)
-        String holidayUrl = String.format("%s/api/holidays/check?date=%s", lmsBaseUrl, workDate);
+        // 🔹 Step 3: Check if the given date is a public holiday (local LMS holiday calendar)
         boolean isPublicHoliday = false;
         String holidayMessage = null;
 
         try {
-            ResponseEntity<Map<String, Object>> holidayResponse = restTemplate.exchange(
-                    holidayUrl, HttpMethod.GET, entity, new ParameterizedTypeReference<>() {}
-            );
-
-            Map<String, Object> holidayBody = holidayResponse.getBody();
-            if (holidayBody != null && "yes".equalsIgnoreCase((String) holidayBody.get("status"))) {
+            HolidayCalendar calendar = holidayCalendarService.calendar(entity.getHeaders().getFirst(HttpHeaders.AUTHORIZATION));
+            // Bitmap lookup; the holiday details are only built for an actual holiday
+            if (calendar.isHoliday(workDate)) {
                 isPublicHoliday = true;
-                holidayMessage = (String) holidayBody.get("message");
+                holidayMessage = calendar.holiday(workDate).map(HolidayDTO::getHolidayName).orElse(null);
             }
 
         } catch (Exception e) {
-            System.err.println("⚠️ Holiday API check failed: " + e.getMessage());
+            System.err.println("⚠️ Holiday check failed: " + e.getMessage());
             return ResponseEntity.badRequest()
                     .body("Unable to verify holiday status. Please try again later.");
         }
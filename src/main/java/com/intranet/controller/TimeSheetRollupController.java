@@ -0,0 +1,38 @@
+package com.intranet.controller;
+
+import com.intranet.service.rollup.TimeSheetRollupService;
+
+import io.swagger.v3.oas.annotations.Operation;
+import lombok.RequiredArgsConstructor;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.*;
+
+import java.time.LocalDate;
+import java.util.Map;
+
+@RestController
+@RequestMapping("/api/rollups")
+@RequiredArgsConstructor
+public class TimeSheetRollupController {
+
+    private final TimeSheetRollupService rollupService;
+
+    @PostMapping("/rebuild")
+    @Operation(summary = "Rebuild timesheet hour rollups for a date range")
+    @PreAuthorize("hasAuthority('TIMESHEET_ADMIN')")
+    public ResponseEntity<?> rebuild(
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate startDate,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate endDate) {
+        try {
+            int sheets = rollupService.rebuild(startDate, endDate);
+            return ResponseEntity.ok(Map.of(
+                    "startDate", startDate,
+                    "endDate", endDate,
+                    "timesheetsProcessed", sheets));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(e.getMessage());
+        }
+    }
+}
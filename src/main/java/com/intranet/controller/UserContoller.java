@@ -1,15 +1,20 @@
 package com.intranet.controller;
 
+import java.io.IOException;
 import java.time.LocalDate;
 import java.util.List;
 import java.util.Map;
 import java.util.stream.Collectors;
 
 import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
 import com.intranet.dto.UserDTO;
 import com.intranet.dto.UserHoursDTO;
 import com.intranet.dto.UserProjectDetailsDTO;
@@ -21,16 +26,22 @@ import com.intranet.util.cache.UserDirectoryService;
 import io.swagger.v3.oas.annotations.Operation;
 import jakarta.servlet.http.HttpServletRequest;
 import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
 
+@Slf4j
 @RestController
 @RequestMapping("/api")
 @RequiredArgsConstructor
 public class UserContoller {
 
-    
+    private static final int USERS_HOURS_CHUNK_SIZE = 500;
+    private static final int DEFAULT_USERS_PAGE_SIZE = 100;
+    private static final int MAX_USERS_PAGE_SIZE = 1000;
+
     private final UserDirectoryService userDirectoryService;
     private final DashboardService dashboardService;
     private final TimeSheetService timeSheetService;
+    private final ObjectMapper objectMapper;
 
     @GetMapping("/me")
     @PreAuthorize("hasAuthority('EDIT_TIMESHEET') OR hasAuthority('APPROVE_TIMESHEET')")
@@ -62,10 +73,13 @@ public class UserContoller {
 
     @GetMapping("/users/hours")
 //    @PreAuthorize("hasAuthority('TIMESHEET_ADMIN') OR hasAuthority('APPROVE_TIMESHEET')")
-    @Operation(summary = "Get users with their billable and non-billable hours for a time period")
+    @Operation(summary = "Get users with their billable and non-billable hours for a time period",
+            description = "Streams a JSON array. Pass page/size to get one page of users; X-Total-Count holds the total.")
     public ResponseEntity<?> getUsersWithHours(
             @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate startDate,
             @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate endDate,
+            @RequestParam(required = false) Integer page,
+            @RequestParam(required = false) Integer size,
             HttpServletRequest request) {
 
         String authHeader = request.getHeader("Authorization");
@@ -79,76 +93,73 @@ public class UserContoller {
         }
 
         try {
-            // Get all users from UMS
-            List<Map<String, Object>> users = userDirectoryService.fetchAllUsers2(authHeader);
-            System.out.println("DEBUG: Total users fetched from UMS: " + users.size());
-            
-            // Debug: Print first few users to see structure
-            if (!users.isEmpty()) {
-                System.out.println("DEBUG: First user data: " + users.get(0));
-            }
-            
-            // Extract user IDs
-            List<Long> userIds = users.stream()
+            // Get all users from UMS (only those with a valid id)
+            List<Map<String, Object>> users = userDirectoryService.fetchAllUsers2(authHeader).stream()
                     .filter(user -> user.get("id") != null)
-                    .map(user -> ((Number) user.get("id")).longValue())
                     .collect(Collectors.toList());
-            
-            System.out.println("DEBUG: Users with valid id: " + userIds.size());
-
-            // Get hours summary for all users
-            List<UserHoursDTO> usersHours = dashboardService.getUsersHoursSummary(userIds, startDate, endDate);
-
-            // Create a map of userId -> UserHoursDTO for quick lookup
-            Map<Long, UserHoursDTO> hoursMap = usersHours.stream()
-                    .collect(Collectors.toMap(UserHoursDTO::getUserId, userHours -> userHours));
-
-            // Return ALL users with their hours data (0 if no data exists)
-            List<Map<String, Object>> result = users.stream()
-                    .filter(user -> user.get("id") != null)
-                    .map(user -> {
-                        Long userId = ((Number) user.get("id")).longValue();
-                        UserHoursDTO userHours = hoursMap.get(userId);
-                        
-                        Map<String, Object> response = new java.util.HashMap<>();
-                        response.put("userId", userId);
-                        String userName = user.get("name") != null ? (String) user.get("name") : "Unknown User";
-                        response.put("userName", userName);
-                        
-                        // Get designation from user data
-                        String designation = user.get("designation") != null ? (String) user.get("designation") : "Not Specified";
-                        
-                        if (userHours != null) {
-                            // User has hours data
-                            response.put("billableHours", userHours.getBillableHours());
-                            response.put("nonBillableHours", userHours.getNonBillableHours());
-                            response.put("designation", designation);
-                            response.put("billablePercentage", userHours.getBillablePercentage());
-                        } else {
-                            // User has no hours data for this period - set to 0
-                            response.put("billableHours", "00:00");
-                            response.put("nonBillableHours", "00:00");
-                            response.put("designation", designation);
-                            response.put("billablePercentage", 0.0);
-                        }
-                        
-                        return response;
-                    })
-                    .collect(Collectors.toList());
-
-            System.out.println("DEBUG: Final result size: " + result.size());
-            if (!result.isEmpty()) {
-                System.out.println("DEBUG: First result entry: " + result.get(0));
+            int totalUsers = users.size();
+
+            // Optional paging over the UMS user list
+            if (page != null || size != null) {
+                int pageSize = size != null && size > 0 ? Math.min(size, MAX_USERS_PAGE_SIZE) : DEFAULT_USERS_PAGE_SIZE;
+                int pageIndex = page != null && page >= 0 ? page : 0;
+                int from = (int) Math.min((long) pageIndex * pageSize, totalUsers);
+                users = users.subList(from, Math.min(from + pageSize, totalUsers));
+            }
+            List<Map<String, Object>> selectedUsers = users;
+
+            // Load the hours chunk by chunk before the response is committed, so a
+            // failing query still becomes a 400 instead of a truncated 200
+            List<UserHoursDTO> selectedHours = new java.util.ArrayList<>(selectedUsers.size());
+            for (int from = 0; from < selectedUsers.size(); from += USERS_HOURS_CHUNK_SIZE) {
+                List<Long> userIds = selectedUsers.subList(from, Math.min(from + USERS_HOURS_CHUNK_SIZE, selectedUsers.size()))
+                        .stream()
+                        .map(user -> ((Number) user.get("id")).longValue())
+                        .collect(Collectors.toList());
+                // Same order as userIds
+                selectedHours.addAll(dashboardService.getUsersHoursSummary(userIds, startDate, endDate));
             }
 
-            return ResponseEntity.ok(result);
+            // Return ALL selected users with their hours data (0 if no data exists),
+            // writing one object at a time instead of building the whole response first
+            StreamingResponseBody body = out -> {
+                try (JsonGenerator json = objectMapper.getFactory().createGenerator(out)) {
+                    json.writeStartArray();
+                    for (int i = 0; i < selectedUsers.size(); i++) {
+                        json.writeObject(toUserHoursResponse(selectedUsers.get(i), selectedHours.get(i)));
+                    }
+                    json.writeEndArray();
+                } catch (IOException e) {
+                    // The status is already sent; the client went away mid-body
+                    log.warn("Client aborted /api/users/hours after the response started: {}", e.getMessage());
+                }
+            };
+
+            return ResponseEntity.ok()
+                    .contentType(MediaType.APPLICATION_JSON)
+                    .header("X-Total-Count", String.valueOf(totalUsers))
+                    .body(body);
         } catch (Exception e) {
-            System.out.println("DEBUG: Exception occurred: " + e.getMessage());
-            e.printStackTrace();
+            log.error("Failed to fetch users with hours", e);
             return ResponseEntity.badRequest().body("Failed to fetch users with hours: " + e.getMessage());
         }
     }
 
+    private Map<String, Object> toUserHoursResponse(Map<String, Object> user, UserHoursDTO userHours) {
+        Map<String, Object> response = new java.util.HashMap<>();
+        response.put("userId", ((Number) user.get("id")).longValue());
+        String userName = user.get("name") != null ? (String) user.get("name") : "Unknown User";
+        response.put("userName", userName);
+
+        // Get designation from user data
+        String designation = user.get("designation") != null ? (String) user.get("designation") : "Not Specified";
+        response.put("designation", designation);
+        response.put("billableHours", userHours.getBillableHours());
+        response.put("nonBillableHours", userHours.getNonBillableHours());
+        response.put("billablePercentage", userHours.getBillablePercentage());
+        return response;
+    }
+
     @GetMapping("/users/{userId}/project-details")
 //    @PreAuthorize("hasAuthority('EDIT_TIMESHEET') OR hasAuthority('APPROVE_TIMESHEET') OR hasAuthority('TIMESHEET_ADMIN')")
     @Operation(summary = "Get user's active projects with billable/non-billable hours and utilization")
@@ -3,17 +3,25 @@ package com.intranet.controller;
 import com.intranet.dto.rms.UtilizationReportRequestDTO;
 import com.intranet.dto.rms.UtilizationReportResponseDTO;
 import com.intranet.service.UtilizationReportingService;
+import com.intranet.util.export.CsvTableWriter;
+import com.intranet.util.export.TableWriter;
+import com.intranet.util.export.XlsxTableWriter;
 import io.swagger.v3.oas.annotations.Operation;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
 import jakarta.servlet.http.HttpServletResponse;
 import java.io.IOException;
+import java.io.OutputStream;
 import java.time.LocalDate;
+import java.util.zip.GZIPOutputStream;
+
+import static com.intranet.util.export.TableWriter.percent;
 
 @RestController
 @RequestMapping("/api/utilization")
@@ -78,16 +86,17 @@ public class UtilizationReportingController {
                 String.format("attachment; filename=utilization_report_%s_%s.xlsx", 
                         reportData.getStartDate(), reportData.getEndDate()));
         
-        // Export to Excel (implementation needed)
-        // utilizationReportingService.exportToExcel(reportData, response.getOutputStream());
-        
-        // For now, return a simple CSV export
-        exportToCSV(reportData, response);
+        // One sheet per section, deflated straight into the response (xlsx is already a zip)
+        try (TableWriter writer = new XlsxTableWriter(response.getOutputStream())) {
+            writeReport(reportData, writer);
+        }
     }
 
     @PostMapping("/export/csv")
     @Operation(summary = "Export utilization report to CSV")
-    public void exportToCSV(@Valid @RequestBody UtilizationReportRequestDTO request, HttpServletResponse response) throws IOException {
+    public void exportToCSV(@Valid @RequestBody UtilizationReportRequestDTO request,
+                            @RequestParam(defaultValue = "false") boolean gzip,
+                            HttpServletResponse response) throws IOException {
         log.info("Exporting utilization report to CSV: type={}, startDate={}, endDate={}", 
                 request.getReportType(), request.getStartDate(), request.getEndDate());
         
@@ -95,96 +104,103 @@ public class UtilizationReportingController {
         UtilizationReportResponseDTO reportData = utilizationReportingService.generateUtilizationReport(request);
         
         // Set response headers
-        response.setContentType("text/csv");
+        response.setContentType("text/csv;charset=UTF-8");
         response.setHeader("Content-Disposition", 
                 String.format("attachment; filename=utilization_report_%s_%s.csv", 
                         reportData.getStartDate(), reportData.getEndDate()));
         
-        // Export to CSV
-        exportToCSV(reportData, response);
+        OutputStream out = response.getOutputStream();
+        GZIPOutputStream gzipOut = null;
+        if (gzip) {
+            response.setHeader(HttpHeaders.CONTENT_ENCODING, "gzip");
+            out = gzipOut = new GZIPOutputStream(out, 8192);
+        }
+        
+        // Rows are written to the response as they are formatted
+        try (TableWriter writer = new CsvTableWriter(out)) {
+            writeReport(reportData, writer);
+        }
+        if (gzipOut != null) {
+            gzipOut.finish();
+        }
     }
 
-    private void exportToCSV(UtilizationReportResponseDTO reportData, HttpServletResponse response) throws IOException {
-        StringBuilder csv = new StringBuilder();
-        
+    private void writeReport(UtilizationReportResponseDTO reportData, TableWriter writer) throws IOException {
         // Header
-        csv.append("Utilization Report\n");
-        csv.append("Period:").append(reportData.getStartDate()).append(" to ").append(reportData.getEndDate()).append("\n");
-        csv.append("Report Type:").append(reportData.getReportType()).append("\n");
-        csv.append("Approved Data Only:").append(reportData.isApprovedDataOnly()).append("\n\n");
+        writer.section("Utilization Report");
+        writer.row("Period:" + reportData.getStartDate() + " to " + reportData.getEndDate());
+        writer.row("Report Type:" + reportData.getReportType());
+        writer.row("Approved Data Only:" + reportData.isApprovedDataOnly());
         
         // Summary metrics
-        csv.append("SUMMARY METRICS\n");
-        csv.append("Total Hours,").append(reportData.getTotalHours()).append("\n");
-        csv.append("Planned Hours,").append(reportData.getPlannedHours()).append("\n");
-        csv.append("Utilization %,").append(reportData.getUtilizationPercentage()).append("%\n");
-        csv.append("Billable Hours,").append(reportData.getBillableHours()).append("\n");
-        csv.append("Non-Billable Hours,").append(reportData.getNonBillableHours()).append("\n");
-        csv.append("Internal Hours,").append(reportData.getInternalHours()).append("\n\n");
+        writer.section("SUMMARY METRICS");
+        writer.row("Total Hours", reportData.getTotalHours());
+        writer.row("Planned Hours", reportData.getPlannedHours());
+        writer.row("Utilization %", percent(reportData.getUtilizationPercentage()));
+        writer.row("Billable Hours", reportData.getBillableHours());
+        writer.row("Non-Billable Hours", reportData.getNonBillableHours());
+        writer.row("Internal Hours", reportData.getInternalHours());
         
         // Resource utilization
         if (reportData.getResourceUtilizations() != null && !reportData.getResourceUtilizations().isEmpty()) {
-            csv.append("RESOURCE UTILIZATION\n");
-            csv.append("Resource ID,Resource Name,Role,Total Hours,Billable Hours,Non-Billable Hours,Internal Hours,Planned Hours,Utilization %,Billable Ratio,Utilization Band,Trend,Confidence Score\n");
+            writer.section("RESOURCE UTILIZATION");
+            writer.header("Resource ID", "Resource Name", "Role", "Total Hours", "Billable Hours", "Non-Billable Hours",
+                    "Internal Hours", "Planned Hours", "Utilization %", "Billable Ratio", "Utilization Band", "Trend",
+                    "Confidence Score");
             
             for (var resource : reportData.getResourceUtilizations()) {
-                csv.append(resource.getResourceId()).append(",")
-                   .append(resource.getResourceName()).append(",")
-                   .append(resource.getRole()).append(",")
-                   .append(resource.getTotalHours()).append(",")
-                   .append(resource.getBillableHours()).append(",")
-                   .append(resource.getNonBillableHours()).append(",")
-                   .append(resource.getInternalHours()).append(",")
-                   .append(resource.getPlannedHours()).append(",")
-                   .append(resource.getUtilizationPercentage()).append("%,")
-                   .append(resource.getBillableRatio()).append("%,")
-                   .append(resource.getUtilizationBand()).append(",")
-                   .append(resource.getTrendSignal()).append(",")
-                   .append(resource.getConfidenceScore()).append("\n");
+                writer.row(resource.getResourceId(),
+                        resource.getResourceName(),
+                        resource.getRole(),
+                        resource.getTotalHours(),
+                        resource.getBillableHours(),
+                        resource.getNonBillableHours(),
+                        resource.getInternalHours(),
+                        resource.getPlannedHours(),
+                        percent(resource.getUtilizationPercentage()),
+                        percent(resource.getBillableRatio()),
+                        resource.getUtilizationBand(),
+                        resource.getTrendSignal(),
+                        resource.getConfidenceScore());
             }
-            csv.append("\n");
         }
         
         // Alerts
         if (reportData.getAlerts() != null && !reportData.getAlerts().isEmpty()) {
-            csv.append("ALERTS\n");
-            csv.append("ID,Type,Severity,Scope,Title,Message,Recommendation,Status,Created Date\n");
+            writer.section("ALERTS");
+            writer.header("ID", "Type", "Severity", "Scope", "Title", "Message", "Recommendation", "Status", "Created Date");
             
             for (var alert : reportData.getAlerts()) {
-                csv.append(alert.getId()).append(",")
-                   .append(alert.getType()).append(",")
-                   .append(alert.getSeverity()).append(",")
-                   .append(alert.getScope()).append(",")
-                   .append("\"").append(alert.getTitle()).append("\",")
-                   .append("\"").append(alert.getMessage()).append("\",")
-                   .append("\"").append(alert.getRecommendation()).append("\",")
-                   .append(alert.getStatus()).append(",")
-                   .append(alert.getCreatedDate()).append("\n");
+                writer.row(alert.getId(),
+                        alert.getType(),
+                        alert.getSeverity(),
+                        alert.getScope(),
+                        alert.getTitle(),
+                        alert.getMessage(),
+                        alert.getRecommendation(),
+                        alert.getStatus(),
+                        alert.getCreatedDate());
             }
-            csv.append("\n");
         }
         
         // Patterns
         if (reportData.getPatterns() != null && !reportData.getPatterns().isEmpty()) {
-            csv.append("PATTERNS\n");
-            csv.append("ID,Pattern Type,Severity,Scope,Title,Description,Impact,Recommendation,Status,Detected Date\n");
+            writer.section("PATTERNS");
+            writer.header("ID", "Pattern Type", "Severity", "Scope", "Title", "Description", "Impact", "Recommendation",
+                    "Status", "Detected Date");
             
             for (var pattern : reportData.getPatterns()) {
-                csv.append(pattern.getId()).append(",")
-                   .append(pattern.getPatternType()).append(",")
-                   .append(pattern.getSeverity()).append(",")
-                   .append(pattern.getScope()).append(",")
-                   .append("\"").append(pattern.getTitle()).append("\",")
-                   .append("\"").append(pattern.getDescription()).append("\",")
-                   .append("\"").append(pattern.getImpact()).append("\",")
-                   .append("\"").append(pattern.getRecommendation()).append("\",")
-                   .append(pattern.getStatus()).append(",")
-                   .append(pattern.getDetectedDate()).append("\n");
+                writer.row(pattern.getId(),
+                        pattern.getPatternType(),
+                        pattern.getSeverity(),
+                        pattern.getScope(),
+                        pattern.getTitle(),
+                        pattern.getDescription(),
+                        pattern.getImpact(),
+                        pattern.getRecommendation(),
+                        pattern.getStatus(),
+                        pattern.getDetectedDate());
             }
         }
-        
-        // Write to response
-        response.getWriter().write(csv.toString());
-        response.getWriter().flush();
     }
 }
@@ -1,22 +1,21 @@
 package com.intranet.controller.external;
 
+import java.time.LocalDate;
+import java.time.format.DateTimeParseException;
 import java.util.List;
 import java.util.Map;
 
 import org.springframework.beans.factory.annotation.Autowired;
-import org.springframework.beans.factory.annotation.Value;
-import org.springframework.core.ParameterizedTypeReference;
 import org.springframework.http.HttpEntity;
 import org.springframework.http.HttpHeaders;
-import org.springframework.http.HttpMethod;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RestController;
-import org.springframework.web.client.RestTemplate;
 import org.springframework.web.context.request.RequestContextHolder;
 import org.springframework.web.context.request.ServletRequestAttributes;
 
@@ -24,6 +23,8 @@ import com.intranet.dto.HolidayDTO;
 import com.intranet.dto.UserDTO;
 import com.intranet.security.CurrentUser;
 import com.intranet.service.HolidayExcludeUsersService;
+import com.intranet.service.holiday.HolidayCalendar;
+import com.intranet.service.holiday.HolidayCalendarService;
 
 import io.swagger.v3.oas.annotations.Operation;
 import jakarta.servlet.http.HttpServletRequest;
@@ -36,10 +37,8 @@ public class HolidayInfoController {
     @Autowired
     private HolidayExcludeUsersService userHolidayService;
 
-    @Value("${lms.api.base-url}")
-    private String lmsBaseUrl;
-
-    private final RestTemplate restTemplate = new RestTemplate();
+    @Autowired
+    private HolidayCalendarService holidayCalendarService;
 
     private HttpEntity<Void> buildEntityWithAuth() {
 
@@ -61,32 +60,45 @@ public class HolidayInfoController {
     
 
     @GetMapping("/check/{workDate}")
-    @Operation(summary = "Check if a given date is a public holiday via LMS API")
+    @Operation(summary = "Check if a given date is a public holiday (local copy of the LMS holiday calendar)")
     @PreAuthorize("hasAuthority('EDIT_TIMESHEET') or hasAuthority('APPROVE_TIMESHEET')")
     public ResponseEntity<?> checkHoliday(@PathVariable String workDate) {
 
             HttpEntity<Void> entity = buildEntityWithAuth();
-            // ✅ 2. Check if date is a public holiday via LMS API
-            String holidayUrl = String.format("%s/api/holidays/check?date=%s", lmsBaseUrl, workDate);
+            // ✅ 2. Check if date is a public holiday
             try {
-                ResponseEntity<Map<String, Object>> holidayResponse = restTemplate.exchange(
-                        holidayUrl, HttpMethod.GET, entity,
-                        new ParameterizedTypeReference<>() {}
-                );
-
-                Map<String, Object> holidayBody = holidayResponse.getBody();
-                if (holidayBody != null && "yes".equalsIgnoreCase((String) holidayBody.get("status"))) {
+                LocalDate date = LocalDate.parse(workDate);
+                HolidayCalendar calendar = holidayCalendarService
+                        .calendar(entity.getHeaders().getFirst(HttpHeaders.AUTHORIZATION));
+                if (calendar.isHoliday(date)) {
                     return ResponseEntity.badRequest()
-                            .body("Holiday: " + holidayBody.get("message"));
+                            .body("Holiday: " + calendar.holiday(date).map(HolidayDTO::getHolidayName).orElse(null));
                 }
+            } catch (DateTimeParseException e) {
+                return ResponseEntity.badRequest().body("⚠️ Invalid date: " + workDate);
             } catch (Exception e) {
-                System.err.println("Holiday API check failed: " + e.getMessage());
+                System.err.println("Holiday check failed: " + e.getMessage());
                 return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
                         .body("⚠️ Unable to verify public holiday status. Please try again later.");
             }
             return ResponseEntity.ok().body(" Date is not a holiday. You may proceed.");
     }
 
+    @PostMapping("/calendar/sync")
+    @Operation(summary = "Re-sync the local holiday calendar from LMS now")
+    @PreAuthorize("hasAuthority('TIMESHEET_ADMIN')")
+    public ResponseEntity<?> syncHolidayCalendar() {
+        HttpEntity<Void> entity = buildEntityWithAuth();
+        if (!holidayCalendarService.refresh(entity.getHeaders().getFirst(HttpHeaders.AUTHORIZATION))) {
+            return ResponseEntity.status(HttpStatus.BAD_GATEWAY)
+                    .body("⚠️ Holiday sync from LMS failed, the previous calendar is kept.");
+        }
+        HolidayCalendar calendar = holidayCalendarService.calendar(null);
+        return ResponseEntity.ok(Map.of(
+                "holidays", calendar.size(),
+                "syncedAt", calendar.syncedAt()));
+    }
+
     @GetMapping("/currentMonthLeaves")
     @Operation(summary = "Get User Holidays for Current Month including public holidays and excluded holidays and leaves")
     @PreAuthorize("hasAuthority('EDIT_TIMESHEET') or hasAuthority('APPROVE_TIMESHEET')")
@@ -5,14 +5,18 @@ import java.time.temporal.TemporalAdjusters;
 import java.util.Map;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 import com.intranet.dto.UserDTO;
 import com.intranet.security.CurrentUser;
+import com.intranet.service.Manager.ManagerPushService;
 import com.intranet.service.Manager.ManagerSummaryService;
 
 import io.swagger.v3.oas.annotations.Operation;
@@ -25,6 +29,9 @@ public class ManagerSummaryController {
         @Autowired
         private ManagerSummaryService dashboardService;
 
+        @Autowired
+        private ManagerPushService managerPushService;
+
         @GetMapping("/manager/summary")
         @Operation(summary = "Get manager dashboard summary", description = "Retrieve a summary of team performance and statistics for managers.")
         @PreAuthorize("hasAuthority('APPROVE_TIMESHEET')")
@@ -51,4 +58,19 @@ public class ManagerSummaryController {
         return ResponseEntity.ok(summary);
         }
 
+        @GetMapping(value = "/manager/summary/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+        @Operation(summary = "Stream manager pending approvals", description = "Server-Sent Events: 'pending' counts on connect and after every submission or review in the team, 'week-submitted' for new submissions. 503 when too many streams are open.")
+        @PreAuthorize("hasAuthority('APPROVE_TIMESHEET')")
+        public ResponseEntity<SseEmitter> streamTeamPending(@CurrentUser UserDTO user, HttpServletRequest req) {
+
+        String token = req.getHeader("Authorization");
+        if (token == null) token = "";
+
+        return managerPushService.subscribe(user.getId(), token)
+                .map(ResponseEntity::ok)
+                .orElseGet(() -> ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                        .header("Retry-After", "30")
+                        .build());
+        }
+
 }
@@ -9,6 +9,7 @@ import java.util.Optional;
 import java.util.Set;
 import java.util.stream.Collectors;
 
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.core.ParameterizedTypeReference;
 import org.springframework.http.HttpEntity;
@@ -23,6 +24,8 @@ import org.springframework.web.client.RestTemplate;
 
 import com.intranet.dto.UserDTO;
 import com.intranet.security.CurrentUser;
+import com.intranet.service.directory.UserDirectoryIndex;
+import com.intranet.util.cache.UserDirectoryService;
 
 import io.swagger.v3.oas.annotations.Operation;
 import jakarta.servlet.http.HttpServletRequest;
@@ -34,10 +37,11 @@ public class ManagerTimeSheetController {
     @Value("${pms.api.base-url}")
     private String pmsBaseUrl;
 
-    @Value("${ums.api.base-url}")
-    private String umsBaseUrl;
+    @Autowired
+    private RestTemplate restTemplate;
 
-    private final RestTemplate restTemplate = new RestTemplate();
+    @Autowired
+    private UserDirectoryService userDirectoryService;
 
 
     @Operation(summary = "Get all users under a manager")
@@ -80,56 +84,22 @@ public class ManagerTimeSheetController {
     @SuppressWarnings("unchecked")
     List<Map<String, Object>> users = new ArrayList<>();
 
-    Map<Long, Map<String, Object>> userCache = new HashMap<>();
-
-    try {
-        // 🔹 Bulk fetch all users (adjust page/limit as needed)
-        String umsUrl = String.format("%s/admin/users?page=1&limit=500", umsBaseUrl);
-        ResponseEntity<Map<String, Object>> umsResponse = restTemplate.exchange(
-                umsUrl, HttpMethod.GET, entity, new ParameterizedTypeReference<Map<String, Object>>() {});
-
-        Map<String, Object> body = umsResponse.getBody();
-        if (body != null && body.containsKey("users")) {
-            Object usersObj = body.get("users");
-            if (usersObj instanceof List<?>) {
-                List<?> list = (List<?>) usersObj;
-                for (Object obj : list) {
-                    if (obj instanceof Map<?, ?>) {
-                        Map<String, Object> u = (Map<String, Object>) obj;
-
-                        Number idNum = (Number) u.get("user_id");
-                        if (idNum != null) {
-                            Long id = idNum.longValue();
-
-                            String firstName = u.get("first_name") != null ? (String) u.get("first_name") : "";
-                            String lastName  = u.get("last_name")  != null ? (String) u.get("last_name")  : "";
-                            String email     = u.get("mail")       != null ? (String) u.get("mail")       : "";
-
-                            Map<String, Object> info = new HashMap<>();
-                            info.put("firstName", firstName);
-                            info.put("lastName", lastName);
-                            info.put("email", email);
-                            info.put("fullName", (firstName + " " + lastName).trim());
-
-                            userCache.put(id, info);
-                        }
-                    }
-                }
-            }
-        }
-    } catch (Exception e) {
-        System.err.println("⚠️ Failed to load users from UMS: " + e.getMessage());
-    }
+    // 🔹 Names and emails from the local user directory
+    UserDirectoryIndex userDirectory = userDirectoryService.directory(authHeader);
 
     // --- 🔹 Build final user list from team members ---
     for (Long userId : memberIds) {
-        Map<String, Object> info = userCache.get(userId);
+        Optional<UserDirectoryIndex.User> info = userDirectory.find(userId);
         Map<String, Object> userN = new HashMap<>();
 
         userN.put("id", userId);
 
-        if (info != null) {
-            userN.putAll(info);
+        if (info.isPresent()) {
+            UserDirectoryIndex.User u = info.get();
+            userN.put("firstName", u.firstName() != null ? u.firstName() : "");
+            userN.put("lastName", u.lastName() != null ? u.lastName() : "");
+            userN.put("email", u.email() != null ? u.email() : "");
+            userN.put("fullName", u.fullName());
         } else {
             userN.put("firstName", "");
             userN.put("lastName", "");
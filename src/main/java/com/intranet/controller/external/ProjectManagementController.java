@@ -1,11 +1,14 @@
 package com.intranet.controller.external;
 
 import java.util.List;
+import java.util.Map;
 
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RestController;
 
@@ -14,6 +17,8 @@ import com.intranet.dto.external.ManagerUserMappingDTO;
 import com.intranet.dto.external.ProjectTaskView;
 import com.intranet.security.CurrentUser;
 import com.intranet.service.TimeSheetService;
+import com.intranet.service.project.ProjectMembershipGraph;
+import com.intranet.service.project.ProjectMembershipService;
 
 import io.swagger.v3.oas.annotations.Operation;
 import jakarta.servlet.http.HttpServletRequest;
@@ -25,6 +30,9 @@ public class ProjectManagementController {
     @Autowired
     private TimeSheetService timesheetService;
 
+    @Autowired
+    private ProjectMembershipService projectMembershipService;
+
     @Operation(summary = "Get Project and Task of a  current user")
     @PreAuthorize("hasAuthority('EDIT_TIMESHEET') or hasAuthority('APPROVE_TIMESHEET')")
     @GetMapping
@@ -50,4 +58,18 @@ public class ProjectManagementController {
         List<ManagerUserMappingDTO> result = timesheetService.getUsersAssignedToManagers(user.getId());
         return ResponseEntity.ok(result);
     }
+
+    @Operation(summary = "Rebuild the project membership graph from PMS now")
+    @PreAuthorize("hasAuthority('TIMESHEET_ADMIN')")
+    @PostMapping("/membership/refresh")
+    public ResponseEntity<?> refreshMembership(HttpServletRequest request) {
+        if (!projectMembershipService.refresh(request.getHeader("Authorization"))) {
+            return ResponseEntity.status(HttpStatus.BAD_GATEWAY)
+                    .body("⚠️ Project membership refresh from PMS failed, the previous graph is kept.");
+        }
+        ProjectMembershipGraph graph = projectMembershipService.graph(null);
+        return ResponseEntity.ok(Map.of(
+                "projects", graph.size(),
+                "builtAt", graph.syncedAt()));
+    }
 }
@@ -11,6 +11,7 @@ import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
 
 import com.intranet.dto.pms.ProjectUserRequestDTO;
+import com.intranet.dto.pms.ProjectsUserRequestDTO;
 import com.intranet.service.pms.TaskDurationService;
 
 import lombok.RequiredArgsConstructor;
@@ -78,4 +79,20 @@ public class TaskDurationController {
             );
         }
     }
+
+    // ✅ Whole portfolio in one round trip; startDate/endDate optional (both or neither)
+    @PostMapping("/projects/user/tasks")
+    public ResponseEntity<?> getTaskDurationsForProjects(
+            @RequestBody ProjectsUserRequestDTO dto,
+            @RequestParam(required = false) LocalDate startDate,
+            @RequestParam(required = false) LocalDate endDate) {
+
+        try {
+            return ResponseEntity.ok(
+                    service.getTaskDurationsForProjects(dto.getProjectIds(), dto.getUserIds(), startDate, endDate)
+            );
+        } catch (Exception e) {
+            return ResponseEntity.badRequest().body(e.getMessage());
+        }
+    }
 }
@@ -0,0 +1,29 @@
+package com.intranet.dto;
+
+import java.math.BigDecimal;
+
+import lombok.Data;
+
+/**
+ * Entry hours of one user over a date range, summed in the database and
+ * split by billable flag. Backs the bulk /api/users/hours summary.
+ */
+@Data
+public class UserHoursAggregateDTO {
+    private Long userId;
+    private BigDecimal billableHours;
+    private BigDecimal nonBillableHours;
+
+    // ✅ REQUIRED CONSTRUCTOR (JPQL constructor expression)
+    public UserHoursAggregateDTO(Long userId, Number billableHours, Number nonBillableHours) {
+        this.userId = userId;
+        this.billableHours = toBigDecimal(billableHours);
+        this.nonBillableHours = toBigDecimal(nonBillableHours);
+    }
+
+    private static BigDecimal toBigDecimal(Number value) {
+        if (value == null) return BigDecimal.ZERO;
+        if (value instanceof BigDecimal bd) return bd;
+        return new BigDecimal(value.toString());
+    }
+}
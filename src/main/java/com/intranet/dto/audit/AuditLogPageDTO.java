@@ -0,0 +1,21 @@
+package com.intranet.dto.audit;
+
+import java.util.List;
+
+import com.intranet.entity.AuditLog;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+/**
+ * One page of audit logs, newest first. Pass nextCursor back as cursor to
+ * get the following page; it is null on the last page.
+ */
+@Data
+@AllArgsConstructor
+public class AuditLogPageDTO {
+    private List<AuditLog> content;
+    private int size;
+    private boolean hasMore;
+    private String nextCursor;
+}
@@ -0,0 +1,15 @@
+package com.intranet.dto.pms;
+
+import java.util.List;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ProjectTaskDurationResponseDTO {
+    private Long projectId;
+    private List<TaskDurationResponseDTO> users;
+}
@@ -0,0 +1,27 @@
+package com.intranet.dto.rms;
+
+import java.math.BigDecimal;
+
+import lombok.Data;
+
+/**
+ * One pre-aggregated row of logged hours for the RMS project hours summary:
+ * SUM(hoursWorked) grouped by project, task, user and billable flag.
+ */
+@Data
+public class RMSProjectHoursAggregateDTO {
+    private Long projectId;
+    private Long taskId;
+    private Long userId;
+    private boolean billable;
+    private BigDecimal hours;
+
+    // ✅ REQUIRED CONSTRUCTOR (JPQL constructor expression)
+    public RMSProjectHoursAggregateDTO(Long projectId, Long taskId, Long userId, Boolean billable, BigDecimal hours) {
+        this.projectId = projectId;
+        this.taskId = taskId;
+        this.userId = userId;
+        this.billable = Boolean.TRUE.equals(billable);
+        this.hours = hours != null ? hours : BigDecimal.ZERO;
+    }
+}
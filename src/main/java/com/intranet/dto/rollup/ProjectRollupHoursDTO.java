@@ -0,0 +1,33 @@
+package com.intranet.dto.rollup;
+
+import java.math.BigDecimal;
+
+import lombok.Data;
+
+/**
+ * Billable / non-billable entry hours per (user, project) read from
+ * timesheet_rollup_project_daily. userId is null for all-user totals.
+ */
+@Data
+public class ProjectRollupHoursDTO {
+    private Long userId;
+    private Long projectId;
+    private BigDecimal billableHours;
+    private BigDecimal nonBillableHours;
+
+    // ✅ REQUIRED CONSTRUCTOR (JPQL constructor expression)
+    public ProjectRollupHoursDTO(Long userId, Long projectId, Number billableHours, Number nonBillableHours) {
+        this.userId = userId;
+        this.projectId = projectId;
+        this.billableHours = RollupNumbers.toDecimal(billableHours);
+        this.nonBillableHours = RollupNumbers.toDecimal(nonBillableHours);
+    }
+
+    public ProjectRollupHoursDTO(Long projectId, Number billableHours, Number nonBillableHours) {
+        this(null, projectId, billableHours, nonBillableHours);
+    }
+
+    public BigDecimal getTotalHours() {
+        return billableHours.add(nonBillableHours);
+    }
+}
@@ -0,0 +1,19 @@
+package com.intranet.dto.rollup;
+
+import java.math.BigDecimal;
+
+final class RollupNumbers {
+
+    private RollupNumbers() {
+    }
+
+    static BigDecimal toDecimal(Number value) {
+        if (value == null) {
+            return BigDecimal.ZERO;
+        }
+        if (value instanceof BigDecimal decimal) {
+            return decimal;
+        }
+        return new BigDecimal(value.toString());
+    }
+}
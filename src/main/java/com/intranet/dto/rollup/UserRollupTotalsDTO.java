@@ -0,0 +1,38 @@
+package com.intranet.dto.rollup;
+
+import java.math.BigDecimal;
+
+import lombok.Data;
+
+/**
+ * Per-user totals read from timesheet_rollup_daily for a date range.
+ */
+@Data
+public class UserRollupTotalsDTO {
+    private Long userId;
+    private BigDecimal sheetHours;
+    private BigDecimal billableHours;
+    private BigDecimal nonBillableHours;
+    private BigDecimal autoGeneratedHours;
+    private BigDecimal approvedSheetHours;
+    private BigDecimal draftSheetHours;
+    private long workedDays;
+
+    // ✅ REQUIRED CONSTRUCTOR (JPQL constructor expression)
+    public UserRollupTotalsDTO(Long userId, Number sheetHours, Number billableHours, Number nonBillableHours,
+                               Number autoGeneratedHours, Number approvedSheetHours, Number draftSheetHours,
+                               Number workedDays) {
+        this.userId = userId;
+        this.sheetHours = RollupNumbers.toDecimal(sheetHours);
+        this.billableHours = RollupNumbers.toDecimal(billableHours);
+        this.nonBillableHours = RollupNumbers.toDecimal(nonBillableHours);
+        this.autoGeneratedHours = RollupNumbers.toDecimal(autoGeneratedHours);
+        this.approvedSheetHours = RollupNumbers.toDecimal(approvedSheetHours);
+        this.draftSheetHours = RollupNumbers.toDecimal(draftSheetHours);
+        this.workedDays = workedDays != null ? workedDays.longValue() : 0L;
+    }
+
+    public BigDecimal getEntryHours() {
+        return billableHours.add(nonBillableHours);
+    }
+}
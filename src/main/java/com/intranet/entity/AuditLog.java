@@ -9,10 +9,13 @@ import lombok.NoArgsConstructor;
 import java.time.LocalDateTime;
 
 @Entity
+// Filter columns are paired with createdAt so a filtered, newest-first page is an index range scan.
+// On MySQL the table is range-partitioned by month on createdAt (see AuditLogPartitionManager).
 @Table(name = "audit_log", indexes = {
-    @Index(name = "idx_audit_user_id", columnList = "userId"),
+    @Index(name = "idx_audit_user_created", columnList = "userId, createdAt"),
     @Index(name = "idx_audit_entity", columnList = "entityType, entityId"),
-    @Index(name = "idx_audit_action", columnList = "action"),
+    @Index(name = "idx_audit_entity_type_created", columnList = "entityType, createdAt"),
+    @Index(name = "idx_audit_action_created", columnList = "action, createdAt"),
     @Index(name = "idx_audit_created_at", columnList = "createdAt"),
     @Index(name = "idx_audit_target_user", columnList = "targetUserId")
 })
@@ -0,0 +1,47 @@
+package com.intranet.entity;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+/**
+ * Local copy of one LMS public holiday, kept by HolidayCalendarService so
+ * holiday checks do not depend on LMS being reachable.
+ */
+@Entity
+@Table(name = "holiday_calendar", indexes = {
+    @Index(name = "idx_holiday_calendar_date", columnList = "holidayDate")
+})
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class HolidayCalendarDay {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    // id of the holiday in LMS
+    private Long holidayId;
+
+    @Column(nullable = false)
+    private LocalDate holidayDate;
+
+    private String holidayName;
+
+    @Column(length = 1000)
+    private String holidayDescription;
+
+    private String type;
+
+    private String state;
+
+    private String country;
+
+    @Column(nullable = false)
+    private LocalDateTime syncedAt;
+}
@@ -0,0 +1,89 @@
+package com.intranet.entity;
+
+import com.intranet.util.queue.QueuedRow;
+
+import jakarta.persistence.*;
+import lombok.*;
+import java.time.LocalDateTime;
+
+/**
+ * One queued HTML email. Written by EmailUtil, sent by MailQueueDispatcher.
+ */
+@Entity
+@Table(
+    name = "outbound_email",
+    indexes = {
+        @Index(name = "idx_outbound_email_due", columnList = "status, next_attempt_at"),
+        @Index(name = "idx_outbound_email_created", columnList = "created_at")
+    }
+)
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class OutboundEmail implements QueuedRow {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(nullable = false)
+    private String recipient;
+
+    @Column(nullable = false, length = 500)
+    private String subject;
+
+    @Lob
+    @Column(nullable = false, columnDefinition = "LONGTEXT")
+    private String htmlBody;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 16)
+    private Status status;
+
+    @Column(nullable = false)
+    private int attempts;
+
+    @Column(name = "next_attempt_at", nullable = false)
+    private LocalDateTime nextAttemptAt;
+
+    // Claimed by a worker until this time; an expired claim is picked up again
+    private LocalDateTime lockedUntil;
+
+    @Column(columnDefinition = "TEXT")
+    private String lastError;
+
+    @Column(name = "created_at", nullable = false)
+    private LocalDateTime createdAt;
+
+    private LocalDateTime sentAt;
+
+    @Override
+    public void markClaimed() {
+        status = Status.SENDING;
+    }
+
+    @Override
+    public void markPending() {
+        status = Status.PENDING;
+    }
+
+    @Override
+    public void markDone(LocalDateTime at) {
+        status = Status.SENT;
+        sentAt = at;
+    }
+
+    @Override
+    public void markDead() {
+        status = Status.DEAD;
+    }
+
+    public enum Status {
+        PENDING,
+        SENDING,
+        SENT,
+        DEAD
+    }
+}
@@ -0,0 +1,97 @@
+package com.intranet.entity;
+
+import com.intranet.util.queue.QueuedRow;
+
+import jakarta.persistence.*;
+import lombok.*;
+import java.time.LocalDateTime;
+
+/**
+ * One domain event (see TimesheetEvent), written in the transaction of the
+ * change and dispatched to in-process listeners by DomainEventDispatcher.
+ * The id gives the order in which events were written; feed_seq, assigned
+ * when the event is first claimed, the gap-free order of the change feed.
+ */
+@Entity
+@Table(
+    name = "event_outbox",
+    indexes = {
+        @Index(name = "idx_event_outbox_due", columnList = "status, next_attempt_at"),
+        @Index(name = "idx_event_outbox_created", columnList = "created_at"),
+        @Index(name = "idx_event_outbox_user", columnList = "user_id, id"),
+        @Index(name = "ux_event_outbox_feed_seq", columnList = "feed_seq", unique = true)
+    }
+)
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class OutboxEvent implements QueuedRow {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    // Position in the change feed; null until the dispatcher first claims the event
+    @Column(name = "feed_seq")
+    private Long feedSeq;
+
+    @Column(name = "event_type", nullable = false, length = 64)
+    private String eventType;
+
+    @Column(name = "user_id")
+    private Long userId;
+
+    @Column(nullable = false, columnDefinition = "TEXT")
+    private String payload;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 16)
+    private Status status;
+
+    @Column(nullable = false)
+    private int attempts;
+
+    @Column(name = "next_attempt_at", nullable = false)
+    private LocalDateTime nextAttemptAt;
+
+    // Claimed by a dispatcher until this time; an expired claim is picked up again
+    private LocalDateTime lockedUntil;
+
+    @Column(columnDefinition = "TEXT")
+    private String lastError;
+
+    @Column(name = "created_at", nullable = false)
+    private LocalDateTime createdAt;
+
+    private LocalDateTime dispatchedAt;
+
+    @Override
+    public void markClaimed() {
+        status = Status.DISPATCHING;
+    }
+
+    @Override
+    public void markPending() {
+        status = Status.PENDING;
+    }
+
+    @Override
+    public void markDone(LocalDateTime at) {
+        status = Status.DISPATCHED;
+        dispatchedAt = at;
+    }
+
+    @Override
+    public void markDead() {
+        status = Status.DEAD;
+    }
+
+    public enum Status {
+        PENDING,
+        DISPATCHING,
+        DISPATCHED,
+        DEAD
+    }
+}
@@ -0,0 +1,79 @@
+package com.intranet.entity;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+/**
+ * Pre-aggregated hours for one user on one day (one row per timesheet).
+ * Maintained by TimeSheetRollupService whenever the timesheet changes.
+ */
+@Entity
+@Table(
+    name = "timesheet_rollup_daily",
+    uniqueConstraints = @UniqueConstraint(columnNames = {"user_id", "work_date"}),
+    indexes = {
+        @Index(name = "idx_rollup_daily_date", columnList = "work_date"),
+        @Index(name = "idx_rollup_daily_week", columnList = "week_start, user_id"),
+        @Index(name = "idx_rollup_daily_month", columnList = "month_start, user_id")
+    }
+)
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class TimeSheetDailyRollup {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "user_id", nullable = false)
+    private Long userId;
+
+    @Column(name = "work_date", nullable = false)
+    private LocalDate workDate;
+
+    // Monday of the ISO week / first day of the month, for weekly and monthly grouping
+    @Column(name = "week_start", nullable = false)
+    private LocalDate weekStart;
+
+    @Column(name = "month_start", nullable = false)
+    private LocalDate monthStart;
+
+    private Long timeSheetId;
+
+    private Long weekInfoId;
+
+    @Enumerated(EnumType.STRING)
+    private TimeSheet.Status status;
+
+    @Column(nullable = false)
+    private boolean autoGenerated;
+
+    // TimeSheet.hoursWorked as stored on the sheet
+    @Column(precision = 10, scale = 2)
+    private BigDecimal sheetHours = BigDecimal.ZERO;
+
+    // Sum of entry hours, split by billable flag
+    @Column(precision = 10, scale = 2)
+    private BigDecimal billableHours = BigDecimal.ZERO;
+
+    @Column(precision = 10, scale = 2)
+    private BigDecimal nonBillableHours = BigDecimal.ZERO;
+
+    // Sum of per-entry from/to durations written as hours.minutes, as the manager reports show them
+    @Column(precision = 10, scale = 2)
+    private BigDecimal billableClockHours = BigDecimal.ZERO;
+
+    // Minutes between from and to over all entries; null on rows written before the column existed
+    private Integer entryMinutes;
+
+    private int entryCount;
+
+    private LocalDateTime refreshedAt;
+}
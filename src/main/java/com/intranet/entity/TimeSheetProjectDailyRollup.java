@@ -0,0 +1,48 @@
+package com.intranet.entity;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+/**
+ * Pre-aggregated entry hours for one user, one project and one day.
+ * Internal vs. external classification is applied when reading, so the
+ * rollup stays valid when the internal project list changes.
+ */
+@Entity
+@Table(
+    name = "timesheet_rollup_project_daily",
+    uniqueConstraints = @UniqueConstraint(columnNames = {"user_id", "work_date", "project_id"}),
+    indexes = {
+        @Index(name = "idx_rollup_project_date", columnList = "work_date"),
+        @Index(name = "idx_rollup_project_project", columnList = "project_id, work_date")
+    }
+)
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class TimeSheetProjectDailyRollup {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "user_id", nullable = false)
+    private Long userId;
+
+    @Column(name = "work_date", nullable = false)
+    private LocalDate workDate;
+
+    @Column(name = "project_id")
+    private Long projectId;
+
+    @Column(precision = 10, scale = 2)
+    private BigDecimal billableHours = BigDecimal.ZERO;
+
+    @Column(precision = 10, scale = 2)
+    private BigDecimal nonBillableHours = BigDecimal.ZERO;
+}
@@ -0,0 +1,39 @@
+package com.intranet.entity;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * Local copy of one UMS user, kept by UserDirectoryReplica so reports can
+ * resolve names and emails without calling UMS.
+ */
+@Entity
+@Table(name = "user_directory", indexes = {
+    @Index(name = "idx_user_directory_employee", columnList = "employeeId")
+})
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class UserDirectoryEntry {
+
+    // UMS user_id
+    @Id
+    private Long userId;
+
+    private String firstName;
+
+    private String lastName;
+
+    private String email;
+
+    private String employeeId;
+
+    private String role;
+
+    @Column(nullable = false)
+    private LocalDateTime syncedAt;
+}
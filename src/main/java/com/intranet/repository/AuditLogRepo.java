@@ -5,13 +5,12 @@ import com.intranet.entity.AuditLog;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
-import org.springframework.data.jpa.repository.Query;
-import org.springframework.data.repository.query.Param;
+import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
 
 import java.time.LocalDateTime;
 import java.util.List;
 
-public interface AuditLogRepo extends JpaRepository<AuditLog, Long> {
+public interface AuditLogRepo extends JpaRepository<AuditLog, Long>, JpaSpecificationExecutor<AuditLog> {
 
     // Find by user
     Page<AuditLog> findByUserIdOrderByCreatedAtDesc(Long userId, Pageable pageable);
@@ -29,19 +28,5 @@ public interface AuditLogRepo extends JpaRepository<AuditLog, Long> {
     // Find by target user (manager actions on a specific employee)
     Page<AuditLog> findByTargetUserIdOrderByCreatedAtDesc(Long targetUserId, Pageable pageable);
 
-    // Combined filter query — all parameters are optional
-    @Query("SELECT a FROM AuditLog a WHERE " +
-           "(:userId IS NULL OR a.userId = :userId) AND " +
-           "(:action IS NULL OR a.action = :action) AND " +
-           "(:entityType IS NULL OR a.entityType = :entityType) AND " +
-           "(:startDate IS NULL OR a.createdAt >= :startDate) AND " +
-           "(:endDate IS NULL OR a.createdAt <= :endDate) " +
-           "ORDER BY a.createdAt DESC")
-    Page<AuditLog> findWithFilters(
-            @Param("userId") Long userId,
-            @Param("action") AuditAction action,
-            @Param("entityType") String entityType,
-            @Param("startDate") LocalDateTime startDate,
-            @Param("endDate") LocalDateTime endDate,
-            Pageable pageable);
+    // Filtered, keyset-paginated listing: see AuditLogSpecs
 }
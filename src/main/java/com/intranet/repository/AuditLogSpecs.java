@@ -0,0 +1,51 @@
+package com.intranet.repository;
+
+import java.time.LocalDateTime;
+
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
+
+import com.intranet.entity.AuditAction;
+import com.intranet.entity.AuditLog;
+
+/**
+ * Predicates for AuditLogRepo. Only the filters that are actually given
+ * end up in the WHERE clause, so MySQL can use the matching
+ * (column, createdAt) index and prune audit_log partitions by createdAt.
+ */
+public final class AuditLogSpecs {
+
+    /** Newest first; id breaks ties between rows of the same instant. */
+    public static final Sort NEWEST_FIRST = Sort.by(Sort.Order.desc("createdAt"), Sort.Order.desc("id"));
+
+    private AuditLogSpecs() {
+    }
+
+    public static Specification<AuditLog> filtered(Long userId, AuditAction action, String entityType,
+                                                   LocalDateTime startDate, LocalDateTime endDate) {
+        Specification<AuditLog> spec = Specification.unrestricted();
+        if (userId != null) {
+            spec = spec.and((root, query, cb) -> cb.equal(root.get("userId"), userId));
+        }
+        if (action != null) {
+            spec = spec.and((root, query, cb) -> cb.equal(root.get("action"), action));
+        }
+        if (entityType != null && !entityType.isBlank()) {
+            spec = spec.and((root, query, cb) -> cb.equal(root.get("entityType"), entityType));
+        }
+        if (startDate != null) {
+            spec = spec.and((root, query, cb) -> cb.greaterThanOrEqualTo(root.get("createdAt"), startDate));
+        }
+        if (endDate != null) {
+            spec = spec.and((root, query, cb) -> cb.lessThanOrEqualTo(root.get("createdAt"), endDate));
+        }
+        return spec;
+    }
+
+    /** Rows after the given one in {@link #NEWEST_FIRST} order. */
+    public static Specification<AuditLog> before(LocalDateTime createdAt, Long id) {
+        return (root, query, cb) -> cb.or(
+                cb.lessThan(root.get("createdAt"), createdAt),
+                cb.and(cb.equal(root.get("createdAt"), createdAt), cb.lessThan(root.get("id"), id)));
+    }
+}
@@ -0,0 +1,14 @@
+package com.intranet.repository;
+
+import java.util.List;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+import com.intranet.entity.HolidayCalendarDay;
+
+@Repository
+public interface HolidayCalendarRepo extends JpaRepository<HolidayCalendarDay, Long> {
+
+    List<HolidayCalendarDay> findAllByOrderByHolidayDateAsc();
+}
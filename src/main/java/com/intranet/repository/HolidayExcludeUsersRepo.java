@@ -22,6 +22,8 @@ public interface HolidayExcludeUsersRepo extends JpaRepository<HolidayExcludeUse
 
     List<HolidayExcludeUsers> findByManagerId(Long managerId);
 
+    List<HolidayExcludeUsers> findByHolidayDateBetween(LocalDate startDate, LocalDate endDate);
+
     HolidayExcludeUsers findByIdAndManagerId(Long id, Long managerId);
 }
 
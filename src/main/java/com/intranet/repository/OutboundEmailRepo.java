@@ -0,0 +1,39 @@
+package com.intranet.repository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import com.intranet.entity.OutboundEmail;
+
+import jakarta.persistence.LockModeType;
+import jakarta.persistence.QueryHint;
+
+@Repository
+public interface OutboundEmailRepo extends JpaRepository<OutboundEmail, Long> {
+
+    // ✅ Due mails (or mails whose worker claim expired), locked with SKIP LOCKED so workers never share a row
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @QueryHints(@QueryHint(name = "jakarta.persistence.lock.timeout", value = "-2"))
+    @Query("""
+        SELECT m FROM OutboundEmail m
+        WHERE (m.status = com.intranet.entity.OutboundEmail.Status.PENDING AND m.nextAttemptAt <= :now)
+           OR (m.status = com.intranet.entity.OutboundEmail.Status.SENDING AND m.lockedUntil < :now)
+        ORDER BY m.id
+    """)
+    List<OutboundEmail> findDueForUpdate(@Param("now") LocalDateTime now, Pageable pageable);
+
+    long countByStatus(OutboundEmail.Status status);
+
+    @Modifying
+    @Query("DELETE FROM OutboundEmail m WHERE m.status = com.intranet.entity.OutboundEmail.Status.SENT AND m.sentAt < :before")
+    int deleteSentBefore(@Param("before") LocalDateTime before);
+}
@@ -0,0 +1,53 @@
+package com.intranet.repository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import com.intranet.entity.OutboxEvent;
+
+import jakarta.persistence.LockModeType;
+import jakarta.persistence.QueryHint;
+
+@Repository
+public interface OutboxEventRepo extends JpaRepository<OutboxEvent, Long> {
+
+    // ✅ Due events (or events whose dispatcher claim expired) in id order, locked with SKIP LOCKED
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @QueryHints(@QueryHint(name = "jakarta.persistence.lock.timeout", value = "-2"))
+    @Query("""
+        SELECT e FROM OutboxEvent e
+        WHERE (e.status = com.intranet.entity.OutboxEvent.Status.PENDING AND e.nextAttemptAt <= :now)
+           OR (e.status = com.intranet.entity.OutboxEvent.Status.DISPATCHING AND e.lockedUntil < :now)
+        ORDER BY e.id
+    """)
+    List<OutboxEvent> findDueForUpdate(@Param("now") LocalDateTime now, Pageable pageable);
+
+    long countByStatus(OutboxEvent.Status status);
+
+    @Query("SELECT MAX(e.feedSeq) FROM OutboxEvent e")
+    Long findMaxFeedSeq();
+
+    @Query("SELECT MIN(e.feedSeq) FROM OutboxEvent e")
+    Long findMinFeedSeq();
+
+    // ✅ Change feed page: events positioned after the cursor, in feed order
+    List<OutboxEvent> findByFeedSeqGreaterThanOrderByFeedSeqAsc(Long after, Pageable pageable);
+
+    @Query("SELECT MAX(e.feedSeq) FROM OutboxEvent e WHERE e.createdAt < :before")
+    Long findMaxFeedSeqCreatedBefore(@Param("before") LocalDateTime before);
+
+    // Purges a prefix of the feed so its oldest remaining position tells consumers what is gone;
+    // callers keep the newest event, whose feed_seq the next claim continues from
+    @Modifying
+    @Query("DELETE FROM OutboxEvent e WHERE e.feedSeq <= :through")
+    int deleteFeedThrough(@Param("through") Long through);
+}
@@ -0,0 +1,102 @@
+package com.intranet.repository;
+
+import java.time.LocalDate;
+import java.util.Collection;
+import java.util.List;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import com.intranet.dto.rollup.UserRollupTotalsDTO;
+import com.intranet.entity.TimeSheetDailyRollup;
+
+@Repository
+public interface TimeSheetDailyRollupRepo extends JpaRepository<TimeSheetDailyRollup, Long> {
+
+    List<TimeSheetDailyRollup> findByUserIdAndWorkDateBetweenOrderByWorkDateAsc(Long userId, LocalDate startDate, LocalDate endDate);
+
+    List<TimeSheetDailyRollup> findByWorkDateBetween(LocalDate startDate, LocalDate endDate);
+
+    List<TimeSheetDailyRollup> findByUserIdInAndWorkDateBetween(Collection<Long> userIds, LocalDate startDate, LocalDate endDate);
+
+    // Rows written before entry_minutes existed; the startup backfill rebuilds them
+    boolean existsByEntryMinutesIsNull();
+
+    // One statement per day, so concurrent refreshes of the same (user, day) cannot hit the unique key
+    @Modifying
+    @Query(value = """
+    INSERT INTO timesheet_rollup_daily
+        (user_id, work_date, week_start, month_start, time_sheet_id, week_info_id, status, auto_generated,
+         sheet_hours, billable_hours, non_billable_hours, billable_clock_hours, entry_minutes, entry_count, refreshed_at)
+    VALUES
+        (:#{#r.userId}, :#{#r.workDate}, :#{#r.weekStart}, :#{#r.monthStart}, :#{#r.timeSheetId}, :#{#r.weekInfoId},
+         :#{#r.status?.name()}, :#{#r.autoGenerated}, :#{#r.sheetHours}, :#{#r.billableHours}, :#{#r.nonBillableHours},
+         :#{#r.billableClockHours}, :#{#r.entryMinutes}, :#{#r.entryCount}, :#{#r.refreshedAt})
+    ON DUPLICATE KEY UPDATE
+        week_start = VALUES(week_start), month_start = VALUES(month_start), time_sheet_id = VALUES(time_sheet_id),
+        week_info_id = VALUES(week_info_id), status = VALUES(status), auto_generated = VALUES(auto_generated),
+        sheet_hours = VALUES(sheet_hours), billable_hours = VALUES(billable_hours),
+        non_billable_hours = VALUES(non_billable_hours), billable_clock_hours = VALUES(billable_clock_hours),
+        entry_minutes = VALUES(entry_minutes), entry_count = VALUES(entry_count), refreshed_at = VALUES(refreshed_at)
+    """, nativeQuery = true)
+    int upsert(@Param("r") TimeSheetDailyRollup row);
+
+    @Modifying
+    @Query("DELETE FROM TimeSheetDailyRollup d WHERE d.userId = :userId AND d.workDate = :workDate")
+    int deleteByUserIdAndWorkDate(@Param("userId") Long userId, @Param("workDate") LocalDate workDate);
+
+    List<TimeSheetDailyRollup> findByWorkDateBetweenAndAutoGeneratedTrue(LocalDate startDate, LocalDate endDate);
+
+    @Modifying
+    @Query("DELETE FROM TimeSheetDailyRollup d WHERE d.workDate BETWEEN :startDate AND :endDate")
+    int deleteByWorkDateBetween(@Param("startDate") LocalDate startDate, @Param("endDate") LocalDate endDate);
+
+    @Query("""
+    SELECT new com.intranet.dto.rollup.UserRollupTotalsDTO(
+        d.userId,
+        SUM(d.sheetHours),
+        SUM(d.billableHours),
+        SUM(d.nonBillableHours),
+        SUM(CASE WHEN d.autoGenerated = true THEN d.sheetHours ELSE 0 END),
+        SUM(CASE WHEN d.status = com.intranet.entity.TimeSheet.Status.APPROVED THEN d.sheetHours ELSE 0 END),
+        SUM(CASE WHEN d.status = com.intranet.entity.TimeSheet.Status.DRAFT THEN d.sheetHours ELSE 0 END),
+        SUM(CASE WHEN d.autoGenerated = false AND d.entryCount > 0 THEN 1 ELSE 0 END)
+    )
+    FROM TimeSheetDailyRollup d
+    WHERE d.workDate BETWEEN :startDate AND :endDate
+        GROUP BY d.userId
+    """)
+    List<UserRollupTotalsDTO> getUserTotals(@Param("startDate") LocalDate startDate, @Param("endDate") LocalDate endDate);
+
+    @Query("""
+    SELECT new com.intranet.dto.rollup.UserRollupTotalsDTO(
+        d.userId,
+        SUM(d.sheetHours),
+        SUM(d.billableHours),
+        SUM(d.nonBillableHours),
+        SUM(CASE WHEN d.autoGenerated = true THEN d.sheetHours ELSE 0 END),
+        SUM(CASE WHEN d.status = com.intranet.entity.TimeSheet.Status.APPROVED THEN d.sheetHours ELSE 0 END),
+        SUM(CASE WHEN d.status = com.intranet.entity.TimeSheet.Status.DRAFT THEN d.sheetHours ELSE 0 END),
+        SUM(CASE WHEN d.autoGenerated = false AND d.entryCount > 0 THEN 1 ELSE 0 END)
+    )
+    FROM TimeSheetDailyRollup d
+    WHERE d.userId IN :userIds
+    AND d.workDate BETWEEN :startDate AND :endDate
+        GROUP BY d.userId
+    """)
+    List<UserRollupTotalsDTO> getUserTotals(@Param("userIds") Collection<Long> userIds,
+                                            @Param("startDate") LocalDate startDate,
+                                            @Param("endDate") LocalDate endDate);
+
+    // Entry hours (billable + non-billable) per day across all users
+    @Query("""
+    SELECT d.workDate, SUM(d.billableHours + d.nonBillableHours)
+    FROM TimeSheetDailyRollup d
+    WHERE d.workDate BETWEEN :startDate AND :endDate
+        GROUP BY d.workDate
+    """)
+    List<Object[]> getEntryHoursByDate(@Param("startDate") LocalDate startDate, @Param("endDate") LocalDate endDate);
+}
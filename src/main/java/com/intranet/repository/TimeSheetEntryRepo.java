@@ -3,6 +3,7 @@ package com.intranet.repository;
 import java.math.BigDecimal;
 import java.time.LocalDate;
 import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 
 import org.springframework.data.jpa.repository.JpaRepository;
@@ -10,6 +11,8 @@ import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import com.intranet.dto.UserHoursAggregateDTO;
+import com.intranet.dto.rms.RMSProjectHoursAggregateDTO;
 import com.intranet.dto.rms.RMSProjectHoursDTO;
 import com.intranet.entity.TimeSheetEntry;
 
@@ -85,6 +88,37 @@ List<TimeSheetEntry> findByTimeSheetId(Long timeSheetId);
             LocalDate startDate,
             LocalDate endDate
     );
+
+    // ✅ (projectId, userId, taskId, SUM(hoursWorked)) for a set of projects and users in one round trip
+    @Query("""
+        SELECT e.projectId, t.userId, e.taskId, SUM(e.hoursWorked)
+        FROM TimeSheetEntry e
+        JOIN e.timeSheet t
+        WHERE e.projectId IN :projectIds
+          AND t.userId IN :userIds
+        GROUP BY e.projectId, t.userId, e.taskId
+    """)
+    List<Object[]> findTaskDurationsByProjectsAndUsers(
+            @Param("projectIds") Collection<Long> projectIds,
+            @Param("userIds") Collection<Long> userIds
+    );
+
+    @Query("""
+        SELECT e.projectId, t.userId, e.taskId, SUM(e.hoursWorked)
+        FROM TimeSheetEntry e
+        JOIN e.timeSheet t
+        WHERE e.projectId IN :projectIds
+          AND t.userId IN :userIds
+          AND t.workDate BETWEEN :startDate AND :endDate
+        GROUP BY e.projectId, t.userId, e.taskId
+    """)
+    List<Object[]> findTaskDurationsByProjectsAndUsersAndDateRange(
+            @Param("projectIds") Collection<Long> projectIds,
+            @Param("userIds") Collection<Long> userIds,
+            @Param("startDate") LocalDate startDate,
+            @Param("endDate") LocalDate endDate
+    );
+
     boolean existsByProjectIdAndTaskId(Integer projectId, Integer taskId);
 
     @Query("""
@@ -144,4 +178,72 @@ List<TimeSheetEntry> findByTimeSheetId(Long timeSheetId);
         GROUP BY e.projectId
     """)
     List<RMSProjectHoursDTO> getProjectHoursForAllUsers(LocalDate startDate, LocalDate endDate);
+
+    // RMS project hours summary: non-draft, manually logged hours aggregated in the database
+    // so the service never materialises the full entry history.
+    @Query("""
+    SELECT new com.intranet.dto.rms.RMSProjectHoursAggregateDTO(
+        e.projectId,
+        e.taskId,
+        t.userId,
+        e.isBillable,
+        COALESCE(SUM(e.hoursWorked), 0)
+    )
+    FROM TimeSheetEntry e
+    JOIN e.timeSheet t
+    WHERE t.status <> com.intranet.entity.TimeSheet.Status.DRAFT
+    AND (t.autoGenerated IS NULL OR t.autoGenerated = false)
+    AND e.projectId IS NOT NULL
+        GROUP BY e.projectId, e.taskId, t.userId, e.isBillable
+    """)
+    List<RMSProjectHoursAggregateDTO> getNonDraftProjectHoursAggregates();
+
+    @Query("""
+    SELECT new com.intranet.dto.rms.RMSProjectHoursAggregateDTO(
+        e.projectId,
+        e.taskId,
+        t.userId,
+        e.isBillable,
+        COALESCE(SUM(e.hoursWorked), 0)
+    )
+    FROM TimeSheetEntry e
+    JOIN e.timeSheet t
+    WHERE t.status <> com.intranet.entity.TimeSheet.Status.DRAFT
+    AND (t.autoGenerated IS NULL OR t.autoGenerated = false)
+    AND e.projectId = :projectId
+        GROUP BY e.projectId, e.taskId, t.userId, e.isBillable
+    """)
+    List<RMSProjectHoursAggregateDTO> getNonDraftProjectHoursAggregates(@Param("projectId") Long projectId);
+
+    // ✅ Entry hours per user for the users/hours summary, one row per user (all statuses)
+    @Query("""
+    SELECT new com.intranet.dto.UserHoursAggregateDTO(
+        t.userId,
+        COALESCE(SUM(CASE WHEN e.isBillable = true THEN e.hoursWorked ELSE 0 END), 0),
+        COALESCE(SUM(CASE WHEN e.isBillable = false THEN e.hoursWorked ELSE 0 END), 0)
+    )
+    FROM TimeSheetEntry e
+    JOIN e.timeSheet t
+    WHERE t.userId IN :userIds
+    AND t.workDate BETWEEN :startDate AND :endDate
+        GROUP BY t.userId
+    """)
+    List<UserHoursAggregateDTO> getUserEntryHours(@Param("userIds") Collection<Long> userIds,
+                                                  @Param("startDate") LocalDate startDate,
+                                                  @Param("endDate") LocalDate endDate);
+
+    // Data-version fingerprint of a month (see ReportDataFingerprint); userId null = all users
+    @Query("""
+        SELECT COUNT(e), COALESCE(SUM(e.id), 0), COALESCE(SUM(e.hoursWorked), 0),
+               COALESCE(SUM(e.projectId), 0), COALESCE(SUM(e.taskId), 0),
+               MAX(e.fromTime), MAX(e.toTime),
+               COALESCE(SUM(LENGTH(e.description)), 0), COALESCE(SUM(LENGTH(e.otherDescription)), 0)
+        FROM TimeSheetEntry e
+        JOIN e.timeSheet t
+        WHERE t.workDate BETWEEN :startDate AND :endDate
+          AND (:userId IS NULL OR t.userId = :userId)
+    """)
+    List<Object[]> fingerprintEntries(@Param("userId") Long userId,
+                                      @Param("startDate") LocalDate startDate,
+                                      @Param("endDate") LocalDate endDate);
 }
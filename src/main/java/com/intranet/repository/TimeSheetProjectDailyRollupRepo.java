@@ -0,0 +1,60 @@
+package com.intranet.repository;
+
+import java.time.LocalDate;
+import java.util.Collection;
+import java.util.List;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import com.intranet.dto.rollup.ProjectRollupHoursDTO;
+import com.intranet.entity.TimeSheetProjectDailyRollup;
+
+@Repository
+public interface TimeSheetProjectDailyRollupRepo extends JpaRepository<TimeSheetProjectDailyRollup, Long> {
+
+    List<TimeSheetProjectDailyRollup> findByWorkDateBetween(LocalDate startDate, LocalDate endDate);
+
+    List<TimeSheetProjectDailyRollup> findByUserIdInAndWorkDateBetween(Collection<Long> userIds, LocalDate startDate, LocalDate endDate);
+
+    @Modifying
+    @Query("DELETE FROM TimeSheetProjectDailyRollup p WHERE p.userId = :userId AND p.workDate = :workDate")
+    int deleteByUserIdAndWorkDate(@Param("userId") Long userId, @Param("workDate") LocalDate workDate);
+
+    @Modifying
+    @Query("DELETE FROM TimeSheetProjectDailyRollup p WHERE p.workDate BETWEEN :startDate AND :endDate")
+    int deleteByWorkDateBetween(@Param("startDate") LocalDate startDate, @Param("endDate") LocalDate endDate);
+
+    @Query("""
+    SELECT new com.intranet.dto.rollup.ProjectRollupHoursDTO(
+        p.userId,
+        p.projectId,
+        SUM(p.billableHours),
+        SUM(p.nonBillableHours)
+    )
+    FROM TimeSheetProjectDailyRollup p
+    WHERE p.workDate BETWEEN :startDate AND :endDate
+        GROUP BY p.userId, p.projectId
+    """)
+    List<ProjectRollupHoursDTO> getUserProjectHours(@Param("startDate") LocalDate startDate,
+                                                    @Param("endDate") LocalDate endDate);
+
+    @Query("""
+    SELECT new com.intranet.dto.rollup.ProjectRollupHoursDTO(
+        p.userId,
+        p.projectId,
+        SUM(p.billableHours),
+        SUM(p.nonBillableHours)
+    )
+    FROM TimeSheetProjectDailyRollup p
+    WHERE p.userId = :userId
+    AND p.workDate BETWEEN :startDate AND :endDate
+        GROUP BY p.userId, p.projectId
+    """)
+    List<ProjectRollupHoursDTO> getUserProjectHours(@Param("userId") Long userId,
+                                                    @Param("startDate") LocalDate startDate,
+                                                    @Param("endDate") LocalDate endDate);
+}
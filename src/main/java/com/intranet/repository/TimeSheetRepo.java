@@ -2,11 +2,13 @@ package com.intranet.repository;
 
 import java.math.BigDecimal;
 import java.time.LocalDate;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 import java.util.Set;
 
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
@@ -14,10 +16,17 @@ import org.springframework.stereotype.Repository;
 
 import com.intranet.entity.TimeSheet;
 
+import jakarta.persistence.LockModeType;
+
 @Repository
 public interface TimeSheetRepo extends JpaRepository<TimeSheet, Long> {
      Optional<TimeSheet> findByUserIdAndWorkDate(Long userId, LocalDate workDate);
 
+     // Rollup refresh: row lock so two refreshes of the same day run one after the other
+     @Lock(LockModeType.PESSIMISTIC_WRITE)
+     @Query("SELECT ts FROM TimeSheet ts WHERE ts.userId = :userId AND ts.workDate = :workDate")
+     Optional<TimeSheet> lockByUserIdAndWorkDate(@Param("userId") Long userId, @Param("workDate") LocalDate workDate);
+
      List<TimeSheet> findByUserIdAndWeekInfo_IdInOrderByWorkDateAsc(Long userId, List<Long> weekIds);
 
      List<TimeSheet> findByWorkDateBetween(LocalDate startDate, LocalDate endDate);
@@ -45,16 +54,16 @@ public interface TimeSheetRepo extends JpaRepository<TimeSheet, Long> {
      @Query("SELECT t FROM TimeSheet t WHERE t.status <> com.intranet.entity.TimeSheet.Status.DRAFT")
     List<TimeSheet> findAllNonDraft();
 
-    @Query("SELECT DISTINCT t " +
-       "FROM TimeSheet t " +
-       "LEFT JOIN FETCH t.entries e " +
-       "WHERE t.status <> com.intranet.entity.TimeSheet.Status.DRAFT")
-    List<TimeSheet> findAllNonDraftWithEntries();
-
     boolean existsByUserIdAndWorkDateAndAutoGeneratedTrue(Long userId, LocalDate holidayDate);
 
     List<TimeSheet> findByUserId(Long userId);
 
+    @Query("SELECT MIN(t.workDate) FROM TimeSheet t")
+    LocalDate findEarliestWorkDate();
+
+    @Query("SELECT MAX(t.workDate) FROM TimeSheet t")
+    LocalDate findLatestWorkDate();
+
     @Query("SELECT DISTINCT ts FROM TimeSheet ts LEFT JOIN FETCH ts.entries WHERE ts.userId = :userId AND ts.workDate BETWEEN :startDate AND :endDate")
     List<TimeSheet> findByUserIdAndWorkDateBetweenWithEntries(@Param("userId") Long userId,
                                                               @Param("startDate") LocalDate startDate,
@@ -91,4 +100,38 @@ public interface TimeSheetRepo extends JpaRepository<TimeSheet, Long> {
            "ORDER BY YEAR(t.workDate), MONTH(t.workDate)")
     List<Object[]> getMonthlyHoursBreakdown(LocalDate startDate, LocalDate endDate);
 
+    // ✅ Auto-generated sheet hours per user (userId, SUM(hoursWorked)) for the users/hours summary
+    @Query("SELECT t.userId, COALESCE(SUM(t.hoursWorked), 0) " +
+           "FROM TimeSheet t " +
+           "WHERE t.userId IN :userIds " +
+           "AND t.workDate BETWEEN :startDate AND :endDate " +
+           "AND t.autoGenerated = true " +
+           "GROUP BY t.userId")
+    List<Object[]> getAutoGeneratedHoursByUser(@Param("userIds") Collection<Long> userIds,
+                                               @Param("startDate") LocalDate startDate,
+                                               @Param("endDate") LocalDate endDate);
+
+    // Data-version fingerprint of a month (see ReportDataFingerprint); userId null = all users
+    @Query("SELECT t.status, COUNT(t), MAX(t.updatedAt), COALESCE(SUM(t.id), 0), COALESCE(SUM(t.hoursWorked), 0) " +
+           "FROM TimeSheet t " +
+           "WHERE t.workDate BETWEEN :startDate AND :endDate " +
+           "AND (:userId IS NULL OR t.userId = :userId) " +
+           "GROUP BY t.status " +
+           "ORDER BY t.status")
+    List<Object[]> fingerprintTimeSheets(@Param("userId") Long userId,
+                                         @Param("startDate") LocalDate startDate,
+                                         @Param("endDate") LocalDate endDate);
+
+    // (userId, workDate) of every sheet in the range, for bulk existence checks
+    @Query("SELECT t.userId, t.workDate FROM TimeSheet t WHERE t.workDate BETWEEN :startDate AND :endDate")
+    List<Object[]> findUserWorkDates(@Param("startDate") LocalDate startDate,
+                                     @Param("endDate") LocalDate endDate);
+
+    // (userId, weekId) of the members' sheets in the given statuses since a date, for pending-approval counts
+    @Query("SELECT DISTINCT t.userId, t.weekInfo.id FROM TimeSheet t " +
+           "WHERE t.userId IN :userIds AND t.status IN :statuses AND t.workDate >= :since")
+    List<Object[]> findUserWeeksByStatusSince(@Param("userIds") Collection<Long> userIds,
+                                              @Param("statuses") Collection<TimeSheet.Status> statuses,
+                                              @Param("since") LocalDate since);
+
 }
@@ -1,6 +1,7 @@
 package com.intranet.repository;
 
 import java.time.LocalDate;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 import java.util.Set;
@@ -53,4 +54,23 @@ public interface TimeSheetReviewRepo  extends JpaRepository<TimeSheetReview, Lon
             @Param("statuses")  List<TimeSheetReview.Status> statuses,
             Pageable pageable);
 
+    // Data-version fingerprint of a month (see ReportDataFingerprint); userId null = all users
+    @Query("SELECT r.status, COUNT(r), MAX(r.reviewedAt), COALESCE(SUM(r.id), 0) " +
+           "FROM TimeSheetReview r " +
+           "JOIN r.weekInfo w " +
+           "WHERE w.startDate <= :endDate AND w.endDate >= :startDate " +
+           "AND (:userId IS NULL OR r.userId = :userId) " +
+           "GROUP BY r.status " +
+           "ORDER BY r.status")
+    List<Object[]> fingerprintReviews(@Param("userId") Long userId,
+                                      @Param("startDate") LocalDate startDate,
+                                      @Param("endDate") LocalDate endDate);
+
+    // (userId, weekId) pairs a manager has already decided, for pending-approval counts
+    @Query("SELECT DISTINCT r.userId, r.weekInfo.id FROM TimeSheetReview r " +
+           "WHERE r.managerId = :managerId AND r.weekInfo.id IN :weekIds AND r.status IN :statuses")
+    List<Object[]> findReviewedUserWeeks(@Param("managerId") Long managerId,
+                                         @Param("weekIds") Collection<Long> weekIds,
+                                         @Param("statuses") Collection<TimeSheetReview.Status> statuses);
+
 }
@@ -0,0 +1,10 @@
+package com.intranet.repository;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+import com.intranet.entity.UserDirectoryEntry;
+
+@Repository
+public interface UserDirectoryRepo extends JpaRepository<UserDirectoryEntry, Long> {
+}
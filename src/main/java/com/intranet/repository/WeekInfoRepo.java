@@ -5,6 +5,7 @@ import java.util.List;
 import java.util.Optional;
 
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
 import org.springframework.stereotype.Repository;
 
 import com.intranet.entity.WeekInfo;
@@ -23,4 +24,8 @@ public interface WeekInfoRepo extends JpaRepository<WeekInfo, Long>{
         LocalDate endDate,
         LocalDate startDate
     );
+
+    // Tells WeekCalendarService whether another instance added weeks
+    @Query("SELECT MAX(w.id) FROM WeekInfo w")
+    Long findMaxId();
 }
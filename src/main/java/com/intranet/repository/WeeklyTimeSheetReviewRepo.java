@@ -1,11 +1,14 @@
 package com.intranet.repository;
 
 import java.time.LocalDate;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 import java.util.Set;
 
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 
@@ -29,4 +32,21 @@ public interface WeeklyTimeSheetReviewRepo extends JpaRepository<WeeklyTimeSheet
 
     List<WeeklyTimeSheetReview> findByUserIdInAndWeekInfo_StartDateBetween(Set<Long> memberIds, LocalDate startDate,
             LocalDate endDate);
+
+    // Data-version fingerprint of a month (see ReportDataFingerprint); userId null = all users
+    @Query("SELECT r.status, COUNT(r), MAX(r.submittedAt), MAX(r.reviewedAt), COALESCE(SUM(r.id), 0) " +
+           "FROM WeeklyTimeSheetReview r " +
+           "JOIN r.weekInfo w " +
+           "WHERE w.startDate <= :endDate AND w.endDate >= :startDate " +
+           "AND (:userId IS NULL OR r.userId = :userId) " +
+           "GROUP BY r.status " +
+           "ORDER BY r.status")
+    List<Object[]> fingerprintWeeklyReviews(@Param("userId") Long userId,
+                                            @Param("startDate") LocalDate startDate,
+                                            @Param("endDate") LocalDate endDate);
+
+    // (userId, weekInfoId) of every weekly review of the given weeks, for bulk existence checks
+    @Query("SELECT r.userId, r.weekInfo.id FROM WeeklyTimeSheetReview r WHERE r.weekInfo.id IN :weekIds")
+    List<Object[]> findUserWeekPairs(@Param("weekIds") Collection<Long> weekIds);
+
 }
@@ -2,37 +2,42 @@ package com.intranet.service;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.intranet.dto.UserDTO;
+import com.intranet.dto.audit.AuditLogPageDTO;
 import com.intranet.entity.AuditAction;
 import com.intranet.entity.AuditLog;
 import com.intranet.entity.AuditStatus;
 import com.intranet.repository.AuditLogRepo;
+import com.intranet.repository.AuditLogSpecs;
+import com.intranet.service.audit.AuditLogCursor;
+import com.intranet.service.audit.AuditLogWriter;
 import jakarta.servlet.http.HttpServletRequest;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
-import org.springframework.data.domain.Page;
-import org.springframework.data.domain.Pageable;
-import org.springframework.scheduling.annotation.Async;
+import org.springframework.data.jpa.domain.Specification;
 import org.springframework.stereotype.Service;
 
 import java.time.LocalDateTime;
+import java.util.List;
 
 @Service
 @RequiredArgsConstructor
 @Slf4j
 public class AuditLogService {
 
+    private static final int MAX_PAGE_SIZE = 500;
+
     private final AuditLogRepo auditLogRepo;
+    private final AuditLogWriter auditLogWriter;
     private final ObjectMapper objectMapper;
 
     /**
-     * Save an audit log entry asynchronously (non-blocking).
+     * Queue an audit log entry for the batched writer (non-blocking).
      */
-    @Async("auditLogExecutor")
     public void logAsync(AuditLog auditLog) {
         try {
-            auditLogRepo.save(auditLog);
+            auditLogWriter.submit(auditLog);
         } catch (Exception e) {
-            log.error("Failed to save audit log: {}", e.getMessage(), e);
+            log.error("Failed to queue audit log: {}", e.getMessage(), e);
         }
     }
 
@@ -95,18 +100,31 @@ public class AuditLogService {
     }
 
     /**
-     * Query audit logs with optional filters (all parameters nullable).
+     * Query audit logs with optional filters (all parameters nullable),
+     * newest first. cursor is the nextCursor of the previous page, or null.
      */
-    public Page<AuditLog> getAuditLogs(Long userId, AuditAction action,
+    public AuditLogPageDTO getAuditLogs(Long userId, AuditAction action,
                                         String entityType, LocalDateTime startDate,
-                                        LocalDateTime endDate, Pageable pageable) {
-        return auditLogRepo.findWithFilters(userId, action, entityType, startDate, endDate, pageable);
+                                        LocalDateTime endDate, String cursor, int size) {
+        int limit = Math.max(1, Math.min(size, MAX_PAGE_SIZE));
+        Specification<AuditLog> spec = AuditLogSpecs.filtered(userId, action, entityType, startDate, endDate);
+        AuditLogCursor after = AuditLogCursor.decode(cursor);
+        if (after != null) {
+            spec = spec.and(AuditLogSpecs.before(after.createdAt(), after.id()));
+        }
+
+        // One extra row tells whether another page follows, without a COUNT(*)
+        List<AuditLog> rows = auditLogRepo.findBy(spec, q -> q.sortBy(AuditLogSpecs.NEWEST_FIRST).limit(limit + 1).all());
+        boolean hasMore = rows.size() > limit;
+        List<AuditLog> content = hasMore ? rows.subList(0, limit) : rows;
+        String nextCursor = hasMore ? AuditLogCursor.of(content.get(content.size() - 1)).encode() : null;
+        return new AuditLogPageDTO(content, content.size(), hasMore, nextCursor);
     }
 
     /**
      * Get all audit logs for a specific entity.
      */
-    public java.util.List<AuditLog> getEntityAuditTrail(String entityType, Long entityId) {
+    public List<AuditLog> getEntityAuditTrail(String entityType, Long entityId) {
         return auditLogRepo.findByEntityTypeAndEntityIdOrderByCreatedAtDesc(entityType, entityId);
     }
 
@@ -1,9 +1,14 @@
 package com.intranet.service;
 
 import com.intranet.entity.*;
+import com.intranet.dto.UserHoursAggregateDTO;
 import com.intranet.dto.UserHoursDTO;
+import com.intranet.dto.rollup.ProjectRollupHoursDTO;
+import com.intranet.repository.TimeSheetDailyRollupRepo;
+import com.intranet.repository.TimeSheetEntryRepo;
+import com.intranet.repository.TimeSheetProjectDailyRollupRepo;
 import com.intranet.repository.TimeSheetRepo;
-import com.intranet.repository.WeekInfoRepo;
+import com.intranet.service.week.WeekCalendarService;
 import com.intranet.repository.WeeklyTimeSheetReviewRepo;
 
 import jakarta.servlet.http.HttpServletRequest;
@@ -27,9 +32,12 @@ import java.util.stream.Collectors;
 public class DashboardService {
 
     private final TimeSheetRepo timeSheetRepo;
+    private final TimeSheetEntryRepo timeSheetEntryRepo;
     private final WeeklyTimeSheetReviewRepo weeklyReviewRepo;
-    private final WeekInfoRepo weekInfoRepo;
-    private final RestTemplate restTemplate = new RestTemplate();
+    private final WeekCalendarService weekCalendarService;
+    private final TimeSheetDailyRollupRepo dailyRollupRepo;
+    private final TimeSheetProjectDailyRollupRepo projectRollupRepo;
+    private final RestTemplate restTemplate;
 
     @Value("${pms.api.base-url}")
     private String pmsBaseUrl;
@@ -56,37 +64,33 @@ public class DashboardService {
         // 1️⃣ Fetch PMS Project Names
         Map<Long, String> projectMap = fetchProjectMap();
 
-        // 2️⃣ Fetch Timesheets
-        List<TimeSheet> timeSheets = timeSheetRepo.findByUserIdAndWorkDateBetween(userId, startDate, endDate);
-        List<TimeSheetEntry> entries = timeSheets.stream()
-                .flatMap(ts -> ts.getEntries().stream())
-                .collect(Collectors.toList());
+        // 2️⃣ Fetch pre-aggregated day and project rollups
+        List<TimeSheetDailyRollup> days =
+                dailyRollupRepo.findByUserIdAndWorkDateBetweenOrderByWorkDateAsc(userId, startDate, endDate);
+        List<ProjectRollupHoursDTO> projectHours = projectRollupRepo.getUserProjectHours(userId, startDate, endDate);
 
         // 3️⃣ Weekly Review Summary using WeekInfo + WeekTimeSheetReview
         Map<String, Object> weeklyTimesheetReview = getWeeklySummary(userId, startDate, endDate);
 
         // 4️⃣ Billable Activity
-        Map<String, Object> billableActivity = calculateBillableActivity(entries, timeSheets);
+        Map<String, Object> billableActivity = calculateBillableActivity(days);
 
         // 5️⃣ Project Summary
-        List<Map<String, Object>> projectSummary = calculateProjectSummary(entries, projectMap);
+        List<Map<String, Object>> projectSummary = calculateProjectSummary(projectHours, projectMap);
 
         // 6️⃣ Weekly Summary (Mon–Sun)
-        Map<String, BigDecimal> weeklySummary = calculateWeeklySummary(entries, timeSheets);
+        Map<String, BigDecimal> weeklySummary = calculateWeeklySummary(days);
 
         // 7️⃣ Productivity Details
-        Map<String, Object> billablePercentageDetails = calculateBillablePercentageDetails(entries);
+        Map<String, Object> billablePercentageDetails = calculateBillablePercentageDetails(days);
 
         // ✅ Step 1: Calculate total from entries
-        BigDecimal totalEntryHours = entries.stream()
-                .map(e -> e.getHoursWorked() != null ? e.getHoursWorked() : BigDecimal.ZERO)
+        BigDecimal totalEntryHours = days.stream()
+                .map(d -> d.getBillableHours().add(d.getNonBillableHours()))
                 .reduce(BigDecimal.ZERO, BigDecimal::add);
 
         // ✅ Step 2: Add hours from auto-generated timesheets
-        BigDecimal totalAutoHours = timeSheets.stream()
-                .filter(ts -> Boolean.TRUE.equals(ts.getAutoGenerated()))
-                .map(ts -> ts.getHoursWorked() != null ? ts.getHoursWorked() : BigDecimal.ZERO)
-                .reduce(BigDecimal.ZERO, BigDecimal::add);
+        BigDecimal totalAutoHours = autoGeneratedHours(days);
 
         // ✅ Step 3: Combine both
         BigDecimal totalHours = totalEntryHours.add(totalAutoHours);
@@ -96,11 +100,9 @@ public class DashboardService {
 
 
         // 🕒 Step 1: Count only *manual* (non-auto-generated) timesheets with actual entries
-        long totalWorkedDays = timeSheets.stream()
-                .filter(ts -> !Boolean.TRUE.equals(ts.getAutoGenerated())) // exclude auto-generated
-                .filter(ts -> ts.getEntries() != null && !ts.getEntries().isEmpty()) // exclude empty timesheets
-                .map(TimeSheet::getWorkDate)
-                .distinct()
+        long totalWorkedDays = days.stream()
+                .filter(d -> !d.isAutoGenerated()) // exclude auto-generated
+                .filter(d -> d.getEntryCount() > 0) // exclude empty timesheets
                 .count();
 
         // 🕒 Step 2: Use existing totalHours (which includes auto-generated) for display
@@ -142,23 +144,25 @@ public class DashboardService {
         }
     }
 
-        private Map<String, Object> calculateBillableActivity(List<TimeSheetEntry> entries, List<TimeSheet> timeSheets) {
+    private BigDecimal autoGeneratedHours(List<TimeSheetDailyRollup> days) {
+        return days.stream()
+                .filter(TimeSheetDailyRollup::isAutoGenerated)
+                .map(TimeSheetDailyRollup::getSheetHours)
+                .reduce(BigDecimal.ZERO, BigDecimal::add);
+    }
+
+        private Map<String, Object> calculateBillableActivity(List<TimeSheetDailyRollup> days) {
         // ✅ Step 1: Compute total billable and non-billable hours from entries
-        BigDecimal billableHours = entries.stream()
-                .filter(TimeSheetEntry::isBillable)
-                .map(e -> e.getHoursWorked() != null ? e.getHoursWorked() : BigDecimal.ZERO)
+        BigDecimal billableHours = days.stream()
+                .map(TimeSheetDailyRollup::getBillableHours)
                 .reduce(BigDecimal.ZERO, BigDecimal::add);
 
-        BigDecimal nonBillableHoursFromEntries = entries.stream()
-                .filter(e -> !e.isBillable())
-                .map(e -> e.getHoursWorked() != null ? e.getHoursWorked() : BigDecimal.ZERO)
+        BigDecimal nonBillableHoursFromEntries = days.stream()
+                .map(TimeSheetDailyRollup::getNonBillableHours)
                 .reduce(BigDecimal.ZERO, BigDecimal::add);
 
         // ✅ Step 2: Add auto-generated timesheets as non-billable hours
-        BigDecimal autoGeneratedHours = timeSheets.stream()
-                .filter(ts -> Boolean.TRUE.equals(ts.getAutoGenerated()))
-                .map(ts -> ts.getHoursWorked() != null ? ts.getHoursWorked() : BigDecimal.ZERO)
-                .reduce(BigDecimal.ZERO, BigDecimal::add);
+        BigDecimal autoGeneratedHours = autoGeneratedHours(days);
 
         BigDecimal totalNonBillableHours = nonBillableHoursFromEntries.add(autoGeneratedHours);
 
@@ -180,15 +184,13 @@ public class DashboardService {
 
 
     // ✅ Project Summary
-    private List<Map<String, Object>> calculateProjectSummary(List<TimeSheetEntry> entries, Map<Long, String> projectMap) {
-    Map<Long, BigDecimal> projectHours = entries.stream()
-            .filter(e -> e.getProjectId() != null) // ignore missing project entries
-            .collect(Collectors.groupingBy(
-                    TimeSheetEntry::getProjectId,
-                    Collectors.mapping(
-                            e -> e.getHoursWorked() == null ? BigDecimal.ZERO : e.getHoursWorked(), // ✅ handle nulls
-                            Collectors.reducing(BigDecimal.ZERO, BigDecimal::add)
-                    )
+    private List<Map<String, Object>> calculateProjectSummary(List<ProjectRollupHoursDTO> rows, Map<Long, String> projectMap) {
+    Map<Long, BigDecimal> projectHours = rows.stream()
+            .filter(r -> r.getProjectId() != null) // ignore missing project entries
+            .collect(Collectors.toMap(
+                    ProjectRollupHoursDTO::getProjectId,
+                    ProjectRollupHoursDTO::getTotalHours,
+                    BigDecimal::add
             ));
 
     return projectHours.entrySet().stream().map(e -> {
@@ -202,7 +204,7 @@ public class DashboardService {
 
 
     // ✅ Weekly Summary (hours by weekday)
-        private Map<String, BigDecimal> calculateWeeklySummary(List<TimeSheetEntry> entries, List<TimeSheet> timeSheets) {
+        private Map<String, BigDecimal> calculateWeeklySummary(List<TimeSheetDailyRollup> days) {
         // ✅ Step 1: Initialize map for all weekdays (Mon–Sun)
         Map<String, BigDecimal> weeklySummary = Arrays.stream(DayOfWeek.values())
                 .collect(Collectors.toMap(
@@ -212,25 +214,14 @@ public class DashboardService {
                         LinkedHashMap::new
                 ));
 
-        // ✅ Step 2: Add hours from normal timesheet entries
-        for (TimeSheetEntry entry : entries) {
-                if (entry == null || entry.getTimeSheet() == null || entry.getTimeSheet().getWorkDate() == null)
-                continue;
-
-                LocalDate workDate = entry.getTimeSheet().getWorkDate();
-                BigDecimal hours = entry.getHoursWorked() != null ? entry.getHoursWorked() : BigDecimal.ZERO;
-
-                String dayKey = workDate.getDayOfWeek().name().toLowerCase();
-                weeklySummary.merge(dayKey, hours, BigDecimal::add);
-        }
-
-        // ✅ Step 3: Add hours from auto-generated timesheets (no entries)
-        for (TimeSheet ts : timeSheets) {
-                if (Boolean.TRUE.equals(ts.getAutoGenerated()) && ts.getWorkDate() != null) {
-                String dayKey = ts.getWorkDate().getDayOfWeek().name().toLowerCase();
-                BigDecimal hours = ts.getHoursWorked() != null ? ts.getHoursWorked() : BigDecimal.ZERO;
-                weeklySummary.merge(dayKey, hours, BigDecimal::add);
+        // ✅ Step 2: Add entry hours, plus sheet hours of auto-generated timesheets (no entries)
+        for (TimeSheetDailyRollup day : days) {
+                String dayKey = day.getWorkDate().getDayOfWeek().name().toLowerCase();
+                BigDecimal hours = day.getBillableHours().add(day.getNonBillableHours());
+                if (day.isAutoGenerated()) {
+                hours = hours.add(day.getSheetHours());
                 }
+                weeklySummary.merge(dayKey, hours, BigDecimal::add);
         }
 
         // ✅ Step 4: Format all totals (e.g., 8.00 → consistent decimal form)
@@ -241,20 +232,17 @@ public class DashboardService {
 
 
     // ✅ Productivity Details (by day)
-    private Map<String, Object> calculateBillablePercentageDetails(List<TimeSheetEntry> entries) {
-        // 1️⃣ Group entries by day of week
-    Map<DayOfWeek, List<TimeSheetEntry>> dayWise = entries.stream()
-            .filter(e -> e.getTimeSheet() != null && e.getTimeSheet().getWorkDate() != null)
+    private Map<String, Object> calculateBillablePercentageDetails(List<TimeSheetDailyRollup> days) {
+        // 1️⃣ Billable hours by day of week
+    Map<DayOfWeek, BigDecimal> dayWise = days.stream()
             .collect(Collectors.groupingBy(
-                    e -> e.getTimeSheet().getWorkDate().getDayOfWeek(),
+                    d -> d.getWorkDate().getDayOfWeek(),
                     LinkedHashMap::new,
-                    Collectors.toList()
+                    Collectors.reducing(BigDecimal.ZERO, TimeSheetDailyRollup::getBillableHours, BigDecimal::add)
             ));
 
     // 2️⃣ Total billable hours across all days
-    BigDecimal totalBillable = entries.stream()
-            .filter(TimeSheetEntry::isBillable)
-            .map(e -> e.getHoursWorked() != null ? e.getHoursWorked() : BigDecimal.ZERO)
+    BigDecimal totalBillable = dayWise.values().stream()
             .reduce(BigDecimal.ZERO, BigDecimal::add);
 
     // If no billable hours → all productivity = 0
@@ -274,12 +262,7 @@ public class DashboardService {
 
     for (DayOfWeek day : DayOfWeek.values()) {
 
-        List<TimeSheetEntry> dayEntries = dayWise.getOrDefault(day, new ArrayList<>());
-
-        BigDecimal dayBillable = dayEntries.stream()
-                .filter(TimeSheetEntry::isBillable)
-                .map(e -> e.getHoursWorked() != null ? e.getHoursWorked() : BigDecimal.ZERO)
-                .reduce(BigDecimal.ZERO, BigDecimal::add);
+        BigDecimal dayBillable = dayWise.getOrDefault(day, BigDecimal.ZERO);
 
         // Productivity = (dayBillable / totalBillable) * 100
         BigDecimal pct = BigDecimal.ZERO;
@@ -306,7 +289,7 @@ public class DashboardService {
     public Map<String, Object> getWeeklySummary(Long userId, LocalDate startDate, LocalDate endDate) {
 
     // 1️⃣ Fetch all week ranges between start and end date
-    List<WeekInfo> allWeeks = weekInfoRepo.findByStartDateBetween(startDate, endDate);
+    List<WeekInfo> allWeeks = weekCalendarService.calendar().startingBetween(startDate, endDate);
 
     // 2️⃣ Fetch only the existing weekly reviews for this user
     List<WeeklyTimeSheetReview> reviews =
@@ -369,60 +352,49 @@ public class DashboardService {
         return String.format("%02d:%02d", avgMinutes / 60, avgMinutes % 60);
     }
 
+    /**
+     * Billable / non-billable hours of the given users in [startDate, endDate],
+     * in the order of userIds (users without any hours get zeros).
+     * Two grouped queries per call, regardless of the number of users.
+     */
     public List<UserHoursDTO> getUsersHoursSummary(List<Long> userIds, LocalDate startDate, LocalDate endDate) {
-        System.out.println("DEBUG: getUsersHoursSummary called with " + userIds.size() + " user IDs");
-        System.out.println("DEBUG: Date range: " + startDate + " to " + endDate);
-        
-        return userIds.stream()
-                .map(userId -> {
-                    // Fetch timesheets for this user in the date range
-                    List<TimeSheet> timeSheets = timeSheetRepo.findByUserIdAndWorkDateBetween(userId, startDate, endDate);
-                    List<TimeSheetEntry> entries = timeSheets.stream()
-                            .flatMap(ts -> ts.getEntries().stream())
-                            .collect(Collectors.toList());
-
-                    // Calculate billable and non-billable hours
-                    BigDecimal billableHours = entries.stream()
-                            .filter(TimeSheetEntry::isBillable)
-                            .map(e -> e.getHoursWorked() != null ? e.getHoursWorked() : BigDecimal.ZERO)
-                            .reduce(BigDecimal.ZERO, BigDecimal::add);
-
-                    BigDecimal nonBillableHoursFromEntries = entries.stream()
-                            .filter(e -> !e.isBillable())
-                            .map(e -> e.getHoursWorked() != null ? e.getHoursWorked() : BigDecimal.ZERO)
-                            .reduce(BigDecimal.ZERO, BigDecimal::add);
-
-                    // Add auto-generated timesheets as non-billable hours
-                    BigDecimal autoGeneratedHours = timeSheets.stream()
-                            .filter(ts -> Boolean.TRUE.equals(ts.getAutoGenerated()))
-                            .map(ts -> ts.getHoursWorked() != null ? ts.getHoursWorked() : BigDecimal.ZERO)
-                            .reduce(BigDecimal.ZERO, BigDecimal::add);
-
-                    BigDecimal totalNonBillableHours = nonBillableHoursFromEntries.add(autoGeneratedHours);
-                    BigDecimal totalHours = billableHours.add(totalNonBillableHours);
-
-                    // Calculate billable percentage
-                    double billablePercentage = totalHours.compareTo(BigDecimal.ZERO) == 0
-                            ? 0.0
-                            : billableHours.multiply(BigDecimal.valueOf(100))
-                                    .divide(totalHours, 2, RoundingMode.HALF_UP)
-                                    .doubleValue();
-
-                    // Format hours
-                    billableHours = formatHours(billableHours);
-                    totalNonBillableHours = formatHours(totalNonBillableHours);
-                    totalHours = formatHours(totalHours);
-
-                    UserHoursDTO userHours = new UserHoursDTO();
-                    userHours.setUserId(userId);
-                    userHours.setBillableHours(billableHours);
-                    userHours.setNonBillableHours(totalNonBillableHours);
-//                    userHours.setTotalHours(totalHours);
-                    userHours.setBillablePercentage(billablePercentage);
-
-                    return userHours;
-                })
-                .collect(Collectors.toList());
+        if (userIds.isEmpty()) return List.of();
+
+        Map<Long, UserHoursAggregateDTO> entryHours = timeSheetEntryRepo
+                .getUserEntryHours(userIds, startDate, endDate).stream()
+                .collect(Collectors.toMap(UserHoursAggregateDTO::getUserId, a -> a));
+
+        // Auto-generated timesheets count as non-billable hours
+        Map<Long, BigDecimal> autoGeneratedHours = new HashMap<>();
+        for (Object[] row : timeSheetRepo.getAutoGeneratedHoursByUser(userIds, startDate, endDate)) {
+            autoGeneratedHours.put((Long) row[0], row[1] != null ? (BigDecimal) row[1] : BigDecimal.ZERO);
+        }
+
+        List<UserHoursDTO> result = new ArrayList<>(userIds.size());
+        for (Long userId : userIds) {
+            UserHoursAggregateDTO entries = entryHours.get(userId);
+            BigDecimal billableHours = entries != null ? entries.getBillableHours() : BigDecimal.ZERO;
+            BigDecimal nonBillableHoursFromEntries = entries != null ? entries.getNonBillableHours() : BigDecimal.ZERO;
+
+            BigDecimal totalNonBillableHours = nonBillableHoursFromEntries
+                    .add(autoGeneratedHours.getOrDefault(userId, BigDecimal.ZERO));
+            BigDecimal totalHours = billableHours.add(totalNonBillableHours);
+
+            // Calculate billable percentage
+            double billablePercentage = totalHours.compareTo(BigDecimal.ZERO) == 0
+                    ? 0.0
+                    : billableHours.multiply(BigDecimal.valueOf(100))
+                            .divide(totalHours, 2, RoundingMode.HALF_UP)
+                            .doubleValue();
+
+            UserHoursDTO userHours = new UserHoursDTO();
+            userHours.setUserId(userId);
+            userHours.setBillableHours(formatHours(billableHours));
+            userHours.setNonBillableHours(formatHours(totalNonBillableHours));
+            userHours.setBillablePercentage(billablePercentage);
+            result.add(userHours);
+        }
+        return result;
     }
 
     private double round(double value, int places) {
@@ -1,7 +1,7 @@
 package com.intranet.service.FinanceReportEmail;
 
 import lombok.RequiredArgsConstructor;
-import org.springframework.core.io.ByteArrayResource;
+import org.springframework.core.io.InputStreamSource;
 import org.springframework.mail.javamail.JavaMailSender;
 import org.springframework.mail.javamail.MimeMessageHelper;
 import org.springframework.stereotype.Service;
@@ -16,7 +16,7 @@ public class FinancialPdfEmailSender {
 
     public void sendFinancialReportPdf(
             String toEmail,
-            byte[] pdfBytes,
+            InputStreamSource pdf,
             String monthName,
             int year,
             String senderName
@@ -34,8 +34,7 @@ public class FinancialPdfEmailSender {
                 "Regards,\nTimesheet Management System"
         );
 
-        helper.addAttachment("Financial_Report_" + monthName + "_" + year + ".pdf",
-                new ByteArrayResource(pdfBytes));
+        helper.addAttachment("Financial_Report_" + monthName + "_" + year + ".pdf", pdf);
 
         mailSender.send(message);
     }
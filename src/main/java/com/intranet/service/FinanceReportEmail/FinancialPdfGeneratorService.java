@@ -1,23 +1,19 @@
 package com.intranet.service.FinanceReportEmail;
 
-import com.openhtmltopdf.pdfboxout.PdfRendererBuilder;
-import org.springframework.stereotype.Service;
+import com.intranet.service.pdf.PdfRenderService;
+import com.intranet.service.pdf.RenderedPdf;
 
-import java.io.ByteArrayOutputStream;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Service;
 
 @Service
+@RequiredArgsConstructor
 public class FinancialPdfGeneratorService {
 
-    public byte[] generatePdfFromHtml(String html) throws Exception {
-
-        try (ByteArrayOutputStream outputStream = new ByteArrayOutputStream()) {
-
-            PdfRendererBuilder builder = new PdfRendererBuilder();
-            builder.withHtmlContent(html, null);
-            builder.toStream(outputStream);
-            builder.run();
+    private final PdfRenderService pdfRenderService;
 
-            return outputStream.toByteArray();
-        }
+    /** Renders to a temporary file for use as a mail attachment; close it when sent. */
+    public RenderedPdf generatePdfFileFromHtml(String html) throws Exception {
+        return pdfRenderService.renderToTempFile(html);
     }
 }
@@ -7,6 +7,8 @@ import com.intranet.dto.external.ManagerInfoDTO;
 import com.intranet.entity.HolidayExcludeUsers;
 import com.intranet.repository.HolidayExcludeUsersRepo;
 import com.intranet.repository.TimeSheetRepo;
+import com.intranet.service.directory.UserDirectoryIndex;
+import com.intranet.service.holiday.HolidayCalendarService;
 import com.intranet.util.cache.UserDirectoryService;
 
 import jakarta.servlet.http.HttpServletRequest;
@@ -36,7 +38,6 @@ import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Objects;
-import java.util.Optional;
 import java.util.Set;
 import java.util.stream.Collectors;
 
@@ -49,6 +50,8 @@ public class HolidayExcludeUsersService {
 
     private final TimeSheetRepo timeSheetRepo;
 
+    private final HolidayCalendarService holidayCalendarService;
+
     private HttpEntity<Void> buildEntityWithAuth() {
 
     ServletRequestAttributes attrs = (ServletRequestAttributes) RequestContextHolder.getRequestAttributes();
@@ -73,10 +76,7 @@ public class HolidayExcludeUsersService {
     @Value("${lms.api.base-url}")
     private String lmsBaseUrl;
 
-    @Value("${ums.api.base-url}")
-    private String umsBaseUrl;
-
-    private final RestTemplate restTemplate = new RestTemplate();
+    private final RestTemplate restTemplate;
 
     public String createHolidayExclude(Long managerId,HolidayExcludeUsersRequestDTO request) {
 
@@ -116,21 +116,10 @@ public class HolidayExcludeUsersService {
         public List<HolidayDTO> getUserHolidays(Long userId, int month) {
         HttpEntity<Void> entity = buildEntityWithAuth();
 
-        // Step 1️⃣: Fetch holidays from LMS
-        String url = String.format("%s/api/holidays/month/%d", lmsBaseUrl, month);
-        ResponseEntity<List<HolidayDTO>> response;
-        try {
-            response = restTemplate.exchange(
-                    url,
-                    HttpMethod.GET,
-                    entity,
-                    new ParameterizedTypeReference<List<HolidayDTO>>() {}
-            );
-        } catch (Exception e) {
-            throw new IllegalStateException("Failed to fetch holidays from LMS for month: " + month, e);
-        }
-
-        List<HolidayDTO> lmsHolidays = Optional.ofNullable(response.getBody()).orElse(Collections.emptyList());
+        // Step 1️⃣: Holidays from the local LMS holiday calendar
+        List<HolidayDTO> lmsHolidays = holidayCalendarService
+                .calendar(entity.getHeaders().getFirst(HttpHeaders.AUTHORIZATION))
+                .holidaysOfMonth(LocalDate.now().getYear(), month);
 
         // Step 2️⃣: Get excluded holidays for this user
         List<HolidayExcludeUsers> excluded = repository.findByUserId(userId);
@@ -138,36 +127,8 @@ public class HolidayExcludeUsersService {
                 .map(HolidayExcludeUsers::getHolidayDate)
                 .collect(Collectors.toSet());
 
-        // Step 3️⃣: Preload user cache (manager names)
-        Map<Long, String> userCache = new HashMap<>();
-        try {
-            String umsUrl = String.format("%s/admin/users?page=1&limit=500", umsBaseUrl);
-            ResponseEntity<Map<String, Object>> umsResponse = restTemplate.exchange(
-                    umsUrl, HttpMethod.GET, entity, new ParameterizedTypeReference<Map<String, Object>>() {}
-            );
-
-            Map<String, Object> body = umsResponse.getBody();
-            if (body != null && body.containsKey("users")) {
-                Object usersObj = body.get("users");
-                if (usersObj instanceof List<?>) {
-                    for (Object obj : (List<?>) usersObj) {
-                        if (obj instanceof Map) {
-                            Map<?, ?> u = (Map<?, ?>) obj;
-                            Number idNum = (Number) u.get("user_id");
-                            if (idNum != null) {
-                                Long id = idNum.longValue();
-                                String firstName = u.get("first_name") != null ? u.get("first_name").toString().trim() : "";
-                                String lastName  = u.get("last_name")  != null ? u.get("last_name").toString().trim()  : "";
-                                String fullName  = (firstName + " " + lastName).trim();
-                                userCache.put(id, fullName.isEmpty() ? "Unknown User" : fullName);
-                            }
-                        }
-                    }
-                }
-            }
-        } catch (Exception e) {
-            System.err.println("⚠️ Failed to load users from UMS: " + e.getMessage());
-        }
+        // Step 3️⃣: User names from the local user directory
+        UserDirectoryIndex userDirectory = userDirectoryService.directory(entity.getHeaders().getFirst(HttpHeaders.AUTHORIZATION));
 
         // Step 4️⃣: Build manager info map for excluded holidays
         Map<LocalDate, List<ManagerInfoDTO>> managerMap = excluded.stream()
@@ -175,7 +136,7 @@ public class HolidayExcludeUsersService {
                         HolidayExcludeUsers::getHolidayDate,
                         Collectors.mapping(ex -> new ManagerInfoDTO(
                                 ex.getManagerId(),
-                                userCache.getOrDefault(ex.getManagerId(), "Unknown Manager")
+                                userDirectory.name(ex.getManagerId(), "Unknown Manager")
                         ), Collectors.toList())
                 ));
 
@@ -243,21 +204,10 @@ public class HolidayExcludeUsersService {
     public List<HolidayDTO> getUserHolidaysAndLeave(Long userId, int month, int year) {
         HttpEntity<Void> entity = buildEntityWithAuth();
 
-        // Step 1️⃣: Fetch holidays from LMS
-        String url = String.format("%s/api/holidays/month/%d", lmsBaseUrl, month);
-        ResponseEntity<List<HolidayDTO>> response;
-        try {
-            response = restTemplate.exchange(
-                    url,
-                    HttpMethod.GET,
-                    entity,
-                    new ParameterizedTypeReference<List<HolidayDTO>>() {}
-            );
-        } catch (Exception e) {
-            throw new IllegalStateException("Failed to fetch holidays from LMS for month: " + month, e);
-        }
-
-        List<HolidayDTO> lmsHolidays = Optional.ofNullable(response.getBody()).orElse(Collections.emptyList());
+        // Step 1️⃣: Holidays from the local LMS holiday calendar
+        List<HolidayDTO> lmsHolidays = holidayCalendarService
+                .calendar(entity.getHeaders().getFirst(HttpHeaders.AUTHORIZATION))
+                .holidaysOfMonth(year, month);
 
         // Step 2️⃣: Get excluded holidays for this user
         List<HolidayExcludeUsers> excluded = repository.findByUserId(userId);
@@ -265,36 +215,8 @@ public class HolidayExcludeUsersService {
                 .map(HolidayExcludeUsers::getHolidayDate)
                 .collect(Collectors.toSet());
 
-        // Step 3️⃣: Preload user cache (manager names)
-        Map<Long, String> userCache = new HashMap<>();
-        try {
-            String umsUrl = String.format("%s/admin/users?page=1&limit=500", umsBaseUrl);
-            ResponseEntity<Map<String, Object>> umsResponse = restTemplate.exchange(
-                    umsUrl, HttpMethod.GET, entity, new ParameterizedTypeReference<Map<String, Object>>() {}
-            );
-
-            Map<String, Object> body = umsResponse.getBody();
-            if (body != null && body.containsKey("users")) {
-                Object usersObj = body.get("users");
-                if (usersObj instanceof List<?>) {
-                    for (Object obj : (List<?>) usersObj) {
-                        if (obj instanceof Map) {
-                            Map<?, ?> u = (Map<?, ?>) obj;
-                            Number idNum = (Number) u.get("user_id");
-                            if (idNum != null) {
-                                Long id = idNum.longValue();
-                                String firstName = u.get("first_name") != null ? u.get("first_name").toString().trim() : "";
-                                String lastName  = u.get("last_name")  != null ? u.get("last_name").toString().trim()  : "";
-                                String fullName  = (firstName + " " + lastName).trim();
-                                userCache.put(id, fullName.isEmpty() ? "Unknown User" : fullName);
-                            }
-                        }
-                    }
-                }
-            }
-        } catch (Exception e) {
-            System.err.println("⚠️ Failed to load users from UMS: " + e.getMessage());
-        }
+        // Step 3️⃣: User names from the local user directory
+        UserDirectoryIndex userDirectory = userDirectoryService.directory(entity.getHeaders().getFirst(HttpHeaders.AUTHORIZATION));
 
         // Step 4️⃣: Build manager info map for excluded holidays
         Map<LocalDate, List<ManagerInfoDTO>> managerMap = excluded.stream()
@@ -302,7 +224,7 @@ public class HolidayExcludeUsersService {
                         HolidayExcludeUsers::getHolidayDate,
                         Collectors.mapping(ex -> new ManagerInfoDTO(
                                 ex.getManagerId(),
-                                userCache.getOrDefault(ex.getManagerId(), "Unknown Manager")
+                                userDirectory.name(ex.getManagerId(), "Unknown Manager")
                         ), Collectors.toList())
                 ));
 
@@ -457,38 +379,8 @@ public class HolidayExcludeUsersService {
 
     HttpEntity<Void> entity = buildEntityWithAuth();
 
-    /// --- Cache to avoid multiple UMS calls for the same user ---
-    Map<Long, String> userCache = new HashMap<>();
-
-    // 🧠 Pre-fetch all required users from UMS in one go
-    try {
-        String umsUrl = String.format("%s/admin/users?page=1&limit=500", umsBaseUrl);
-        ResponseEntity<Map<String, Object>> umsResponse = restTemplate.exchange(
-                umsUrl, HttpMethod.GET, entity, new ParameterizedTypeReference<Map<String, Object>>() {}
-        );
-
-        Map<String, Object> body = umsResponse.getBody();
-        if (body != null && body.containsKey("users")) {
-            Object usersObj = body.get("users");
-            if (usersObj instanceof List<?>) {
-                for (Object obj : (List<?>) usersObj) {
-                    if (obj instanceof Map) {
-                        Map<?, ?> u = (Map<?, ?>) obj;
-                        Number idNum = (Number) u.get("user_id");
-                        if (idNum != null) {
-                            Long id = idNum.longValue();
-                            String firstName = u.get("first_name") != null ? u.get("first_name").toString().trim() : "";
-                            String lastName  = u.get("last_name")  != null ? u.get("last_name").toString().trim()  : "";
-                            String fullName  = (firstName + " " + lastName).trim();
-                            userCache.put(id, fullName.isEmpty() ? "Unknown User" : fullName);
-                        }
-                    }
-                }
-            }
-        }
-    } catch (Exception e) {
-        System.err.println("⚠️ Failed to prefetch users from UMS: " + e.getMessage());
-    }
+    // Step 3️⃣: User names from the local user directory
+    UserDirectoryIndex userDirectory = userDirectoryService.directory(entity.getHeaders().getFirst(HttpHeaders.AUTHORIZATION));
 
     // --- Now build the DTO list ---
     return users.stream().map(user -> {
@@ -500,7 +392,7 @@ public class HolidayExcludeUsersService {
         dto.setReason(user.getReason());
 
         // ✅ Get username from cache (no UMS call here)
-        String userName = userCache.getOrDefault(user.getUserId(), "Unknown User");
+        String userName = userDirectory.name(user.getUserId(), "Unknown User");
         dto.setUserName(userName);
 
         return dto;
@@ -534,21 +426,10 @@ public class HolidayExcludeUsersService {
     public List<LocalDate> getUserHolidayDates(int month) {
     HttpEntity<Void> entity = buildEntityWithAuth();
 
-    // Step 1️⃣: Fetch holidays from LMS
-    String url = String.format("%s/api/holidays/month/%d", lmsBaseUrl, month);
-    ResponseEntity<List<HolidayDTO>> response;
-    try {
-        response = restTemplate.exchange(
-                url,
-                HttpMethod.GET,
-                entity,
-                new ParameterizedTypeReference<List<HolidayDTO>>() {}
-        );
-    } catch (Exception e) {
-        throw new IllegalStateException("Failed to fetch holidays from LMS for month: " + month, e);
-    }
-
-    List<HolidayDTO> lmsHolidays = Optional.ofNullable(response.getBody()).orElse(Collections.emptyList());
+    // Step 1️⃣: Holidays from the local LMS holiday calendar
+    List<HolidayDTO> lmsHolidays = holidayCalendarService
+            .calendar(entity.getHeaders().getFirst(HttpHeaders.AUTHORIZATION))
+            .holidaysOfMonth(month);
     // Step 3️⃣: Generate weekend holidays
     List<HolidayDTO> weekendHolidays = generateWeekendHolidays(month);
     // Step 4️⃣: Merge LMS + weekend holidays
@@ -569,22 +450,10 @@ public class HolidayExcludeUsersService {
     public List<LocalDate> getUserHolidaysMonthYear(Long userId, int month, int year) {
     HttpEntity<Void> entity = buildEntityWithAuth();
 
-    // Step 1️⃣: Fetch holidays from LMS
-    String url = String.format("%s/api/holidays/month/%d", lmsBaseUrl, month);
-    ResponseEntity<List<HolidayDTO>> response;
-    try {
-        response = restTemplate.exchange(
-                url,
-                HttpMethod.GET,
-                entity,
-                new ParameterizedTypeReference<List<HolidayDTO>>() {}
-        );
-    } catch (Exception e) {
-        throw new IllegalStateException("Failed to fetch holidays from LMS for month: " + month, e);
-    }
-
-    List<HolidayDTO> lmsHolidays = Optional.ofNullable(response.getBody())
-            .orElse(Collections.emptyList());
+    // Step 1️⃣: Holidays from the local LMS holiday calendar
+    List<HolidayDTO> lmsHolidays = holidayCalendarService
+            .calendar(entity.getHeaders().getFirst(HttpHeaders.AUTHORIZATION))
+            .holidaysOfMonth(year, month);
 
     // Step 2️⃣: Get excluded holidays for this user
     List<HolidayExcludeUsers> excluded = repository.findByUserId(userId);
@@ -737,46 +606,16 @@ public class HolidayExcludeUsersService {
 
 
     public List<Map<String, Object>> fetchAllUsers(String authHeader) {
-    HttpHeaders headers = new HttpHeaders();
-    headers.set("Authorization", authHeader);
-    HttpEntity<Void> entity = new HttpEntity<>(headers);
-
-    String umsUrl = String.format("%s/admin/users?page=1&limit=500", umsBaseUrl);
-
-    try {
-        ResponseEntity<Map<String, Object>> response = restTemplate.exchange(
-                umsUrl, HttpMethod.GET, entity,
-                new ParameterizedTypeReference<>() {}
-        );
-
-        Map<String, Object> body = response.getBody();
-        if (body == null || !body.containsKey("users")) {
-            return Collections.emptyList();
-        }
-
-        List<Map<String, Object>> users = (List<Map<String, Object>>) body.get("users");
-
-        return users.stream().map(u -> {
-            String firstName = (String) u.getOrDefault("first_name", "");
-            String lastName = (String) u.getOrDefault("last_name", "");
-            String fullName = (firstName + " " + lastName).trim();
-            String email = (String) u.getOrDefault("mail", "unknown@example.com");
-
-            Map<String, Object> userMap = new LinkedHashMap<>();
-            userMap.put("firstName", firstName);
-            userMap.put("lastName", lastName);
-            userMap.put("fullName", fullName);
-            userMap.put("id", ((Number) u.get("user_id")).longValue());
-            userMap.put("email", email);
-
-            return userMap;
-        }).collect(Collectors.toList());
-
-    } catch (Exception e) {
-        System.err.println("⚠️ Failed to fetch users from UMS: " + e.getMessage());
-        throw e;
-    }
-
+    return userDirectoryService.directory(authHeader).all().stream().map(u -> {
+        Map<String, Object> userMap = new LinkedHashMap<>();
+        userMap.put("firstName", u.firstName() != null ? u.firstName() : "");
+        userMap.put("lastName", u.lastName() != null ? u.lastName() : "");
+        userMap.put("fullName", u.fullName());
+        userMap.put("id", u.id());
+        userMap.put("email", u.email() != null ? u.email() : UserDirectoryIndex.UNKNOWN_EMAIL);
+
+        return userMap;
+    }).collect(Collectors.toList());
     }
 }
 
@@ -0,0 +1,546 @@
+package com.intranet.service.Manager;
+
+import java.io.IOException;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.http.MediaType;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.intranet.entity.OutboxEvent;
+import com.intranet.entity.TimeSheet;
+import com.intranet.entity.TimeSheetReview;
+import com.intranet.repository.OutboxEventRepo;
+import com.intranet.repository.TimeSheetRepo;
+import com.intranet.repository.TimeSheetReviewRepo;
+import com.intranet.service.directory.UserDirectoryIndex;
+import com.intranet.service.directory.UserDirectoryReplica;
+import com.intranet.service.events.DomainEventOutbox;
+import com.intranet.service.events.TimesheetEvent;
+import com.intranet.service.project.ProjectMembershipService;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Server-Sent Events for manager dashboards (GET /api/manager/summary/stream).
+ *
+ * - On connect and whenever a team member's week is submitted or reviewed,
+ *   the manager's streams get a "pending" event: weeks awaiting this
+ *   manager's decision, per user, over the last
+ *   app.manager.push.pending-lookback-days. Bursts of events are coalesced
+ *   into one count query per manager, and a stream only ever holds the
+ *   latest counts.
+ * - Submissions are also pushed as "week-submitted" events.
+ * - The events are read from the change feed (event_outbox in feed_seq
+ *   order) by every node with open streams, every app.manager.push.feed-poll-ms
+ *   and right after this node dispatched one. Each event is only dispatched
+ *   on one node, but the manager's stream may be open on any of them.
+ * - Connections are capped per node (app.manager.push.max-connections) and
+ *   per manager; a heartbeat comment every app.manager.push.heartbeat-ms
+ *   keeps proxies from closing idle streams and finds dead ones.
+ * - Writes run on managerPushExecutor, one at a time per stream.
+ *   SseEmitter.send blocks while the client does not read, so a write
+ *   running longer than app.manager.push.write-timeout-ms closes the stream
+ *   and interrupts the write; the thread itself is back once the container's
+ *   write timeout (server.tomcat.connection-timeout) ends the blocked send.
+ *   A stream that falls app.manager.push.queue-capacity week-submitted
+ *   events behind is closed as well. The browser's EventSource reconnects
+ *   and starts from fresh counts.
+ *
+ * Metrics: manager.push.connections, manager.push.rejected{reason=node|manager},
+ * manager.push.dropped{reason=slow|stalled|busy}.
+ */
+@Slf4j
+@Service
+public class ManagerPushService {
+
+    private static final List<TimeSheet.Status> AWAITING_REVIEW =
+            List.of(TimeSheet.Status.SUBMITTED, TimeSheet.Status.PARTIALLY_APPROVED);
+    private static final List<TimeSheetReview.Status> DECIDED =
+            List.of(TimeSheetReview.Status.APPROVED, TimeSheetReview.Status.REJECTED);
+    private static final int FEED_PAGE = 500;
+
+    /** An event waiting to be written; name null is a heartbeat comment. */
+    private record Message(String name, Object data) {
+
+        SseEmitter.SseEventBuilder toEvent() {
+            return name == null
+                    ? SseEmitter.event().comment("heartbeat")
+                    : SseEmitter.event().name(name).data(data, MediaType.APPLICATION_JSON);
+        }
+    }
+
+    private final TimeSheetRepo timeSheetRepo;
+    private final TimeSheetReviewRepo timeSheetReviewRepo;
+    private final OutboxEventRepo outboxEventRepo;
+    private final ProjectMembershipService projectMembershipService;
+    private final UserDirectoryReplica userDirectoryReplica;
+    private final ObjectMapper objectMapper;
+    private final Executor pushExecutor;
+    private final MeterRegistry meterRegistry;
+    private final int maxConnections;
+    private final int maxPerManager;
+    private final long timeoutMs;
+    private final int queueCapacity;
+    private final long writeTimeoutNanos;
+    private final int pendingLookbackDays;
+
+    private final Map<Long, Set<Connection>> connections = new ConcurrentHashMap<>();
+    private final Set<Long> countsDue = ConcurrentHashMap.newKeySet();
+    private final AtomicInteger open = new AtomicInteger();
+
+    // Last feed_seq handled; -1 while no stream is open (nothing to catch up on)
+    private final Object feedLock = new Object();
+    private long feedCursor = -1;
+    private final AtomicBoolean feedReadQueued = new AtomicBoolean();
+
+    public ManagerPushService(TimeSheetRepo timeSheetRepo,
+                              TimeSheetReviewRepo timeSheetReviewRepo,
+                              OutboxEventRepo outboxEventRepo,
+                              ProjectMembershipService projectMembershipService,
+                              UserDirectoryReplica userDirectoryReplica,
+                              ObjectMapper objectMapper,
+                              @Qualifier("managerPushExecutor") Executor pushExecutor,
+                              MeterRegistry meterRegistry,
+                              @Value("${app.manager.push.max-connections:500}") int maxConnections,
+                              @Value("${app.manager.push.max-per-manager:5}") int maxPerManager,
+                              @Value("${app.manager.push.timeout-ms:1800000}") long timeoutMs,
+                              @Value("${app.manager.push.queue-capacity:16}") int queueCapacity,
+                              @Value("${app.manager.push.write-timeout-ms:10000}") long writeTimeoutMs,
+                              @Value("${app.manager.push.pending-lookback-days:90}") int pendingLookbackDays) {
+        this.timeSheetRepo = timeSheetRepo;
+        this.timeSheetReviewRepo = timeSheetReviewRepo;
+        this.outboxEventRepo = outboxEventRepo;
+        this.projectMembershipService = projectMembershipService;
+        this.userDirectoryReplica = userDirectoryReplica;
+        this.objectMapper = objectMapper;
+        this.pushExecutor = pushExecutor;
+        this.meterRegistry = meterRegistry;
+        this.maxConnections = maxConnections;
+        this.maxPerManager = maxPerManager;
+        this.timeoutMs = timeoutMs;
+        this.queueCapacity = Math.max(1, queueCapacity);
+        this.writeTimeoutNanos = TimeUnit.MILLISECONDS.toNanos(Math.max(1, writeTimeoutMs));
+        this.pendingLookbackDays = pendingLookbackDays;
+        meterRegistry.gauge("manager.push.connections", open);
+    }
+
+    /**
+     * Opens a stream for the manager, or empty when this node or this
+     * manager already has as many streams as allowed.
+     */
+    public Optional<SseEmitter> subscribe(Long managerId, String authHeader) {
+        return subscribe(managerId, authHeader, new SseEmitter(timeoutMs));
+    }
+
+    Optional<SseEmitter> subscribe(Long managerId, String authHeader, SseEmitter emitter) {
+        try {
+            projectMembershipService.graph(authHeader);
+        } catch (Exception e) {
+            // Counts cover no team until the scheduled membership refresh succeeds
+            log.warn("⚠️ Project membership unavailable for manager stream {}: {}", managerId, e.getMessage());
+        }
+
+        Connection connection = new Connection(managerId, emitter);
+        synchronized (connections) {
+            if (open.get() >= maxConnections) {
+                meterRegistry.counter("manager.push.rejected", "reason", "node").increment();
+                return Optional.empty();
+            }
+            Set<Connection> own = connections.computeIfAbsent(managerId, id -> ConcurrentHashMap.newKeySet());
+            if (own.size() >= maxPerManager) {
+                meterRegistry.counter("manager.push.rejected", "reason", "manager").increment();
+                return Optional.empty();
+            }
+            own.add(connection);
+            open.incrementAndGet();
+        }
+        emitter.onCompletion(() -> remove(connection));
+        emitter.onTimeout(() -> remove(connection));
+        emitter.onError(e -> remove(connection));
+
+        // Changes from here on are read from the feed; the counts below cover everything before
+        startFeed();
+        countsChanged(managerId);
+        log.info("📡 Manager {} opened a dashboard stream ({} open)", managerId, open.get());
+        return Optional.of(emitter);
+    }
+
+    /**
+     * An event dispatched on this node is in the feed already (feed_seq is
+     * given when it is claimed); read the feed now instead of at the next poll.
+     */
+    @EventListener
+    public void onTimesheetEvent(TimesheetEvent event) {
+        if (connections.isEmpty() || !affectsPending(event) || !feedReadQueued.compareAndSet(false, true)) {
+            return;
+        }
+        try {
+            pushExecutor.execute(() -> {
+                feedReadQueued.set(false);
+                readFeed();
+            });
+        } catch (RejectedExecutionException e) {
+            // The scheduled poll reads it
+            feedReadQueued.set(false);
+        }
+    }
+
+    /** Picks up the events of all nodes, in feed order. */
+    @Scheduled(fixedDelayString = "${app.manager.push.feed-poll-ms:2000}")
+    public void readFeed() {
+        synchronized (feedLock) {
+            if (connections.isEmpty()) {
+                feedCursor = -1;
+                return;
+            }
+            try {
+                if (feedCursor < 0) {
+                    feedCursor = newestFeedSeq();
+                    return;
+                }
+                List<OutboxEvent> rows;
+                do {
+                    rows = outboxEventRepo.findByFeedSeqGreaterThanOrderByFeedSeqAsc(feedCursor, PageRequest.of(0, FEED_PAGE));
+                    for (OutboxEvent row : rows) {
+                        feedCursor = row.getFeedSeq();
+                        apply(row);
+                    }
+                } while (rows.size() == FEED_PAGE);
+            } catch (Exception e) {
+                log.warn("⚠️ Manager push could not read the change feed: {}", e.getMessage());
+            }
+        }
+    }
+
+    private void startFeed() {
+        synchronized (feedLock) {
+            if (feedCursor < 0) {
+                try {
+                    feedCursor = newestFeedSeq();
+                } catch (Exception e) {
+                    // The next poll starts the feed
+                    log.warn("⚠️ Manager push could not read the change feed: {}", e.getMessage());
+                }
+            }
+        }
+    }
+
+    private long newestFeedSeq() {
+        return Optional.ofNullable(outboxEventRepo.findMaxFeedSeq()).orElse(0L);
+    }
+
+    private void apply(OutboxEvent row) {
+        TimesheetEvent event;
+        try {
+            event = DomainEventOutbox.read(row, objectMapper);
+        } catch (Exception e) {
+            log.debug("Feed event {} skipped: {}", row.getFeedSeq(), e.getMessage());
+            return;
+        }
+        if (!affectsPending(event)) {
+            return;
+        }
+        Set<Long> managers = new HashSet<>(projectMembershipService.current().managersOf(event.userId()));
+        if (event instanceof TimesheetEvent.SheetReviewed reviewed && reviewed.managerId() != null) {
+            managers.add(reviewed.managerId());
+        }
+
+        for (Long managerId : managers) {
+            Set<Connection> own = connections.get(managerId);
+            if (own == null) {
+                continue;
+            }
+            if (event instanceof TimesheetEvent.WeekSubmitted submitted) {
+                Map<String, Object> data = new LinkedHashMap<>();
+                data.put("userId", submitted.userId());
+                data.put("weekId", submitted.weekId());
+                data.put("timeSheets", submitted.timeSheetIds() == null ? 0 : submitted.timeSheetIds().size());
+                own.forEach(c -> c.offer(new Message("week-submitted", data)));
+            }
+            countsChanged(managerId);
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${app.manager.push.heartbeat-ms:25000}")
+    public void heartbeat() {
+        connections.values().forEach(own -> own.forEach(Connection::heartbeat));
+    }
+
+    /** Closes the streams whose current write has run longer than app.manager.push.write-timeout-ms. */
+    @Scheduled(fixedDelayString = "${app.manager.push.write-timeout-ms:10000}")
+    public void closeStalledWrites() {
+        long now = System.nanoTime();
+        connections.values().forEach(own -> own.forEach(c -> c.closeIfStalled(now)));
+    }
+
+    private static boolean affectsPending(TimesheetEvent event) {
+        return event instanceof TimesheetEvent.WeekSubmitted
+                || event instanceof TimesheetEvent.SheetReviewed
+                || event instanceof TimesheetEvent.WeekStatusChanged
+                || (event instanceof TimesheetEvent.EntriesDeleted deleted && deleted.sheetRemoved());
+    }
+
+    /** Queues one counts query for the manager unless one is already queued. */
+    private void countsChanged(Long managerId) {
+        if (!countsDue.add(managerId)) {
+            return;
+        }
+        try {
+            pushExecutor.execute(() -> {
+                countsDue.remove(managerId);
+                pushCounts(managerId);
+            });
+        } catch (RejectedExecutionException e) {
+            countsDue.remove(managerId);
+            meterRegistry.counter("manager.push.dropped", "reason", "busy").increment();
+        }
+    }
+
+    private void pushCounts(Long managerId) {
+        Set<Connection> own = connections.get(managerId);
+        if (own == null || own.isEmpty()) {
+            return;
+        }
+        try {
+            Set<Long> team = projectMembershipService.current().teamOf(managerId);
+            Map<String, Object> counts = pendingCounts(managerId, team, LocalDate.now().minusDays(pendingLookbackDays));
+            own.forEach(c -> c.offerCounts(new Message("pending", counts)));
+        } catch (Exception e) {
+            log.warn("⚠️ Pending counts for manager {} not pushed: {}", managerId, e.getMessage());
+        }
+    }
+
+    /** Same shape as the pending part of GET /api/manager/summary, names from the local user directory. */
+    Map<String, Object> pendingCounts(Long managerId, Set<Long> team, LocalDate since) {
+        Map<Long, Set<Long>> pendingWeeks = new TreeMap<>();
+        if (!team.isEmpty()) {
+            List<Object[]> awaiting = timeSheetRepo.findUserWeeksByStatusSince(team, AWAITING_REVIEW, since);
+            Set<Long> weekIds = new HashSet<>();
+            awaiting.forEach(row -> weekIds.add((Long) row[1]));
+
+            Set<List<Long>> decided = new HashSet<>();
+            if (!weekIds.isEmpty()) {
+                timeSheetReviewRepo.findReviewedUserWeeks(managerId, weekIds, DECIDED)
+                        .forEach(row -> decided.add(List.of((Long) row[0], (Long) row[1])));
+            }
+            for (Object[] row : awaiting) {
+                Long userId = (Long) row[0];
+                Long weekId = (Long) row[1];
+                if (!decided.contains(List.of(userId, weekId))) {
+                    pendingWeeks.computeIfAbsent(userId, id -> new HashSet<>()).add(weekId);
+                }
+            }
+        }
+
+        UserDirectoryIndex directory = userDirectoryReplica.current();
+        List<Map<String, Object>> users = new ArrayList<>();
+        int count = 0;
+        for (Map.Entry<Long, Set<Long>> e : pendingWeeks.entrySet()) {
+            Map<String, Object> user = new LinkedHashMap<>();
+            user.put("userId", e.getKey());
+            user.put("userName", directory.name(e.getKey(), "Unknown"));
+            user.put("pendingWeeks", e.getValue().size());
+            users.add(user);
+            count += e.getValue().size();
+        }
+
+        Map<String, Object> result = new LinkedHashMap<>();
+        result.put("pending", count);
+        result.put("pendingUsers", users);
+        result.put("since", since);
+        result.put("at", LocalDateTime.now());
+        return result;
+    }
+
+    private void remove(Connection connection) {
+        connection.closed = true;
+        synchronized (connections) {
+            Set<Connection> own = connections.get(connection.managerId);
+            if (own != null && own.remove(connection)) {
+                open.decrementAndGet();
+                if (own.isEmpty()) {
+                    connections.remove(connection.managerId);
+                }
+            }
+        }
+    }
+
+    int openConnections() {
+        return open.get();
+    }
+
+    /**
+     * One stream; events are written in order by at most one push thread at a
+     * time. SseEmitter.complete waits for a running send, so a stream closed
+     * while a write is running is completed by the writer once send returns.
+     */
+    private final class Connection {
+
+        private final Long managerId;
+        private final SseEmitter emitter;
+        private final ArrayDeque<Message> queue = new ArrayDeque<>();
+        private Message counts;
+        private boolean writing;
+        private Thread writer;
+        private long writeStartedAt;
+        private volatile boolean closed;
+
+        private Connection(Long managerId, SseEmitter emitter) {
+            this.managerId = managerId;
+            this.emitter = emitter;
+        }
+
+        void offer(Message message) {
+            synchronized (this) {
+                if (closed) {
+                    return;
+                }
+                if (queue.size() >= queueCapacity) {
+                    meterRegistry.counter("manager.push.dropped", "reason", "slow").increment();
+                    log.warn("⚠️ Closing dashboard stream of manager {}: {} events behind", managerId, queue.size());
+                    close();
+                    return;
+                }
+                queue.add(message);
+            }
+            startWriting();
+        }
+
+        void offerCounts(Message message) {
+            synchronized (this) {
+                if (closed) {
+                    return;
+                }
+                counts = message;
+            }
+            startWriting();
+        }
+
+        void heartbeat() {
+            synchronized (this) {
+                if (closed || writing || !queue.isEmpty() || counts != null) {
+                    return;
+                }
+                queue.add(new Message(null, null));
+            }
+            startWriting();
+        }
+
+        void closeIfStalled(long now) {
+            synchronized (this) {
+                if (closed || writer == null || now - writeStartedAt < writeTimeoutNanos) {
+                    return;
+                }
+                meterRegistry.counter("manager.push.dropped", "reason", "stalled").increment();
+                log.warn("⚠️ Closing dashboard stream of manager {}: write blocked for {} ms",
+                        managerId, TimeUnit.NANOSECONDS.toMillis(now - writeStartedAt));
+                close();
+                writer.interrupt();
+            }
+        }
+
+        private void startWriting() {
+            synchronized (this) {
+                if (writing || closed) {
+                    return;
+                }
+                writing = true;
+            }
+            try {
+                pushExecutor.execute(this::write);
+            } catch (RejectedExecutionException e) {
+                // Stays queued; the next event or heartbeat tries again
+                synchronized (this) {
+                    writing = false;
+                    if (closed) {
+                        complete();
+                    }
+                }
+                meterRegistry.counter("manager.push.dropped", "reason", "busy").increment();
+            }
+        }
+
+        private void write() {
+            while (true) {
+                Message next;
+                synchronized (this) {
+                    next = queue.isEmpty() ? counts : queue.poll();
+                    if (next == counts) {
+                        counts = null;
+                    }
+                    if (next == null || closed) {
+                        writing = false;
+                        if (closed) {
+                            complete();
+                        }
+                        return;
+                    }
+                    writer = Thread.currentThread();
+                    writeStartedAt = System.nanoTime();
+                }
+                try {
+                    emitter.send(next.toEvent());
+                } catch (IOException | IllegalStateException e) {
+                    // Client went away (or the write was interrupted); the container reports it too
+                    log.debug("Manager {} stream closed: {}", managerId, e.getMessage());
+                    synchronized (this) {
+                        writer = null;
+                        writing = false;
+                        // An interrupt from closeIfStalled must not reach the next task of this thread
+                        Thread.interrupted();
+                    }
+                    remove(this);
+                    return;
+                }
+                synchronized (this) {
+                    writer = null;
+                    if (closed) {
+                        Thread.interrupted();
+                    }
+                }
+            }
+        }
+
+        /** Called with the lock held; completes now unless a write is running. */
+        private void close() {
+            queue.clear();
+            counts = null;
+            remove(this);
+            if (!writing) {
+                complete();
+            }
+        }
+
+        private void complete() {
+            try {
+                emitter.complete();
+            } catch (Exception e) {
+                log.debug("Manager {} stream already closed: {}", managerId, e.getMessage());
+            }
+        }
+    }
+}
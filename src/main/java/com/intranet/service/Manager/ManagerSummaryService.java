@@ -6,11 +6,7 @@ import java.time.*;
 import java.util.*;
 import java.util.stream.Collectors;
 
-import org.springframework.beans.factory.annotation.Value;
-import org.springframework.core.ParameterizedTypeReference;
-import org.springframework.http.*;
 import org.springframework.stereotype.Service;
-import org.springframework.web.client.RestTemplate;
 
 import com.intranet.entity.TimeSheet;
 import com.intranet.entity.TimeSheetEntry;
@@ -19,6 +15,9 @@ import com.intranet.entity.WeeklyTimeSheetReview;
 import com.intranet.repository.TimeSheetRepo;
 import com.intranet.repository.TimeSheetReviewRepo;
 import com.intranet.repository.WeeklyTimeSheetReviewRepo;
+import com.intranet.service.directory.UserDirectoryIndex;
+import com.intranet.service.project.ProjectMembershipService;
+import com.intranet.util.cache.UserDirectoryService;
 
 import lombok.RequiredArgsConstructor;
 
@@ -29,15 +28,8 @@ public class ManagerSummaryService {
     private final TimeSheetRepo timeSheetRepo;
     private final TimeSheetReviewRepo timeSheetReviewRepo;
     private final WeeklyTimeSheetReviewRepo weeklyReviewRepo;
-
-    @Value("${pms.api.base-url}")
-    private String pmsBaseUrl;
-
-    @Value("${ums.api.base-url}")
-    private String umsBaseUrl;
-
-
-    private final RestTemplate restTemplate = new RestTemplate();
+    private final UserDirectoryService userDirectoryService;
+    private final ProjectMembershipService projectMembershipService;
 
     public Map<String, Object> generateManagerSummary(
             Long managerId,
@@ -46,91 +38,23 @@ public class ManagerSummaryService {
             String authHeader
     ) {
 
-        HttpHeaders headers = new HttpHeaders();
-        headers.set("Authorization", authHeader);
-        HttpEntity<Void> entity = new HttpEntity<>(headers);
-
         // ------------------------------
-        // 1️⃣ Fetch Manager Projects
+        // 1️⃣ Manager Projects and team from the project membership graph
         // ------------------------------
-        String url = pmsBaseUrl + "/projects/owner";
-
-        ResponseEntity<List<Map<String, Object>>> response = restTemplate.exchange(
-                url,
-                HttpMethod.GET,
-                entity,
-                new ParameterizedTypeReference<List<Map<String, Object>>>() {}
-        );
-
-        List<Map<String, Object>> projects = response.getBody();
-        if (projects == null || projects.isEmpty()) {
-            return emptySummary(startDate, endDate);
-        }
-
-        // Collect memberIds
-        Set<Long> memberIds = new HashSet<>();
-        for (Map<String, Object> p : projects) {
-            List<Map<String, Object>> members =
-                    (List<Map<String, Object>>) p.get("members");
-
-            if (members != null) {
-                for (Map<String, Object> m : members) {
-                    Number idNum = (Number) m.get("id");
-                    if (idNum != null) {
-                        memberIds.add(idNum.longValue());
-                    }
-                }
-            }
-        }
-
+        Set<Long> memberIds = projectMembershipService.graph(authHeader).teamOf(managerId);
         if (memberIds.isEmpty()) {
             return emptySummary(startDate, endDate);
         }
 
         // ------------------------------
-        // 2️⃣ Load UMS Users (names + emails)
+        // 2️⃣ UMS Users (names + emails) from the local user directory
         // ------------------------------
+        UserDirectoryIndex userDirectory = userDirectoryService.directory(authHeader);
         Map<Long, String> nameCache = new HashMap<>();
         Map<Long, String> emailCache = new HashMap<>();
-
-        try {
-            String umsUrl = umsBaseUrl + "/admin/users?page=1&limit=500";
-
-            ResponseEntity<Map<String, Object>> umsResponse = restTemplate.exchange(
-                    umsUrl,
-                    HttpMethod.GET,
-                    entity,
-                    new ParameterizedTypeReference<Map<String, Object>>() {}
-            );
-
-            Map<String, Object> body = umsResponse.getBody();
-            if (body != null) {
-                List<Map<String, Object>> users =
-                        (List<Map<String, Object>>) body.get("users");
-
-                if (users != null) {
-                    for (Map<String, Object> u : users) {
-
-                        Number idNum = (Number) u.get("user_id");
-                        if (idNum == null) continue;
-
-                        Long id = idNum.longValue();
-                        String fn = (String) u.getOrDefault("first_name", "");
-                        String ln = (String) u.getOrDefault("last_name", "");
-                        String email = (String) u.getOrDefault("mail", "unknown@example.com");
-
-                        nameCache.put(id, (fn + " " + ln).trim());
-                        emailCache.put(id, email);
-                    }
-                }
-            }
-
-        } catch (Exception ignore) {}
-
-        // Defaults
         for (Long id : memberIds) {
-            if (!nameCache.containsKey(id)) nameCache.put(id, "Unknown");
-            if (!emailCache.containsKey(id)) emailCache.put(id, "unknown@example.com");
+            nameCache.put(id, userDirectory.name(id, "Unknown"));
+            emailCache.put(id, userDirectory.email(id, "unknown@example.com"));
         }
 
         // ------------------------------
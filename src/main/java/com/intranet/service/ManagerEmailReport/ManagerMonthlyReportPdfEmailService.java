@@ -1,35 +1,43 @@
 package com.intranet.service.ManagerEmailReport;
 
+import com.intranet.service.pdf.RenderedPdf;
+import com.intranet.service.pdf.ReportPdfCache;
+
 import lombok.RequiredArgsConstructor;
 import org.springframework.stereotype.Service;
 
 import java.util.Map;
+import java.util.concurrent.Callable;
 
 @Service
 @RequiredArgsConstructor
 public class ManagerMonthlyReportPdfEmailService {
 
     private final ManagerPdfTemplateBuilder templateBuilder;
-    private final com.intranet.service.MonthReportEmailSend.PdfGeneratorService pdfGenerator; // reuse existing PdfGeneratorService
+    private final ReportPdfCache reportPdfCache;
     private final ManagerEmailPdfSenderService emailSender; // created below
 
     /**
      * Generate HTML from report, convert to PDF and send as attachment.
+     * The report is only built when no cached PDF of the closed month matches.
      */
-    public void generateAndSendManagerPdf(String toEmail, Map<String, Object> report, String managerName) throws Exception {
+    public void generateAndSendManagerPdf(String toEmail, Long managerId, String managerName,
+                                          int month, int year, Callable<Map<String, Object>> report) throws Exception {
 
-        // 1) Build XHTML-safe HTML string
-        String html = templateBuilder.buildManagerMonthlyReportHtml(report, managerName);
+        // 1) Build XHTML-safe HTML string (on cache miss only)
+        ReportPdfCache.HtmlSource html = () -> templateBuilder.buildManagerMonthlyReportHtml(report.call(), managerName);
         
-        // 2) Create PDF bytes
-        byte[] pdf = pdfGenerator.generatePdfFromHtml2(html);
-
-        // 3) Email subject/body
-        String subject = "Manager Monthly Report - " + managerName;
-        String body = "Hi " + managerName + ",\n\nPlease find attached the manager monthly report.\n\nRegards,\nTimesheet Management System";
-
-        // 4) Send email with attachment (file name includes month-year if available)
-        String filename = "Manager_Report.pdf";
-        emailSender.sendEmailWithAttachment(toEmail, subject, body, pdf, filename);
+        // 2) Create PDF (cached file, or temporary file deleted once sent)
+        try (RenderedPdf pdf = reportPdfCache.attachment(
+                ReportPdfCache.ReportType.MANAGER_MONTHLY, managerId, month, year, html)) {
+
+            // 3) Email subject/body
+            String subject = "Manager Monthly Report - " + managerName;
+            String body = "Hi " + managerName + ",\n\nPlease find attached the manager monthly report.\n\nRegards,\nTimesheet Management System";
+
+            // 4) Send email with attachment (file name includes month-year if available)
+            String filename = "Manager_Report.pdf";
+            emailSender.sendEmailWithAttachment(toEmail, subject, body, pdf.resource(), filename);
+        }
     }
 }
@@ -1,6 +1,6 @@
 package com.intranet.service.MonthReportEmailSend;
 
-import org.springframework.core.io.ByteArrayResource;
+import org.springframework.core.io.InputStreamSource;
 import org.springframework.mail.javamail.JavaMailSender;
 import org.springframework.mail.javamail.MimeMessageHelper;
 import org.springframework.stereotype.Service;
@@ -14,7 +14,7 @@ public class EmailPdfSenderService {
 
     private final JavaMailSender mailSender;
 
-    public void sendPdfReport(String toEmail, byte[] pdfBytes, String employeeName) throws Exception {
+    public void sendPdfReport(String toEmail, InputStreamSource pdf, String employeeName) throws Exception {
 
         MimeMessage message = mailSender.createMimeMessage();
         MimeMessageHelper helper = new MimeMessageHelper(message, true);
@@ -23,7 +23,7 @@ public class EmailPdfSenderService {
         helper.setSubject("Monthly Timesheet PDF Report - " + employeeName);
         helper.setText("Hi,\n\nPlease find attached your monthly timesheet report.\n\nRegards,\nTimesheet Management System");
 
-        helper.addAttachment("Monthly_Report.pdf", new ByteArrayResource(pdfBytes));
+        helper.addAttachment("Monthly_Report.pdf", pdf);
 
         mailSender.send(message);
     }
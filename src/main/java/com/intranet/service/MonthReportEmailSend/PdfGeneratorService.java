@@ -2,34 +2,37 @@ package com.intranet.service.MonthReportEmailSend;
 
 import org.springframework.stereotype.Service;
 
-import com.openhtmltopdf.pdfboxout.PdfRendererBuilder;
+import com.intranet.service.pdf.PdfRenderService;
+import com.intranet.service.pdf.RenderedPdf;
+
+import lombok.RequiredArgsConstructor;
 
-import java.io.ByteArrayOutputStream;
 import java.io.IOException;
 
 
 @Service
+@RequiredArgsConstructor
 public class PdfGeneratorService {
 
-    public byte[] generatePdfFromHtml(String htmlContent) {
-        ByteArrayOutputStream out = new ByteArrayOutputStream();
+    private final PdfRenderService pdfRenderService;
 
-        com.openhtmltopdf.pdfboxout.PdfRendererBuilder builder =
-                new com.openhtmltopdf.pdfboxout.PdfRendererBuilder();
+    /** Renders to a temporary file for use as a mail attachment; close it when sent. */
+    public RenderedPdf generatePdfFileFromHtml(String htmlContent) throws IOException {
+        return pdfRenderService.renderToTempFile(htmlContent);
+    }
 
-        builder.withHtmlContent(htmlContent, null);
-        builder.toStream(out);
+    /** Checks the HTML first, then renders to a temporary file; close it when sent. */
+    public RenderedPdf generatePdfFileFromHtml2(String htmlContent) throws IOException {
+        htmlContent = validateHtml(htmlContent);
         try {
-            builder.run();
-        } catch (IOException e) {
-            
-            e.printStackTrace();
+            return pdfRenderService.renderToTempFile(htmlContent);
+        } catch (Exception e) {
+            // wrap for caller to see original cause
+            throw new IOException("PDF generation failed: " + e.getMessage(), e);
         }
-
-        return out.toByteArray();
     }
 
-    public byte[] generatePdfFromHtml2(String htmlContent) throws IOException {
+    private static String validateHtml(String htmlContent) throws IOException {
         if (htmlContent == null) htmlContent = "";
 
         // 1) Trim stray whitespace / BOM
@@ -39,21 +42,6 @@ public class PdfGeneratorService {
         if (!htmlContent.startsWith("<") || !htmlContent.toLowerCase().contains("<html")) {
             throw new IOException("HTML content invalid or missing <html> root element.");
         }
-
-        ByteArrayOutputStream out = new ByteArrayOutputStream();
-
-        PdfRendererBuilder builder = new PdfRendererBuilder();
-        // baseUri = null is OK for inline content
-        builder.withHtmlContent(htmlContent, null);
-        builder.toStream(out);
-
-        try {
-            builder.run();
-        } catch (Exception e) {
-            // wrap for caller to see original cause
-            throw new IOException("PDF generation failed: " + e.getMessage(), e);
-        }
-
-        return out.toByteArray();
+        return htmlContent;
     }
 }
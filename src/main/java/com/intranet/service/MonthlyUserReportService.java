@@ -10,6 +10,7 @@ import com.intranet.entity.TimeSheet;
 import com.intranet.entity.TimeSheetEntry;
 import com.intranet.repository.TimeSheetRepo;
 import com.intranet.service.report.TimesheetFinanceReportService;
+import com.intranet.util.UpstreamCalls;
 import com.intranet.util.cache.LeaveDirectoryService;
 import com.intranet.util.cache.ProjectDirectoryService;
 import com.intranet.util.cache.UserDirectoryService;
@@ -27,6 +28,7 @@ import org.springframework.web.context.request.ServletRequestAttributes;
 import java.math.BigDecimal;
 import java.time.LocalDate;
 import java.util.*;
+import java.util.concurrent.CompletableFuture;
 import java.util.stream.Collectors;
 
 @Service
@@ -47,6 +49,8 @@ public class MonthlyUserReportService {
     private final LeaveDirectoryService leaveDirectoryService;
     
     private final WeeklySummaryService weeklySummaryService;
+
+    private final UpstreamCalls upstreamCalls;
     // private final UserRepository userRepository; // optional for employee name
 
         // ✅ Authorization header builder
@@ -75,9 +79,15 @@ public class MonthlyUserReportService {
         HttpEntity<Void> entity=buildEntityWithAuth();
         String authHeader = entity.getHeaders().getFirst("Authorization");
 
-        Map<Long,Map<String,Object>> allUsers = userDirectoryService.fetchAllUsers(authHeader);
-
-        Map<Long,Map<String,Object>> projectDirectory = projectDirectoryService.fetchAllProjects(authHeader);
+        // ✅ Start the independent UMS / PMS / LMS calls; the DB work below runs meanwhile
+        CompletableFuture<Map<Long,Map<String,Object>>> usersCall = upstreamCalls.optional(
+                "ums", "users", () -> userDirectoryService.fetchAllUsers(authHeader), Map.of());
+        CompletableFuture<Map<Long,Map<String,Object>>> projectsCall = upstreamCalls.optional(
+                "pms", "projects", () -> projectDirectoryService.fetchAllProjects(authHeader), Map.of());
+        CompletableFuture<List<LocalDate>> holidaysCall = upstreamCalls.required(
+                "lms", "holidays", () -> holidayService.getUserHolidaysMonthYear(userId, month, year));
+        CompletableFuture<UserLeaveBreakdown> leavesCall = upstreamCalls.required(
+                "lms", "leaves", () -> calculateLeaveDetailsForUserReport(userId, month, year, authHeader));
 
         LocalDate startOfMonth = LocalDate.of(year, month, 1);
         LocalDate endOfMonth = startOfMonth.withDayOfMonth(startOfMonth.lengthOfMonth());
@@ -151,11 +161,11 @@ public class MonthlyUserReportService {
                 .collect(Collectors.toSet())
                 .size();
 
-        List<LocalDate> HolidayDates = holidayService.getUserHolidaysMonthYear(userId, month, year);
+        List<LocalDate> HolidayDates = UpstreamCalls.await(holidaysCall);
         int totalHolidays = HolidayDates.size();
 
 
-        UserLeaveBreakdown totalLeavesData = calculateLeaveDetailsForUserReport(userId, month, year,authHeader);
+        UserLeaveBreakdown totalLeavesData = UpstreamCalls.await(leavesCall);
         
         
         LeavesAndHolidaysDTO leavesAndHolidays = new LeavesAndHolidaysDTO();
@@ -168,7 +178,7 @@ public class MonthlyUserReportService {
 
          // Project Summaries
 
-        
+        Map<Long,Map<String,Object>> projectDirectory = UpstreamCalls.await(projectsCall);
         Map<String,Object> ProjectSummaries =
        timesheetFinanceReportService.buildProjectBreakdownForUser(
         userId,
@@ -178,6 +188,7 @@ public class MonthlyUserReportService {
     );
 
         
+        Map<Long,Map<String,Object>> allUsers = UpstreamCalls.await(usersCall);
         String employeeName = Optional.ofNullable(allUsers.get(userId))
         .map(u -> (String) u.get("name"))
         .orElse("Unknown User");
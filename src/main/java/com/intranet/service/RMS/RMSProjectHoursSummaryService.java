@@ -17,6 +17,7 @@ import java.util.Objects;
 import java.util.Optional;
 import java.util.Set;
 import java.util.TreeSet;
+import java.util.concurrent.CompletableFuture;
 import java.util.stream.Collectors;
 
 import org.springframework.beans.factory.annotation.Value;
@@ -33,16 +34,16 @@ import org.springframework.web.context.request.ServletRequestAttributes;
 import com.intranet.dto.external.TaskDTO;
 import com.intranet.dto.rms.RMSProjectDetailResponseDTO;
 import com.intranet.dto.rms.RMSInternalTaskHoursDTO;
+import com.intranet.dto.rms.RMSProjectHoursAggregateDTO;
 import com.intranet.dto.rms.RMSProjectHoursDetailDTO;
 import com.intranet.dto.rms.RMSProjectMemberDTO;
 import com.intranet.dto.rms.RMSProjectHoursResourceDTO;
 import com.intranet.dto.rms.RMSProjectHoursSummaryResponseDTO;
 import com.intranet.dto.rms.RMSProjectTaskHoursDTO;
 import com.intranet.entity.InternalProject;
-import com.intranet.entity.TimeSheet;
-import com.intranet.entity.TimeSheetEntry;
 import com.intranet.repository.InternalProjectRepo;
-import com.intranet.repository.TimeSheetRepo;
+import com.intranet.repository.TimeSheetEntryRepo;
+import com.intranet.util.UpstreamCalls;
 import com.intranet.util.cache.ProjectDirectoryService;
 import com.intranet.util.cache.UserDirectoryService;
 
@@ -58,32 +59,33 @@ public class RMSProjectHoursSummaryService {
     private static final List<String> START_DATE_KEYS = List.of("startDate", "projectStartDate", "plannedStartDate");
     private static final List<String> END_DATE_KEYS = List.of("endDate", "projectEndDate", "plannedEndDate");
 
-    private final TimeSheetRepo timeSheetRepo;
+    private final TimeSheetEntryRepo timeSheetEntryRepo;
     private final InternalProjectRepo internalProjectRepo;
     private final ProjectDirectoryService projectDirectoryService;
     private final UserDirectoryService userDirectoryService;
-    private final RestTemplate restTemplate = new RestTemplate();
+    private final RestTemplate restTemplate;
+    private final UpstreamCalls upstreamCalls;
 
     @Value("${pms.api.base-url}")
     private String pmsBaseUrl;
 
     public RMSProjectHoursSummaryResponseDTO getProjectHoursSummary() {
         String authHeader = getAuthorizationHeader();
-        Map<Long, Map<String, Object>> projectDirectory = projectDirectoryService.fetchAllProjects(authHeader);
-        Map<Long, Map<String, Object>> userDirectory = userDirectoryService.fetchAllUsers(authHeader);
+        // PMS and UMS directories load while the DB aggregates run
+        CompletableFuture<Map<Long, Map<String, Object>>> projectsCall = upstreamCalls.optional(
+                "pms", "projects", () -> projectDirectoryService.fetchAllProjects(authHeader), Map.of());
+        CompletableFuture<Map<Long, Map<String, Object>>> usersCall = upstreamCalls.optional(
+                "ums", "users", () -> userDirectoryService.fetchAllUsers(authHeader), Map.of());
         List<InternalProject> internalProjects = internalProjectRepo.findAll();
-        List<TimeSheet> allSheets = timeSheetRepo.findAllNonDraftWithEntries();
 
-        List<TimeSheetEntry> allEntries = allSheets.stream()
-                .filter(Objects::nonNull)
-                .filter(ts -> !Boolean.TRUE.equals(ts.getAutoGenerated()))
-                .flatMap(ts -> Optional.ofNullable(ts.getEntries()).orElse(Collections.emptyList()).stream())
-                .filter(Objects::nonNull)
-                .filter(entry -> entry.getProjectId() != null)
-                .collect(Collectors.toList());
+        // Hours are summed in the database per (project, task, user, billable),
+        // so memory depends on the number of projects/tasks/users, not on history.
+        Map<Long, List<RMSProjectHoursAggregateDTO>> entriesByProject =
+                timeSheetEntryRepo.getNonDraftProjectHoursAggregates().stream()
+                        .collect(Collectors.groupingBy(RMSProjectHoursAggregateDTO::getProjectId));
 
-        Map<Long, List<TimeSheetEntry>> entriesByProject = allEntries.stream()
-                .collect(Collectors.groupingBy(TimeSheetEntry::getProjectId));
+        Map<Long, Map<String, Object>> projectDirectory = UpstreamCalls.await(projectsCall);
+        Map<Long, Map<String, Object>> userDirectory = UpstreamCalls.await(usersCall);
 
         Map<Long, List<InternalProject>> internalProjectsByProject = internalProjects.stream()
                 .filter(ip -> ip.getProjectId() != null)
@@ -119,25 +121,28 @@ public class RMSProjectHoursSummaryService {
 
     public RMSProjectDetailResponseDTO getProjectDetail(Long projectId) {
         String authHeader = getAuthorizationHeader();
-        Map<Long, Map<String, Object>> projectDirectory = projectDirectoryService.fetchAllProjects(authHeader);
-        Map<Long, Map<String, Object>> userDirectory = userDirectoryService.fetchAllUsers(authHeader);
+        // PMS / UMS directories and the PMS task list load while the DB aggregates run
+        CompletableFuture<Map<Long, Map<String, Object>>> projectsCall = upstreamCalls.optional(
+                "pms", "projects", () -> projectDirectoryService.fetchAllProjects(authHeader), Map.of());
+        CompletableFuture<Map<Long, Map<String, Object>>> usersCall = upstreamCalls.optional(
+                "ums", "users", () -> userDirectoryService.fetchAllUsers(authHeader), Map.of());
+        CompletableFuture<Map<Long, TaskDTO>> tasksCall = upstreamCalls.optional(
+                "pms", "project tasks", () -> fetchProjectTasksFromPms(projectId, authHeader), Map.of());
 
         List<InternalProject> projectInternalTasks = internalProjectRepo.findAll().stream()
                 .filter(ip -> ip.getProjectId() != null && Objects.equals(ip.getProjectId().longValue(), projectId))
                 .collect(Collectors.toList());
 
-        List<TimeSheetEntry> projectEntries = timeSheetRepo.findAllNonDraftWithEntries().stream()
-                .filter(Objects::nonNull)
-                .filter(ts -> !Boolean.TRUE.equals(ts.getAutoGenerated()))
-                .flatMap(ts -> Optional.ofNullable(ts.getEntries()).orElse(Collections.emptyList()).stream())
-                .filter(Objects::nonNull)
-                .filter(entry -> Objects.equals(entry.getProjectId(), projectId))
-                .collect(Collectors.toList());
+        List<RMSProjectHoursAggregateDTO> projectEntries =
+                timeSheetEntryRepo.getNonDraftProjectHoursAggregates(projectId);
 
         if (projectEntries.isEmpty()) {
             throw new IllegalArgumentException("No timesheet project found for projectId: " + projectId);
         }
 
+        Map<Long, Map<String, Object>> projectDirectory = UpstreamCalls.await(projectsCall);
+        Map<Long, Map<String, Object>> userDirectory = UpstreamCalls.await(usersCall);
+
         Map<String, Object> projectInfo = projectDirectory.get(projectId);
         RMSProjectHoursDetailDTO summary = buildProjectSummary(
                 projectId,
@@ -166,7 +171,7 @@ public class RMSProjectHoursSummaryService {
         response.setAssignedResourceCount(response.getAssignedResources().size());
         response.setResources(summary.getResources());
         response.setLoggedResourceCount(summary.getResources().size());
-        response.setTasks(buildProjectTasks(projectId, projectEntries, projectInternalTasks, userDirectory, authHeader));
+        response.setTasks(buildProjectTasks(projectEntries, projectInternalTasks, userDirectory, UpstreamCalls.await(tasksCall)));
         response.setInternalTasks(summary.getInternalTasks());
         return response;
     }
@@ -174,18 +179,18 @@ public class RMSProjectHoursSummaryService {
     private RMSProjectHoursDetailDTO buildProjectSummary(
             Long projectId,
             Map<String, Object> projectInfo,
-            List<TimeSheetEntry> projectEntries,
+            List<RMSProjectHoursAggregateDTO> projectEntries,
             List<InternalProject> internalProjects,
             Map<Long, Map<String, Object>> userDirectory) {
 
         BigDecimal billableHours = sum(projectEntries.stream()
-                .filter(TimeSheetEntry::isBillable)
-                .map(TimeSheetEntry::getHoursWorked)
+                .filter(RMSProjectHoursAggregateDTO::isBillable)
+                .map(RMSProjectHoursAggregateDTO::getHours)
                 .toList());
 
         BigDecimal nonBillableHours = sum(projectEntries.stream()
                 .filter(entry -> !entry.isBillable())
-                .map(TimeSheetEntry::getHoursWorked)
+                .map(RMSProjectHoursAggregateDTO::getHours)
                 .toList());
 
         BigDecimal actualHours = billableHours.add(nonBillableHours);
@@ -220,28 +225,28 @@ public class RMSProjectHoursSummaryService {
 
     private List<RMSProjectHoursResourceDTO> buildResources(
             Map<String, Object> projectInfo,
-            List<TimeSheetEntry> projectEntries,
+            List<RMSProjectHoursAggregateDTO> projectEntries,
             Map<Long, Map<String, Object>> userDirectory) {
 
-        Map<Long, List<TimeSheetEntry>> entriesByUser = projectEntries.stream()
-                .filter(entry -> entry.getTimeSheet() != null && entry.getTimeSheet().getUserId() != null)
-                .collect(Collectors.groupingBy(entry -> entry.getTimeSheet().getUserId()));
+        Map<Long, List<RMSProjectHoursAggregateDTO>> entriesByUser = projectEntries.stream()
+                .filter(entry -> entry.getUserId() != null)
+                .collect(Collectors.groupingBy(RMSProjectHoursAggregateDTO::getUserId));
 
         Map<Long, Map<String, Object>> projectMembers = extractProjectMembers(projectInfo);
         List<RMSProjectHoursResourceDTO> resources = new ArrayList<>();
 
-        for (Map.Entry<Long, List<TimeSheetEntry>> entry : entriesByUser.entrySet()) {
+        for (Map.Entry<Long, List<RMSProjectHoursAggregateDTO>> entry : entriesByUser.entrySet()) {
             Long userId = entry.getKey();
-            List<TimeSheetEntry> userEntries = entry.getValue();
+            List<RMSProjectHoursAggregateDTO> userEntries = entry.getValue();
 
             BigDecimal billableHours = sum(userEntries.stream()
-                    .filter(TimeSheetEntry::isBillable)
-                    .map(TimeSheetEntry::getHoursWorked)
+                    .filter(RMSProjectHoursAggregateDTO::isBillable)
+                    .map(RMSProjectHoursAggregateDTO::getHours)
                     .toList());
 
             BigDecimal nonBillableHours = sum(userEntries.stream()
                     .filter(e -> !e.isBillable())
-                    .map(TimeSheetEntry::getHoursWorked)
+                    .map(RMSProjectHoursAggregateDTO::getHours)
                     .toList());
 
             Map<String, Object> memberInfo = projectMembers.getOrDefault(userId, userDirectory.get(userId));
@@ -264,7 +269,7 @@ public class RMSProjectHoursSummaryService {
     }
 
     private List<RMSInternalTaskHoursDTO> buildInternalTasks(
-            List<TimeSheetEntry> projectEntries,
+            List<RMSProjectHoursAggregateDTO> projectEntries,
             List<InternalProject> internalProjects,
             Map<Long, Map<String, Object>> userDirectory) {
 
@@ -280,23 +285,23 @@ public class RMSProjectHoursSummaryService {
                         (left, right) -> left,
                         LinkedHashMap::new));
 
-        Map<Long, List<TimeSheetEntry>> entriesByTask = projectEntries.stream()
+        Map<Long, List<RMSProjectHoursAggregateDTO>> entriesByTask = projectEntries.stream()
                 .filter(entry -> entry.getTaskId() != null)
-                .collect(Collectors.groupingBy(TimeSheetEntry::getTaskId));
+                .collect(Collectors.groupingBy(RMSProjectHoursAggregateDTO::getTaskId));
 
         return entriesByTask.entrySet().stream()
                 .map(entry -> {
                     Long taskId = entry.getKey();
-                    List<TimeSheetEntry> taskEntries = entry.getValue();
+                    List<RMSProjectHoursAggregateDTO> taskEntries = entry.getValue();
 
                     BigDecimal billableHours = sum(taskEntries.stream()
-                            .filter(TimeSheetEntry::isBillable)
-                            .map(TimeSheetEntry::getHoursWorked)
+                            .filter(RMSProjectHoursAggregateDTO::isBillable)
+                            .map(RMSProjectHoursAggregateDTO::getHours)
                             .toList());
 
                     BigDecimal nonBillableHours = sum(taskEntries.stream()
                             .filter(e -> !e.isBillable())
-                            .map(TimeSheetEntry::getHoursWorked)
+                            .map(RMSProjectHoursAggregateDTO::getHours)
                             .toList());
 
                     RMSInternalTaskHoursDTO dto = new RMSInternalTaskHoursDTO();
@@ -360,13 +365,11 @@ public class RMSProjectHoursSummaryService {
     }
 
     private List<RMSProjectTaskHoursDTO> buildProjectTasks(
-            Long projectId,
-            List<TimeSheetEntry> projectEntries,
+            List<RMSProjectHoursAggregateDTO> projectEntries,
             List<InternalProject> internalProjects,
             Map<Long, Map<String, Object>> userDirectory,
-            String authHeader) {
+            Map<Long, TaskDTO> pmsTasks) {
 
-        Map<Long, TaskDTO> pmsTasks = fetchProjectTasksFromPms(projectId, authHeader);
         Map<Long, InternalProject> internalTaskMap = internalProjects.stream()
                 .filter(ip -> ip.getTaskId() != null)
                 .collect(Collectors.toMap(
@@ -375,23 +378,23 @@ public class RMSProjectHoursSummaryService {
                         (left, right) -> left,
                         LinkedHashMap::new));
 
-        Map<Long, List<TimeSheetEntry>> entriesByTask = projectEntries.stream()
+        Map<Long, List<RMSProjectHoursAggregateDTO>> entriesByTask = projectEntries.stream()
                 .filter(entry -> entry.getTaskId() != null)
-                .collect(Collectors.groupingBy(TimeSheetEntry::getTaskId));
+                .collect(Collectors.groupingBy(RMSProjectHoursAggregateDTO::getTaskId));
 
         return entriesByTask.entrySet().stream()
                 .map(entry -> {
                     Long taskId = entry.getKey();
-                    List<TimeSheetEntry> taskEntries = entry.getValue();
+                    List<RMSProjectHoursAggregateDTO> taskEntries = entry.getValue();
 
                     BigDecimal billableHours = sum(taskEntries.stream()
-                            .filter(TimeSheetEntry::isBillable)
-                            .map(TimeSheetEntry::getHoursWorked)
+                            .filter(RMSProjectHoursAggregateDTO::isBillable)
+                            .map(RMSProjectHoursAggregateDTO::getHours)
                             .toList());
 
                     BigDecimal nonBillableHours = sum(taskEntries.stream()
                             .filter(e -> !e.isBillable())
-                            .map(TimeSheetEntry::getHoursWorked)
+                            .map(RMSProjectHoursAggregateDTO::getHours)
                             .toList());
 
                     RMSProjectTaskHoursDTO dto = new RMSProjectTaskHoursDTO();
@@ -479,7 +482,7 @@ public class RMSProjectHoursSummaryService {
     }
 
     private Boolean resolveTaskBillable(
-            List<TimeSheetEntry> taskEntries,
+            List<RMSProjectHoursAggregateDTO> taskEntries,
             TaskDTO pmsTask,
             InternalProject internalTask) {
 
@@ -490,7 +493,7 @@ public class RMSProjectHoursSummaryService {
             return internalTask.isBillable();
         }
 
-        boolean anyBillable = taskEntries.stream().anyMatch(TimeSheetEntry::isBillable);
+        boolean anyBillable = taskEntries.stream().anyMatch(RMSProjectHoursAggregateDTO::isBillable);
         boolean anyNonBillable = taskEntries.stream().anyMatch(entry -> !entry.isBillable());
         if (anyBillable && !anyNonBillable) {
             return true;
@@ -513,7 +516,7 @@ public class RMSProjectHoursSummaryService {
 
     private BigDecimal resolvePlannedHours(
             Map<String, Object> projectInfo,
-            List<TimeSheetEntry> projectEntries,
+            List<RMSProjectHoursAggregateDTO> projectEntries,
             LocalDate startDate,
             LocalDate endDate) {
 
@@ -539,15 +542,15 @@ public class RMSProjectHoursSummaryService {
         return derivedHours.setScale(2, RoundingMode.HALF_UP);
     }
 
-    private int resolvePlannedResourceCount(Map<String, Object> projectInfo, List<TimeSheetEntry> projectEntries) {
+    private int resolvePlannedResourceCount(Map<String, Object> projectInfo, List<RMSProjectHoursAggregateDTO> projectEntries) {
         int configuredMembers = extractProjectMembers(projectInfo).size();
         if (configuredMembers > 0) {
             return configuredMembers;
         }
 
         long actualResources = projectEntries.stream()
-                .filter(entry -> entry.getTimeSheet() != null && entry.getTimeSheet().getUserId() != null)
-                .map(entry -> entry.getTimeSheet().getUserId())
+                .map(RMSProjectHoursAggregateDTO::getUserId)
+                .filter(Objects::nonNull)
                 .distinct()
                 .count();
 
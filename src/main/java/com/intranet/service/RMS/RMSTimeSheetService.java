@@ -2,9 +2,12 @@ package com.intranet.service.RMS;
 
 import com.intranet.dto.rms.*;
 import com.intranet.entity.InternalProject;
-import com.intranet.entity.TimeSheet;
-import com.intranet.entity.TimeSheetEntry;
+import com.intranet.dto.rollup.ProjectRollupHoursDTO;
+import com.intranet.dto.rollup.UserRollupTotalsDTO;
+import com.intranet.entity.TimeSheetDailyRollup;
 import com.intranet.repository.InternalProjectRepo;
+import com.intranet.repository.TimeSheetDailyRollupRepo;
+import com.intranet.repository.TimeSheetProjectDailyRollupRepo;
 import java.math.BigDecimal;
 import java.math.RoundingMode;
 import java.time.LocalDate;
@@ -18,6 +21,7 @@ import com.intranet.dto.rms.TimePeriodDataDTO;
 import com.intranet.dto.rms.TimeSheetSummaryResponseDTO;
 import com.intranet.repository.TimeSheetEntryRepo;
 import com.intranet.repository.TimeSheetRepo;
+import com.intranet.util.ParallelCompute;
 import lombok.RequiredArgsConstructor;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.web.client.RestTemplate;
@@ -25,7 +29,6 @@ import org.springframework.web.client.RestTemplate;
 import java.time.DayOfWeek;
 import java.time.YearMonth;
 import java.util.*;
-import java.util.function.Predicate;
 import java.util.stream.Collectors;
 
 @Service
@@ -35,7 +38,10 @@ public class RMSTimeSheetService {
     private final TimeSheetRepo timeSheetRepository;
     private final TimeSheetEntryRepo entryRepository;
     private final InternalProjectRepo internalProjectRepo;
+    private final TimeSheetDailyRollupRepo dailyRollupRepo;
+    private final TimeSheetProjectDailyRollupRepo projectRollupRepo;
     private final RestTemplate restTemplate;
+    private final ParallelCompute parallelCompute;
 
     @Value("${UMS_API_BASE_URL}")
     private String umsUrl;
@@ -54,11 +60,13 @@ public class RMSTimeSheetService {
         BigDecimal averageTotalHours = totalUsers > 0 ? totalHours.divide(BigDecimal.valueOf(totalUsers), 2, RoundingMode.HALF_UP) : BigDecimal.ZERO;
         BigDecimal averageBillableHours = totalUsers > 0 ? billableHours.divide(BigDecimal.valueOf(totalUsers), 2, RoundingMode.HALF_UP) : BigDecimal.ZERO;
         BigDecimal averageNonBillableHours = totalUsers > 0 ? nonBillableHours.divide(BigDecimal.valueOf(totalUsers), 2, RoundingMode.HALF_UP) : BigDecimal.ZERO;
-        List<TimeSheet> timeSheets = timeSheetRepository.findByWorkDateBetweenWithWeekInfoAndEntries(startDate, endDate);
+        // Per-user and per-day figures come from the pre-aggregated rollup tables
+        // instead of loading every timesheet and entry in the range.
+        List<UserRollupTotalsDTO> userTotals = dailyRollupRepo.getUserTotals(startDate, endDate);
+        List<ProjectRollupHoursDTO> userProjectHours = projectRollupRepo.getUserProjectHours(startDate, endDate);
+        List<TimeSheetDailyRollup> autoGeneratedDays = dailyRollupRepo.findByWorkDateBetweenAndAutoGeneratedTrue(startDate, endDate);
+        Map<LocalDate, BigDecimal> actualByDate = buildActualByDate(dailyRollupRepo.getEntryHoursByDate(startDate, endDate));
 
-        List<TimeSheetEntry> entries = timeSheets.stream()
-                .flatMap(ts -> ts.getEntries().stream())
-                .collect(Collectors.toList());
         TimeSheetSummaryResponseDTO response = new TimeSheetSummaryResponseDTO();
         response.setStartDate(startDate);
         response.setEndDate(endDate);
@@ -73,43 +81,43 @@ public class RMSTimeSheetService {
                 .map(Long::valueOf)
                 .collect(Collectors.toSet());
 
-        // Group by userId if aggregating
-        Map<Long, List<TimeSheet>> timeSheetsByUser = timeSheets.stream()
-                .collect(Collectors.groupingBy(TimeSheet::getUserId));
-
-        Map<Long, List<TimeSheetEntry>> entriesByUser = entries.stream()
-                .collect(Collectors.groupingBy(entry -> entry.getTimeSheet().getUserId()));
+        Map<Long, BigDecimal> internalHoursByUser = userProjectHours.stream()
+                .filter(p -> p.getUserId() != null)
+                .filter(p -> p.getProjectId() != null && internalProjectIds.contains(p.getProjectId()))
+                .collect(Collectors.groupingBy(ProjectRollupHoursDTO::getUserId,
+                        Collectors.reducing(BigDecimal.ZERO, ProjectRollupHoursDTO::getTotalHours, BigDecimal::add)));
+
+        Map<Long, Set<LocalDate>> autoGeneratedDatesByUser = autoGeneratedDays.stream()
+                .collect(Collectors.groupingBy(TimeSheetDailyRollup::getUserId,
+                        Collectors.mapping(TimeSheetDailyRollup::getWorkDate, Collectors.toSet())));
+        Set<LocalDate> allAutoGeneratedDates = autoGeneratedDays.stream()
+                .map(TimeSheetDailyRollup::getWorkDate)
+                .collect(Collectors.toSet());
 
         // Fetch resource names and roles
         Map<Long, String> resourceNames = fetchResourceNames();
         Map<Long, String> resourceRoles = fetchResourceRoles();
 
-        List<ResourceSummaryDTO> resourceSummaries = new ArrayList<>();
-        for (Map.Entry<Long, List<TimeSheet>> entry : timeSheetsByUser.entrySet()) {
-            Long uid = entry.getKey();
-            if (uid == null) continue; // Skip timesheets without userId (e.g., system-generated)
-            List<TimeSheet> userTimeSheets = entry.getValue();
-            List<TimeSheetEntry> userEntries = entriesByUser.getOrDefault(uid, new ArrayList<>());
-
-            BigDecimal userBillableHours = sumEntryHours(userEntries, TimeSheetEntry::isBillable);
-            BigDecimal internalHours = sumEntryHours(userEntries, entry2 -> entry2.getProjectId() != null && internalProjectIds.contains(entry2.getProjectId()));
-            // Non-billable hours exclude internal project hours
-            BigDecimal userNonBillableHours = sumEntryHours(userEntries, entry2 -> !entry2.isBillable() && !(entry2.getProjectId() != null && internalProjectIds.contains(entry2.getProjectId())));
-            BigDecimal autoGeneratedHours = userTimeSheets.stream()
-                    .filter(ts -> Boolean.TRUE.equals(ts.getAutoGenerated()))
-                    .map(ts -> safe(ts.getHoursWorked()))
-                    .reduce(BigDecimal.ZERO, BigDecimal::add);
-            BigDecimal entryHours = sumEntryHours(userEntries, entry2 -> true);
-            BigDecimal userTotalHours = entryHours.add(autoGeneratedHours);
+        // Skip timesheets without userId (e.g., system-generated)
+        List<UserRollupTotalsDTO> resourceTotals = userTotals.stream()
+                .filter(userTotal -> userTotal.getUserId() != null)
+                .toList();
+
+        // Resources are independent: computed in parallel, results in userTotals order
+        List<ResourceSummaryDTO> resourceSummaries = parallelCompute.map(resourceTotals, userTotal -> {
+            Long uid = userTotal.getUserId();
 
-            Map<LocalDate, BigDecimal> actualByDate = buildActualByDate(userEntries);
-            Map<LocalDate, Integer> plannedByDate = buildPlannedByDate(startDate, endDate, userTimeSheets);
+            BigDecimal internalHours = internalHoursByUser.getOrDefault(uid, BigDecimal.ZERO);
+            BigDecimal autoGeneratedHours = userTotal.getAutoGeneratedHours();
+
+            Map<LocalDate, Integer> plannedByDate = buildPlannedByDate(startDate, endDate,
+                    autoGeneratedDatesByUser.getOrDefault(uid, Set.of()));
             BigDecimal plannedCapacity = plannedByDate.values().stream()
                     .map(BigDecimal::valueOf)
                     .reduce(BigDecimal.ZERO, BigDecimal::add);
 
             double utilizationPercentage = safePercentage(totalHours, plannedCapacity);
-            int confidenceScore = calculateConfidenceScore(userTimeSheets);
+            int confidenceScore = calculateConfidenceScore(userTotal.getApprovedSheetHours(), userTotal.getDraftSheetHours());
 
             String hourlySplit = String.format("%.1f/%.1f/%.1f",
                     billableHours.doubleValue(),
@@ -118,7 +126,7 @@ public class RMSTimeSheetService {
 
             String trendSignal = calculateTrend(utilizationPercentage);
 
-            resourceSummaries.add(ResourceSummaryDTO.builder()
+            return ResourceSummaryDTO.builder()
                     .userId(uid)
                     .name(resourceNames.getOrDefault(uid, "User " + uid))
                     .billableHours(billableHours)
@@ -132,8 +140,8 @@ public class RMSTimeSheetService {
                     .hourlySplit(hourlySplit)
                     .trendSignal(trendSignal)
                     .finalUtilPercentage(round(utilizationPercentage))
-                    .build());
-        }
+                    .build();
+        });
 
         // Overall KPIs
         BigDecimal overallBillable = resourceSummaries.stream()
@@ -178,13 +186,14 @@ public class RMSTimeSheetService {
                         .build()
         );
 
+        Map<LocalDate, Integer> plannedByDate = buildPlannedByDate(startDate, endDate, allAutoGeneratedDates);
         Map<String, List<PortfolioTrendDTO>> portfolioTrends = Map.of(
-                "daily", buildDailyTrends(startDate, endDate, buildActualByDate(entries), buildPlannedByDate(startDate, endDate, timeSheets)),
-                "weekly", buildWeeklyTrends(startDate, endDate, buildActualByDate(entries), buildPlannedByDate(startDate, endDate, timeSheets)),
-                "monthly", buildMonthlyTrends(startDate, endDate, buildActualByDate(entries), buildPlannedByDate(startDate, endDate, timeSheets))
+                "daily", buildDailyTrends(startDate, endDate, actualByDate, plannedByDate),
+                "weekly", buildWeeklyTrends(startDate, endDate, actualByDate, plannedByDate),
+                "monthly", buildMonthlyTrends(startDate, endDate, actualByDate, plannedByDate)
         );
 
-                List<AlertDTO> alerts = buildAlerts(startDate, endDate, buildActualByDate(entries), buildPlannedByDate(startDate, endDate, timeSheets), overallUtil, overallConfidence);
+                List<AlertDTO> alerts = buildAlerts(startDate, endDate, actualByDate, plannedByDate, overallUtil, overallConfidence);
 
         return TimeSheetSummaryResponseDTO.builder()
                 .resourceSummaries(resourceSummaries)
@@ -230,28 +239,16 @@ public class RMSTimeSheetService {
                 .build();
     }
 
-    private BigDecimal sumEntryHours(List<TimeSheetEntry> entries, Predicate<TimeSheetEntry> predicate) {
-        return entries.stream()
-                .filter(predicate)
-                .map(entry -> safe(entry.getHoursWorked()))
-                .reduce(BigDecimal.ZERO, BigDecimal::add);
-    }
-
-    private Map<LocalDate, BigDecimal> buildActualByDate(List<TimeSheetEntry> entries) {
-        return entries.stream()
-                .filter(entry -> entry.getTimeSheet() != null && entry.getTimeSheet().getWorkDate() != null)
-                .collect(Collectors.groupingBy(
-                        entry -> entry.getTimeSheet().getWorkDate(),
-                        Collectors.mapping(entry -> safe(entry.getHoursWorked()), Collectors.reducing(BigDecimal.ZERO, BigDecimal::add))
-                ));
+    private Map<LocalDate, BigDecimal> buildActualByDate(List<Object[]> hoursByDate) {
+        Map<LocalDate, BigDecimal> actualByDate = new HashMap<>();
+        for (Object[] row : hoursByDate) {
+            if (row[0] == null) continue;
+            actualByDate.put((LocalDate) row[0], row[1] == null ? BigDecimal.ZERO : new BigDecimal(row[1].toString()));
+        }
+        return actualByDate;
     }
 
-    private Map<LocalDate, Integer> buildPlannedByDate(LocalDate startDate, LocalDate endDate, List<TimeSheet> timeSheets) {
-        Set<LocalDate> holidayDates = timeSheets.stream()
-                .filter(ts -> Boolean.TRUE.equals(ts.getAutoGenerated()))
-                .map(TimeSheet::getWorkDate)
-                .collect(Collectors.toSet());
-
+    private Map<LocalDate, Integer> buildPlannedByDate(LocalDate startDate, LocalDate endDate, Set<LocalDate> holidayDates) {
         Map<LocalDate, Integer> plannedByDate = new LinkedHashMap<>();
         LocalDate cursor = startDate;
 
@@ -434,17 +431,7 @@ public class RMSTimeSheetService {
         return new ArrayList<>(weekMap.keySet()).stream().sorted().toList();
     }
 
-    private int calculateConfidenceScore(List<TimeSheet> timeSheets) {
-        BigDecimal approved = timeSheets.stream()
-                .filter(ts -> ts.getStatus() == TimeSheet.Status.APPROVED)
-                .map(ts -> safe(ts.getHoursWorked()))
-                .reduce(BigDecimal.ZERO, BigDecimal::add);
-
-        BigDecimal draft = timeSheets.stream()
-                .filter(ts -> ts.getStatus() == TimeSheet.Status.DRAFT)
-                .map(ts -> safe(ts.getHoursWorked()))
-                .reduce(BigDecimal.ZERO, BigDecimal::add);
-
+    private int calculateConfidenceScore(BigDecimal approved, BigDecimal draft) {
         BigDecimal total = approved.add(draft);
         if (total.compareTo(BigDecimal.ZERO) == 0) {
             return 50;
@@ -34,6 +34,9 @@ import java.util.*;
 import java.util.stream.Collectors;
 
 import com.intranet.util.cache.UserDirectoryService;
+import com.intranet.service.events.DomainEventOutbox;
+import com.intranet.service.events.TimesheetEvent;
+import com.intranet.service.rollup.TimeSheetRollupService;
 import com.intranet.dto.email.TimeSheetSummaryEmailDTO;
 import java.math.BigDecimal;
 
@@ -46,11 +49,13 @@ public class TimeSheetReviewService {
     private final TimeSheetReviewRepo reviewRepo;
     private final WeeklyTimeSheetReviewRepo weeklyReviewRepo;
     private final WeekInfoRepo weekInfoRepo;
-    private final RestTemplate restTemplate = new RestTemplate();
+    private final RestTemplate restTemplate;
     // ✅ Add this line
     private final TimeSheetNotificationService timeSheetNotificationService;
     private final UserDirectoryService userDirectoryService;
     private final InternalProjectRepo internalProjectRepo;
+    private final TimeSheetRollupService rollupService;
+    private final DomainEventOutbox domainEventOutbox;
 
 
     @Value("${pms.api.base-url}")
@@ -247,6 +252,9 @@ public class TimeSheetReviewService {
             TimeSheet.Status overallStatus = calculateOverallStatus(ts, managerProjects);
             ts.setStatus(overallStatus);
             timeSheetRepo.save(ts);
+            rollupService.markDirty(ts);
+            domainEventOutbox.append(new TimesheetEvent.SheetReviewed(
+                    ts.getId(), ts.getUserId(), weekInfo.getId(), managerId, reviewStatus.name(), overallStatus.name()));
         }
 
         // ✅ Step 3: Update weekly review aggregate
@@ -353,9 +361,14 @@ public class TimeSheetReviewService {
                     return r;
                 });
 
+        WeeklyTimeSheetReview.Status previousStatus = weeklyReview.getStatus();
         weeklyReview.setStatus(weeklyStatus);
         weeklyReview.setReviewedAt(LocalDateTime.now());
         weeklyReviewRepo.save(weeklyReview);
+        if (previousStatus != weeklyStatus) {
+            domainEventOutbox.append(new TimesheetEvent.WeekStatusChanged(
+                    userId, weekInfoId, previousStatus != null ? previousStatus.name() : null, weeklyStatus.name()));
+        }
     }
 
     /** ✅ Builds & Sends Email Notifications */
@@ -552,6 +565,9 @@ public class TimeSheetReviewService {
             ts.setStatus(TimeSheet.Status.valueOf(reviewStatus.name()));
             ts.setUpdatedAt(LocalDateTime.now());
             timeSheetRepo.save(ts);
+            rollupService.markDirty(ts);
+            domainEventOutbox.append(new TimesheetEvent.SheetReviewed(
+                    ts.getId(), ts.getUserId(), weekInfo.getId(), managerId, reviewStatus.name(), ts.getStatus().name()));
         }
 
         // --------------------------------------------------------
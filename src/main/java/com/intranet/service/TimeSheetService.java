@@ -21,6 +21,11 @@ import com.intranet.repository.TimeSheetEntryRepo;
 import com.intranet.repository.TimeSheetOnHolidaysRepo;
 import com.intranet.repository.TimeSheetRepo;
 import com.intranet.repository.WeekInfoRepo;
+import com.intranet.service.week.WeekCalendarService;
+import com.intranet.service.pms.TaskDurationCache;
+import com.intranet.service.events.DomainEventOutbox;
+import com.intranet.service.events.TimesheetEvent;
+import com.intranet.service.rollup.TimeSheetRollupService;
 
 import jakarta.servlet.http.HttpServletRequest;
 import lombok.RequiredArgsConstructor;
@@ -42,9 +47,9 @@ import java.math.BigDecimal;
 import java.time.Duration;
 import java.time.LocalDate;
 import java.time.LocalDateTime;
-import java.time.temporal.WeekFields;
 import java.math.RoundingMode;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collections;
 import java.util.LinkedHashMap;
 import java.util.List;
@@ -60,10 +65,14 @@ public class TimeSheetService {
 
     private final TimeSheetRepo timeSheetRepository;
     private final WeekInfoRepo weekInfoRepository;
+    private final WeekCalendarService weekCalendarService;
     private final InternalProjectRepo internalProjectRepository;
     private final TimeSheetEntryRepo entryRepository;
     private final HolidayExcludeUsersRepo holidayExcludeUsersRepository;
     private final TimeSheetOnHolidaysRepo timeSheetOnHolidaysRepository;
+    private final TimeSheetRollupService rollupService;
+    private final TaskDurationCache taskDurationCache;
+    private final DomainEventOutbox domainEventOutbox;
 
     @Transactional
     public TimeSheet createTimeSheet(Long userId, LocalDate workDate, List<TimeSheetEntryCreateDTO> entriesDTO) {
@@ -113,6 +122,10 @@ public class TimeSheetService {
         timeSheet.setHoursWorked(TimeUtil.sumEntryHours(entries));
 
         timeSheetRepository.save(timeSheet);
+        rollupService.markDirty(timeSheet);
+        taskDurationCache.evictProjects(projectIdsOf(entries));
+        domainEventOutbox.append(new TimesheetEvent.SheetCreated(
+                timeSheet.getId(), userId, workDate, entryIdsOf(entries)));
 
         // Step 3: if excluded present → create TimeSheetOnHolidays record
         if (excluded.isPresent()) {
@@ -127,6 +140,14 @@ public class TimeSheetService {
         return timeSheet;
     }
 
+    private List<Long> projectIdsOf(List<TimeSheetEntry> entries) {
+        return entries.stream().map(TimeSheetEntry::getProjectId).toList();
+    }
+
+    private List<Long> entryIdsOf(List<TimeSheetEntry> entries) {
+        return entries.stream().map(TimeSheetEntry::getId).filter(Objects::nonNull).toList();
+    }
+
     private BigDecimal calculateHours(LocalDateTime from, LocalDateTime to) {
     if (from == null || to == null) return BigDecimal.ZERO;
     if (to.isBefore(from)) throw new IllegalArgumentException("toTime cannot be before fromTime");
@@ -142,23 +163,8 @@ public class TimeSheetService {
 
 
     private WeekInfo findOrCreateWeekInfo(LocalDate workDate) {
-        return weekInfoRepository.findByStartDateLessThanEqualAndEndDateGreaterThanEqual(workDate, workDate)
-                .orElseGet(() -> createWeekInfo(workDate));
-    }
-
-    private WeekInfo createWeekInfo(LocalDate date) {
-        LocalDate startOfWeek = date.with(java.time.DayOfWeek.MONDAY);
-        LocalDate endOfWeek = date.with(java.time.DayOfWeek.SUNDAY);
-
-        WeekInfo weekInfo = new WeekInfo();
-        weekInfo.setStartDate(startOfWeek);
-        weekInfo.setEndDate(endOfWeek);
-        weekInfo.setWeekNo(startOfWeek.get(WeekFields.ISO.weekOfYear()));
-        weekInfo.setYear(startOfWeek.getYear());
-        weekInfo.setMonth(startOfWeek.getMonthValue());
-        weekInfo.setIncompleteWeek(false);
-
-        return weekInfoRepository.save(weekInfo);
+        // Resolved in memory; only the reference is attached to the new sheet
+        return weekInfoRepository.getReferenceById(weekCalendarService.findOrCreate(workDate).getId());
     }
 
 
@@ -239,7 +245,12 @@ public class TimeSheetService {
         // 6️⃣ Save everything
         timeSheet.setHoursWorked(totalHours);
         timeSheet.setUpdatedAt(LocalDateTime.now());
+        entryRepository.saveAll(newEntries);
         timeSheetRepository.save(timeSheet);
+        rollupService.markDirty(timeSheet);
+        taskDurationCache.evictProjects(projectIdsOf(newEntries));
+        domainEventOutbox.append(new TimesheetEvent.EntriesAdded(
+                timeSheet.getId(), timeSheet.getUserId(), timeSheet.getWorkDate(), entryIdsOf(newEntries)));
 
         return "Entries added successfully. Total hours now: " + totalHours.stripTrailingZeros().toPlainString();
     }
@@ -262,9 +273,14 @@ public class TimeSheetService {
     // Remove entries
     timeSheet.getEntries().removeAll(entriesToDelete);
     entryRepository.deleteAll(entriesToDelete);
+    rollupService.markDirty(timeSheet);
+    taskDurationCache.evictProjects(projectIdsOf(entriesToDelete));
 
     // If all entries deleted, delete the timesheet itself
-    if (timeSheet.getEntries().isEmpty()) {
+    boolean sheetRemoved = timeSheet.getEntries().isEmpty();
+    domainEventOutbox.append(new TimesheetEvent.EntriesDeleted(
+            timeSheet.getId(), timeSheet.getUserId(), timeSheet.getWorkDate(), entryIdsOf(entriesToDelete), sheetRemoved));
+    if (sheetRemoved) {
         timeSheetRepository.delete(timeSheet);
         return "All entries deleted. TimeSheet also removed.";
     }
@@ -279,7 +295,7 @@ public class TimeSheetService {
     }
 
 
-    private final RestTemplate restTemplate = new RestTemplate();
+    private final RestTemplate restTemplate;
     @Value("${pms.api.base-url}")
     private String pmsBaseUrl;
 
@@ -575,7 +591,8 @@ public class TimeSheetService {
                 throw new IllegalArgumentException("New end time overlaps or cuts into next entry starting.");
             }
 
-            // ✅ 6️⃣ Apply updates
+            // ✅ 6️⃣ Apply updates (old and new project both lose their cached task durations)
+            taskDurationCache.evictProjects(Arrays.asList(entry.getProjectId(), dto.getProjectId()));
             if (dto.getProjectId() != null) entry.setProjectId(dto.getProjectId());
             if (dto.getTaskId() != null) entry.setTaskId(dto.getTaskId());
             if (dto.getDescription() != null) entry.setDescription(dto.getDescription());
@@ -603,6 +620,10 @@ public class TimeSheetService {
         timeSheet.setHoursWorked(totalHours);
         timeSheet.setUpdatedAt(LocalDateTime.now());
         timeSheetRepository.save(timeSheet);
+        rollupService.markDirty(timeSheet);
+        domainEventOutbox.append(new TimesheetEvent.EntriesUpdated(
+                timeSheet.getId(), timeSheet.getUserId(), timeSheet.getWorkDate(),
+                request.getEntries().stream().map(TimeSheetUpdateRequest.EntryUpdateDto::getId).toList()));
 
         return "Entries updated successfully. Total hours now: " + totalHours.stripTrailingZeros().toPlainString();
     }
@@ -2,11 +2,14 @@ package com.intranet.service;
 
 import com.intranet.dto.rms.*;
 import com.intranet.entity.TimeSheet;
-import com.intranet.entity.TimeSheetEntry;
-import com.intranet.repository.TimeSheetRepo;
-import com.intranet.repository.TimeSheetEntryRepo;
+import com.intranet.entity.TimeSheetDailyRollup;
+import com.intranet.entity.TimeSheetProjectDailyRollup;
+import com.intranet.repository.TimeSheetDailyRollupRepo;
+import com.intranet.repository.TimeSheetProjectDailyRollupRepo;
 import com.intranet.repository.InternalProjectRepo;
 import com.intranet.service.RMS.RMSTimeSheetService;
+import com.intranet.service.rollup.RollupDays;
+import com.intranet.util.ParallelCompute;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Service;
@@ -24,10 +27,11 @@ import java.util.stream.Collectors;
 @Slf4j
 public class UtilizationReportingService {
 
-    private final TimeSheetRepo timeSheetRepository;
-    private final TimeSheetEntryRepo entryRepository;
+    private final TimeSheetDailyRollupRepo dailyRollupRepo;
+    private final TimeSheetProjectDailyRollupRepo projectRollupRepo;
     private final InternalProjectRepo internalProjectRepo;
     private final RMSTimeSheetService rmsTimeSheetService;
+    private final ParallelCompute parallelCompute;
 
     public UtilizationReportResponseDTO generateUtilizationReport(UtilizationReportRequestDTO request) {
         log.info("Generating utilization report: type={}, startDate={}, endDate={}", 
@@ -37,8 +41,9 @@ public class UtilizationReportingService {
         validateRequest(request);
 
         // Get filtered timesheet data
-        List<TimeSheet> filteredTimeSheets = getFilteredTimeSheets(request);
-        List<TimeSheetEntry> filteredEntries = getFilteredEntries(filteredTimeSheets, request);
+        List<TimeSheetDailyRollup> filteredTimeSheets = getFilteredTimeSheets(request);
+        List<TimeSheetProjectDailyRollup> filteredEntries = getFilteredEntries(filteredTimeSheets, request);
+        Set<Long> internalProjectIds = loadInternalProjectIds();
 
         // Build response
         UtilizationReportResponseDTO response = UtilizationReportResponseDTO.builder()
@@ -52,20 +57,20 @@ public class UtilizationReportingService {
         // Calculate based on report type
         switch (request.getReportType().toUpperCase()) {
             case "RESOURCE":
-                buildResourceReport(response, filteredTimeSheets, filteredEntries, request);
+                buildResourceReport(response, filteredTimeSheets, filteredEntries, internalProjectIds, request);
                 break;
             case "PROJECT":
-                buildProjectReport(response, filteredTimeSheets, filteredEntries, request);
+                buildProjectReport(response, filteredTimeSheets, filteredEntries, internalProjectIds, request);
                 break;
             case "CLIENT":
-                buildClientReport(response, filteredTimeSheets, filteredEntries, request);
+                buildClientReport(response, filteredTimeSheets, filteredEntries, internalProjectIds, request);
                 break;
             case "ROLE":
-                buildRoleReport(response, filteredTimeSheets, filteredEntries, request);
+                buildRoleReport(response, filteredTimeSheets, filteredEntries, internalProjectIds, request);
                 break;
             case "SUMMARY":
             default:
-                buildSummaryReport(response, filteredTimeSheets, filteredEntries, request);
+                buildSummaryReport(response, filteredTimeSheets, filteredEntries, internalProjectIds, request);
                 break;
         }
 
@@ -95,9 +100,9 @@ public class UtilizationReportingService {
         }
     }
 
-    private List<TimeSheet> getFilteredTimeSheets(UtilizationReportRequestDTO request) {
-        // Base query for date range
-        List<TimeSheet> timeSheets = timeSheetRepository.findByWorkDateBetweenWithWeekInfoAndEntries(
+    private List<TimeSheetDailyRollup> getFilteredTimeSheets(UtilizationReportRequestDTO request) {
+        // Base query for date range (daily rollup: one row per timesheet)
+        List<TimeSheetDailyRollup> timeSheets = dailyRollupRepo.findByWorkDateBetween(
                 request.getStartDate(), request.getEndDate());
 
         // Filter by approval status
@@ -109,63 +114,69 @@ public class UtilizationReportingService {
 
         // Filter by resources
         if (request.getResourceIds() != null && !request.getResourceIds().isEmpty()) {
+            Set<Long> resourceIds = new HashSet<>(request.getResourceIds());
             timeSheets = timeSheets.stream()
-                    .filter(ts -> ts.getUserId() != null && request.getResourceIds().contains(ts.getUserId()))
+                    .filter(ts -> ts.getUserId() != null && resourceIds.contains(ts.getUserId()))
                     .collect(Collectors.toList());
         }
 
         return timeSheets;
     }
 
-    private List<TimeSheetEntry> getFilteredEntries(List<TimeSheet> timeSheets, UtilizationReportRequestDTO request) {
-        List<TimeSheetEntry> entries = timeSheets.stream()
-                .flatMap(ts -> ts.getEntries().stream())
-                .collect(Collectors.toList());
+    private List<TimeSheetProjectDailyRollup> getFilteredEntries(List<TimeSheetDailyRollup> timeSheets, UtilizationReportRequestDTO request) {
+        // Project rows of the timesheets kept above
+        List<TimeSheetProjectDailyRollup> entries = RollupDays.of(timeSheets).keep(
+                projectRollupRepo.findByWorkDateBetween(request.getStartDate(), request.getEndDate()));
 
         // Filter by projects
         if (request.getProjectIds() != null && !request.getProjectIds().isEmpty()) {
+            Set<Long> projectIds = new HashSet<>(request.getProjectIds());
             entries = entries.stream()
-                    .filter(entry -> entry.getProjectId() != null && request.getProjectIds().contains(entry.getProjectId()))
+                    .filter(entry -> entry.getProjectId() != null && projectIds.contains(entry.getProjectId()))
                     .collect(Collectors.toList());
         }
 
         return entries;
     }
 
+    // Read once per report, not once per resource
+    private Set<Long> loadInternalProjectIds() {
+        return internalProjectRepo.findAll().stream()
+                .map(project -> project.getProjectId() != null ? project.getProjectId().longValue() : null)
+                .filter(Objects::nonNull)
+                .collect(Collectors.toSet());
+    }
+
     private void buildResourceReport(UtilizationReportResponseDTO response, 
-                                   List<TimeSheet> timeSheets, 
-                                   List<TimeSheetEntry> entries, 
+                                   List<TimeSheetDailyRollup> timeSheets, 
+                                   List<TimeSheetProjectDailyRollup> entries, 
+                                   Set<Long> internalProjectIds, 
                                    UtilizationReportRequestDTO request) {
         
         Map<Long, String> resourceNames = fetchResourceNames();
         Map<Long, String> resourceRoles = fetchResourceRoles();
         
         // Group by resource
-        Map<Long, List<TimeSheet>> timeSheetsByResource = timeSheets.stream()
-                .collect(Collectors.groupingBy(TimeSheet::getUserId));
+        Map<Long, List<TimeSheetDailyRollup>> timeSheetsByResource = timeSheets.stream()
+                .collect(Collectors.groupingBy(TimeSheetDailyRollup::getUserId));
         
-        Map<Long, List<TimeSheetEntry>> entriesByResource = entries.stream()
-                .collect(Collectors.groupingBy(entry -> entry.getTimeSheet().getUserId()));
+        Map<Long, List<TimeSheetProjectDailyRollup>> entriesByResource = entries.stream()
+                .collect(Collectors.groupingBy(TimeSheetProjectDailyRollup::getUserId));
 
-        List<ResourceUtilizationDTO> resourceUtilizations = new ArrayList<>();
-        
-        for (Map.Entry<Long, List<TimeSheet>> entry : timeSheetsByResource.entrySet()) {
-            Long resourceId = entry.getKey();
-            if (resourceId == null) continue;
-            
-            List<TimeSheet> resourceTimeSheets = entry.getValue();
-            List<TimeSheetEntry> resourceEntries = entriesByResource.getOrDefault(resourceId, new ArrayList<>());
-            
-            ResourceUtilizationDTO resourceUtil = calculateResourceUtilization(
+        List<Long> resourceIds = timeSheetsByResource.keySet().stream()
+                .filter(Objects::nonNull)
+                .collect(Collectors.toList());
+
+        // Resources are independent: computed in parallel, results in resourceIds order
+        List<ResourceUtilizationDTO> resourceUtilizations = new ArrayList<>(parallelCompute.map(resourceIds, resourceId ->
+                calculateResourceUtilization(
                     resourceId, 
                     resourceNames.get(resourceId),
                     resourceRoles.get(resourceId),
-                    resourceTimeSheets, 
-                    resourceEntries, 
-                    request);
-            
-            resourceUtilizations.add(resourceUtil);
-        }
+                    timeSheetsByResource.get(resourceId), 
+                    entriesByResource.getOrDefault(resourceId, new ArrayList<>()), 
+                    internalProjectIds,
+                    request)));
         
         // Sort by utilization percentage descending
         resourceUtilizations.sort((a, b) -> b.getUtilizationPercentage().compareTo(a.getUtilizationPercentage()));
@@ -180,35 +191,37 @@ public class UtilizationReportingService {
     private ResourceUtilizationDTO calculateResourceUtilization(Long resourceId, 
                                                              String resourceName,
                                                              String role,
-                                                             List<TimeSheet> timeSheets, 
-                                                             List<TimeSheetEntry> entries, 
+                                                             List<TimeSheetDailyRollup> timeSheets, 
+                                                             List<TimeSheetProjectDailyRollup> entries, 
+                                                             Set<Long> internalProjectIds,
                                                              UtilizationReportRequestDTO request) {
         
-        // Calculate hours
-        BigDecimal totalHours = calculateTotalHours(timeSheets, entries);
-        BigDecimal billableHours = calculateBillableHours(entries);
-        BigDecimal nonBillableHours = calculateNonBillableHours(entries);
-        BigDecimal internalHours = calculateInternalHours(entries);
-        BigDecimal plannedHours = calculatePlannedHours(timeSheets, request.getStartDate(), request.getEndDate());
+        // All hours, weekly streaks and trend in one pass
+        UtilizationStats stats = UtilizationStats.of(timeSheets, entries, internalProjectIds, request);
+        BigDecimal totalHours = stats.totalHours;
+        BigDecimal billableHours = stats.billableHours;
+        BigDecimal nonBillableHours = stats.nonBillableHours;
+        BigDecimal internalHours = stats.internalHours;
+        BigDecimal plannedHours = stats.plannedHours;
         
         // Calculate utilization
-        BigDecimal utilizationPercentage = calculateUtilizationPercentage(totalHours, plannedHours);
+        BigDecimal utilizationPercentage = UtilizationStats.utilizationPercentage(totalHours, plannedHours);
         BigDecimal billableRatio = calculateBillableRatio(billableHours, totalHours);
         
         // Determine utilization band
         String utilizationBand = determineUtilizationBand(utilizationPercentage.doubleValue(), request);
         
         // Calculate trend
-        String trendSignal = calculateTrendSignal(timeSheets, entries, request);
+        String trendSignal = calculateTrendSignal(stats);
         
         // Calculate confidence score
-        Integer confidenceScore = calculateConfidenceScore(timeSheets);
+        Integer confidenceScore = stats.confidenceScore;
         
         // Analyze patterns
-        boolean consistentlyOverUtilized = isConsistentlyOverUtilized(timeSheets, entries, request);
-        boolean consistentlyUnderUtilized = isConsistentlyUnderUtilized(timeSheets, entries, request);
-        Integer consecutiveWeeksOverThreshold = calculateConsecutiveWeeksOverThreshold(timeSheets, entries, request);
-        Integer consecutiveWeeksUnderThreshold = calculateConsecutiveWeeksUnderThreshold(timeSheets, entries, request);
+        boolean consistentlyOverUtilized = stats.consistentlyOverUtilized();
+        boolean consistentlyUnderUtilized = stats.consistentlyUnderUtilized();
+        Integer consecutiveWeeksOverThreshold = stats.consecutiveWeeksOver;
+        Integer consecutiveWeeksUnderThreshold = stats.consecutiveWeeksUnder;
         
         // Generate alerts
         List<String> alerts = generateResourceAlerts(utilizationPercentage.doubleValue(), utilizationBand, 
@@ -233,7 +246,7 @@ public class UtilizationReportingService {
                 .consecutiveWeeksOverThreshold(consecutiveWeeksOverThreshold)
                 .consecutiveWeeksUnderThreshold(consecutiveWeeksUnderThreshold)
                 .confidenceScore(confidenceScore)
-                .daysWithApprovedTimesheets(calculateApprovedDays(timeSheets))
+                .daysWithApprovedTimesheets(stats.approvedDays)
                 .totalWorkingDays(calculateWorkingDays(request.getStartDate(), request.getEndDate()))
                 .build();
     }
@@ -253,79 +266,6 @@ public class UtilizationReportingService {
         }
     }
 
-    private BigDecimal calculateTotalHours(List<TimeSheet> timeSheets, List<TimeSheetEntry> entries) {
-        BigDecimal entryHours = entries.stream()
-                .map(entry -> entry.getHoursWorked() != null ? entry.getHoursWorked() : BigDecimal.ZERO)
-                .reduce(BigDecimal.ZERO, BigDecimal::add);
-        
-        BigDecimal autoGeneratedHours = timeSheets.stream()
-                .filter(ts -> Boolean.TRUE.equals(ts.getAutoGenerated()))
-                .map(ts -> ts.getHoursWorked() != null ? ts.getHoursWorked() : BigDecimal.ZERO)
-                .reduce(BigDecimal.ZERO, BigDecimal::add);
-        
-        return entryHours.add(autoGeneratedHours);
-    }
-
-    private BigDecimal calculateBillableHours(List<TimeSheetEntry> entries) {
-        return entries.stream()
-                .filter(TimeSheetEntry::isBillable)
-                .map(entry -> entry.getHoursWorked() != null ? entry.getHoursWorked() : BigDecimal.ZERO)
-                .reduce(BigDecimal.ZERO, BigDecimal::add);
-    }
-
-    private BigDecimal calculateNonBillableHours(List<TimeSheetEntry> entries) {
-        Set<Long> internalProjectIds = internalProjectRepo.findAll().stream()
-                .map(project -> project.getProjectId() != null ? project.getProjectId().longValue() : null)
-                .filter(Objects::nonNull)
-                .collect(Collectors.toSet());
-        
-        return entries.stream()
-                .filter(entry -> !entry.isBillable() && 
-                        (entry.getProjectId() == null || !internalProjectIds.contains(entry.getProjectId())))
-                .map(entry -> entry.getHoursWorked() != null ? entry.getHoursWorked() : BigDecimal.ZERO)
-                .reduce(BigDecimal.ZERO, BigDecimal::add);
-    }
-
-    private BigDecimal calculateInternalHours(List<TimeSheetEntry> entries) {
-        Set<Long> internalProjectIds = internalProjectRepo.findAll().stream()
-                .map(project -> project.getProjectId() != null ? project.getProjectId().longValue() : null)
-                .filter(Objects::nonNull)
-                .collect(Collectors.toSet());
-        
-        return entries.stream()
-                .filter(entry -> entry.getProjectId() != null && internalProjectIds.contains(entry.getProjectId()))
-                .map(entry -> entry.getHoursWorked() != null ? entry.getHoursWorked() : BigDecimal.ZERO)
-                .reduce(BigDecimal.ZERO, BigDecimal::add);
-    }
-
-    private BigDecimal calculatePlannedHours(List<TimeSheet> timeSheets, LocalDate startDate, LocalDate endDate) {
-        Set<LocalDate> holidayDates = timeSheets.stream()
-                .filter(ts -> Boolean.TRUE.equals(ts.getAutoGenerated()))
-                .map(TimeSheet::getWorkDate)
-                .collect(Collectors.toSet());
-        
-        int workingDays = 0;
-        LocalDate cursor = startDate;
-        while (!cursor.isAfter(endDate)) {
-            if (cursor.getDayOfWeek() != DayOfWeek.SATURDAY && 
-                cursor.getDayOfWeek() != DayOfWeek.SUNDAY && 
-                !holidayDates.contains(cursor)) {
-                workingDays++;
-            }
-            cursor = cursor.plusDays(1);
-        }
-        
-        return BigDecimal.valueOf(workingDays * 8); // 8 hours per working day
-    }
-
-    private BigDecimal calculateUtilizationPercentage(BigDecimal actualHours, BigDecimal plannedHours) {
-        if (plannedHours.compareTo(BigDecimal.ZERO) == 0) {
-            return BigDecimal.ZERO;
-        }
-        return actualHours.multiply(BigDecimal.valueOf(100))
-                .divide(plannedHours, 2, RoundingMode.HALF_UP);
-    }
-
     private BigDecimal calculateBillableRatio(BigDecimal billableHours, BigDecimal totalHours) {
         if (totalHours.compareTo(BigDecimal.ZERO) == 0) {
             return BigDecimal.ZERO;
@@ -334,21 +274,10 @@ public class UtilizationReportingService {
                 .divide(totalHours, 2, RoundingMode.HALF_UP);
     }
 
-    private String calculateTrendSignal(List<TimeSheet> timeSheets, List<TimeSheetEntry> entries, UtilizationReportRequestDTO request) {
+    private String calculateTrendSignal(UtilizationStats stats) {
         // Simple trend calculation based on recent vs older periods
-        LocalDate midPoint = request.getStartDate().plusDays(
-                ChronoUnit.DAYS.between(request.getStartDate(), request.getEndDate()) / 2);
-        
-        List<TimeSheet> recentTimeSheets = timeSheets.stream()
-                .filter(ts -> ts.getWorkDate().isAfter(midPoint))
-                .collect(Collectors.toList());
-        
-        List<TimeSheet> olderTimeSheets = timeSheets.stream()
-                .filter(ts -> ts.getWorkDate().isBefore(midPoint) || ts.getWorkDate().equals(midPoint))
-                .collect(Collectors.toList());
-        
-        BigDecimal recentUtil = calculateResourceUtilizationTrend(recentTimeSheets, request);
-        BigDecimal olderUtil = calculateResourceUtilizationTrend(olderTimeSheets, request);
+        BigDecimal recentUtil = stats.recentUtilization;
+        BigDecimal olderUtil = stats.olderUtilization;
         
         if (recentUtil.compareTo(olderUtil) > 5) {
             return "UP";
@@ -359,98 +288,6 @@ public class UtilizationReportingService {
         }
     }
 
-    private BigDecimal calculateResourceUtilizationTrend(List<TimeSheet> timeSheets, UtilizationReportRequestDTO request) {
-        if (timeSheets.isEmpty()) {
-            return BigDecimal.ZERO;
-        }
-        
-        BigDecimal totalHours = timeSheets.stream()
-                .map(ts -> ts.getHoursWorked() != null ? ts.getHoursWorked() : BigDecimal.ZERO)
-                .reduce(BigDecimal.ZERO, BigDecimal::add);
-        
-        LocalDate startDate = timeSheets.stream()
-                .map(TimeSheet::getWorkDate)
-                .min(LocalDate::compareTo)
-                .orElse(request.getStartDate());
-        
-        LocalDate endDate = timeSheets.stream()
-                .map(TimeSheet::getWorkDate)
-                .max(LocalDate::compareTo)
-                .orElse(request.getEndDate());
-        
-        BigDecimal plannedHours = calculatePlannedHours(timeSheets, startDate, endDate);
-        
-        return calculateUtilizationPercentage(totalHours, plannedHours);
-    }
-
-    private Integer calculateConfidenceScore(List<TimeSheet> timeSheets) {
-        if (timeSheets.isEmpty()) {
-            return 0;
-        }
-        
-        long approvedCount = timeSheets.stream()
-                .filter(ts -> ts.getStatus() == TimeSheet.Status.APPROVED)
-                .count();
-        
-        return (int) ((approvedCount * 100) / timeSheets.size());
-    }
-
-    private boolean isConsistentlyOverUtilized(List<TimeSheet> timeSheets, List<TimeSheetEntry> entries, UtilizationReportRequestDTO request) {
-        return calculateConsecutiveWeeksOverThreshold(timeSheets, entries, request) >= 4;
-    }
-
-    private boolean isConsistentlyUnderUtilized(List<TimeSheet> timeSheets, List<TimeSheetEntry> entries, UtilizationReportRequestDTO request) {
-        return calculateConsecutiveWeeksUnderThreshold(timeSheets, entries, request) >= 4;
-    }
-
-    private Integer calculateConsecutiveWeeksOverThreshold(List<TimeSheet> timeSheets, List<TimeSheetEntry> entries, UtilizationReportRequestDTO request) {
-        // Group by week and calculate utilization
-        Map<LocalDate, List<TimeSheet>> weeklyTimeSheets = timeSheets.stream()
-                .collect(Collectors.groupingBy(ts -> ts.getWorkDate().with(DayOfWeek.MONDAY)));
-        
-        int consecutiveWeeks = 0;
-        for (Map.Entry<LocalDate, List<TimeSheet>> entry : weeklyTimeSheets.entrySet()) {
-            List<TimeSheetEntry> weekEntries = entries.stream()
-                    .filter(e -> weeklyTimeSheets.get(entry.getKey()).stream()
-                            .anyMatch(ts -> ts.equals(e.getTimeSheet())))
-                    .collect(Collectors.toList());
-            
-            BigDecimal weekUtil = calculateResourceUtilizationTrend(entry.getValue(), request);
-            double overThreshold = request.getOverUtilizationThreshold() != null ? request.getOverUtilizationThreshold().doubleValue() : 90.0;
-            if (weekUtil.doubleValue() >= overThreshold) {
-                consecutiveWeeks++;
-            } else {
-                break;
-            }
-        }
-        
-        return consecutiveWeeks;
-    }
-
-    private Integer calculateConsecutiveWeeksUnderThreshold(List<TimeSheet> timeSheets, List<TimeSheetEntry> entries, UtilizationReportRequestDTO request) {
-        // Group by week and calculate utilization
-        Map<LocalDate, List<TimeSheet>> weeklyTimeSheets = timeSheets.stream()
-                .collect(Collectors.groupingBy(ts -> ts.getWorkDate().with(DayOfWeek.MONDAY)));
-        
-        int consecutiveWeeks = 0;
-        for (Map.Entry<LocalDate, List<TimeSheet>> entry : weeklyTimeSheets.entrySet()) {
-            List<TimeSheetEntry> weekEntries = entries.stream()
-                    .filter(e -> weeklyTimeSheets.get(entry.getKey()).stream()
-                            .anyMatch(ts -> ts.equals(e.getTimeSheet())))
-                    .collect(Collectors.toList());
-            
-            BigDecimal weekUtil = calculateResourceUtilizationTrend(entry.getValue(), request);
-            double underThreshold = request.getUnderUtilizationThreshold() != null ? request.getUnderUtilizationThreshold().doubleValue() : 60.0;
-            if (weekUtil.doubleValue() <= underThreshold) {
-                consecutiveWeeks++;
-            } else {
-                break;
-            }
-        }
-        
-        return consecutiveWeeks;
-    }
-
     private List<String> generateResourceAlerts(Double utilization, String band, boolean consistentlyOver, boolean consistentlyUnder, UtilizationReportRequestDTO request) {
         List<String> alerts = new ArrayList<>();
         
@@ -473,12 +310,6 @@ public class UtilizationReportingService {
         return alerts;
     }
 
-    private Integer calculateApprovedDays(List<TimeSheet> timeSheets) {
-        return (int) timeSheets.stream()
-                .filter(ts -> ts.getStatus() == TimeSheet.Status.APPROVED)
-                .count();
-    }
-
     private Integer calculateWorkingDays(LocalDate startDate, LocalDate endDate) {
         int workingDays = 0;
         LocalDate cursor = startDate;
@@ -500,7 +331,7 @@ public class UtilizationReportingService {
                 .map(ResourceUtilizationDTO::getPlannedHours)
                 .reduce(BigDecimal.ZERO, BigDecimal::add);
         
-        BigDecimal utilizationPercentage = calculateUtilizationPercentage(totalHours, plannedHours);
+        BigDecimal utilizationPercentage = UtilizationStats.utilizationPercentage(totalHours, plannedHours);
         
         BigDecimal billableHours = resourceUtilizations.stream()
                 .map(ResourceUtilizationDTO::getBillableHours)
@@ -522,7 +353,7 @@ public class UtilizationReportingService {
         response.setInternalHours(internalHours);
     }
 
-    private Map<String, List<PortfolioTrendDTO>> buildTrends(List<TimeSheet> timeSheets, List<TimeSheetEntry> entries, UtilizationReportRequestDTO request) {
+    private Map<String, List<PortfolioTrendDTO>> buildTrends(List<TimeSheetDailyRollup> timeSheets, List<TimeSheetProjectDailyRollup> entries, UtilizationReportRequestDTO request) {
         // Reuse existing trend building logic from RMSTimeSheetService
         return rmsTimeSheetService.getSummary(request.getStartDate(), request.getEndDate()).getPortfolioTrends();
     }
@@ -690,33 +521,33 @@ public class UtilizationReportingService {
         return patterns;
     }
 
-    private void buildProjectReport(UtilizationReportResponseDTO response, List<TimeSheet> timeSheets, List<TimeSheetEntry> entries, UtilizationReportRequestDTO request) {
+    private void buildProjectReport(UtilizationReportResponseDTO response, List<TimeSheetDailyRollup> timeSheets, List<TimeSheetProjectDailyRollup> entries, Set<Long> internalProjectIds, UtilizationReportRequestDTO request) {
         // Group entries by project
-        Map<Long, List<TimeSheetEntry>> entriesByProject = entries.stream()
+        Map<Long, List<TimeSheetProjectDailyRollup>> entriesByProject = entries.stream()
                 .filter(entry -> entry.getProjectId() != null)
-                .collect(Collectors.groupingBy(TimeSheetEntry::getProjectId));
+                .collect(Collectors.groupingBy(TimeSheetProjectDailyRollup::getProjectId));
+        RollupDays days = RollupDays.of(timeSheets);
 
-        List<ProjectUtilizationDTO> projectUtilizations = new ArrayList<>();
-        
-        for (Map.Entry<Long, List<TimeSheetEntry>> entry : entriesByProject.entrySet()) {
+        // Projects are independent: computed in parallel, results in key order
+        List<ProjectUtilizationDTO> projectUtilizations = new ArrayList<>(parallelCompute.map(
+                new ArrayList<>(entriesByProject.entrySet()), entry -> {
             Long projectId = entry.getKey();
-            List<TimeSheetEntry> projectEntries = entry.getValue();
+            List<TimeSheetProjectDailyRollup> projectEntries = entry.getValue();
             
             // Get timesheets for this project
-            List<TimeSheet> projectTimeSheets = projectEntries.stream()
-                    .map(TimeSheetEntry::getTimeSheet)
+            List<TimeSheetDailyRollup> projectTimeSheets = projectEntries.stream()
+                    .map(days::dayOf)
                     .filter(Objects::nonNull)
                     .distinct()
                     .collect(Collectors.toList());
             
-            ProjectUtilizationDTO projectUtil = calculateProjectUtilization(
+            return calculateProjectUtilization(
                     projectId, 
                     projectEntries, 
                     projectTimeSheets, 
+                    internalProjectIds,
                     request);
-            
-            projectUtilizations.add(projectUtil);
-        }
+        }));
         
         // Sort by utilization percentage descending
         projectUtilizations.sort((a, b) -> b.getUtilizationPercentage().compareTo(a.getUtilizationPercentage()));
@@ -730,31 +561,31 @@ public class UtilizationReportingService {
         }
     }
 
-    private void buildClientReport(UtilizationReportResponseDTO response, List<TimeSheet> timeSheets, List<TimeSheetEntry> entries, UtilizationReportRequestDTO request) {
+    private void buildClientReport(UtilizationReportResponseDTO response, List<TimeSheetDailyRollup> timeSheets, List<TimeSheetProjectDailyRollup> entries, Set<Long> internalProjectIds, UtilizationReportRequestDTO request) {
         // Group entries by client (assuming client info comes from project or external service)
-        Map<String, List<TimeSheetEntry>> entriesByClient = groupEntriesByClient(entries);
+        Map<String, List<TimeSheetProjectDailyRollup>> entriesByClient = groupEntriesByClient(entries);
+        RollupDays days = RollupDays.of(timeSheets);
         
-        List<ClientUtilizationDTO> clientUtilizations = new ArrayList<>();
-        
-        for (Map.Entry<String, List<TimeSheetEntry>> entry : entriesByClient.entrySet()) {
+        // Clients are independent: computed in parallel, results in key order
+        List<ClientUtilizationDTO> clientUtilizations = new ArrayList<>(parallelCompute.map(
+                new ArrayList<>(entriesByClient.entrySet()), entry -> {
             String clientName = entry.getKey();
-            List<TimeSheetEntry> clientEntries = entry.getValue();
+            List<TimeSheetProjectDailyRollup> clientEntries = entry.getValue();
             
             // Get timesheets for this client
-            List<TimeSheet> clientTimeSheets = clientEntries.stream()
-                    .map(TimeSheetEntry::getTimeSheet)
+            List<TimeSheetDailyRollup> clientTimeSheets = clientEntries.stream()
+                    .map(days::dayOf)
                     .filter(Objects::nonNull)
                     .distinct()
                     .collect(Collectors.toList());
             
-            ClientUtilizationDTO clientUtil = calculateClientUtilization(
+            return calculateClientUtilization(
                     clientName, 
                     clientEntries, 
                     clientTimeSheets, 
+                    internalProjectIds,
                     request);
-            
-            clientUtilizations.add(clientUtil);
-        }
+        }));
         
         // Sort by utilization percentage descending
         clientUtilizations.sort((a, b) -> b.getUtilizationPercentage().compareTo(a.getUtilizationPercentage()));
@@ -763,42 +594,42 @@ public class UtilizationReportingService {
         response.setTotalClients(clientUtilizations.size());
     }
 
-    private void buildRoleReport(UtilizationReportResponseDTO response, List<TimeSheet> timeSheets, List<TimeSheetEntry> entries, UtilizationReportRequestDTO request) {
+    private void buildRoleReport(UtilizationReportResponseDTO response, List<TimeSheetDailyRollup> timeSheets, List<TimeSheetProjectDailyRollup> entries, Set<Long> internalProjectIds, UtilizationReportRequestDTO request) {
         // Get resource roles
         Map<Long, String> resourceRoles = fetchResourceRoles();
         
         // Group entries by role
-        Map<String, List<TimeSheetEntry>> entriesByRole = new HashMap<>();
+        Map<String, List<TimeSheetProjectDailyRollup>> entriesByRole = new HashMap<>();
+        RollupDays days = RollupDays.of(timeSheets);
         
-        for (TimeSheetEntry entry : entries) {
-            if (entry.getTimeSheet() != null && entry.getTimeSheet().getUserId() != null) {
-                Long userId = entry.getTimeSheet().getUserId();
+        for (TimeSheetProjectDailyRollup entry : entries) {
+            if (entry.getUserId() != null) {
+                Long userId = entry.getUserId();
                 String role = resourceRoles.getOrDefault(userId, "Unknown");
                 entriesByRole.computeIfAbsent(role, k -> new ArrayList<>()).add(entry);
             }
         }
         
-        List<RoleUtilizationDTO> roleUtilizations = new ArrayList<>();
-        
-        for (Map.Entry<String, List<TimeSheetEntry>> entry : entriesByRole.entrySet()) {
+        // Roles are independent: computed in parallel, results in key order
+        List<RoleUtilizationDTO> roleUtilizations = new ArrayList<>(parallelCompute.map(
+                new ArrayList<>(entriesByRole.entrySet()), entry -> {
             String roleName = entry.getKey();
-            List<TimeSheetEntry> roleEntries = entry.getValue();
+            List<TimeSheetProjectDailyRollup> roleEntries = entry.getValue();
             
             // Get timesheets for this role
-            List<TimeSheet> roleTimeSheets = roleEntries.stream()
-                    .map(TimeSheetEntry::getTimeSheet)
+            List<TimeSheetDailyRollup> roleTimeSheets = roleEntries.stream()
+                    .map(days::dayOf)
                     .filter(Objects::nonNull)
                     .distinct()
                     .collect(Collectors.toList());
             
-            RoleUtilizationDTO roleUtil = calculateRoleUtilization(
+            return calculateRoleUtilization(
                     roleName, 
                     roleEntries, 
                     roleTimeSheets, 
+                    internalProjectIds,
                     request);
-            
-            roleUtilizations.add(roleUtil);
-        }
+        }));
         
         // Sort by utilization percentage descending
         roleUtilizations.sort((a, b) -> b.getUtilizationPercentage().compareTo(a.getUtilizationPercentage()));
@@ -807,12 +638,12 @@ public class UtilizationReportingService {
         response.setTotalRoles(roleUtilizations.size());
     }
 
-    private void buildSummaryReport(UtilizationReportResponseDTO response, List<TimeSheet> timeSheets, List<TimeSheetEntry> entries, UtilizationReportRequestDTO request) {
+    private void buildSummaryReport(UtilizationReportResponseDTO response, List<TimeSheetDailyRollup> timeSheets, List<TimeSheetProjectDailyRollup> entries, Set<Long> internalProjectIds, UtilizationReportRequestDTO request) {
         // Build all dimensions for summary report
-        buildResourceReport(response, timeSheets, entries, request);
-        buildProjectReport(response, timeSheets, entries, request);
-        buildClientReport(response, timeSheets, entries, request);
-        buildRoleReport(response, timeSheets, entries, request);
+        buildResourceReport(response, timeSheets, entries, internalProjectIds, request);
+        buildProjectReport(response, timeSheets, entries, internalProjectIds, request);
+        buildClientReport(response, timeSheets, entries, internalProjectIds, request);
+        buildRoleReport(response, timeSheets, entries, internalProjectIds, request);
     }
 
     private Map<Long, String> fetchResourceNames() {
@@ -824,42 +655,41 @@ public class UtilizationReportingService {
     }
 
     private ProjectUtilizationDTO calculateProjectUtilization(Long projectId, 
-                                                           List<TimeSheetEntry> entries, 
-                                                           List<TimeSheet> timeSheets, 
+                                                           List<TimeSheetProjectDailyRollup> entries, 
+                                                           List<TimeSheetDailyRollup> timeSheets, 
+                                                           Set<Long> internalProjectIds,
                                                            UtilizationReportRequestDTO request) {
         
-        // Calculate hours
-        BigDecimal totalHours = calculateTotalHours(timeSheets, entries);
-        BigDecimal billableHours = calculateBillableHours(entries);
-        BigDecimal plannedHours = calculatePlannedHours(timeSheets, request.getStartDate(), request.getEndDate());
+        // All hours, weekly streaks and trend in one pass
+        UtilizationStats stats = UtilizationStats.of(timeSheets, entries, internalProjectIds, request);
+        BigDecimal totalHours = stats.totalHours;
+        BigDecimal billableHours = stats.billableHours;
+        BigDecimal plannedHours = stats.plannedHours;
         
         // Calculate utilization
-        BigDecimal utilizationPercentage = calculateUtilizationPercentage(totalHours, plannedHours);
+        BigDecimal utilizationPercentage = UtilizationStats.utilizationPercentage(totalHours, plannedHours);
         BigDecimal billableRatio = calculateBillableRatio(billableHours, totalHours);
         
         // Determine utilization band
         String utilizationBand = determineUtilizationBand(utilizationPercentage.doubleValue(), request);
         
         // Calculate trend
-        String trendSignal = calculateTrendSignal(timeSheets, entries, request);
+        String trendSignal = calculateTrendSignal(stats);
         
         // Calculate confidence score
-        Integer confidenceScore = calculateConfidenceScore(timeSheets);
+        Integer confidenceScore = stats.confidenceScore;
         
         // Calculate resource metrics
-        Set<Long> uniqueResources = timeSheets.stream()
-                .map(TimeSheet::getUserId)
-                .filter(Objects::nonNull)
-                .collect(Collectors.toSet());
+        Set<Long> uniqueResources = stats.uniqueResources;
         
         BigDecimal averageHoursPerResource = uniqueResources.isEmpty() ? BigDecimal.ZERO :
                 totalHours.divide(BigDecimal.valueOf(uniqueResources.size()), 2, RoundingMode.HALF_UP);
         
         // Analyze patterns
-        boolean consistentlyOverUtilized = isConsistentlyOverUtilized(timeSheets, entries, request);
-        boolean consistentlyUnderUtilized = isConsistentlyUnderUtilized(timeSheets, entries, request);
-        Integer consecutiveWeeksOverThreshold = calculateConsecutiveWeeksOverThreshold(timeSheets, entries, request);
-        Integer consecutiveWeeksUnderThreshold = calculateConsecutiveWeeksUnderThreshold(timeSheets, entries, request);
+        boolean consistentlyOverUtilized = stats.consistentlyOverUtilized();
+        boolean consistentlyUnderUtilized = stats.consistentlyUnderUtilized();
+        Integer consecutiveWeeksOverThreshold = stats.consecutiveWeeksOver;
+        Integer consecutiveWeeksUnderThreshold = stats.consecutiveWeeksUnder;
         
         // Generate alerts
         List<String> alerts = generateProjectAlerts(utilizationPercentage.doubleValue(), utilizationBand, 
@@ -884,44 +714,40 @@ public class UtilizationReportingService {
                 .consecutiveWeeksOverThreshold(consecutiveWeeksOverThreshold)
                 .consecutiveWeeksUnderThreshold(consecutiveWeeksUnderThreshold)
                 .confidenceScore(confidenceScore)
-                .daysWithApprovedTimesheets(calculateApprovedDays(timeSheets))
+                .daysWithApprovedTimesheets(stats.approvedDays)
                 .totalWorkingDays(calculateWorkingDays(request.getStartDate(), request.getEndDate()))
                 .build();
     }
 
     private ClientUtilizationDTO calculateClientUtilization(String clientName, 
-                                                          List<TimeSheetEntry> entries, 
-                                                          List<TimeSheet> timeSheets, 
+                                                          List<TimeSheetProjectDailyRollup> entries, 
+                                                          List<TimeSheetDailyRollup> timeSheets, 
+                                                          Set<Long> internalProjectIds,
                                                           UtilizationReportRequestDTO request) {
         
-        // Calculate hours
-        BigDecimal totalHours = calculateTotalHours(timeSheets, entries);
-        BigDecimal billableHours = calculateBillableHours(entries);
-        BigDecimal plannedHours = calculatePlannedHours(timeSheets, request.getStartDate(), request.getEndDate());
+        // All hours, weekly streaks and trend in one pass
+        UtilizationStats stats = UtilizationStats.of(timeSheets, entries, internalProjectIds, request);
+        BigDecimal totalHours = stats.totalHours;
+        BigDecimal billableHours = stats.billableHours;
+        BigDecimal plannedHours = stats.plannedHours;
         
         // Calculate utilization
-        BigDecimal utilizationPercentage = calculateUtilizationPercentage(totalHours, plannedHours);
+        BigDecimal utilizationPercentage = UtilizationStats.utilizationPercentage(totalHours, plannedHours);
         BigDecimal billableRatio = calculateBillableRatio(billableHours, totalHours);
         
         // Determine utilization band
         String utilizationBand = determineUtilizationBand(utilizationPercentage.doubleValue(), request);
         
         // Calculate trend
-        String trendSignal = calculateTrendSignal(timeSheets, entries, request);
+        String trendSignal = calculateTrendSignal(stats);
         
         // Calculate confidence score
-        Integer confidenceScore = calculateConfidenceScore(timeSheets);
+        Integer confidenceScore = stats.confidenceScore;
         
         // Calculate project and resource metrics
-        Set<Long> uniqueProjects = entries.stream()
-                .map(TimeSheetEntry::getProjectId)
-                .filter(Objects::nonNull)
-                .collect(Collectors.toSet());
+        Set<Long> uniqueProjects = stats.uniqueProjects;
         
-        Set<Long> uniqueResources = timeSheets.stream()
-                .map(TimeSheet::getUserId)
-                .filter(Objects::nonNull)
-                .collect(Collectors.toSet());
+        Set<Long> uniqueResources = stats.uniqueResources;
         
         BigDecimal averageHoursPerResource = uniqueResources.isEmpty() ? BigDecimal.ZERO :
                 totalHours.divide(BigDecimal.valueOf(uniqueResources.size()), 2, RoundingMode.HALF_UP);
@@ -930,10 +756,10 @@ public class UtilizationReportingService {
                 totalHours.divide(BigDecimal.valueOf(uniqueProjects.size()), 2, RoundingMode.HALF_UP);
         
         // Analyze patterns
-        boolean consistentlyOverUtilized = isConsistentlyOverUtilized(timeSheets, entries, request);
-        boolean consistentlyUnderUtilized = isConsistentlyUnderUtilized(timeSheets, entries, request);
-        Integer consecutiveWeeksOverThreshold = calculateConsecutiveWeeksOverThreshold(timeSheets, entries, request);
-        Integer consecutiveWeeksUnderThreshold = calculateConsecutiveWeeksUnderThreshold(timeSheets, entries, request);
+        boolean consistentlyOverUtilized = stats.consistentlyOverUtilized();
+        boolean consistentlyUnderUtilized = stats.consistentlyUnderUtilized();
+        Integer consecutiveWeeksOverThreshold = stats.consecutiveWeeksOver;
+        Integer consecutiveWeeksUnderThreshold = stats.consecutiveWeeksUnder;
         
         // Generate alerts
         List<String> alerts = generateClientAlerts(utilizationPercentage.doubleValue(), utilizationBand, 
@@ -958,50 +784,49 @@ public class UtilizationReportingService {
                 .consecutiveWeeksOverThreshold(consecutiveWeeksOverThreshold)
                 .consecutiveWeeksUnderThreshold(consecutiveWeeksUnderThreshold)
                 .confidenceScore(confidenceScore)
-                .daysWithApprovedTimesheets(calculateApprovedDays(timeSheets))
+                .daysWithApprovedTimesheets(stats.approvedDays)
                 .totalWorkingDays(calculateWorkingDays(request.getStartDate(), request.getEndDate()))
                 .build();
     }
 
     private RoleUtilizationDTO calculateRoleUtilization(String roleName, 
-                                                       List<TimeSheetEntry> entries, 
-                                                       List<TimeSheet> timeSheets, 
+                                                       List<TimeSheetProjectDailyRollup> entries, 
+                                                       List<TimeSheetDailyRollup> timeSheets, 
+                                                       Set<Long> internalProjectIds,
                                                        UtilizationReportRequestDTO request) {
         
-        // Calculate hours
-        BigDecimal totalHours = calculateTotalHours(timeSheets, entries);
-        BigDecimal billableHours = calculateBillableHours(entries);
-        BigDecimal nonBillableHours = calculateNonBillableHours(entries);
-        BigDecimal internalHours = calculateInternalHours(entries);
-        BigDecimal plannedHours = calculatePlannedHours(timeSheets, request.getStartDate(), request.getEndDate());
+        // All hours, weekly streaks and trend in one pass
+        UtilizationStats stats = UtilizationStats.of(timeSheets, entries, internalProjectIds, request);
+        BigDecimal totalHours = stats.totalHours;
+        BigDecimal billableHours = stats.billableHours;
+        BigDecimal nonBillableHours = stats.nonBillableHours;
+        BigDecimal internalHours = stats.internalHours;
+        BigDecimal plannedHours = stats.plannedHours;
         
         // Calculate utilization
-        BigDecimal utilizationPercentage = calculateUtilizationPercentage(totalHours, plannedHours);
+        BigDecimal utilizationPercentage = UtilizationStats.utilizationPercentage(totalHours, plannedHours);
         BigDecimal billableRatio = calculateBillableRatio(billableHours, totalHours);
         
         // Determine utilization band
         String utilizationBand = determineUtilizationBand(utilizationPercentage.doubleValue(), request);
         
         // Calculate trend
-        String trendSignal = calculateTrendSignal(timeSheets, entries, request);
+        String trendSignal = calculateTrendSignal(stats);
         
         // Calculate confidence score
-        Integer confidenceScore = calculateConfidenceScore(timeSheets);
+        Integer confidenceScore = stats.confidenceScore;
         
         // Calculate resource metrics
-        Set<Long> uniqueResources = timeSheets.stream()
-                .map(TimeSheet::getUserId)
-                .filter(Objects::nonNull)
-                .collect(Collectors.toSet());
+        Set<Long> uniqueResources = stats.uniqueResources;
         
         BigDecimal averageHoursPerResource = uniqueResources.isEmpty() ? BigDecimal.ZERO :
                 totalHours.divide(BigDecimal.valueOf(uniqueResources.size()), 2, RoundingMode.HALF_UP);
         
         // Analyze patterns
-        boolean consistentlyOverUtilized = isConsistentlyOverUtilized(timeSheets, entries, request);
-        boolean consistentlyUnderUtilized = isConsistentlyUnderUtilized(timeSheets, entries, request);
-        Integer consecutiveWeeksOverThreshold = calculateConsecutiveWeeksOverThreshold(timeSheets, entries, request);
-        Integer consecutiveWeeksUnderThreshold = calculateConsecutiveWeeksUnderThreshold(timeSheets, entries, request);
+        boolean consistentlyOverUtilized = stats.consistentlyOverUtilized();
+        boolean consistentlyUnderUtilized = stats.consistentlyUnderUtilized();
+        Integer consecutiveWeeksOverThreshold = stats.consecutiveWeeksOver;
+        Integer consecutiveWeeksUnderThreshold = stats.consecutiveWeeksUnder;
         
         // Generate alerts
         List<String> alerts = generateRoleAlerts(utilizationPercentage.doubleValue(), utilizationBand, 
@@ -1026,17 +851,17 @@ public class UtilizationReportingService {
                 .consecutiveWeeksOverThreshold(consecutiveWeeksOverThreshold)
                 .consecutiveWeeksUnderThreshold(consecutiveWeeksUnderThreshold)
                 .confidenceScore(confidenceScore)
-                .daysWithApprovedTimesheets(calculateApprovedDays(timeSheets))
+                .daysWithApprovedTimesheets(stats.approvedDays)
                 .totalWorkingDays(calculateWorkingDays(request.getStartDate(), request.getEndDate()))
                 .build();
     }
 
-    private Map<String, List<TimeSheetEntry>> groupEntriesByClient(List<TimeSheetEntry> entries) {
+    private Map<String, List<TimeSheetProjectDailyRollup>> groupEntriesByClient(List<TimeSheetProjectDailyRollup> entries) {
         // This is a placeholder - you would need to implement actual client grouping logic
         // For now, group by project ID as a proxy for client
-        Map<String, List<TimeSheetEntry>> entriesByClient = new HashMap<>();
+        Map<String, List<TimeSheetProjectDailyRollup>> entriesByClient = new HashMap<>();
         
-        for (TimeSheetEntry entry : entries) {
+        for (TimeSheetProjectDailyRollup entry : entries) {
             if (entry.getProjectId() != null) {
                 String clientKey = "Client_" + entry.getProjectId(); // Placeholder
                 entriesByClient.computeIfAbsent(clientKey, k -> new ArrayList<>()).add(entry);
@@ -1055,7 +880,7 @@ public class UtilizationReportingService {
                 .map(ProjectUtilizationDTO::getPlannedHours)
                 .reduce(BigDecimal.ZERO, BigDecimal::add);
         
-        BigDecimal utilizationPercentage = calculateUtilizationPercentage(totalHours, plannedHours);
+        BigDecimal utilizationPercentage = UtilizationStats.utilizationPercentage(totalHours, plannedHours);
         
         BigDecimal billableHours = projectUtilizations.stream()
                 .map(ProjectUtilizationDTO::getBillableHours)
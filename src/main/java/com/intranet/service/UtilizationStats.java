@@ -0,0 +1,205 @@
+package com.intranet.service;
+
+import com.intranet.dto.rms.UtilizationReportRequestDTO;
+import com.intranet.entity.TimeSheet;
+import com.intranet.entity.TimeSheetDailyRollup;
+import com.intranet.entity.TimeSheetProjectDailyRollup;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.time.temporal.ChronoUnit;
+import java.util.HashSet;
+import java.util.Set;
+import java.util.TreeMap;
+
+/**
+ * Every figure UtilizationReportingService shows for one resource / project /
+ * client / role, computed in one pass over its daily rollup rows (one per
+ * timesheet) and one over its project-daily rows. Weekly utilization is
+ * bucketed once and both streak counts are read from the same buckets.
+ */
+final class UtilizationStats {
+
+    final BigDecimal totalHours;
+    final BigDecimal billableHours;
+    final BigDecimal nonBillableHours;
+    final BigDecimal internalHours;
+    final BigDecimal plannedHours;
+    final BigDecimal recentUtilization;
+    final BigDecimal olderUtilization;
+    final int approvedDays;
+    final int confidenceScore;
+    final int consecutiveWeeksOver;
+    final int consecutiveWeeksUnder;
+    final Set<Long> uniqueResources;
+    final Set<Long> uniqueProjects;
+
+    private UtilizationStats(Builder b) {
+        this.totalHours = b.entryHours.add(b.autoGeneratedHours);
+        this.billableHours = b.billableHours;
+        this.nonBillableHours = b.nonBillableHours;
+        this.internalHours = b.internalHours;
+        this.plannedHours = plannedHours(b.start, b.end, b.autoGeneratedDates);
+        this.recentUtilization = b.recent.utilization();
+        this.olderUtilization = b.older.utilization();
+        this.approvedDays = b.approved;
+        this.confidenceScore = b.sheets == 0 ? 0 : (b.approved * 100) / b.sheets;
+        this.uniqueResources = b.resources;
+        this.uniqueProjects = b.projects;
+
+        // Streaks are counted from the first week of the period onwards
+        int over = 0;
+        int under = 0;
+        boolean overRunning = true;
+        boolean underRunning = true;
+        for (Window week : b.weeks.values()) {
+            double util = week.utilization().doubleValue();
+            overRunning &= util >= b.overThreshold;
+            underRunning &= util <= b.underThreshold;
+            if (overRunning) over++;
+            if (underRunning) under++;
+        }
+        this.consecutiveWeeksOver = over;
+        this.consecutiveWeeksUnder = under;
+    }
+
+    static UtilizationStats of(Iterable<TimeSheetDailyRollup> timeSheets,
+                               Iterable<TimeSheetProjectDailyRollup> entries,
+                               Set<Long> internalProjectIds,
+                               UtilizationReportRequestDTO request) {
+        Builder b = new Builder(request);
+        for (TimeSheetDailyRollup ts : timeSheets) {
+            b.add(ts);
+        }
+        for (TimeSheetProjectDailyRollup entry : entries) {
+            b.add(entry, internalProjectIds);
+        }
+        return new UtilizationStats(b);
+    }
+
+    boolean consistentlyOverUtilized() {
+        return consecutiveWeeksOver >= 4;
+    }
+
+    boolean consistentlyUnderUtilized() {
+        return consecutiveWeeksUnder >= 4;
+    }
+
+    /** 8 hours per weekday in [start, end] that is not an auto-generated (holiday) date. */
+    static BigDecimal plannedHours(LocalDate start, LocalDate end, Set<LocalDate> holidayDates) {
+        int workingDays = 0;
+        LocalDate cursor = start;
+        while (!cursor.isAfter(end)) {
+            if (cursor.getDayOfWeek() != DayOfWeek.SATURDAY &&
+                cursor.getDayOfWeek() != DayOfWeek.SUNDAY &&
+                !holidayDates.contains(cursor)) {
+                workingDays++;
+            }
+            cursor = cursor.plusDays(1);
+        }
+        return BigDecimal.valueOf(workingDays * 8);
+    }
+
+    static BigDecimal utilizationPercentage(BigDecimal actualHours, BigDecimal plannedHours) {
+        if (plannedHours.compareTo(BigDecimal.ZERO) == 0) {
+            return BigDecimal.ZERO;
+        }
+        return actualHours.multiply(BigDecimal.valueOf(100))
+                .divide(plannedHours, 2, RoundingMode.HALF_UP);
+    }
+
+    private static BigDecimal hours(BigDecimal value) {
+        return value != null ? value : BigDecimal.ZERO;
+    }
+
+    private static final class Builder {
+        private final LocalDate start;
+        private final LocalDate end;
+        private final LocalDate midPoint;
+        private final double overThreshold;
+        private final double underThreshold;
+
+        private BigDecimal entryHours = BigDecimal.ZERO;
+        private BigDecimal autoGeneratedHours = BigDecimal.ZERO;
+        private BigDecimal billableHours = BigDecimal.ZERO;
+        private BigDecimal nonBillableHours = BigDecimal.ZERO;
+        private BigDecimal internalHours = BigDecimal.ZERO;
+        private final Set<LocalDate> autoGeneratedDates = new HashSet<>();
+        private final Set<Long> resources = new HashSet<>();
+        private final Set<Long> projects = new HashSet<>();
+        private int sheets;
+        private int approved;
+        private final Window recent = new Window();
+        private final Window older = new Window();
+        private final TreeMap<LocalDate, Window> weeks = new TreeMap<>();
+
+        Builder(UtilizationReportRequestDTO request) {
+            this.start = request.getStartDate();
+            this.end = request.getEndDate();
+            this.midPoint = start.plusDays(ChronoUnit.DAYS.between(start, end) / 2);
+            this.overThreshold = request.getOverUtilizationThreshold() != null ? request.getOverUtilizationThreshold().doubleValue() : 90.0;
+            this.underThreshold = request.getUnderUtilizationThreshold() != null ? request.getUnderUtilizationThreshold().doubleValue() : 60.0;
+        }
+
+        void add(TimeSheetDailyRollup ts) {
+            sheets++;
+            if (ts.getStatus() == TimeSheet.Status.APPROVED) {
+                approved++;
+            }
+            if (ts.getUserId() != null) {
+                resources.add(ts.getUserId());
+            }
+            if (ts.isAutoGenerated()) {
+                autoGeneratedHours = autoGeneratedHours.add(hours(ts.getSheetHours()));
+                autoGeneratedDates.add(ts.getWorkDate());
+            }
+            (ts.getWorkDate().isAfter(midPoint) ? recent : older).add(ts);
+            weeks.computeIfAbsent(ts.getWorkDate().with(DayOfWeek.MONDAY), w -> new Window()).add(ts);
+        }
+
+        void add(TimeSheetProjectDailyRollup entry, Set<Long> internalProjectIds) {
+            BigDecimal billable = hours(entry.getBillableHours());
+            BigDecimal nonBillable = hours(entry.getNonBillableHours());
+            BigDecimal h = billable.add(nonBillable);
+            entryHours = entryHours.add(h);
+            if (entry.getProjectId() != null) {
+                projects.add(entry.getProjectId());
+            }
+            boolean internal = entry.getProjectId() != null && internalProjectIds.contains(entry.getProjectId());
+            billableHours = billableHours.add(billable);
+            if (!internal) {
+                nonBillableHours = nonBillableHours.add(nonBillable);
+            }
+            if (internal) {
+                internalHours = internalHours.add(h);
+            }
+        }
+    }
+
+    /** Timesheet hours against planned hours between the first and last sheet of a window. */
+    private static final class Window {
+        private BigDecimal hours = BigDecimal.ZERO;
+        private LocalDate first;
+        private LocalDate last;
+        private final Set<LocalDate> autoGeneratedDates = new HashSet<>();
+
+        void add(TimeSheetDailyRollup ts) {
+            hours = hours.add(hours(ts.getSheetHours()));
+            LocalDate date = ts.getWorkDate();
+            if (first == null || date.isBefore(first)) first = date;
+            if (last == null || date.isAfter(last)) last = date;
+            if (ts.isAutoGenerated()) {
+                autoGeneratedDates.add(date);
+            }
+        }
+
+        BigDecimal utilization() {
+            if (first == null) {
+                return BigDecimal.ZERO;
+            }
+            return utilizationPercentage(hours, plannedHours(first, last, autoGeneratedDates));
+        }
+    }
+}
@@ -2,6 +2,7 @@ package com.intranet.service;
 
 import com.intranet.entity.WeekInfo;
 import com.intranet.repository.WeekInfoRepo;
+import com.intranet.service.week.WeekCalendarService;
 
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
@@ -9,6 +10,8 @@ import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.time.*;
+import java.util.ArrayList;
+import java.util.List;
 import java.util.Optional;
 
 @Slf4j
@@ -17,6 +20,7 @@ import java.util.Optional;
 public class WeekInfoService {
 
     private final WeekInfoRepo weekInfoRepository;
+    private final WeekCalendarService weekCalendarService;
 
     /**
      * Generate and persist all weeks for a given month.
@@ -35,6 +39,7 @@ public class WeekInfoService {
         }
 
         int weekNo = 1;
+        List<WeekInfo> weeks = new ArrayList<>();
 
         while (currentStart.isBefore(lastDayOfMonth.plusDays(1)) && weekNo <= 5) {
             LocalDate currentEnd = currentStart.plusDays(6);
@@ -56,16 +61,19 @@ public class WeekInfoService {
                 weekInfo.setMonth(month);
                 weekInfo.setIncompleteWeek(isIncompleteWeek);
 
-                weekInfoRepository.save(weekInfo);
+                weeks.add(weekInfoRepository.save(weekInfo));
                 log.info("✅ Saved week {} → {} to {} (incomplete: {})", weekNo, effectiveStart, effectiveEnd, isIncompleteWeek);
             } else {
                 log.info("⚠️ Week already exists: {} to {}", effectiveStart, effectiveEnd);
+                // May have been generated on another instance; this one's calendar needs it too
+                weeks.add(existing.get());
             }
 
             currentStart = currentStart.plusWeeks(1);
             weekNo++;
         }
 
+        weekCalendarService.addAfterCommit(weeks);
         log.info("✅ Completed generating WeekInfo for {}/{}", month, year);
     }
 }
@@ -10,7 +10,7 @@ import com.intranet.repository.InternalProjectRepo;
 import com.intranet.repository.TimeSheetOnHolidayTypeRepo;
 import com.intranet.repository.TimeSheetOnHolidaysRepo;
 import com.intranet.repository.TimeSheetRepo;
-import com.intranet.repository.WeekInfoRepo;
+import com.intranet.service.week.WeekCalendarService;
 
 import jakarta.servlet.http.HttpServletRequest;
 import lombok.RequiredArgsConstructor;
@@ -46,7 +46,7 @@ import java.util.stream.Collectors;
 public class WeeklySummaryService {
 
     private final TimeSheetRepo timeSheetRepo;
-    private final WeekInfoRepo weekInfoRepo;
+    private final WeekCalendarService weekCalendarService;
     private final InternalProjectRepo internalProjectRepo;
     private final TimeSheetOnHolidayTypeRepo timeSheetOnHolidayTypeRepo;
 
@@ -72,7 +72,7 @@ public class WeeklySummaryService {
     @Value("${ums.api.base-url}")
     private String umsBaseUrl;
 
-     private final RestTemplate restTemplate = new RestTemplate();
+     private final RestTemplate restTemplate;
 
     private final TimeSheetOnHolidaysRepo timeSheetOnHolidaysRepository;
     
@@ -82,8 +82,7 @@ public class WeeklySummaryService {
         LocalDate startOfMonth = now.withDayOfMonth(1);
         LocalDate endOfMonth = now.withDayOfMonth(now.lengthOfMonth());
 
-        List<WeekInfo> weeks = weekInfoRepo
-                .findByStartDateGreaterThanEqualAndEndDateLessThanEqualOrderByStartDateAsc(startOfMonth, endOfMonth);
+        List<WeekInfo> weeks = weekCalendarService.calendar().within(startOfMonth, endOfMonth);
 
         List<Long> weekIds = weeks.stream().map(WeekInfo::getId).collect(Collectors.toList());
         List<TimeSheet> timesheets = timeSheetRepo.findByUserIdAndWeekInfo_IdInOrderByWorkDateAsc(userId, weekIds);
@@ -348,8 +347,7 @@ public class WeeklySummaryService {
         // List<WeekInfo> weeks = weekInfoRepo
         //         .findByStartDateGreaterThanEqualAndEndDateLessThanEqualOrderByStartDateAsc(startOfMonth, endOfMonth);
 
-        List<WeekInfo> weeks = weekInfoRepo
-        .findByStartDateLessThanEqualAndEndDateGreaterThanEqualOrderByStartDateAsc(endDate, startDate);
+        List<WeekInfo> weeks = weekCalendarService.calendar().overlapping(startDate, endDate);
 
         List<Long> weekIds = weeks.stream().map(WeekInfo::getId).collect(Collectors.toList());
         List<TimeSheet> timesheets = timeSheetRepo.findByUserIdAndWeekInfo_IdInOrderByWorkDateAsc(userId, weekIds);
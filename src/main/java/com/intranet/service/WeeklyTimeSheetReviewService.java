@@ -14,14 +14,10 @@ import java.util.Set;
 import java.util.stream.Collectors;
 
 import org.springframework.beans.factory.annotation.Value;
-import org.springframework.core.ParameterizedTypeReference;
 import org.springframework.http.HttpEntity;
 import org.springframework.http.HttpHeaders;
-import org.springframework.http.HttpMethod;
-import org.springframework.http.ResponseEntity;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
-import org.springframework.web.client.RestTemplate;
 import org.springframework.web.context.request.RequestContextHolder;
 import org.springframework.web.context.request.ServletRequestAttributes;
 
@@ -40,6 +36,11 @@ import com.intranet.repository.TimeSheetRepo;
 import com.intranet.repository.TimeSheetReviewRepo;
 import com.intranet.repository.WeeklyTimeSheetReviewRepo;
 import com.intranet.service.email.managerReviews.ManagerNotificationEmailService;
+import com.intranet.service.events.DomainEventOutbox;
+import com.intranet.service.events.TimesheetEvent;
+import com.intranet.service.project.ProjectMembershipGraph;
+import com.intranet.service.project.ProjectMembershipService;
+import com.intranet.service.rollup.TimeSheetRollupService;
 import com.intranet.util.cache.UserDirectoryService;
 
 import jakarta.servlet.http.HttpServletRequest;
@@ -58,15 +59,13 @@ public class WeeklyTimeSheetReviewService {
         private final TimeSheetOnHolidayTypeRepo timeSheetOnHolidayTypeRepo;
         private final TimesheetSettingsService timesheetSettingsService;
         private final InternalProjectRepo internalProjectRepo;
+        private final TimeSheetRollupService rollupService;
+        private final ProjectMembershipService projectMembershipService;
+        private final DomainEventOutbox domainEventOutbox;
 
         @Value("${tms.api.base-url}")
         private String tmsBaseUrl;
 
-        @Value("${pms.api.base-url}")
-        private String pmsBaseUrl;
-
-        private final RestTemplate restTemplate = new RestTemplate();
-
         private HttpEntity<Void> buildEntityWithAuth() {
 
         ServletRequestAttributes attrs = (ServletRequestAttributes) RequestContextHolder.getRequestAttributes();
@@ -355,6 +354,9 @@ public class WeeklyTimeSheetReviewService {
     }
     // Save all timesheets at the end
     timeSheetRepo.saveAll(timeSheets);
+    timeSheets.forEach(rollupService::markDirty);
+    domainEventOutbox.append(new TimesheetEvent.WeekSubmitted(
+            userId, commonWeek.getId(), timeSheets.stream().map(TimeSheet::getId).toList()));
 
     // // ✅ Step 11: Update TimeSheetReview records → SUBMITTED
     // List<TimeSheetReview> existingReviews = timeSheetReviewRepo.findByTimeSheet_IdIn(timeSheetIds);
@@ -392,10 +394,6 @@ public class WeeklyTimeSheetReviewService {
                 HttpServletRequest request = attrs.getRequest();
                 String authHeader = request.getHeader("Authorization");
 
-                HttpHeaders headers = new HttpHeaders();
-                headers.set("Authorization", authHeader);
-                HttpEntity<Void> entity = new HttpEntity<>(headers);
-
                 // ✅ Step 2: Identify unique project IDs from timesheets
                 List<Long> projectIds = timeSheets.stream()
                         .flatMap(ts -> ts.getEntries().stream())
@@ -408,15 +406,11 @@ public class WeeklyTimeSheetReviewService {
                     return false;
                 }
 
-                // ✅ Step 3: Fetch project details from PMS
-                String pmsUrl = String.format("%s/projects/tms", pmsBaseUrl);
-                ResponseEntity<List<Map<String, Object>>> pmsResponse = restTemplate.exchange(
-                        pmsUrl, HttpMethod.GET, entity, new ParameterizedTypeReference<>() {});
-                List<Map<String, Object>> allProjects = Optional.ofNullable(pmsResponse.getBody()).orElse(List.of());
-
-                // ✅ Step 4: Filter only relevant projects by ID
-                List<Map<String, Object>> userProjects = allProjects.stream()
-                        .filter(p -> projectIds.contains(((Number) p.get("id")).longValue()))
+                // ✅ Step 3-4: Look up the submitted projects in the project membership graph
+                ProjectMembershipGraph membership = projectMembershipService.graph(authHeader);
+                List<Map<String, Object>> userProjects = projectIds.stream()
+                        .map(membership::project)
+                        .flatMap(Optional::stream)
                         .toList();
 
                 if (userProjects.isEmpty()) {
@@ -436,12 +430,11 @@ public class WeeklyTimeSheetReviewService {
                 // ✅ Step 6: Prepare manager notification DTOs
                 List<WeeklySubmissionEmailDTO> managerNotifications = userProjects.stream()
                         .map(p -> {
-                            Map<String, Object> owner = (Map<String, Object>) p.get("owner");
-                            if (owner == null) return null;
+                            if (p.get("ownerId") == null) return null;
                             return new WeeklySubmissionEmailDTO(
-                                    ((Number) owner.get("id")).longValue(),
-                                    (String) owner.get("name"),
-                                    (String) owner.get("email"),
+                                    ((Number) p.get("ownerId")).longValue(),
+                                    (String) p.get("ownerName"),
+                                    (String) p.get("ownerEmail"),
                                     userId,
                                     userName,
                                     commonWeek.getStartDate(),
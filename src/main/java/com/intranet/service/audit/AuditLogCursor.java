@@ -0,0 +1,37 @@
+package com.intranet.service.audit;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.Base64;
+
+import com.intranet.entity.AuditLog;
+
+/**
+ * Position of the last row of an audit log page, (createdAt, id), encoded
+ * as an opaque URL-safe token.
+ */
+public record AuditLogCursor(LocalDateTime createdAt, Long id) {
+
+    public static AuditLogCursor of(AuditLog last) {
+        return new AuditLogCursor(last.getCreatedAt(), last.getId());
+    }
+
+    public String encode() {
+        String raw = createdAt + "|" + id;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    /** Null for a missing cursor (first page). */
+    public static AuditLogCursor decode(String token) {
+        if (token == null || token.isBlank()) {
+            return null;
+        }
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(token), StandardCharsets.UTF_8);
+            int sep = raw.lastIndexOf('|');
+            return new AuditLogCursor(LocalDateTime.parse(raw.substring(0, sep)), Long.parseLong(raw.substring(sep + 1)));
+        } catch (RuntimeException e) {
+            throw new IllegalArgumentException("Invalid audit log cursor");
+        }
+    }
+}
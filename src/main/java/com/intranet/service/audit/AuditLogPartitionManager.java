@@ -0,0 +1,320 @@
+package com.intranet.service.audit;
+
+import java.io.BufferedOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.ResultSetMetaData;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.time.YearMonth;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.zip.GZIPOutputStream;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Monthly partitions, retention and archival for audit_log.
+ *
+ * - On MySQL, audit_log is RANGE COLUMNS(created_at) partitioned with one
+ *   partition per month (pYYYYMM) plus pmax. Converting an existing
+ *   unpartitioned table rewrites all of it, so it only happens with
+ *   app.audit.partitioning.convert-existing=true (primary key becomes
+ *   (id, created_at), which partitioning requires); until then retention
+ *   falls back to chunked deletes.
+ * - Runs are serialised across instances with a MySQL named lock
+ *   (GET_LOCK); an instance that does not get it skips the run.
+ * - Every run keeps app.audit.partitioning.months-ahead empty partitions
+ *   ahead of the current month, so pmax stays empty and splitting it is
+ *   instant.
+ * - Months older than app.audit.retention.months are written to
+ *   app.audit.archive.dir as audit_log-YYYY-MM.ndjson.gz (one JSON row per
+ *   line) and then removed: DROP PARTITION when partitioned, chunked DELETE
+ *   otherwise. A month is only removed after its archive file is complete.
+ *
+ * retention.months = 0 keeps everything.
+ */
+@Slf4j
+@Service
+public class AuditLogPartitionManager {
+
+    static final String TABLE = "audit_log";
+    static final String MAX_PARTITION = "pmax";
+    private static final DateTimeFormatter PARTITION_MONTH = DateTimeFormatter.ofPattern("yyyyMM");
+    private static final int DELETE_CHUNK = 10_000;
+    private static final String LOCK_NAME = "intranet.audit_log.maintenance";
+    // Single-column indexes superseded by the (column, createdAt) ones on AuditLog
+    private static final List<String> OBSOLETE_INDEXES = List.of("idx_audit_user_id", "idx_audit_action");
+
+    private final JdbcTemplate jdbcTemplate;
+    private final JdbcTemplate streamingJdbcTemplate;
+    private final ObjectMapper objectMapper;
+    private final boolean partitioningEnabled;
+    private final boolean convertExisting;
+    private final int monthsAhead;
+    private final int retentionMonths;
+    private final Path archiveDir;
+
+    public AuditLogPartitionManager(JdbcTemplate jdbcTemplate,
+                                    ObjectMapper objectMapper,
+                                    @Value("${app.audit.partitioning.enabled:true}") boolean partitioningEnabled,
+                                    @Value("${app.audit.partitioning.convert-existing:false}") boolean convertExisting,
+                                    @Value("${app.audit.partitioning.months-ahead:3}") int monthsAhead,
+                                    @Value("${app.audit.retention.months:12}") int retentionMonths,
+                                    @Value("${app.audit.archive.dir:${user.dir}/audit-archive}") String archiveDir) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.objectMapper = objectMapper;
+        this.partitioningEnabled = partitioningEnabled;
+        this.convertExisting = convertExisting;
+        this.monthsAhead = Math.max(1, monthsAhead);
+        this.retentionMonths = Math.max(0, retentionMonths);
+        this.archiveDir = Path.of(archiveDir).toAbsolutePath().normalize();
+
+        // MySQL Connector/J streams rows one by one only with this fetch size;
+        // other drivers reject it, so it is only used against MySQL
+        this.streamingJdbcTemplate = new JdbcTemplate(jdbcTemplate.getDataSource());
+        this.streamingJdbcTemplate.setFetchSize(Integer.MIN_VALUE);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void onStartup() {
+        maintain();
+    }
+
+    @Scheduled(cron = "${app.audit.retention.cron:0 15 2 * * *}")
+    public void maintain() {
+        try {
+            if (!isMySql()) {
+                applyRetention(false, jdbcTemplate);
+                return;
+            }
+            Boolean ran = jdbcTemplate.execute((ConnectionCallback<Boolean>) connection -> {
+                if (!namedLock(connection, "SELECT GET_LOCK(?, 0)")) {
+                    return false;
+                }
+                try {
+                    maintainMySql();
+                    return true;
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                } finally {
+                    namedLock(connection, "SELECT RELEASE_LOCK(?)");
+                }
+            });
+            if (!Boolean.TRUE.equals(ran)) {
+                log.info("🗂 Audit log maintenance is running on another instance; skipped");
+            }
+        } catch (Exception e) {
+            log.error("❌ Audit log maintenance failed: {}", e.getMessage(), e);
+        }
+    }
+
+    private void maintainMySql() throws IOException {
+        boolean partitioned = false;
+        if (partitioningEnabled) {
+            if (!partitions().isEmpty()) {
+                partitioned = true;
+            } else if (convertExisting) {
+                convertToPartitioned();
+                partitioned = true;
+            } else {
+                log.warn("⚠ {} is not partitioned; set app.audit.partitioning.convert-existing=true "
+                        + "for one maintenance window to convert it (rewrites the whole table)", TABLE);
+            }
+            if (partitioned) {
+                ensurePartitionsAhead();
+            }
+        }
+        applyRetention(partitioned, streamingJdbcTemplate);
+    }
+
+    private static boolean namedLock(Connection connection, String sql) throws SQLException {
+        try (PreparedStatement statement = connection.prepareStatement(sql)) {
+            statement.setString(1, LOCK_NAME);
+            try (ResultSet rs = statement.executeQuery()) {
+                return rs.next() && rs.getInt(1) == 1;
+            }
+        }
+    }
+
+    private void convertToPartitioned() {
+        YearMonth first = jdbcTemplate.query("SELECT MIN(created_at) FROM " + TABLE, rs -> {
+            Timestamp min = rs.next() ? rs.getTimestamp(1) : null;
+            return min != null ? YearMonth.from(min.toLocalDateTime()) : YearMonth.now();
+        });
+        List<YearMonth> months = monthsBetween(first, YearMonth.now().plusMonths(monthsAhead));
+
+        log.info("🗂 Partitioning {} by month ({} partitions from {})", TABLE, months.size(), first);
+        for (String index : OBSOLETE_INDEXES) {
+            Integer present = jdbcTemplate.queryForObject(
+                    "SELECT COUNT(*) FROM information_schema.STATISTICS " +
+                    "WHERE TABLE_SCHEMA = DATABASE() AND TABLE_NAME = ? AND INDEX_NAME = ?",
+                    Integer.class, TABLE, index);
+            if (present != null && present > 0) {
+                jdbcTemplate.execute("ALTER TABLE " + TABLE + " DROP INDEX " + index);
+            }
+        }
+        jdbcTemplate.execute("ALTER TABLE " + TABLE + " DROP PRIMARY KEY, ADD PRIMARY KEY (id, created_at)");
+        jdbcTemplate.execute("ALTER TABLE " + TABLE + " PARTITION BY RANGE COLUMNS(created_at) ("
+                + partitionDefinitions(months) + ")");
+        log.info("✅ {} is now partitioned by month", TABLE);
+    }
+
+    private void ensurePartitionsAhead() {
+        List<String> existing = partitions();
+        List<YearMonth> missing = new ArrayList<>();
+        YearMonth last = existing.stream()
+                .map(AuditLogPartitionManager::monthOf)
+                .filter(Objects::nonNull)
+                .max(YearMonth::compareTo)
+                .orElse(YearMonth.now().minusMonths(1));
+        for (YearMonth m = last.plusMonths(1); !m.isAfter(YearMonth.now().plusMonths(monthsAhead)); m = m.plusMonths(1)) {
+            missing.add(m);
+        }
+        if (missing.isEmpty()) {
+            return;
+        }
+        jdbcTemplate.execute("ALTER TABLE " + TABLE + " REORGANIZE PARTITION " + MAX_PARTITION + " INTO ("
+                + partitionDefinitions(missing) + ")");
+        log.info("🗂 Added {} audit_log partitions up to {}", missing.size(), missing.get(missing.size() - 1));
+    }
+
+    /** reader runs the archive SELECTs (the streaming template on MySQL). */
+    private void applyRetention(boolean partitioned, JdbcTemplate reader) throws IOException {
+        if (retentionMonths == 0) {
+            return;
+        }
+        YearMonth cutoff = YearMonth.now().minusMonths(retentionMonths);
+
+        if (partitioned) {
+            for (String partition : partitions()) {
+                YearMonth month = monthOf(partition);
+                if (month != null && month.isBefore(cutoff)) {
+                    archive(reader, month, "SELECT * FROM " + TABLE + " PARTITION (" + partition + ") ORDER BY id");
+                    jdbcTemplate.execute("ALTER TABLE " + TABLE + " DROP PARTITION " + partition);
+                    log.info("🧹 Archived and dropped audit_log partition {}", partition);
+                }
+            }
+            return;
+        }
+
+        Timestamp oldest = jdbcTemplate.queryForObject("SELECT MIN(created_at) FROM " + TABLE, Timestamp.class);
+        if (oldest == null) {
+            return;
+        }
+        for (YearMonth month = YearMonth.from(oldest.toLocalDateTime()); month.isBefore(cutoff); month = month.plusMonths(1)) {
+            Timestamp from = Timestamp.valueOf(month.atDay(1).atStartOfDay());
+            Timestamp to = Timestamp.valueOf(month.plusMonths(1).atDay(1).atStartOfDay());
+            archive(reader, month, "SELECT * FROM " + TABLE + " WHERE created_at >= ? AND created_at < ? ORDER BY id", from, to);
+            int removed = 0;
+            int chunk;
+            do {
+                chunk = jdbcTemplate.update("DELETE FROM " + TABLE + " WHERE created_at >= ? AND created_at < ? LIMIT " + DELETE_CHUNK, from, to);
+                removed += chunk;
+            } while (chunk == DELETE_CHUNK);
+            log.info("🧹 Archived and removed {} audit_log rows of {}", removed, month);
+        }
+    }
+
+    /** Streams the rows into a gzip NDJSON file; the file only appears once complete. */
+    private void archive(JdbcTemplate reader, YearMonth month, String sql, Object... args) throws IOException {
+        Files.createDirectories(archiveDir);
+        Path target = archiveDir.resolve(archiveFileName(month));
+        if (Files.exists(target)) {
+            // Rows of this month were archived before; keep both rather than overwrite
+            target = archiveDir.resolve(archiveFileName(month).replace(".ndjson.gz", "-" + System.currentTimeMillis() + ".ndjson.gz"));
+        }
+        Path tmp = Files.createTempFile(archiveDir, "audit_log-" + month + "-", ".tmp");
+        try {
+            try (OutputStream out = new GZIPOutputStream(new BufferedOutputStream(Files.newOutputStream(tmp)), 65536)) {
+                reader.query(sql, rs -> {
+                    ResultSetMetaData meta = rs.getMetaData();
+                    Map<String, Object> row = new LinkedHashMap<>();
+                    for (int i = 1; i <= meta.getColumnCount(); i++) {
+                        Object value = rs.getObject(i);
+                        row.put(meta.getColumnLabel(i), value instanceof Timestamp ts ? ts.toLocalDateTime() : value);
+                    }
+                    try {
+                        out.write(objectMapper.writeValueAsBytes(row));
+                        out.write('\n');
+                    } catch (IOException e) {
+                        throw new UncheckedIOException(e);
+                    }
+                }, args);
+            }
+            Files.move(tmp, target, StandardCopyOption.ATOMIC_MOVE);
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        } finally {
+            Files.deleteIfExists(tmp);
+        }
+    }
+
+    private List<String> partitions() {
+        return jdbcTemplate.queryForList(
+                "SELECT PARTITION_NAME FROM information_schema.PARTITIONS " +
+                "WHERE TABLE_SCHEMA = DATABASE() AND TABLE_NAME = ? AND PARTITION_NAME IS NOT NULL " +
+                "ORDER BY PARTITION_ORDINAL_POSITION",
+                String.class, TABLE);
+    }
+
+    private boolean isMySql() {
+        String product = jdbcTemplate.execute((ConnectionCallback<String>) c -> c.getMetaData().getDatabaseProductName());
+        return product != null && (product.toLowerCase().contains("mysql") || product.toLowerCase().contains("mariadb"));
+    }
+
+    static String partitionName(YearMonth month) {
+        return "p" + month.format(PARTITION_MONTH);
+    }
+
+    /** Month of a pYYYYMM partition, null for pmax or foreign names. */
+    static YearMonth monthOf(String partition) {
+        if (partition == null || !partition.matches("p\\d{6}")) {
+            return null;
+        }
+        return YearMonth.parse(partition.substring(1), PARTITION_MONTH);
+    }
+
+    /** One partition per month (rows before the end of that month) followed by pmax. */
+    static String partitionDefinitions(List<YearMonth> months) {
+        StringBuilder ddl = new StringBuilder();
+        for (YearMonth month : months) {
+            ddl.append("PARTITION ").append(partitionName(month))
+               .append(" VALUES LESS THAN ('").append(month.plusMonths(1).atDay(1)).append(" 00:00:00'), ");
+        }
+        return ddl.append("PARTITION ").append(MAX_PARTITION).append(" VALUES LESS THAN (MAXVALUE)").toString();
+    }
+
+    static List<YearMonth> monthsBetween(YearMonth first, YearMonth last) {
+        List<YearMonth> months = new ArrayList<>();
+        for (YearMonth m = first; !m.isAfter(last); m = m.plusMonths(1)) {
+            months.add(m);
+        }
+        return months;
+    }
+
+    static String archiveFileName(YearMonth month) {
+        return "audit_log-" + month + ".ndjson.gz";
+    }
+}
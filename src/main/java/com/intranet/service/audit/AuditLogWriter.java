@@ -0,0 +1,447 @@
+package com.intranet.service.audit;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.dao.DataAccessResourceFailureException;
+import org.springframework.dao.RecoverableDataAccessException;
+import org.springframework.dao.TransientDataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.intranet.entity.AuditLog;
+import com.intranet.util.MpscRingBuffer;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Write-behind pipeline for audit_log.
+ *
+ * - Request threads only enqueue into a lock-free ring buffer
+ *   (app.audit.writer.capacity).
+ * - A single writer thread drains it and inserts up to batch-size rows with
+ *   one multi-row INSERT, once a batch is full or flush-interval-ms after
+ *   its first row arrived.
+ * - When the buffer is full, app.audit.writer.overflow decides:
+ *   BLOCK waits up to block-timeout-ms and then drops, DROP drops at once,
+ *   SPILL appends the event to a local file.
+ * - Batches that cannot be written because the database is unavailable go
+ *   to the same spill file. It is replayed whenever the writer is idle.
+ *
+ * Rows are inserted over JDBC, so the IDENTITY id of AuditLog does not
+ * stand in the way of batching. The writer stops after the web server (so
+ * requests still finishing are audited) and before the DataSource closes;
+ * remaining events are flushed then. Events submitted while the writer is
+ * not running go straight to the spill file and are replayed on the next
+ * start.
+ *
+ * Metrics: audit.log.written, audit.log.dropped{reason=overflow|rejected},
+ * audit.log.spilled, audit.log.batch (timer), audit.log.lag (event → row),
+ * audit.log.queue.depth.
+ */
+@Slf4j
+@Service
+public class AuditLogWriter implements SmartLifecycle {
+
+    public enum OverflowPolicy { BLOCK, DROP, SPILL }
+
+    static final String[] COLUMNS = {
+            "user_id", "user_name", "user_email", "action", "entity_type", "entity_id",
+            "description", "request_body", "old_value", "new_value", "endpoint", "http_method",
+            "ip_address", "status", "error_message", "target_user_id", "created_at"
+    };
+
+    private static final String SPILL_FILE = "audit-spill.ndjson";
+    private static final String REPLAY_FILE = "audit-spill.replay";
+    private static final long REPLAY_BACKOFF_NANOS = TimeUnit.SECONDS.toNanos(30);
+
+    private final JdbcTemplate jdbcTemplate;
+    private final ObjectMapper objectMapper;
+    private final MpscRingBuffer<AuditLog> buffer;
+    private final int batchSize;
+    private final long flushIntervalNanos;
+    private final OverflowPolicy overflow;
+    private final long blockTimeoutNanos;
+    private final Path spillDir;
+    private final Object spillLock = new Object();
+    private final String fullBatchSql;
+
+    private final Counter writtenCounter;
+    private final Counter overflowCounter;
+    private final Counter rejectedCounter;
+    private final Counter spilledCounter;
+    private final Timer batchTimer;
+    private final Timer lagTimer;
+
+    private volatile boolean running;
+    private volatile Thread writerThread;
+    private long nextReplayAt = System.nanoTime();
+
+    public AuditLogWriter(JdbcTemplate jdbcTemplate,
+                          ObjectMapper objectMapper,
+                          MeterRegistry meterRegistry,
+                          @Value("${app.audit.writer.capacity:8192}") int capacity,
+                          @Value("${app.audit.writer.batch-size:200}") int batchSize,
+                          @Value("${app.audit.writer.flush-interval-ms:500}") long flushIntervalMs,
+                          @Value("${app.audit.writer.overflow:SPILL}") OverflowPolicy overflow,
+                          @Value("${app.audit.writer.block-timeout-ms:1000}") long blockTimeoutMs,
+                          @Value("${app.audit.writer.spill-dir:${java.io.tmpdir}/intranet-audit-spill}") String spillDir) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.objectMapper = objectMapper;
+        this.buffer = new MpscRingBuffer<>(capacity);
+        this.batchSize = Math.max(1, batchSize);
+        this.flushIntervalNanos = TimeUnit.MILLISECONDS.toNanos(Math.max(1, flushIntervalMs));
+        this.overflow = overflow;
+        this.blockTimeoutNanos = TimeUnit.MILLISECONDS.toNanos(Math.max(0, blockTimeoutMs));
+        this.spillDir = Path.of(spillDir).toAbsolutePath().normalize();
+        this.fullBatchSql = insertSql(this.batchSize);
+
+        this.writtenCounter = Counter.builder("audit.log.written")
+                .description("Audit events inserted into audit_log")
+                .register(meterRegistry);
+        this.overflowCounter = Counter.builder("audit.log.dropped").tag("reason", "overflow")
+                .description("Audit events dropped because the buffer was full")
+                .register(meterRegistry);
+        this.rejectedCounter = Counter.builder("audit.log.dropped").tag("reason", "rejected")
+                .description("Audit events the database refused to store")
+                .register(meterRegistry);
+        this.spilledCounter = Counter.builder("audit.log.spilled")
+                .description("Audit events written to the local spill file")
+                .register(meterRegistry);
+        this.batchTimer = Timer.builder("audit.log.batch")
+                .description("Time to insert one batch of audit events")
+                .register(meterRegistry);
+        this.lagTimer = Timer.builder("audit.log.lag")
+                .description("Time from audit event to stored row")
+                .register(meterRegistry);
+        Gauge.builder("audit.log.queue.depth", buffer, MpscRingBuffer::size)
+                .description("Audit events waiting in the buffer")
+                .register(meterRegistry);
+    }
+
+    /** Hands the event to the writer; never throws back into the request. */
+    public void submit(AuditLog auditLog) {
+        if (auditLog.getCreatedAt() == null) {
+            auditLog.setCreatedAt(LocalDateTime.now());
+        }
+        if (!running) {
+            // Nothing drains the buffer before start or after stop
+            spill(List.of(auditLog));
+            return;
+        }
+        if (buffer.offer(auditLog)) {
+            if (buffer.size() >= batchSize) {
+                wakeWriter();
+            }
+            return;
+        }
+        wakeWriter();
+        switch (overflow) {
+            case BLOCK -> {
+                long deadline = System.nanoTime() + blockTimeoutNanos;
+                while (deadline - System.nanoTime() > 0) {
+                    LockSupport.parkNanos(100_000);
+                    if (buffer.offer(auditLog)) {
+                        return;
+                    }
+                }
+                overflowCounter.increment();
+            }
+            case DROP -> overflowCounter.increment();
+            case SPILL -> spill(List.of(auditLog));
+        }
+    }
+
+    @Override
+    public void start() {
+        running = true;
+        Thread thread = new Thread(this::runWriter, "audit-log-writer");
+        thread.setDaemon(true);
+        writerThread = thread;
+        thread.start();
+        log.info("📝 Audit log writer started (buffer {}, batch {}, overflow {})", buffer.capacity(), batchSize, overflow);
+    }
+
+    @Override
+    public void stop() {
+        running = false;
+        Thread thread = writerThread;
+        if (thread == null) {
+            return;
+        }
+        LockSupport.unpark(thread);
+        try {
+            thread.join(TimeUnit.SECONDS.toMillis(30));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        writerThread = null;
+        if (thread.isAlive()) {
+            log.warn("⚠ Audit log writer did not finish within 30s; {} events still buffered", buffer.size());
+            return;
+        }
+        // Submitted just before running went false, after the writer's last drain
+        List<AuditLog> leftover = new ArrayList<>();
+        buffer.drainTo(leftover, Integer.MAX_VALUE);
+        if (!leftover.isEmpty()) {
+            spill(leftover);
+        }
+    }
+
+    @Override
+    public boolean isRunning() {
+        return running;
+    }
+
+    @Override
+    public int getPhase() {
+        // Stopped after the web server (DEFAULT_PHASE - 2048) has finished its
+        // requests, and before the DataSource is closed with the context
+        return SmartLifecycle.DEFAULT_PHASE - 4096;
+    }
+
+    private void runWriter() {
+        List<AuditLog> batch = new ArrayList<>(batchSize);
+        long deadline = 0;
+        while (true) {
+            buffer.drainTo(batch, batchSize - batch.size());
+            long now = System.nanoTime();
+            if (!batch.isEmpty() && deadline == 0) {
+                deadline = now + flushIntervalNanos;
+            }
+            boolean stopping = !running;
+            if (batch.size() >= batchSize || (!batch.isEmpty() && (now - deadline >= 0 || stopping))) {
+                flush(batch);
+                batch.clear();
+                deadline = 0;
+                continue;
+            }
+            if (batch.isEmpty()) {
+                if (stopping && buffer.isEmpty()) {
+                    break;
+                }
+                replaySpill();
+                LockSupport.parkNanos(this, flushIntervalNanos);
+            } else {
+                LockSupport.parkNanos(this, deadline - now);
+            }
+        }
+        log.info("📝 Audit log writer stopped");
+    }
+
+    private void flush(List<AuditLog> batch) {
+        List<AuditLog> unwritten = write(batch);
+        if (!unwritten.isEmpty()) {
+            spill(unwritten);
+        }
+    }
+
+    /**
+     * Inserts the batch. Returns the events that could not be written
+     * because the database is unavailable; rows the database rejects are
+     * logged and dropped.
+     */
+    List<AuditLog> write(List<AuditLog> batch) {
+        if (batch.isEmpty()) {
+            return List.of();
+        }
+        try {
+            insert(batch);
+            return List.of();
+        } catch (RuntimeException e) {
+            if (unavailable(e)) {
+                log.warn("⚠ Audit log batch of {} not written, database unavailable: {}", batch.size(), e.getMessage());
+                return batch;
+            }
+        }
+        // One bad row fails the whole statement; find it
+        for (int i = 0; i < batch.size(); i++) {
+            AuditLog auditLog = batch.get(i);
+            try {
+                insert(List.of(auditLog));
+            } catch (RuntimeException e) {
+                if (unavailable(e)) {
+                    return batch.subList(i, batch.size());
+                }
+                rejectedCounter.increment();
+                log.error("❌ Audit log rejected ({} {} by user {}): {}",
+                        auditLog.getAction(), auditLog.getEntityType(), auditLog.getUserId(), e.getMessage());
+            }
+        }
+        return List.of();
+    }
+
+    private void insert(List<AuditLog> rows) {
+        String sql = rows.size() == batchSize ? fullBatchSql : insertSql(rows.size());
+        Object[] args = new Object[rows.size() * COLUMNS.length];
+        int i = 0;
+        for (AuditLog a : rows) {
+            args[i++] = a.getUserId();
+            args[i++] = a.getUserName();
+            args[i++] = a.getUserEmail();
+            args[i++] = a.getAction() != null ? a.getAction().name() : null;
+            args[i++] = a.getEntityType();
+            args[i++] = a.getEntityId();
+            args[i++] = a.getDescription();
+            args[i++] = a.getRequestBody();
+            args[i++] = a.getOldValue();
+            args[i++] = a.getNewValue();
+            args[i++] = a.getEndpoint();
+            args[i++] = a.getHttpMethod();
+            args[i++] = a.getIpAddress();
+            args[i++] = a.getStatus() != null ? a.getStatus().name() : null;
+            args[i++] = a.getErrorMessage();
+            args[i++] = a.getTargetUserId();
+            args[i++] = a.getCreatedAt();
+        }
+        batchTimer.record(() -> jdbcTemplate.update(sql, args));
+
+        writtenCounter.increment(rows.size());
+        LocalDateTime now = LocalDateTime.now();
+        for (AuditLog a : rows) {
+            lagTimer.record(Duration.between(a.getCreatedAt(), now));
+        }
+    }
+
+    static String insertSql(int rows) {
+        String placeholders = "(" + String.join(",", Collections.nCopies(COLUMNS.length, "?")) + ")";
+        return "INSERT INTO audit_log (" + String.join(", ", COLUMNS) + ") VALUES "
+                + String.join(",", Collections.nCopies(rows, placeholders));
+    }
+
+    private static boolean unavailable(RuntimeException e) {
+        return e instanceof DataAccessResourceFailureException
+                || e instanceof TransientDataAccessException
+                || e instanceof RecoverableDataAccessException;
+    }
+
+    private void wakeWriter() {
+        Thread thread = writerThread;
+        if (thread != null) {
+            LockSupport.unpark(thread);
+        }
+    }
+
+    private void spill(List<AuditLog> events) {
+        StringBuilder lines = new StringBuilder();
+        for (AuditLog event : events) {
+            try {
+                lines.append(objectMapper.writeValueAsString(event)).append('\n');
+            } catch (IOException e) {
+                log.error("❌ Could not serialize audit event for spilling: {}", e.getMessage());
+            }
+        }
+        synchronized (spillLock) {
+            try {
+                Files.createDirectories(spillDir);
+                Files.writeString(spillDir.resolve(SPILL_FILE), lines, StandardCharsets.UTF_8,
+                        StandardOpenOption.CREATE, StandardOpenOption.APPEND);
+                spilledCounter.increment(events.size());
+            } catch (IOException e) {
+                overflowCounter.increment(events.size());
+                log.error("❌ Could not spill {} audit events to {}: {}", events.size(), spillDir, e.getMessage());
+            }
+        }
+    }
+
+    /** Writer thread only: moves spilled events into audit_log, batch by batch. */
+    void replaySpill() {
+        if (System.nanoTime() - nextReplayAt < 0) {
+            return;
+        }
+        Path spillFile = spillDir.resolve(SPILL_FILE);
+        Path replayFile = spillDir.resolve(REPLAY_FILE);
+        synchronized (spillLock) {
+            try {
+                if (!Files.exists(replayFile)) {
+                    if (!Files.exists(spillFile)) {
+                        return;
+                    }
+                    Files.move(spillFile, replayFile, StandardCopyOption.ATOMIC_MOVE);
+                }
+            } catch (IOException e) {
+                log.warn("⚠ Could not pick up audit spill file {}: {}", spillFile, e.getMessage());
+                return;
+            }
+        }
+
+        List<AuditLog> chunk = new ArrayList<>(batchSize);
+        List<AuditLog> unwritten = new ArrayList<>();
+        int replayed = 0;
+        try (BufferedReader reader = Files.newBufferedReader(replayFile, StandardCharsets.UTF_8)) {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                AuditLog event = parse(line);
+                if (event == null) {
+                    continue;
+                }
+                if (!unwritten.isEmpty()) {
+                    // Database went away mid-replay: keep the rest for later
+                    unwritten.add(event);
+                    continue;
+                }
+                chunk.add(event);
+                if (chunk.size() == batchSize) {
+                    unwritten.addAll(write(chunk));
+                    replayed += chunk.size() - unwritten.size();
+                    chunk.clear();
+                }
+            }
+            if (unwritten.isEmpty()) {
+                unwritten.addAll(write(chunk));
+                replayed += chunk.size() - unwritten.size();
+            } else {
+                unwritten.addAll(chunk);
+            }
+        } catch (IOException e) {
+            log.error("❌ Could not replay audit spill file {}: {}", replayFile, e.getMessage());
+            nextReplayAt = System.nanoTime() + REPLAY_BACKOFF_NANOS;
+            return;
+        }
+
+        if (!unwritten.isEmpty()) {
+            spill(unwritten);
+            nextReplayAt = System.nanoTime() + REPLAY_BACKOFF_NANOS;
+        }
+        try {
+            Files.delete(replayFile);
+        } catch (IOException e) {
+            log.warn("⚠ Could not remove replayed audit spill file {}: {}", replayFile, e.getMessage());
+        }
+        if (replayed > 0) {
+            log.info("📝 Replayed {} spilled audit events", replayed);
+        }
+    }
+
+    private AuditLog parse(String line) {
+        if (line.isBlank()) {
+            return null;
+        }
+        try {
+            return objectMapper.readValue(line, AuditLog.class);
+        } catch (IOException e) {
+            rejectedCounter.increment();
+            log.error("❌ Skipping unreadable spilled audit event: {}", e.getMessage());
+            return null;
+        }
+    }
+}
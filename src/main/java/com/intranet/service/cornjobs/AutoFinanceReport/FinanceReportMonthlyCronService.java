@@ -1,8 +1,9 @@
 package com.intranet.service.cornjobs.AutoFinanceReport;
 
 import com.intranet.service.FinanceReportEmail.FinancialPdfEmailSender;
-import com.intranet.service.FinanceReportEmail.FinancialPdfGeneratorService;
 import com.intranet.service.FinanceReportEmail.FinancialPdfTemplateBuilder;
+import com.intranet.service.pdf.RenderedPdf;
+import com.intranet.service.pdf.ReportPdfCache;
 import com.intranet.service.email.ums_corn_job_token.UmsAuthService;
 import com.intranet.service.report.TimesheetFinanceReportService;
 import com.intranet.entity.CronJobExecutionLog;
@@ -31,7 +32,7 @@ public class FinanceReportMonthlyCronService {
 
     private final TimesheetFinanceReportService financeService;
     private final FinancialPdfTemplateBuilder templateBuilder;
-    private final FinancialPdfGeneratorService pdfGenerator;
+    private final ReportPdfCache reportPdfCache;
     private final FinancialPdfEmailSender emailSender;
     private final CronJobExecutionLogRepo cronLogRepo;
     private final EmailSettingsRepo emailSettingsRepository;
@@ -84,14 +85,17 @@ public class FinanceReportMonthlyCronService {
                 .orElseThrow(() ->
                         new IllegalStateException("No valid finance admin email found in EmailSettings table"));
 
-            Map<String, Object> financeData = financeService.getTimesheetFinanceReportAutoEmail(month, year, authHeader);
-
             String monthName = java.time.Month.of(month).getDisplayName(TextStyle.FULL, Locale.ENGLISH);
 
-            String html = templateBuilder.buildFinanceHtml(financeData, monthName, year);
-            byte[] pdfBytes = pdfGenerator.generatePdfFromHtml(html);
-
-            emailSender.sendFinancialReportPdf(financeAdminEmail, pdfBytes, monthName, year, "Finance Team");
+            // Shares the cached PDF with /api/finance/report/monthly_pdf
+            ReportPdfCache.HtmlSource html = () -> {
+                Map<String, Object> financeData = financeService.getTimesheetFinanceReportAutoEmail(month, year, authHeader);
+                return templateBuilder.buildFinanceHtml(financeData, monthName, year);
+            };
+            try (RenderedPdf pdf = reportPdfCache.attachment(
+                    ReportPdfCache.ReportType.FINANCE_MONTHLY, null, month, year, html)) {
+                emailSender.sendFinancialReportPdf(financeAdminEmail, pdf.resource(), monthName, year, "Finance Team");
+            }
 
             // Update cron log success
             logEntry.setEndTime(LocalDateTime.now());
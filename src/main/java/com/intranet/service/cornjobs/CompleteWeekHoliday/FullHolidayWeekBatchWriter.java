@@ -0,0 +1,118 @@
+package com.intranet.service.cornjobs.CompleteWeekHoliday;
+
+import java.math.BigDecimal;
+import java.sql.Date;
+import java.sql.Timestamp;
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.intranet.entity.TimeSheet;
+import com.intranet.entity.WeeklyTimeSheetReview;
+import com.intranet.service.rollup.TimeSheetRollupService;
+
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Inserts the auto-generated sheets and APPROVED weekly reviews of
+ * full-holiday weeks with JDBC batch statements.
+ *
+ * Weeks are written app.holiday-week.chunk-size at a time, each chunk in
+ * its own transaction together with its rollups. A week's sheets and its
+ * review commit together, and weeks that already have a review are skipped
+ * by the planner, so re-running after a failure only writes what is left.
+ * A failed chunk does not stop the chunks after it.
+ */
+@Slf4j
+@Component
+public class FullHolidayWeekBatchWriter {
+
+    private static final String INSERT_SHEET =
+            "INSERT INTO timesheet (user_id, work_date, hours_worked, status, week_info_id, auto_generated, created_at, updated_at) " +
+            "VALUES (?, ?, ?, ?, ?, ?, ?, ?)";
+    private static final String INSERT_REVIEW =
+            "INSERT INTO weekly_timesheet_review (user_id, week_info_id, status, submitted_at, reviewed_at) " +
+            "VALUES (?, ?, ?, ?, ?)";
+
+    /** A full-holiday week of one user and the dates that still have no sheet. */
+    public record WeekFill(Long userId, Long weekInfoId, List<LocalDate> missingDates) {
+    }
+
+    /** Weeks written, sheets inserted, and the chunks that failed. */
+    public record Result(int weeks, int sheets, int failedChunks, String firstError) {
+    }
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TimeSheetRollupService rollupService;
+    private final TransactionTemplate tx;
+    private final int chunkSize;
+
+    public FullHolidayWeekBatchWriter(JdbcTemplate jdbcTemplate,
+                                      TimeSheetRollupService rollupService,
+                                      PlatformTransactionManager transactionManager,
+                                      @Value("${app.holiday-week.chunk-size:200}") int chunkSize) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.rollupService = rollupService;
+        this.tx = new TransactionTemplate(transactionManager);
+        this.chunkSize = Math.max(1, chunkSize);
+    }
+
+    public Result write(List<WeekFill> fills) {
+        int weeks = 0;
+        int sheets = 0;
+        int failedChunks = 0;
+        String firstError = null;
+
+        for (int from = 0; from < fills.size(); from += chunkSize) {
+            List<WeekFill> chunk = fills.subList(from, Math.min(from + chunkSize, fills.size()));
+            try {
+                Integer inserted = tx.execute(status -> writeChunk(chunk));
+                weeks += chunk.size();
+                sheets += inserted != null ? inserted : 0;
+            } catch (RuntimeException e) {
+                failedChunks++;
+                if (firstError == null) {
+                    firstError = e.getMessage();
+                }
+                log.error("❌ Full-holiday weeks {}-{} not written (rerun resumes here): {}",
+                        from, from + chunk.size() - 1, e.getMessage());
+            }
+        }
+        return new Result(weeks, sheets, failedChunks, firstError);
+    }
+
+    private int writeChunk(List<WeekFill> chunk) {
+        Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+        List<Object[]> sheetRows = new ArrayList<>();
+        List<Object[]> reviewRows = new ArrayList<>(chunk.size());
+
+        for (WeekFill fill : chunk) {
+            for (LocalDate d : fill.missingDates()) {
+                boolean weekend = d.getDayOfWeek() == DayOfWeek.SATURDAY || d.getDayOfWeek() == DayOfWeek.SUNDAY;
+                BigDecimal hours = weekend ? BigDecimal.ZERO : BigDecimal.valueOf(8);
+                sheetRows.add(new Object[] {
+                        fill.userId(), Date.valueOf(d), hours, TimeSheet.Status.APPROVED.name(),
+                        fill.weekInfoId(), true, now, now });
+            }
+            reviewRows.add(new Object[] {
+                    fill.userId(), fill.weekInfoId(), WeeklyTimeSheetReview.Status.APPROVED.name(), now, now });
+        }
+
+        jdbcTemplate.batchUpdate(INSERT_SHEET, sheetRows);
+        jdbcTemplate.batchUpdate(INSERT_REVIEW, reviewRows);
+
+        // Recomputed just before this chunk commits
+        for (WeekFill fill : chunk) {
+            fill.missingDates().forEach(d -> rollupService.markDirty(fill.userId(), d));
+        }
+        return sheetRows.size();
+    }
+}
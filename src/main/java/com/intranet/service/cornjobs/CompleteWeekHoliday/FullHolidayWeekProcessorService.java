@@ -4,63 +4,61 @@ import com.intranet.dto.HolidayDTO;
 import com.intranet.dto.lms.LeaveDTO;
 import com.intranet.entity.CronJobExecutionLog;
 import com.intranet.entity.HolidayExcludeUsers;
-import com.intranet.entity.TimeSheet;
 import com.intranet.entity.WeekInfo;
-import com.intranet.entity.WeeklyTimeSheetReview;
 import com.intranet.repository.CronJobExecutionLogRepo;
 import com.intranet.repository.HolidayExcludeUsersRepo;
 import com.intranet.repository.TimeSheetRepo;
-import com.intranet.repository.WeekInfoRepo;
 import com.intranet.repository.WeeklyTimeSheetReviewRepo;
 import com.intranet.service.email.ums_corn_job_token.UmsAuthService;
+import com.intranet.service.holiday.HolidayCalendarService;
+import com.intranet.service.week.WeekCalendarService;
 import com.intranet.util.EmailUtil;
 import com.intranet.util.cache.LeaveDirectoryService;
 import com.intranet.util.cache.UserDirectoryService;
 
 import jakarta.mail.MessagingException;
 import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
 
+import org.springframework.beans.BeanUtils;
 import org.springframework.beans.factory.annotation.Value;
-import org.springframework.core.ParameterizedTypeReference;
-import org.springframework.http.HttpEntity;
-import org.springframework.http.HttpMethod;
-import org.springframework.http.ResponseEntity;
 import org.springframework.stereotype.Service;
-import org.springframework.transaction.annotation.Transactional;
-import org.springframework.web.client.RestTemplate;
 
-import java.math.BigDecimal;
 import java.time.*;
 import java.util.*;
 import java.util.stream.Collectors;
 
+@Slf4j
 @Service
 @RequiredArgsConstructor
 public class FullHolidayWeekProcessorService {
 
     private final UserDirectoryService userDirectoryService;
     private final UmsAuthService umsAuthService;
-    private final WeekInfoRepo weekInfoRepo;
+    private final WeekCalendarService weekCalendarService;
     private final HolidayExcludeUsersRepo holidayExcludeUsersRepo;
     private final LeaveDirectoryService leaveDirectoryService;
 
     private final TimeSheetRepo timeSheetRepo;
     private final WeeklyTimeSheetReviewRepo weeklyReviewRepo;
+    private final FullHolidayWeekBatchWriter batchWriter;
+    private final HolidayCalendarService holidayCalendarService;
 
     private final CronJobExecutionLogRepo cronJobExecutionLogRepository;
 
     private final EmailUtil emailUtil;
 
-    private final RestTemplate restTemplate = new RestTemplate();
-
-
-    @Value("${lms.api.base-url}")
-    private String lmsBaseUrl;
 
     @Value("${timesheet.user}")
     private String timesheetUser;
 
-    @Transactional
+    /**
+     * Auto-approves every week of last month that is a holiday / leave / weekend
+     * from start to end for a user. Existing sheets, reviews and exclusions are
+     * read once for the whole month; the inserts go through
+     * FullHolidayWeekBatchWriter in chunked transactions, so a rerun after a
+     * failure continues with the weeks that were not written.
+     */
     public void processMonth() {
 
         CronJobExecutionLog logEntry = CronJobExecutionLog.builder()
@@ -93,9 +91,9 @@ public class FullHolidayWeekProcessorService {
         }
 
         // -------------------------------
-        // 2️⃣ Fetch LMS Holidays (ONCE)
+        // 2️⃣ LMS Holidays from the local holiday calendar (ONCE)
         // -------------------------------
-        List<HolidayDTO> lmsHolidays = fetchLmsHolidays(month, year, authHeader);
+        List<HolidayDTO> lmsHolidays = holidayCalendarService.calendar(authHeader).holidaysOfMonth(year, month);
 
         // -------------------------------
         // 3️⃣ Generate Weekend Holidays (ONCE)
@@ -105,21 +103,55 @@ public class FullHolidayWeekProcessorService {
         // -------------------------------
         // 4️⃣ Fetch ALL LEAVES of all employees (ONCE)
         // -------------------------------
-        List<LeaveDTO> allLeaves = leaveDirectoryService.fetchLeaves(year, month, authHeader);
+        Map<Long, List<LeaveDTO>> leavesByUser = leaveDirectoryService.fetchLeaves(year, month, authHeader).stream()
+                .filter(l -> l.getEmployeeId() != null)
+                .collect(Collectors.groupingBy(LeaveDTO::getEmployeeId));
 
         // -------------------------------
         // 5️⃣ Fetch ALL WEEKS OF MONTH
         // -------------------------------
-        List<WeekInfo> weekInfos = weekInfoRepo.findByMonthAndYear(month, year);
+        List<WeekInfo> weekInfos = weekCalendarService.calendar().ofMonth(month, year);
+
+        if (weekInfos.isEmpty()) {
+            finish(logEntry, CronJobExecutionLog.Status.SUCCESS, "No weeks for " + YearMonth.of(year, month));
+            return;
+        }
+
+        // -------------------------------
+        // 6️⃣ Prefetch existing reviews, sheets and exclusions (ONCE)
+        // -------------------------------
+        LocalDate rangeStart = weekInfos.stream().map(WeekInfo::getStartDate).min(LocalDate::compareTo).get();
+        LocalDate rangeEnd = weekInfos.stream().map(WeekInfo::getEndDate).max(LocalDate::compareTo).get();
+
+        Map<Long, Set<Long>> reviewedWeeks = new HashMap<>();
+        for (Object[] row : weeklyReviewRepo.findUserWeekPairs(weekInfos.stream().map(WeekInfo::getId).toList())) {
+            reviewedWeeks.computeIfAbsent((Long) row[0], k -> new HashSet<>()).add((Long) row[1]);
+        }
+
+        Map<Long, Set<LocalDate>> sheetDates = new HashMap<>();
+        for (Object[] row : timeSheetRepo.findUserWorkDates(rangeStart, rangeEnd)) {
+            sheetDates.computeIfAbsent((Long) row[0], k -> new HashSet<>()).add((LocalDate) row[1]);
+        }
+
+        Map<Long, Set<LocalDate>> excludedDates = holidayExcludeUsersRepo.findByHolidayDateBetween(rangeStart, rangeEnd).stream()
+                .collect(Collectors.groupingBy(HolidayExcludeUsers::getUserId,
+                        Collectors.mapping(HolidayExcludeUsers::getHolidayDate, Collectors.toSet())));
 
         // -------------------------------
-        // 6️⃣ PROCESS EACH USER
+        // 7️⃣ Find full-holiday weeks of each user (in memory)
         // -------------------------------
+        List<FullHolidayWeekBatchWriter.WeekFill> fills = new ArrayList<>();
+
         for (Long userId : users.keySet()) {
 
+            Set<Long> reviewed = reviewedWeeks.getOrDefault(userId, Set.of());
+            if (reviewed.size() == weekInfos.size()) continue;
+
             List<HolidayDTO> userHolidayCalendar =
-                    buildUserMonthlyCalendar(userId, month, year,
-                            lmsHolidays, weekendHolidays, allLeaves);
+                    buildUserMonthlyCalendar(month, year,
+                            lmsHolidays, weekendHolidays,
+                            leavesByUser.getOrDefault(userId, List.of()),
+                            excludedDates.getOrDefault(userId, Set.of()));
 
             Map<LocalDate, List<HolidayDTO>> holidayMap = userHolidayCalendar.stream()
                     .collect(Collectors.groupingBy(
@@ -128,10 +160,11 @@ public class FullHolidayWeekProcessorService {
                             Collectors.toList()
                     ));
 
+            Set<LocalDate> existingSheets = sheetDates.getOrDefault(userId, Set.of());
+
             for (WeekInfo week : weekInfos) {
 
-                boolean exists = weeklyReviewRepo.findByUserIdAndWeekInfo_Id(userId, week.getId()).isPresent();
-                if (exists) continue;
+                if (reviewed.contains(week.getId())) continue;
 
                 List<LocalDate> weekDates = week.getStartDate()
                         .datesUntil(week.getEndDate().plusDays(1))
@@ -139,22 +172,30 @@ public class FullHolidayWeekProcessorService {
 
                 if (!isFullHolidayWeek(weekDates, holidayMap)) continue;
 
-                autoGenerateTimesheets(userId, week, weekDates);
-                createWeeklyReview(userId, week);
+                List<LocalDate> missing = weekDates.stream()
+                        .filter(d -> !existingSheets.contains(d))
+                        .toList();
+                fills.add(new FullHolidayWeekBatchWriter.WeekFill(userId, week.getId(), missing));
             }
+        }
 
-        logEntry.setEndTime(LocalDateTime.now());
-        logEntry.setStatus(CronJobExecutionLog.Status.SUCCESS);
-        logEntry.setMessage("Process completed successfully");
-        cronJobExecutionLogRepository.save(logEntry);
+        // -------------------------------
+        // 8️⃣ Insert sheets + reviews in chunked JDBC batches
+        // -------------------------------
+        FullHolidayWeekBatchWriter.Result result = batchWriter.write(fills);
 
+        String summary = String.format("%d full-holiday weeks approved, %d sheets generated for %s",
+                result.weeks(), result.sheets(), YearMonth.of(year, month));
+        if (result.failedChunks() > 0) {
+            throw new IllegalStateException(summary + "; " + result.failedChunks()
+                    + " chunk(s) failed, rerun to resume: " + result.firstError());
         }
+        log.info("✅ FullHolidayWeekProcessorService: {}", summary);
+        finish(logEntry, CronJobExecutionLog.Status.SUCCESS, "Process completed successfully: " + summary);
+
         } catch (Exception e) {
         
-        logEntry.setEndTime(LocalDateTime.now());
-        logEntry.setStatus(CronJobExecutionLog.Status.FAILED);
-        logEntry.setMessage(e.getMessage());
-        cronJobExecutionLogRepository.save(logEntry);
+        finish(logEntry, CronJobExecutionLog.Status.FAILED, e.getMessage());
         
             System.err.println("⚠ Error in FullHolidayWeekProcessorService: " + e.getMessage());
             try {
@@ -166,26 +207,27 @@ public class FullHolidayWeekProcessorService {
         }
     }
 
+    private void finish(CronJobExecutionLog logEntry, CronJobExecutionLog.Status status, String message) {
+        logEntry.setEndTime(LocalDateTime.now());
+        logEntry.setStatus(status);
+        logEntry.setMessage(message);
+        cronJobExecutionLogRepository.save(logEntry);
+    }
+
     // ------------------------- 
     // Build User Calendar 
     // -------------------------
     private List<HolidayDTO> buildUserMonthlyCalendar(
-            Long userId,
             int month,
             int year,
             List<HolidayDTO> lmsHolidays,
             List<HolidayDTO> weekendHolidays,
-            List<LeaveDTO> allLeaves
+            List<LeaveDTO> userLeaveRecords,
+            Set<LocalDate> excludedDates
     ) {
 
-        // Fetch exclusions
-        List<HolidayExcludeUsers> excluded = holidayExcludeUsersRepo.findByUserId(userId);
-        Set<LocalDate> excludedDates = excluded.stream()
-                .map(HolidayExcludeUsers::getHolidayDate)
-                .collect(Collectors.toSet());
-
-        // Filter leaves for user
-        List<HolidayDTO> userLeaves = convertLeavesToHolidayDTO(allLeaves, userId, month, year);
+        // Leaves of this user
+        List<HolidayDTO> userLeaves = convertLeavesToHolidayDTO(userLeaveRecords, month, year);
 
         // Combine all
         List<HolidayDTO> combined = new ArrayList<>();
@@ -230,7 +272,9 @@ public class FullHolidayWeekProcessorService {
     // -------------------------
     private HolidayDTO mergeHolidayEntries(List<HolidayDTO> list) {
 
-        HolidayDTO base = list.get(0);
+        // Copy: the LMS / weekend entries are shared by every user of the run
+        HolidayDTO base = new HolidayDTO();
+        BeanUtils.copyProperties(list.get(0), base);
 
         boolean submit = list.stream().anyMatch(HolidayDTO::isSubmitTimesheet);
 
@@ -242,10 +286,9 @@ public class FullHolidayWeekProcessorService {
     // -------------------------
     // Convert LEAVES → HolidayDTO
     // -------------------------
-    private List<HolidayDTO> convertLeavesToHolidayDTO(List<LeaveDTO> allLeaves, Long userId, int month, int year) {
+    private List<HolidayDTO> convertLeavesToHolidayDTO(List<LeaveDTO> userLeaves, int month, int year) {
 
-        return allLeaves.stream()
-                .filter(l -> l.getEmployeeId().equals(userId))
+        return userLeaves.stream()
                 .flatMap(l -> {
                     LocalDate start = l.getStartDate();
                     LocalDate end = l.getEndDate();
@@ -322,27 +365,6 @@ public class FullHolidayWeekProcessorService {
     // -------------------------
     // LMS Holidays (ONCE)
     // -------------------------
-    private List<HolidayDTO> fetchLmsHolidays(int month, int year, String authHeader) {
-
-        try {
-            String url = String.format("%s/api/holidays/month/%d", lmsBaseUrl, month);
-
-            ResponseEntity<List<HolidayDTO>> response =
-                    restTemplate.exchange(
-                            url,
-                            HttpMethod.GET,
-                            new HttpEntity<>(Map.of("Authorization", authHeader)),
-                            new ParameterizedTypeReference<List<HolidayDTO>>() {}
-                    );
-
-            return response.getBody() != null ? response.getBody() : List.of();
-
-        } catch (Exception e) {
-            System.err.println("⚠ Failed LMS holidays: " + e.getMessage());
-            return List.of();
-        }
-    }
-
     // -------------------------
     // Check Full Holiday Week
     // -------------------------
@@ -365,50 +387,4 @@ public class FullHolidayWeekProcessorService {
         }
         return true;
     }
-
-    // -------------------------
-    // Auto-generate timesheets
-    // -------------------------
-    private void autoGenerateTimesheets(Long userId, WeekInfo week, List<LocalDate> dates) {
-
-        LocalDateTime now = LocalDateTime.now();
-
-        for (LocalDate d : dates) {
-
-            if (timeSheetRepo.existsByUserIdAndWorkDate(userId, d))
-                continue;
-
-            boolean weekend = (d.getDayOfWeek() == DayOfWeek.SATURDAY ||
-                               d.getDayOfWeek() == DayOfWeek.SUNDAY);
-
-            BigDecimal hours = weekend ? BigDecimal.ZERO : BigDecimal.valueOf(8);
-
-            TimeSheet ts = new TimeSheet();
-            ts.setUserId(userId);
-            ts.setWorkDate(d);
-            ts.setWeekInfo(week);
-            ts.setHoursWorked(hours);
-            ts.setAutoGenerated(true);
-            ts.setStatus(TimeSheet.Status.APPROVED);
-            ts.setCreatedAt(now);
-            ts.setUpdatedAt(now);
-
-            timeSheetRepo.save(ts);
-        }
-    }
-
-    // -------------------------
-    // Create Weekly Review
-    // -------------------------
-    private void createWeeklyReview(Long userId, WeekInfo week) {
-
-        WeeklyTimeSheetReview r = new WeeklyTimeSheetReview();
-        r.setUserId(userId);
-        r.setWeekInfo(week);
-        r.setStatus(WeeklyTimeSheetReview.Status.APPROVED);
-        r.setSubmittedAt(LocalDateTime.now());
-        r.setReviewedAt(LocalDateTime.now());
-
-        weeklyReviewRepo.save(r);
-    }
 }
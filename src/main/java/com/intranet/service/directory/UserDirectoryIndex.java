@@ -0,0 +1,92 @@
+package com.intranet.service.directory;
+
+import java.time.LocalDateTime;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Optional;
+
+import com.intranet.entity.UserDirectoryEntry;
+import com.intranet.util.cache.Snapshot;
+
+/**
+ * Immutable snapshot of the UMS users: one record per user, sorted by id
+ * and looked up by binary search over a primitive id array.
+ */
+public final class UserDirectoryIndex implements Snapshot {
+
+    static final UserDirectoryIndex EMPTY = new UserDirectoryIndex(new User[0], null);
+
+    public static final String UNKNOWN_EMAIL = "unknown@example.com";
+
+    /** A UMS user as the reports need it. */
+    public record User(long id, String firstName, String lastName, String email, String employeeId, String role) {
+
+        /** "First Last", empty when UMS has neither. */
+        public String fullName() {
+            return ((firstName != null ? firstName.trim() : "") + " " + (lastName != null ? lastName.trim() : "")).trim();
+        }
+    }
+
+    private final long[] ids;
+    private final User[] users;
+    private final LocalDateTime syncedAt;
+
+    private UserDirectoryIndex(User[] users, LocalDateTime syncedAt) {
+        this.users = users;
+        this.ids = Arrays.stream(users).mapToLong(User::id).toArray();
+        this.syncedAt = syncedAt;
+    }
+
+    static UserDirectoryIndex of(Collection<UserDirectoryEntry> entries, LocalDateTime syncedAt) {
+        User[] users = entries.stream()
+                .filter(e -> e.getUserId() != null)
+                .map(e -> new User(e.getUserId(), e.getFirstName(), e.getLastName(),
+                        e.getEmail(), e.getEmployeeId(), e.getRole()))
+                .sorted(Comparator.comparingLong(User::id))
+                .toArray(User[]::new);
+        return new UserDirectoryIndex(users, syncedAt);
+    }
+
+    /**
+     * False before user_directory was read or UMS answered; lookups on the
+     * unloaded index find nobody, so callers fall back to their defaults.
+     */
+    @Override
+    public boolean isLoaded() {
+        return syncedAt != null;
+    }
+
+    public Optional<User> find(Long userId) {
+        if (userId == null) {
+            return Optional.empty();
+        }
+        int i = Arrays.binarySearch(ids, userId);
+        return i >= 0 ? Optional.of(users[i]) : Optional.empty();
+    }
+
+    /** Full name of the user, or the fallback when unknown or blank. */
+    public String name(Long userId, String fallback) {
+        return find(userId).map(User::fullName).filter(n -> !n.isEmpty()).orElse(fallback);
+    }
+
+    /** Email of the user, or the fallback when unknown or blank. */
+    public String email(Long userId, String fallback) {
+        return find(userId).map(User::email).filter(e -> !e.isBlank()).orElse(fallback);
+    }
+
+    /** All users, ordered by id. */
+    public List<User> all() {
+        return List.of(users);
+    }
+
+    public int size() {
+        return users.length;
+    }
+
+    @Override
+    public LocalDateTime syncedAt() {
+        return syncedAt;
+    }
+}
@@ -0,0 +1,226 @@
+package com.intranet.service.directory;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.ParameterizedTypeReference;
+import org.springframework.http.HttpEntity;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.web.client.RestTemplate;
+
+import com.intranet.entity.UserDirectoryEntry;
+import com.intranet.repository.UserDirectoryRepo;
+import com.intranet.service.email.ums_corn_job_token.UmsAuthService;
+import com.intranet.util.cache.SnapshotRefresher;
+
+import io.micrometer.core.instrument.MeterRegistry;
+
+/**
+ * Local replica of the UMS user directory.
+ *
+ * UMS /admin/users is read page by page (app.users.sync.page-size asked per
+ * page) until an empty page, or a page with no user not seen before, so
+ * organisations of any size are complete even when UMS caps the limit
+ * below the page size asked for. Every app.users.sync.interval-ms the pages
+ * are read again and only the users that were added, changed or removed are
+ * written to user_directory; the in-memory {@link UserDirectoryIndex} is
+ * then replaced as a whole. A sync that fails (or returns no users at all)
+ * keeps the last directory.
+ *
+ * Unlike the holiday calendar an unavailable directory is not an error:
+ * {@link #directory} then returns the empty index and reports show ids.
+ */
+@Service
+public class UserDirectoryReplica extends SnapshotRefresher<UserDirectoryIndex> {
+
+    private final UserDirectoryRepo userDirectoryRepo;
+    private final RestTemplate restTemplate;
+    private final TransactionTemplate tx;
+    private final String umsBaseUrl;
+    private final int pageSize;
+    private final int maxPages;
+
+    public UserDirectoryReplica(UserDirectoryRepo userDirectoryRepo,
+                                RestTemplate restTemplate,
+                                UmsAuthService umsAuthService,
+                                PlatformTransactionManager transactionManager,
+                                MeterRegistry meterRegistry,
+                                @Value("${ums.api.base-url}") String umsBaseUrl,
+                                @Value("${app.users.sync.page-size:500}") int pageSize,
+                                @Value("${app.users.sync.max-pages:1000}") int maxPages) {
+        super("User directory", UserDirectoryIndex.EMPTY, umsAuthService, meterRegistry, "user.directory.sync");
+        this.userDirectoryRepo = userDirectoryRepo;
+        this.restTemplate = restTemplate;
+        this.tx = new TransactionTemplate(transactionManager);
+        this.umsBaseUrl = umsBaseUrl;
+        this.pageSize = Math.max(1, pageSize);
+        this.maxPages = Math.max(1, maxPages);
+        meterRegistry.gauge("user.directory.size", this, r -> r.snapshot().size());
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void load() {
+        try {
+            List<UserDirectoryEntry> entries = userDirectoryRepo.findAll();
+            if (!entries.isEmpty()) {
+                LocalDateTime syncedAt = entries.stream()
+                        .map(UserDirectoryEntry::getSyncedAt)
+                        .max(LocalDateTime::compareTo)
+                        .orElseThrow();
+                replace(UserDirectoryIndex.of(entries, syncedAt));
+                log.info("👥 User directory loaded: {} users, synced {}", entries.size(), syncedAt);
+            }
+        } catch (Exception e) {
+            log.warn("⚠️ User directory not loaded from the database: {}", e.getMessage());
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${app.users.sync.interval-ms:900000}",
+               initialDelayString = "${app.users.sync.interval-ms:900000}")
+    public void scheduledSync() {
+        refreshWithServiceToken();
+    }
+
+    /**
+     * Reads all UMS users and writes the differences to user_directory.
+     * Fails when a page cannot be read or UMS returned no users at all.
+     */
+    @Override
+    protected UserDirectoryIndex fetch(String authHeader, LocalDateTime now) {
+        HttpHeaders headers = new HttpHeaders();
+        if (authHeader != null && !authHeader.isBlank()) {
+            headers.set("Authorization", authHeader);
+        }
+        HttpEntity<Void> entity = new HttpEntity<>(headers);
+
+        Map<Long, UserDirectoryEntry> fetched = new LinkedHashMap<>();
+        for (int page = 1; page <= maxPages; page++) {
+            String url = String.format("%s/admin/users?page=%d&limit=%d", umsBaseUrl, page, pageSize);
+            Map<String, Object> body = restTemplate.exchange(
+                    url, HttpMethod.GET, entity, new ParameterizedTypeReference<Map<String, Object>>() {}
+            ).getBody();
+
+            List<Map<String, Object>> users = body != null && body.get("users") instanceof List<?> list
+                    ? castUsers(list) : List.of();
+            int before = fetched.size();
+            for (Map<String, Object> u : users) {
+                UserDirectoryEntry entry = toEntry(u, now);
+                if (entry != null) {
+                    fetched.putIfAbsent(entry.getUserId(), entry);
+                }
+            }
+            // UMS may cap the limit, so a short page is not the last one. An empty
+            // page is; a page with nothing new means UMS repeats itself or ignores paging
+            if (users.isEmpty() || fetched.size() == before) {
+                break;
+            }
+        }
+        if (fetched.isEmpty()) {
+            throw new IllegalStateException("UMS returned no users");
+        }
+
+        int[] changes = new int[2];
+        tx.executeWithoutResult(status -> {
+            Map<Long, UserDirectoryEntry> stored = userDirectoryRepo.findAll().stream()
+                    .collect(Collectors.toMap(UserDirectoryEntry::getUserId, e -> e));
+            List<UserDirectoryEntry> changed = changedEntries(stored, fetched.values());
+            Set<Long> removed = stored.keySet().stream()
+                    .filter(id -> !fetched.containsKey(id))
+                    .collect(Collectors.toSet());
+            userDirectoryRepo.saveAll(changed);
+            userDirectoryRepo.deleteAllByIdInBatch(removed);
+            changes[0] = changed.size();
+            changes[1] = removed.size();
+        });
+        log.info("👥 User directory synced from UMS: {} users, {} added/changed, {} removed",
+                fetched.size(), changes[0], changes[1]);
+        return UserDirectoryIndex.of(fetched.values(), now);
+    }
+
+    /** The current directory as is, possibly empty; never calls UMS (for work off the request path). */
+    public UserDirectoryIndex current() {
+        return snapshot();
+    }
+
+    /** The current directory; syncs once if there is none yet (empty if that fails). */
+    public UserDirectoryIndex directory(String authHeader) {
+        return loadedOrRefresh(authHeader);
+    }
+
+    /** Fetched users that are new or differ from the stored row; unchanged rows keep their syncedAt. */
+    static List<UserDirectoryEntry> changedEntries(Map<Long, UserDirectoryEntry> stored,
+                                                   Collection<UserDirectoryEntry> fetched) {
+        List<UserDirectoryEntry> changed = new ArrayList<>();
+        for (UserDirectoryEntry entry : fetched) {
+            UserDirectoryEntry old = stored.get(entry.getUserId());
+            if (old == null
+                    || !Objects.equals(old.getFirstName(), entry.getFirstName())
+                    || !Objects.equals(old.getLastName(), entry.getLastName())
+                    || !Objects.equals(old.getEmail(), entry.getEmail())
+                    || !Objects.equals(old.getEmployeeId(), entry.getEmployeeId())
+                    || !Objects.equals(old.getRole(), entry.getRole())) {
+                changed.add(entry);
+            }
+        }
+        return changed;
+    }
+
+    /** One UMS /admin/users row, null without a user_id. */
+    static UserDirectoryEntry toEntry(Map<String, Object> u, LocalDateTime syncedAt) {
+        if (!(u.get("user_id") instanceof Number id)) {
+            return null;
+        }
+        return new UserDirectoryEntry(
+                id.longValue(),
+                text(u.get("first_name")),
+                text(u.get("last_name")),
+                text(u.get("mail")),
+                text(u.get("employee_id")),
+                roleOf(u),
+                syncedAt);
+    }
+
+    private static String roleOf(Map<String, Object> u) {
+        Object roles = u.containsKey("roles") ? u.get("roles") : u.get("role");
+        if (roles instanceof Collection<?> list) {
+            return list.stream()
+                    .map(r -> r instanceof Map<?, ?> m ? text(m.containsKey("name") ? m.get("name") : m.get("role_name")) : text(r))
+                    .filter(r -> r != null && !r.isBlank())
+                    .collect(Collectors.joining(","));
+        }
+        if (roles instanceof Map<?, ?> m) {
+            return text(m.get("name"));
+        }
+        return text(roles);
+    }
+
+    private static String text(Object value) {
+        return value != null ? value.toString().trim() : null;
+    }
+
+    @SuppressWarnings("unchecked")
+    private static List<Map<String, Object>> castUsers(List<?> list) {
+        List<Map<String, Object>> users = new ArrayList<>(list.size());
+        for (Object o : list) {
+            if (o instanceof Map<?, ?>) {
+                users.add((Map<String, Object>) o);
+            }
+        }
+        return users;
+    }
+}
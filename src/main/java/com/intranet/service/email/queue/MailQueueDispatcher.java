@@ -0,0 +1,298 @@
+package com.intranet.service.email.queue;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.mail.MailException;
+import org.springframework.mail.MailSendException;
+import org.springframework.mail.javamail.JavaMailSender;
+import org.springframework.mail.javamail.MimeMessageHelper;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.intranet.entity.OutboundEmail;
+import com.intranet.repository.OutboundEmailRepo;
+import com.intranet.util.queue.RetryPolicy;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.mail.internet.MimeMessage;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Drains the outbound_email queue filled by EmailUtil.
+ *
+ * - Every poll claims due mails in batches (SELECT ... FOR UPDATE SKIP LOCKED),
+ *   at most one batch per worker of mailDispatchExecutor.
+ * - A batch is sent with one JavaMailSender.send(MimeMessage...) call, i.e.
+ *   over a single SMTP connection.
+ * - app.mail.queue.max-per-minute caps what is claimed per minute.
+ * - A failed mail is retried with exponential backoff and marked DEAD after
+ *   app.mail.queue.max-attempts (or at once if the message cannot be built).
+ * - A worker that dies mid-batch leaves SENDING rows whose claim expires;
+ *   they are picked up again.
+ * Claims, backoff and dead-lettering follow {@link RetryPolicy}.
+ *
+ * Metrics: mail.queue.sent, mail.queue.failures{outcome=retry|dead},
+ * mail.queue.batch (timer), mail.queue.depth{status=pending|dead}.
+ */
+@Slf4j
+@Service
+public class MailQueueDispatcher {
+
+    private final OutboundEmailRepo outboundEmailRepo;
+    private final JavaMailSender mailSender;
+    private final Executor mailDispatchExecutor;
+    private final TransactionTemplate tx;
+
+    private final Semaphore freeWorkers;
+    private final Counter sentCounter;
+    private final Counter retryCounter;
+    private final Counter deadCounter;
+    private final Timer batchTimer;
+    private final AtomicLong pendingDepth = new AtomicLong();
+    private final AtomicLong deadDepth = new AtomicLong();
+
+    private final Object rateLock = new Object();
+    private long rateWindowStart;
+    private int claimedInWindow;
+
+    @Value("${spring.mail.username}")
+    private String fromEmail;
+
+    @Value("${app.mail.queue.enabled:true}")
+    private boolean enabled;
+
+    @Value("${app.mail.queue.batch-size:50}")
+    private int batchSize;
+
+    @Value("${app.mail.queue.max-per-minute:120}")
+    private int maxPerMinute;
+
+    @Value("${app.mail.queue.max-attempts:6}")
+    private int maxAttempts;
+
+    @Value("${app.mail.queue.backoff-initial-ms:60000}")
+    private long backoffInitialMs;
+
+    @Value("${app.mail.queue.backoff-max-ms:3600000}")
+    private long backoffMaxMs;
+
+    @Value("${app.mail.queue.claim-timeout-ms:600000}")
+    private long claimTimeoutMs;
+
+    @Value("${app.mail.queue.sent-retention-days:30}")
+    private int sentRetentionDays;
+
+    public MailQueueDispatcher(OutboundEmailRepo outboundEmailRepo,
+                               JavaMailSender mailSender,
+                               @Qualifier("mailDispatchExecutor") Executor mailDispatchExecutor,
+                               PlatformTransactionManager transactionManager,
+                               MeterRegistry meterRegistry,
+                               @Value("${app.mail.queue.workers:2}") int workers) {
+        this.outboundEmailRepo = outboundEmailRepo;
+        this.mailSender = mailSender;
+        this.mailDispatchExecutor = mailDispatchExecutor;
+        this.tx = new TransactionTemplate(transactionManager);
+        this.freeWorkers = new Semaphore(Math.max(1, workers));
+
+        this.sentCounter = Counter.builder("mail.queue.sent")
+                .description("Queued emails delivered to the SMTP server")
+                .register(meterRegistry);
+        this.retryCounter = Counter.builder("mail.queue.failures")
+                .tag("outcome", "retry")
+                .description("Failed deliveries scheduled for another attempt")
+                .register(meterRegistry);
+        this.deadCounter = Counter.builder("mail.queue.failures")
+                .tag("outcome", "dead")
+                .description("Emails given up on (dead-lettered)")
+                .register(meterRegistry);
+        this.batchTimer = Timer.builder("mail.queue.batch")
+                .description("Time to send one batch over one SMTP connection")
+                .register(meterRegistry);
+        Gauge.builder("mail.queue.depth", pendingDepth, AtomicLong::get)
+                .tag("status", "pending")
+                .register(meterRegistry);
+        Gauge.builder("mail.queue.depth", deadDepth, AtomicLong::get)
+                .tag("status", "dead")
+                .register(meterRegistry);
+    }
+
+    @Scheduled(fixedDelayString = "${app.mail.queue.poll-interval-ms:5000}",
+               initialDelayString = "${app.mail.queue.poll-interval-ms:5000}")
+    public void poll() {
+        if (!enabled) {
+            return;
+        }
+        try {
+            while (freeWorkers.tryAcquire()) {
+                List<OutboundEmail> batch = claimBatch();
+                if (batch.isEmpty()) {
+                    freeWorkers.release();
+                    break;
+                }
+                try {
+                    mailDispatchExecutor.execute(() -> {
+                        try {
+                            sendBatch(batch);
+                        } finally {
+                            freeWorkers.release();
+                        }
+                    });
+                } catch (RuntimeException e) {
+                    // Rows stay SENDING; their claim expires and they are retried
+                    freeWorkers.release();
+                    throw e;
+                }
+            }
+            refreshDepth();
+        } catch (Exception e) {
+            log.error("❌ Mail queue poll failed: {}", e.getMessage(), e);
+        }
+    }
+
+    @Scheduled(cron = "${app.mail.queue.purge-cron:0 30 3 * * *}")
+    public void purgeSent() {
+        LocalDateTime before = LocalDateTime.now().minusDays(sentRetentionDays);
+        Integer removed = tx.execute(status -> outboundEmailRepo.deleteSentBefore(before));
+        log.info("🧹 Removed {} sent emails older than {} days from the mail queue", removed, sentRetentionDays);
+    }
+
+    private List<OutboundEmail> claimBatch() {
+        int limit = reservePermits(batchSize);
+        if (limit == 0) {
+            return List.of();
+        }
+        List<OutboundEmail> claimed = tx.execute(status -> {
+            LocalDateTime now = LocalDateTime.now();
+            List<OutboundEmail> due = outboundEmailRepo.findDueForUpdate(now, PageRequest.of(0, limit));
+            return outboundEmailRepo.saveAll(retryPolicy().claim(due, now));
+        });
+        returnPermits(limit - claimed.size());
+        return claimed;
+    }
+
+    private void sendBatch(List<OutboundEmail> batch) {
+        RetryPolicy policy = retryPolicy();
+        Map<MimeMessage, OutboundEmail> byMessage = new IdentityHashMap<>();
+        List<OutboundEmail> done = new ArrayList<>();
+
+        for (OutboundEmail mail : batch) {
+            try {
+                byMessage.put(toMimeMessage(mail), mail);
+            } catch (Exception e) {
+                // Not deliverable as written (e.g. malformed address): no point retrying
+                deadLetter(mail, e);
+                done.add(mail);
+            }
+        }
+
+        if (!byMessage.isEmpty()) {
+            Map<Object, Exception> failed = Map.of();
+            Exception batchFailure = null;
+            Timer.Sample sample = Timer.start();
+            try {
+                mailSender.send(byMessage.keySet().toArray(new MimeMessage[0]));
+            } catch (MailSendException e) {
+                failed = e.getFailedMessages();
+                if (failed.isEmpty()) {
+                    batchFailure = e;
+                }
+            } catch (MailException e) {
+                // Connection / authentication problem: nothing in the batch went out
+                batchFailure = e;
+            } finally {
+                sample.stop(batchTimer);
+            }
+
+            for (Map.Entry<MimeMessage, OutboundEmail> entry : byMessage.entrySet()) {
+                OutboundEmail mail = entry.getValue();
+                Exception error = batchFailure != null ? batchFailure : failed.get(entry.getKey());
+                if (error == null) {
+                    policy.succeed(mail, LocalDateTime.now());
+                    sentCounter.increment();
+                } else {
+                    scheduleRetry(policy, mail, error);
+                }
+                done.add(mail);
+            }
+        }
+
+        try {
+            tx.executeWithoutResult(status -> outboundEmailRepo.saveAll(done));
+        } catch (Exception e) {
+            // Claims expire and the batch is picked up again (at-least-once delivery)
+            log.error("❌ Could not record mail queue results for {} emails: {}", done.size(), e.getMessage(), e);
+        }
+    }
+
+    private MimeMessage toMimeMessage(OutboundEmail mail) throws Exception {
+        MimeMessage message = mailSender.createMimeMessage();
+        MimeMessageHelper helper = new MimeMessageHelper(message, true, "UTF-8");
+        helper.setFrom(fromEmail);
+        helper.setTo(mail.getRecipient());
+        helper.setSubject(mail.getSubject());
+        helper.setText(mail.getHtmlBody(), true); // HTML enabled
+        return message;
+    }
+
+    private void scheduleRetry(RetryPolicy policy, OutboundEmail mail, Exception error) {
+        if (policy.fail(mail, error, LocalDateTime.now())) {
+            deadCounter.increment();
+            log.warn("⚠ Giving up on email {} to {} after {} attempts: {}",
+                    mail.getId(), mail.getRecipient(), mail.getAttempts(), mail.getLastError());
+        } else {
+            retryCounter.increment();
+        }
+    }
+
+    private void deadLetter(OutboundEmail mail, Exception error) {
+        RetryPolicy.deadLetter(mail, error);
+        deadCounter.increment();
+        log.warn("⚠ Email {} to {} cannot be sent: {}", mail.getId(), mail.getRecipient(), mail.getLastError());
+    }
+
+    private RetryPolicy retryPolicy() {
+        return new RetryPolicy(maxAttempts, backoffInitialMs, backoffMaxMs, claimTimeoutMs);
+    }
+
+    private int reservePermits(int wanted) {
+        synchronized (rateLock) {
+            long now = System.currentTimeMillis();
+            if (now - rateWindowStart >= 60_000) {
+                rateWindowStart = now;
+                claimedInWindow = 0;
+            }
+            int granted = Math.max(0, Math.min(wanted, maxPerMinute - claimedInWindow));
+            claimedInWindow += granted;
+            return granted;
+        }
+    }
+
+    private void returnPermits(int unused) {
+        if (unused <= 0) {
+            return;
+        }
+        synchronized (rateLock) {
+            claimedInWindow = Math.max(0, claimedInWindow - unused);
+        }
+    }
+
+    private void refreshDepth() {
+        pendingDepth.set(outboundEmailRepo.countByStatus(OutboundEmail.Status.PENDING));
+        deadDepth.set(outboundEmailRepo.countByStatus(OutboundEmail.Status.DEAD));
+    }
+}
@@ -22,7 +22,7 @@ public class UmsAuthService {
     @Value("${ums.api.base-url}")
     private String umsBaseUrl;
 
-    private final RestTemplate restTemplate = new RestTemplate();
+    private final RestTemplate restTemplate;
 
     private final EmailUtil emailUtil;
 
@@ -0,0 +1,204 @@
+package com.intranet.service.events;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Executor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import com.fasterxml.jackson.annotation.JsonRawValue;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.intranet.entity.OutboxEvent;
+import com.intranet.repository.OutboxEventRepo;
+
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Incremental read access to the timesheet domain events for downstream
+ * systems (RMS, PMS).
+ *
+ * The feed is event_outbox in feed_seq order. A consumer keeps the last
+ * feed_seq it applied and asks for what came after it; pages are NDJSON, one
+ * event per line. When nothing is there yet, a request may wait (long-poll):
+ * it is answered as soon as this instance dispatches an event, or by the
+ * recheck every app.changefeed.recheck-ms (events dispatched by other
+ * instances), or empty when the wait is over.
+ *
+ * A cursor older than the retained part of the feed (see
+ * app.events.outbox.retention-days), or ahead of the newest event (a feed
+ * that was reset, or a cursor from another environment), is answered with
+ * resyncRequired: the consumer has to rebuild from the summary endpoints and
+ * continue from the returned cursor.
+ */
+@Slf4j
+@Service
+public class ChangeFeedService {
+
+    /** One NDJSON line; data is the stored event payload as is. */
+    record FeedLine(long seq, String type, Long userId, LocalDateTime at, @JsonRawValue String data) {}
+
+    /**
+     * One page of the feed. nextCursor is where to continue from (the last
+     * event scanned, also when the type filter dropped it).
+     */
+    public record ChangeFeedPage(String ndjson, int count, long nextCursor, boolean hasMore, boolean resyncRequired) {
+
+        static ChangeFeedPage empty(long cursor) {
+            return new ChangeFeedPage("", 0, cursor, false, false);
+        }
+    }
+
+    private record Waiter(long after, int limit, Set<String> types, CompletableFuture<ChangeFeedPage> result) {}
+
+    private final OutboxEventRepo outboxEventRepo;
+    private final ObjectMapper objectMapper;
+    private final Executor asyncExecutor;
+    private final int defaultLimit;
+    private final int maxLimit;
+    private final long maxWaitMs;
+
+    private final ConcurrentLinkedQueue<Waiter> waiters = new ConcurrentLinkedQueue<>();
+    private final AtomicBoolean serveQueued = new AtomicBoolean();
+
+    public ChangeFeedService(OutboxEventRepo outboxEventRepo,
+                             ObjectMapper objectMapper,
+                             @Qualifier("asyncExecutor") Executor asyncExecutor,
+                             @Value("${app.changefeed.default-limit:500}") int defaultLimit,
+                             @Value("${app.changefeed.max-limit:2000}") int maxLimit,
+                             @Value("${app.changefeed.max-wait-ms:30000}") long maxWaitMs) {
+        this.outboxEventRepo = outboxEventRepo;
+        this.objectMapper = objectMapper;
+        this.asyncExecutor = asyncExecutor;
+        this.maxLimit = Math.max(1, maxLimit);
+        this.defaultLimit = Math.min(Math.max(1, defaultLimit), this.maxLimit);
+        this.maxWaitMs = Math.max(0, maxWaitMs);
+    }
+
+    /**
+     * The events after the cursor; when there are none, waits up to waitMs
+     * (capped at app.changefeed.max-wait-ms) for the first ones.
+     *
+     * @param types event types to include (e.g. EntriesAdded); empty for all
+     */
+    public CompletableFuture<ChangeFeedPage> changesAfter(long after, Integer limit, Set<String> types, long waitMs) {
+        int pageSize = limit == null || limit <= 0 ? defaultLimit : Math.min(limit, maxLimit);
+        ChangeFeedPage page = page(after, pageSize, types);
+        long wait = Math.min(Math.max(0, waitMs), maxWaitMs);
+        if (page.count() > 0 || page.resyncRequired() || page.nextCursor() != after || wait == 0) {
+            return CompletableFuture.completedFuture(page);
+        }
+
+        CompletableFuture<ChangeFeedPage> result = new CompletableFuture<ChangeFeedPage>()
+                .completeOnTimeout(ChangeFeedPage.empty(after), wait, TimeUnit.MILLISECONDS);
+        Waiter waiter = new Waiter(after, pageSize, types, result);
+        waiters.add(waiter);
+        result.whenComplete((p, e) -> waiters.remove(waiter));
+        return result;
+    }
+
+    /** A page of at most limit events after the cursor. */
+    public ChangeFeedPage page(long after, int limit, Set<String> types) {
+        Long oldest = outboxEventRepo.findMinFeedSeq();
+        if (oldest != null && after < oldest - 1) {
+            return new ChangeFeedPage("", 0, oldest - 1, false, true);
+        }
+
+        List<OutboxEvent> rows = outboxEventRepo.findByFeedSeqGreaterThanOrderByFeedSeqAsc(after, PageRequest.of(0, limit));
+        if (rows.isEmpty()) {
+            long newest = Optional.ofNullable(outboxEventRepo.findMaxFeedSeq()).orElse(0L);
+            if (after > newest) {
+                return new ChangeFeedPage("", 0, newest, false, true);
+            }
+        }
+        StringBuilder ndjson = new StringBuilder();
+        int count = 0;
+        long cursor = after;
+        for (OutboxEvent row : rows) {
+            cursor = row.getFeedSeq();
+            if (types != null && !types.isEmpty() && !types.contains(row.getEventType())) {
+                continue;
+            }
+            ndjson.append(toLine(row)).append('\n');
+            count++;
+        }
+        return new ChangeFeedPage(ndjson.toString(), count, cursor, rows.size() == limit, false);
+    }
+
+    /**
+     * Every dispatched event has its feed_seq committed; answer the waiting
+     * requests. The events of one dispatched batch share a single serve:
+     * while one is queued, further events are folded into it.
+     */
+    @EventListener
+    public void onEvent(TimesheetEvent event) {
+        if (waiters.isEmpty() || !serveQueued.compareAndSet(false, true)) {
+            return;
+        }
+        try {
+            asyncExecutor.execute(() -> {
+                // Events dispatched from here on may not be visible to this serve; they queue the next one
+                serveQueued.set(false);
+                serveWaiters();
+            });
+        } catch (RuntimeException e) {
+            // The recheck answers the waiters
+            serveQueued.set(false);
+            log.warn("⚠️ Could not schedule change feed serve: {}", e.getMessage());
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${app.changefeed.recheck-ms:1000}")
+    public void recheck() {
+        if (!waiters.isEmpty()) {
+            serveWaiters();
+        }
+    }
+
+    private void serveWaiters() {
+        Long newest;
+        try {
+            newest = outboxEventRepo.findMaxFeedSeq();
+        } catch (Exception e) {
+            log.warn("⚠️ Change feed recheck failed: {}", e.getMessage());
+            return;
+        }
+        if (newest == null) {
+            return;
+        }
+        for (Waiter waiter : new ArrayList<>(waiters)) {
+            if (waiter.result().isDone() || waiter.after() >= newest) {
+                continue;
+            }
+            try {
+                ChangeFeedPage page = page(waiter.after(), waiter.limit(), waiter.types());
+                if (page.count() > 0 || page.resyncRequired() || page.nextCursor() != waiter.after()) {
+                    waiter.result().complete(page);
+                }
+            } catch (Exception e) {
+                waiter.result().completeExceptionally(e);
+            }
+        }
+    }
+
+    private String toLine(OutboxEvent row) {
+        try {
+            return objectMapper.writeValueAsString(new FeedLine(
+                    row.getFeedSeq(), row.getEventType(), row.getUserId(), row.getCreatedAt(), row.getPayload()));
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Cannot write change feed line " + row.getFeedSeq(), e);
+        }
+    }
+}
@@ -0,0 +1,233 @@
+package com.intranet.service.events;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.Executor;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.intranet.entity.OutboxEvent;
+import com.intranet.repository.OutboxEventRepo;
+import com.intranet.util.queue.RetryPolicy;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Drains event_outbox into in-process listeners.
+ *
+ * - Woken up after every commit that wrote events, and polled every
+ *   app.events.outbox.poll-interval-ms for anything missed.
+ * - Draining runs on the single eventDispatchExecutor thread: due events are
+ *   claimed in id order (SELECT ... FOR UPDATE SKIP LOCKED, so instances never
+ *   share an event) and published with ApplicationEventPublisher, i.e. to
+ *   {@code @EventListener} methods, outside of any transaction.
+ * - An event whose listener throws is retried with exponential backoff and
+ *   marked DEAD after app.events.outbox.max-attempts; later events are not
+ *   held back by it.
+ * - A dispatcher that dies mid-batch leaves DISPATCHING rows whose claim
+ *   expires; they are delivered again (at-least-once).
+ * - Claims, backoff and dead-lettering follow {@link RetryPolicy}, as in
+ *   MailQueueDispatcher.
+ * - The first claim gives an event its feed_seq (see ChangeFeedService),
+ *   continuing from the highest committed one. Instances claiming at the same
+ *   time collide on the unique index and the loser retries, so a committed
+ *   feed_seq is never followed by a smaller one committing later.
+ * - The purge never removes the event with the highest feed_seq, so that
+ *   highest one never goes down and numbering never restarts behind the
+ *   cursors of consumers.
+ *
+ * Metrics: events.outbox.dispatched, events.outbox.failures{outcome=retry|dead},
+ * events.outbox.depth{status=pending|dead}.
+ */
+@Slf4j
+@Service
+public class DomainEventDispatcher {
+
+    private final OutboxEventRepo outboxEventRepo;
+    private final ApplicationEventPublisher eventPublisher;
+    private final ObjectMapper objectMapper;
+    private final Executor eventDispatchExecutor;
+    private final TransactionTemplate tx;
+
+    private final Counter dispatchedCounter;
+    private final Counter retryCounter;
+    private final Counter deadCounter;
+    private final AtomicLong pendingDepth = new AtomicLong();
+    private final AtomicLong deadDepth = new AtomicLong();
+
+    @Value("${app.events.outbox.enabled:true}")
+    private boolean enabled;
+
+    @Value("${app.events.outbox.batch-size:100}")
+    private int batchSize;
+
+    @Value("${app.events.outbox.max-attempts:5}")
+    private int maxAttempts;
+
+    @Value("${app.events.outbox.backoff-initial-ms:10000}")
+    private long backoffInitialMs;
+
+    @Value("${app.events.outbox.backoff-max-ms:600000}")
+    private long backoffMaxMs;
+
+    @Value("${app.events.outbox.claim-timeout-ms:300000}")
+    private long claimTimeoutMs;
+
+    @Value("${app.events.outbox.retention-days:14}")
+    private int retentionDays;
+
+    public DomainEventDispatcher(OutboxEventRepo outboxEventRepo,
+                                 ApplicationEventPublisher eventPublisher,
+                                 ObjectMapper objectMapper,
+                                 @Qualifier("eventDispatchExecutor") Executor eventDispatchExecutor,
+                                 PlatformTransactionManager transactionManager,
+                                 MeterRegistry meterRegistry) {
+        this.outboxEventRepo = outboxEventRepo;
+        this.eventPublisher = eventPublisher;
+        this.objectMapper = objectMapper;
+        this.eventDispatchExecutor = eventDispatchExecutor;
+        this.tx = new TransactionTemplate(transactionManager);
+
+        this.dispatchedCounter = Counter.builder("events.outbox.dispatched")
+                .description("Domain events delivered to the in-process listeners")
+                .register(meterRegistry);
+        this.retryCounter = Counter.builder("events.outbox.failures")
+                .tag("outcome", "retry")
+                .description("Failed deliveries scheduled for another attempt")
+                .register(meterRegistry);
+        this.deadCounter = Counter.builder("events.outbox.failures")
+                .tag("outcome", "dead")
+                .description("Domain events given up on (dead-lettered)")
+                .register(meterRegistry);
+        Gauge.builder("events.outbox.depth", pendingDepth, AtomicLong::get)
+                .tag("status", "pending")
+                .register(meterRegistry);
+        Gauge.builder("events.outbox.depth", deadDepth, AtomicLong::get)
+                .tag("status", "dead")
+                .register(meterRegistry);
+    }
+
+    /** Asks for a drain soon; a drain already queued covers this call too. */
+    public void wakeUp() {
+        if (!enabled) {
+            return;
+        }
+        try {
+            eventDispatchExecutor.execute(this::drain);
+        } catch (RuntimeException e) {
+            // The next poll delivers the events
+            log.warn("⚠ Could not schedule event dispatch: {}", e.getMessage());
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${app.events.outbox.poll-interval-ms:5000}",
+               initialDelayString = "${app.events.outbox.poll-interval-ms:5000}")
+    public void poll() {
+        wakeUp();
+    }
+
+    @Scheduled(cron = "${app.events.outbox.purge-cron:0 45 3 * * *}")
+    public void purgeDispatched() {
+        LocalDateTime before = LocalDateTime.now().minusDays(retentionDays);
+        Integer removed = tx.execute(status -> {
+            Long through = outboxEventRepo.findMaxFeedSeqCreatedBefore(before);
+            Long newest = outboxEventRepo.findMaxFeedSeq();
+            if (through == null || newest == null) {
+                return 0;
+            }
+            // The newest event stays: claimBatch numbers on from it
+            long last = Math.min(through, newest - 1);
+            return last > 0 ? outboxEventRepo.deleteFeedThrough(last) : 0;
+        });
+        log.info("🧹 Removed {} events older than {} days from the event outbox", removed, retentionDays);
+    }
+
+    private void drain() {
+        try {
+            List<OutboxEvent> batch;
+            do {
+                batch = claimBatch();
+                dispatch(batch);
+            } while (batch.size() == batchSize);
+            pendingDepth.set(outboxEventRepo.countByStatus(OutboxEvent.Status.PENDING));
+            deadDepth.set(outboxEventRepo.countByStatus(OutboxEvent.Status.DEAD));
+        } catch (Exception e) {
+            log.error("❌ Event outbox drain failed: {}", e.getMessage(), e);
+        }
+    }
+
+    private List<OutboxEvent> claimBatch() {
+        try {
+            return tx.execute(status -> {
+                LocalDateTime now = LocalDateTime.now();
+                List<OutboxEvent> due = outboxEventRepo.findDueForUpdate(now, PageRequest.of(0, batchSize));
+                long feedSeq = due.stream().anyMatch(e -> e.getFeedSeq() == null)
+                        ? Optional.ofNullable(outboxEventRepo.findMaxFeedSeq()).orElse(0L)
+                        : 0L;
+                for (OutboxEvent event : due) {
+                    if (event.getFeedSeq() == null) {
+                        event.setFeedSeq(++feedSeq);
+                    }
+                }
+                return outboxEventRepo.saveAllAndFlush(retryPolicy().claim(due, now));
+            });
+        } catch (DataIntegrityViolationException e) {
+            // Another instance took the same feed positions first; claim again on the next drain
+            log.debug("Event claim lost a feed_seq race: {}", e.getMessage());
+            return List.of();
+        }
+    }
+
+    private void dispatch(List<OutboxEvent> batch) {
+        RetryPolicy policy = retryPolicy();
+        List<OutboxEvent> done = new ArrayList<>(batch.size());
+        for (OutboxEvent row : batch) {
+            try {
+                eventPublisher.publishEvent(DomainEventOutbox.read(row, objectMapper));
+                policy.succeed(row, LocalDateTime.now());
+                dispatchedCounter.increment();
+            } catch (Exception e) {
+                scheduleRetry(policy, row, e);
+            }
+            done.add(row);
+        }
+        if (done.isEmpty()) {
+            return;
+        }
+        try {
+            tx.executeWithoutResult(status -> outboxEventRepo.saveAll(done));
+        } catch (Exception e) {
+            // Claims expire and the batch is delivered again (at-least-once)
+            log.error("❌ Could not record dispatch results for {} events: {}", done.size(), e.getMessage(), e);
+        }
+    }
+
+    private void scheduleRetry(RetryPolicy policy, OutboxEvent row, Exception error) {
+        if (policy.fail(row, error, LocalDateTime.now())) {
+            deadCounter.increment();
+            log.warn("⚠ Giving up on {} event {} after {} attempts: {}",
+                    row.getEventType(), row.getId(), row.getAttempts(), row.getLastError());
+        } else {
+            retryCounter.increment();
+        }
+    }
+
+    private RetryPolicy retryPolicy() {
+        return new RetryPolicy(maxAttempts, backoffInitialMs, backoffMaxMs, claimTimeoutMs);
+    }
+}
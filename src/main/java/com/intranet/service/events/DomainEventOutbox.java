@@ -0,0 +1,93 @@
+package com.intranet.service.events;
+
+import java.io.IOException;
+import java.time.LocalDateTime;
+import java.util.Arrays;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.intranet.entity.OutboxEvent;
+import com.intranet.repository.OutboxEventRepo;
+
+import lombok.RequiredArgsConstructor;
+
+/**
+ * Writes {@link TimesheetEvent}s to event_outbox.
+ *
+ * {@link #append} joins the caller's transaction (and refuses to run without
+ * one), so an event exists exactly when its change committed. After the
+ * commit the dispatcher is woken up; its poll picks up anything missed.
+ */
+@Service
+@RequiredArgsConstructor
+public class DomainEventOutbox {
+
+    private static final Map<String, Class<? extends TimesheetEvent>> TYPES =
+            Arrays.stream(TimesheetEvent.class.getPermittedSubclasses())
+                    .collect(Collectors.toUnmodifiableMap(Class::getSimpleName, DomainEventOutbox::asEventClass));
+
+    private final OutboxEventRepo outboxEventRepo;
+    private final ObjectMapper objectMapper;
+    private final DomainEventDispatcher dispatcher;
+
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void append(TimesheetEvent event) {
+        LocalDateTime now = LocalDateTime.now();
+        outboxEventRepo.save(OutboxEvent.builder()
+                .eventType(typeOf(event))
+                .userId(event.userId())
+                .payload(toJson(event))
+                .status(OutboxEvent.Status.PENDING)
+                .attempts(0)
+                .nextAttemptAt(now)
+                .createdAt(now)
+                .build());
+
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                dispatcher.wakeUp();
+            }
+        });
+    }
+
+    /** Event type as stored in event_outbox.event_type. */
+    static String typeOf(TimesheetEvent event) {
+        return event.getClass().getSimpleName();
+    }
+
+    /** The event stored in the row, for readers of event_outbox (dispatcher, feed consumers). */
+    public static TimesheetEvent read(OutboxEvent row, ObjectMapper objectMapper) throws IOException {
+        Class<? extends TimesheetEvent> type = classOf(row.getEventType());
+        if (type == null) {
+            throw new IllegalArgumentException("Unknown event type " + row.getEventType());
+        }
+        return objectMapper.readValue(row.getPayload(), type);
+    }
+
+    /** Record class of a stored event type, null when unknown. */
+    static Class<? extends TimesheetEvent> classOf(String eventType) {
+        return TYPES.get(eventType);
+    }
+
+    private String toJson(TimesheetEvent event) {
+        try {
+            return objectMapper.writeValueAsString(event);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Cannot serialize " + typeOf(event), e);
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private static Class<? extends TimesheetEvent> asEventClass(Class<?> type) {
+        return (Class<? extends TimesheetEvent>) type;
+    }
+}
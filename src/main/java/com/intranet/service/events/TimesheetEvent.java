@@ -0,0 +1,45 @@
+package com.intranet.service.events;
+
+import java.time.LocalDate;
+import java.util.List;
+
+/**
+ * Typed change events of timesheets, entries and weekly reviews.
+ *
+ * Events are written to event_outbox in the transaction of the change (see
+ * {@link DomainEventOutbox}) and handed to in-process listeners afterwards,
+ * at least once: listen with {@code @EventListener} on one of the records
+ * below (or on TimesheetEvent for all of them) and be idempotent.
+ */
+public sealed interface TimesheetEvent {
+
+    /** Owner of the changed timesheet(s). */
+    Long userId();
+
+    /** A new timesheet with its first entries. */
+    record SheetCreated(Long timeSheetId, Long userId, LocalDate workDate, List<Long> entryIds)
+            implements TimesheetEvent {}
+
+    record EntriesAdded(Long timeSheetId, Long userId, LocalDate workDate, List<Long> entryIds)
+            implements TimesheetEvent {}
+
+    record EntriesUpdated(Long timeSheetId, Long userId, LocalDate workDate, List<Long> entryIds)
+            implements TimesheetEvent {}
+
+    /** sheetRemoved is true when the last entries went and the timesheet was deleted with them. */
+    record EntriesDeleted(Long timeSheetId, Long userId, LocalDate workDate, List<Long> entryIds, boolean sheetRemoved)
+            implements TimesheetEvent {}
+
+    /** A week submitted for review, including the auto-generated holiday/leave days. */
+    record WeekSubmitted(Long userId, Long weekId, List<Long> timeSheetIds)
+            implements TimesheetEvent {}
+
+    /** One manager's verdict on one timesheet, with the resulting overall status of the sheet. */
+    record SheetReviewed(Long timeSheetId, Long userId, Long weekId, Long managerId,
+                         String reviewStatus, String sheetStatus)
+            implements TimesheetEvent {}
+
+    /** The weekly review status changed, e.g. to APPROVED once every day is approved. */
+    record WeekStatusChanged(Long userId, Long weekId, String previousStatus, String status)
+            implements TimesheetEvent {}
+}
@@ -2,6 +2,7 @@ package com.intranet.service.external;
 
 import java.math.BigDecimal;
 import java.time.LocalDate;
+import java.time.YearMonth;
 import java.util.Collections;
 import java.util.Comparator;
 import java.util.HashMap;
@@ -10,14 +11,7 @@ import java.util.Map;
 import java.util.Set;
 import java.util.stream.Collectors;
 
-import org.springframework.beans.factory.annotation.Value;
-import org.springframework.core.ParameterizedTypeReference;
-import org.springframework.http.HttpEntity;
-import org.springframework.http.HttpHeaders;
-import org.springframework.http.HttpMethod;
-import org.springframework.http.ResponseEntity;
 import org.springframework.stereotype.Service;
-import org.springframework.web.client.RestTemplate;
 
 import com.intranet.dto.TimeSheetEntrySummaryDTO;
 import com.intranet.dto.TimeSheetSummaryDTO;
@@ -31,6 +25,10 @@ import com.intranet.entity.WeekInfo;
 import com.intranet.repository.TimeSheetOnHolidaysRepo;
 import com.intranet.repository.TimeSheetRepo;
 import com.intranet.service.TimeUtil;
+import com.intranet.service.directory.UserDirectoryIndex;
+import com.intranet.service.project.ProjectMembershipGraph;
+import com.intranet.service.project.ProjectMembershipService;
+import com.intranet.util.cache.UserDirectoryService;
 
 import lombok.RequiredArgsConstructor;
 
@@ -38,33 +36,19 @@ import lombok.RequiredArgsConstructor;
 @RequiredArgsConstructor
 public class ManagerWeeklySummaryService {
 
-        private final RestTemplate restTemplate;
         private final TimeSheetRepo timeSheetRepository;
         private final TimeSheetOnHolidaysRepo timeSheetOnHolidaysRepo;
-
-    @Value("${pms.api.base-url}")
-    private String pmsBaseUrl;
-
-    @Value("${ums.api.base-url}")
-    private String umsBaseUrl;
+        private final UserDirectoryService userDirectoryService;
+        private final ProjectMembershipService projectMembershipService;
 
     public List<ManagerWeeklySummaryDTO> getWeeklySubmittedTimesheetsByManager(Long managerId, String authHeader,LocalDate startOfMonth,LocalDate endOfMonth) {
-    HttpHeaders headers = new HttpHeaders();
-    headers.set("Authorization", authHeader);
-    HttpEntity<Void> entity = new HttpEntity<>(headers);
-
-//     // Step 1: Get all projects owned by this manager
-    String url = String.format("%s/projects/owner", pmsBaseUrl);
-    ResponseEntity<List<Map<String, Object>>> response = restTemplate.exchange(
-            url, HttpMethod.GET, entity, new ParameterizedTypeReference<>() {});
-    List<Map<String, Object>> projects = response.getBody();
-    if (projects == null || projects.isEmpty()) return Collections.emptyList();
-
-    // Step 2: Get all member IDs under these projects
-    Set<Long> memberIds = projects.stream()
-            .flatMap(p -> ((List<Map<String, Object>>) p.get("members")).stream())
-            .map(m -> ((Number) m.get("id")).longValue())
-            .collect(Collectors.toSet());
+    // Step 1: Projects owned by this manager and their members, from the project membership graph
+    ProjectMembershipGraph membership = projectMembershipService.graph(authHeader);
+    Set<Long> projectIds = projectIdsOf(membership.projectsOwnedBy(managerId));
+    if (projectIds.isEmpty()) return Collections.emptyList();
+
+    // Step 2: Member IDs under these projects
+    Set<Long> memberIds = membership.teamOf(managerId);
     if (memberIds.isEmpty()) return Collections.emptyList();
 
     // Step 3: Fetch all non-draft timesheets of these members
@@ -94,52 +78,21 @@ public class ManagerWeeklySummaryService {
             if (isHoliday) return true;
 
             // D) Normal project-based match
-            return ts.getEntries().stream().anyMatch(e ->
-                    projects.stream().anyMatch(p ->
-                            ((Number) p.get("id")).longValue() == e.getProjectId())
-            );
+            return ts.getEntries().stream().anyMatch(e -> projectIds.contains(e.getProjectId()));
         })
         .toList();
 
 
     if (managerSheets.isEmpty()) return Collections.emptyList();
 
-        // Step 5: Fetch all users in one call from UMS and cache them
-        Map<Long, Map<String, Object>> userCache = new HashMap<>();
-        try {
-        String allUsersUrl = String.format("%s/admin/users?page=1&limit=500", umsBaseUrl);
-        ResponseEntity<Map<String, Object>> userResponse =
-                restTemplate.exchange(allUsersUrl, HttpMethod.GET, entity, new ParameterizedTypeReference<>() {});
-        
-        Map<String, Object> responseBody = userResponse.getBody();
-        if (responseBody != null && responseBody.containsKey("users")) {
-                List<Map<String, Object>> users = (List<Map<String, Object>>) responseBody.get("users");
-                for (Map<String, Object> user : users) {
-                Long id = ((Number) user.get("user_id")).longValue();
-                userCache.put(id, user);
-                }
-        }
-        } catch (Exception e) {
-        e.printStackTrace(); // optionally log with logger.warn("Failed to load users", e)
-        }
+        // Step 5: User names and emails from the local user directory
+        UserDirectoryIndex userDirectory = userDirectoryService.directory(authHeader);
         Map<Long, String> userNameCache = new HashMap<>();
         Map<Long, String> userEmailCache = new HashMap<>();
-
         for (Long uid : memberIds) {
-        Map<String, Object> user = userCache.get(uid);
-        if (user != null) {
-                String firstName = (String) user.getOrDefault("first_name", "");
-                String lastName = (String) user.getOrDefault("last_name", "");
-                String fullName = (firstName + " " + lastName).trim();
-                String email = (String) user.getOrDefault("mail", "unknown@example.com");
-
-                userNameCache.put(uid, fullName.isEmpty() ? "Unknown User" : fullName);
-                userEmailCache.put(uid, email);
-        } else {
-                userNameCache.put(uid, "Unknown User");
-                userEmailCache.put(uid, "unknown@example.com");
+                userNameCache.put(uid, userDirectory.name(uid, "Unknown User"));
+                userEmailCache.put(uid, userDirectory.email(uid, "unknown@example.com"));
         }
-}
 
 
 
@@ -198,7 +151,7 @@ public class ManagerWeeklySummaryService {
 
                             // Map to DTO with manager-specific status
                             List<TimeSheetSummaryDTO> timeSheetDTOs = weekSheets.stream()
-                                    .map(ts -> mapToSummaryDTOForManager(ts, managerId, projects))
+                                    .map(ts -> mapToSummaryDTOForManager(ts, managerId))
                                     .toList();
 
                             BigDecimal totalHours = TimeUtil.sumHours(
@@ -239,13 +192,7 @@ public class ManagerWeeklySummaryService {
                 
                 ManagerWeeklySummaryDTO managerDTO = new ManagerWeeklySummaryDTO();
                 managerDTO.setUserId(userId);
-                Map<String, Object> user = userCache.get(userId);
-                String fullName = "Unknown";
-                if (user != null) {
-                String firstName = (String) user.getOrDefault("first_name", "");
-                String lastName = (String) user.getOrDefault("last_name", "");
-                fullName = (firstName + " " + lastName).trim();
-                }
+                String fullName = userDirectory.name(userId, "Unknown");
                 managerDTO.setUserName(fullName);
                 managerDTO.setBillableHours(totalBillableHours);
                 managerDTO.setNonBillableHours(nonBillableFromEntries);
@@ -266,7 +213,7 @@ public class ManagerWeeklySummaryService {
  * All entries are shown.
  * Status is manager-specific.
  */
-private TimeSheetSummaryDTO mapToSummaryDTOForManager(TimeSheet ts, Long managerId, List<Map<String, Object>> managerProjects) {
+private TimeSheetSummaryDTO mapToSummaryDTOForManager(TimeSheet ts, Long managerId) {
     List<TimeSheetEntrySummaryDTO> entries = ts.getEntries().stream().map(e -> {
         TimeSheetEntrySummaryDTO dto = new TimeSheetEntrySummaryDTO();
         dto.setTimesheetEntryid(e.getId());
@@ -324,22 +271,13 @@ private TimeSheetSummaryDTO mapToSummaryDTOForManager(TimeSheet ts, Long manager
     public List<ManagerWeeklySummaryDTO> getPendingTimesheetsByManagerForPreviousMonth(
             Long managerId, String authHeader, LocalDate startOfMonth, LocalDate endOfMonth) {
 
-        HttpHeaders headers = new HttpHeaders();
-        headers.set("Authorization", authHeader);
-        HttpEntity<Void> entity = new HttpEntity<>(headers);
-
-        // Step 1: projects owned by this manager
-        String url = String.format("%s/projects/owner", pmsBaseUrl);
-        ResponseEntity<List<Map<String, Object>>> response = restTemplate.exchange(
-                url, HttpMethod.GET, entity, new ParameterizedTypeReference<>() {});
-        List<Map<String, Object>> projects = response.getBody();
-        if (projects == null || projects.isEmpty()) return Collections.emptyList();
+        // Step 1: projects owned by this manager, from the project membership graph
+        ProjectMembershipGraph membership = projectMembershipService.graph(authHeader);
+        Set<Long> projectIds = projectIdsOf(membership.projectsOwnedBy(managerId));
+        if (projectIds.isEmpty()) return Collections.emptyList();
 
         // Step 2: member ids under those projects
-        Set<Long> memberIds = projects.stream()
-                .flatMap(p -> ((List<Map<String, Object>>) p.get("members")).stream())
-                .map(m -> ((Number) m.get("id")).longValue())
-                .collect(Collectors.toSet());
+        Set<Long> memberIds = membership.teamOf(managerId);
         if (memberIds.isEmpty()) return Collections.emptyList();
 
         // Step 3: non-draft timesheets for those members
@@ -358,9 +296,7 @@ private TimeSheetSummaryDTO mapToSummaryDTOForManager(TimeSheet ts, Long manager
         List<TimeSheet> pendingSheets = filteredSheets.stream()
                 .filter(ts -> !Boolean.TRUE.equals(ts.getAutoGenerated()))
                 .filter(ts -> ts.getEntries() != null && !ts.getEntries().isEmpty())
-                .filter(ts -> ts.getEntries().stream().anyMatch(e ->
-                        projects.stream().anyMatch(p ->
-                                ((Number) p.get("id")).longValue() == e.getProjectId())))
+                .filter(ts -> ts.getEntries().stream().anyMatch(e -> projectIds.contains(e.getProjectId())))
                 .filter(ts -> ts.getReviews().stream().noneMatch(r ->
                         managerId.equals(r.getManagerId())
                                 && r.getStatus() != null
@@ -370,23 +306,8 @@ private TimeSheetSummaryDTO mapToSummaryDTOForManager(TimeSheet ts, Long manager
 
         if (pendingSheets.isEmpty()) return Collections.emptyList();
 
-        // Step 5: load users from UMS
-        Map<Long, Map<String, Object>> userCache = new HashMap<>();
-        try {
-            String allUsersUrl = String.format("%s/admin/users?page=1&limit=500", umsBaseUrl);
-            ResponseEntity<Map<String, Object>> userResponse =
-                    restTemplate.exchange(allUsersUrl, HttpMethod.GET, entity, new ParameterizedTypeReference<>() {});
-            Map<String, Object> body = userResponse.getBody();
-            if (body != null && body.containsKey("users")) {
-                List<Map<String, Object>> users = (List<Map<String, Object>>) body.get("users");
-                for (Map<String, Object> u : users) {
-                    Long id = ((Number) u.get("user_id")).longValue();
-                    userCache.put(id, u);
-                }
-            }
-        } catch (Exception e) {
-            e.printStackTrace();
-        }
+        // Step 5: users from the local user directory
+        UserDirectoryIndex userDirectory = userDirectoryService.directory(authHeader);
 
         // Step 6: group by user, build DTOs
         return pendingSheets.stream()
@@ -421,7 +342,7 @@ private TimeSheetSummaryDTO mapToSummaryDTOForManager(TimeSheet ts, Long manager
                                 WeekInfo week = weekSheets.get(0).getWeekInfo();
 
                                 List<TimeSheetSummaryDTO> tsDtos = weekSheets.stream()
-                                        .map(ts -> mapToSummaryDTOForManager(ts, managerId, projects))
+                                        .map(ts -> mapToSummaryDTOForManager(ts, managerId))
                                         .toList();
 
                                 BigDecimal totalHours = TimeUtil.sumHours(
@@ -441,14 +362,7 @@ private TimeSheetSummaryDTO mapToSummaryDTOForManager(TimeSheet ts, Long manager
 
                     ManagerWeeklySummaryDTO dto = new ManagerWeeklySummaryDTO();
                     dto.setUserId(userId);
-                    Map<String, Object> user = userCache.get(userId);
-                    String fullName = "Unknown";
-                    if (user != null) {
-                        String firstName = (String) user.getOrDefault("first_name", "");
-                        String lastName = (String) user.getOrDefault("last_name", "");
-                        fullName = (firstName + " " + lastName).trim();
-                        if (fullName.isEmpty()) fullName = "Unknown";
-                    }
+                    String fullName = userDirectory.name(userId, "Unknown");
                     dto.setUserName(fullName);
                     dto.setBillableHours(billable);
                     dto.setNonBillableHours(nonBillable);
@@ -464,22 +378,15 @@ private TimeSheetSummaryDTO mapToSummaryDTOForManager(TimeSheet ts, Long manager
     }
 
         public List<ManagerWeeklySummaryDTO> getWeeklySubmittedTimesheetsByManagerReport(Long managerId, String authHeader,LocalDate startOfMonth,LocalDate endOfMonth,Integer month,Integer year) {
-    HttpHeaders headers = new HttpHeaders();
-    headers.set("Authorization", authHeader);
-    HttpEntity<Void> entity = new HttpEntity<>(headers);
-
-//     // Step 1: Get all projects owned by this manager
-    String url = String.format("%s/projects/owner/period?month=%d&year=%d", pmsBaseUrl, month, year);
-    ResponseEntity<List<Map<String, Object>>> response = restTemplate.exchange(
-            url, HttpMethod.GET, entity, new ParameterizedTypeReference<>() {});
-    List<Map<String, Object>> projects = response.getBody();
-    if (projects == null || projects.isEmpty()) return Collections.emptyList();
-
-    // Step 2: Get all member IDs under these projects
-    Set<Long> memberIds = projects.stream()
-            .flatMap(p -> ((List<Map<String, Object>>) p.get("members")).stream())
-            .map(m -> ((Number) m.get("id")).longValue())
-            .collect(Collectors.toSet());
+    // Step 1: Projects of this manager running in the month, from the project membership graph
+    YearMonth period = YearMonth.of(year, month);
+    List<Map<String, Object>> projects = projectMembershipService.graph(authHeader)
+            .projectsOwnedBy(managerId, period.atDay(1), period.atEndOfMonth());
+    Set<Long> projectIds = projectIdsOf(projects);
+    if (projectIds.isEmpty()) return Collections.emptyList();
+
+    // Step 2: Member IDs under these projects
+    Set<Long> memberIds = ProjectMembershipGraph.memberIdsOf(projects);
     if (memberIds.isEmpty()) return Collections.emptyList();
 
     // Step 3: Fetch all non-draft timesheets of these members
@@ -509,52 +416,21 @@ private TimeSheetSummaryDTO mapToSummaryDTOForManager(TimeSheet ts, Long manager
             if (isHoliday) return true;
 
             // D) Normal project-based match
-            return ts.getEntries().stream().anyMatch(e ->
-                    projects.stream().anyMatch(p ->
-                            ((Number) p.get("id")).longValue() == e.getProjectId())
-            );
+            return ts.getEntries().stream().anyMatch(e -> projectIds.contains(e.getProjectId()));
         })
         .toList();
 
 
     if (managerSheets.isEmpty()) return Collections.emptyList();
 
-        // Step 5: Fetch all users in one call from UMS and cache them
-        Map<Long, Map<String, Object>> userCache = new HashMap<>();
-        try {
-        String allUsersUrl = String.format("%s/admin/users?page=1&limit=500", umsBaseUrl);
-        ResponseEntity<Map<String, Object>> userResponse =
-                restTemplate.exchange(allUsersUrl, HttpMethod.GET, entity, new ParameterizedTypeReference<>() {});
-        
-        Map<String, Object> responseBody = userResponse.getBody();
-        if (responseBody != null && responseBody.containsKey("users")) {
-                List<Map<String, Object>> users = (List<Map<String, Object>>) responseBody.get("users");
-                for (Map<String, Object> user : users) {
-                Long id = ((Number) user.get("user_id")).longValue();
-                userCache.put(id, user);
-                }
-        }
-        } catch (Exception e) {
-        e.printStackTrace(); // optionally log with logger.warn("Failed to load users", e)
-        }
+        // Step 5: User names and emails from the local user directory
+        UserDirectoryIndex userDirectory = userDirectoryService.directory(authHeader);
         Map<Long, String> userNameCache = new HashMap<>();
         Map<Long, String> userEmailCache = new HashMap<>();
-
         for (Long uid : memberIds) {
-        Map<String, Object> user = userCache.get(uid);
-        if (user != null) {
-                String firstName = (String) user.getOrDefault("first_name", "");
-                String lastName = (String) user.getOrDefault("last_name", "");
-                String fullName = (firstName + " " + lastName).trim();
-                String email = (String) user.getOrDefault("mail", "unknown@example.com");
-
-                userNameCache.put(uid, fullName.isEmpty() ? "Unknown User" : fullName);
-                userEmailCache.put(uid, email);
-        } else {
-                userNameCache.put(uid, "Unknown User");
-                userEmailCache.put(uid, "unknown@example.com");
+                userNameCache.put(uid, userDirectory.name(uid, "Unknown User"));
+                userEmailCache.put(uid, userDirectory.email(uid, "unknown@example.com"));
         }
-}
 
 
 
@@ -613,7 +489,7 @@ private TimeSheetSummaryDTO mapToSummaryDTOForManager(TimeSheet ts, Long manager
 
                             // Map to DTO with manager-specific status
                             List<TimeSheetSummaryDTO> timeSheetDTOs = weekSheets.stream()
-                                    .map(ts -> mapToSummaryDTOForManager(ts, managerId, projects))
+                                    .map(ts -> mapToSummaryDTOForManager(ts, managerId))
                                     .toList();
 
                             BigDecimal totalHours = TimeUtil.sumHours(
@@ -654,13 +530,7 @@ private TimeSheetSummaryDTO mapToSummaryDTOForManager(TimeSheet ts, Long manager
                 
                 ManagerWeeklySummaryDTO managerDTO = new ManagerWeeklySummaryDTO();
                 managerDTO.setUserId(userId);
-                Map<String, Object> user = userCache.get(userId);
-                String fullName = "Unknown";
-                if (user != null) {
-                String firstName = (String) user.getOrDefault("first_name", "");
-                String lastName = (String) user.getOrDefault("last_name", "");
-                fullName = (firstName + " " + lastName).trim();
-                }
+                String fullName = userDirectory.name(userId, "Unknown");
                 managerDTO.setUserName(fullName);
                 managerDTO.setBillableHours(totalBillableHours);
                 managerDTO.setNonBillableHours(nonBillableFromEntries);
@@ -674,4 +544,10 @@ private TimeSheetSummaryDTO mapToSummaryDTOForManager(TimeSheet ts, Long manager
         .filter(dto -> dto.getWeeklySummary() != null && !dto.getWeeklySummary().isEmpty())
         .toList();
   }
+
+    private static Set<Long> projectIdsOf(List<Map<String, Object>> projects) {
+        return projects.stream()
+                .map(p -> ((Number) p.get("id")).longValue())
+                .collect(Collectors.toSet());
+    }
 }
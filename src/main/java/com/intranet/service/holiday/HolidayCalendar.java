@@ -0,0 +1,121 @@
+package com.intranet.service.holiday;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.Optional;
+import java.util.TreeMap;
+
+import com.intranet.dto.HolidayDTO;
+import com.intranet.entity.HolidayCalendarDay;
+import com.intranet.util.cache.Snapshot;
+
+/**
+ * Immutable snapshot of the LMS public holiday calendar.
+ *
+ * Per year one bit per day-of-year answers "is this a holiday" without
+ * allocating; the holiday details are kept next to it, ordered by date.
+ * The snapshot is a full copy of what LMS returned at syncedAt, so a date
+ * that is not in it is not a holiday - unless the calendar was never
+ * {@link #isLoaded loaded}.
+ *
+ * Lookups return fresh DTOs, callers are free to modify them.
+ */
+public final class HolidayCalendar implements Snapshot {
+
+    static final HolidayCalendar EMPTY = new HolidayCalendar(Map.of(), new TreeMap<>(), null);
+
+    private final Map<Integer, BitSet> daysByYear;
+    private final NavigableMap<LocalDate, List<HolidayCalendarDay>> holidays;
+    private final LocalDateTime syncedAt;
+
+    private HolidayCalendar(Map<Integer, BitSet> daysByYear,
+                            NavigableMap<LocalDate, List<HolidayCalendarDay>> holidays,
+                            LocalDateTime syncedAt) {
+        this.daysByYear = daysByYear;
+        this.holidays = holidays;
+        this.syncedAt = syncedAt;
+    }
+
+    static HolidayCalendar of(Collection<HolidayCalendarDay> days, LocalDateTime syncedAt) {
+        Map<Integer, BitSet> byYear = new HashMap<>();
+        TreeMap<LocalDate, List<HolidayCalendarDay>> byDate = new TreeMap<>();
+        for (HolidayCalendarDay day : days) {
+            LocalDate date = day.getHolidayDate();
+            byYear.computeIfAbsent(date.getYear(), y -> new BitSet(367)).set(date.getDayOfYear());
+            byDate.computeIfAbsent(date, d -> new ArrayList<>()).add(day);
+        }
+        byDate.replaceAll((date, list) -> List.copyOf(list));
+        return new HolidayCalendar(Map.copyOf(byYear), Collections.unmodifiableNavigableMap(byDate), syncedAt);
+    }
+
+    /**
+     * False only for the placeholder used before holiday_calendar was read or
+     * LMS was synced; an empty loaded calendar cannot exist, empty syncs are rejected.
+     */
+    @Override
+    public boolean isLoaded() {
+        return syncedAt != null;
+    }
+
+    public boolean isHoliday(LocalDate date) {
+        BitSet days = daysByYear.get(date.getYear());
+        return days != null && days.get(date.getDayOfYear());
+    }
+
+    public Optional<HolidayDTO> holiday(LocalDate date) {
+        List<HolidayCalendarDay> days = holidays.get(date);
+        return days == null ? Optional.empty() : Optional.of(toDto(days.get(0)));
+    }
+
+    public List<HolidayDTO> holidaysOfMonth(int year, int month) {
+        LocalDate first = LocalDate.of(year, month, 1);
+        return toDtos(holidays.subMap(first, true, first.plusMonths(1), false).values());
+    }
+
+    /** Holidays of the month in every synced year, like LMS /api/holidays/month/{month}. */
+    public List<HolidayDTO> holidaysOfMonth(int month) {
+        List<List<HolidayCalendarDay>> matching = new ArrayList<>();
+        holidays.forEach((date, days) -> {
+            if (date.getMonthValue() == month) {
+                matching.add(days);
+            }
+        });
+        return toDtos(matching);
+    }
+
+    public int size() {
+        return holidays.values().stream().mapToInt(List::size).sum();
+    }
+
+    @Override
+    public LocalDateTime syncedAt() {
+        return syncedAt;
+    }
+
+    private static List<HolidayDTO> toDtos(Collection<List<HolidayCalendarDay>> days) {
+        List<HolidayDTO> result = new ArrayList<>();
+        days.forEach(list -> list.forEach(day -> result.add(toDto(day))));
+        return result;
+    }
+
+    private static HolidayDTO toDto(HolidayCalendarDay day) {
+        HolidayDTO dto = new HolidayDTO();
+        dto.setHolidayId(day.getHolidayId());
+        dto.setHolidayName(day.getHolidayName());
+        dto.setHolidayDate(day.getHolidayDate());
+        dto.setHolidayDescription(day.getHolidayDescription());
+        dto.setType(day.getType());
+        dto.setState(day.getState());
+        dto.setCountry(day.getCountry());
+        dto.setYear(day.getHolidayDate().getYear());
+        return dto;
+    }
+}
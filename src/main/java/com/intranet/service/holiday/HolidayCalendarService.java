@@ -0,0 +1,148 @@
+package com.intranet.service.holiday;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.ParameterizedTypeReference;
+import org.springframework.http.HttpEntity;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.web.client.RestTemplate;
+
+import com.intranet.dto.HolidayDTO;
+import com.intranet.entity.HolidayCalendarDay;
+import com.intranet.repository.HolidayCalendarRepo;
+import com.intranet.service.email.ums_corn_job_token.UmsAuthService;
+import com.intranet.util.cache.SnapshotRefresher;
+
+import io.micrometer.core.instrument.MeterRegistry;
+
+/**
+ * Local mirror of the LMS public holidays.
+ *
+ * The holidays are copied from LMS (/api/holidays/month/1..12) into
+ * holiday_calendar on app.holidays.sync-cron and on demand, and served from
+ * an in-memory {@link HolidayCalendar} that is replaced as a whole after
+ * each successful sync. A sync that fails part way, or finds no holidays at
+ * all (LMS answering with empty lists during an outage), changes nothing:
+ * the last known calendar stays in the table and in memory.
+ *
+ * Until the first sync has succeeded there is no calendar; {@link #calendar}
+ * then tries one sync with the caller's token and throws
+ * IllegalStateException if that fails too, like the LMS calls it replaces.
+ * Swapping, failure handling and metrics come from {@link SnapshotRefresher}.
+ */
+@Service
+public class HolidayCalendarService extends SnapshotRefresher<HolidayCalendar> {
+
+    private final HolidayCalendarRepo holidayCalendarRepo;
+    private final RestTemplate restTemplate;
+    private final TransactionTemplate tx;
+    private final String lmsBaseUrl;
+
+    public HolidayCalendarService(HolidayCalendarRepo holidayCalendarRepo,
+                                  RestTemplate restTemplate,
+                                  UmsAuthService umsAuthService,
+                                  PlatformTransactionManager transactionManager,
+                                  MeterRegistry meterRegistry,
+                                  @Value("${lms.api.base-url}") String lmsBaseUrl) {
+        super("Holiday calendar", HolidayCalendar.EMPTY, umsAuthService, meterRegistry, "holiday.calendar.sync");
+        this.holidayCalendarRepo = holidayCalendarRepo;
+        this.restTemplate = restTemplate;
+        this.tx = new TransactionTemplate(transactionManager);
+        this.lmsBaseUrl = lmsBaseUrl;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void load() {
+        try {
+            List<HolidayCalendarDay> days = holidayCalendarRepo.findAllByOrderByHolidayDateAsc();
+            if (!days.isEmpty()) {
+                LocalDateTime syncedAt = days.stream()
+                        .map(HolidayCalendarDay::getSyncedAt)
+                        .max(LocalDateTime::compareTo)
+                        .orElseThrow();
+                replace(HolidayCalendar.of(days, syncedAt));
+                log.info("📅 Holiday calendar loaded: {} holidays, synced {}", days.size(), syncedAt);
+            }
+        } catch (Exception e) {
+            log.warn("⚠️ Holiday calendar not loaded from the database: {}", e.getMessage());
+        }
+    }
+
+    @Scheduled(cron = "${app.holidays.sync-cron:0 30 0 * * *}")
+    public void scheduledSync() {
+        refreshWithServiceToken();
+    }
+
+    /**
+     * Reads all twelve LMS months and replaces holiday_calendar with them.
+     * Fails when any month cannot be read or LMS returned no holidays at all.
+     */
+    @Override
+    protected HolidayCalendar fetch(String authHeader, LocalDateTime now) {
+        HttpHeaders headers = new HttpHeaders();
+        if (authHeader != null && !authHeader.isBlank()) {
+            headers.set("Authorization", authHeader);
+        }
+        HttpEntity<Void> entity = new HttpEntity<>(headers);
+
+        Map<String, HolidayCalendarDay> fetched = new LinkedHashMap<>();
+        for (int month = 1; month <= 12; month++) {
+            String url = String.format("%s/api/holidays/month/%d", lmsBaseUrl, month);
+            List<HolidayDTO> holidays = Optional.ofNullable(restTemplate.exchange(
+                    url, HttpMethod.GET, entity, new ParameterizedTypeReference<List<HolidayDTO>>() {}
+            ).getBody()).orElse(List.of());
+
+            for (HolidayDTO h : holidays) {
+                if (h.getHolidayDate() != null) {
+                    fetched.putIfAbsent(h.getHolidayId() + "@" + h.getHolidayDate(), toEntity(h, now));
+                }
+            }
+        }
+        if (fetched.isEmpty()) {
+            throw new IllegalStateException("LMS returned no holidays");
+        }
+
+        List<HolidayCalendarDay> days = new ArrayList<>(fetched.values());
+        tx.executeWithoutResult(status -> {
+            holidayCalendarRepo.deleteAllInBatch();
+            holidayCalendarRepo.saveAll(days);
+        });
+        log.info("📅 Holiday calendar synced from LMS: {} holidays", days.size());
+        return HolidayCalendar.of(days, now);
+    }
+
+    /** The current calendar; syncs once if there is none yet. */
+    public HolidayCalendar calendar(String authHeader) {
+        HolidayCalendar calendar = loadedOrRefresh(authHeader);
+        if (!calendar.isLoaded()) {
+            throw new IllegalStateException("Holiday calendar is not available: LMS could not be reached");
+        }
+        return calendar;
+    }
+
+    private static HolidayCalendarDay toEntity(HolidayDTO h, LocalDateTime syncedAt) {
+        HolidayCalendarDay day = new HolidayCalendarDay();
+        day.setHolidayId(h.getHolidayId());
+        day.setHolidayDate(h.getHolidayDate());
+        day.setHolidayName(h.getHolidayName());
+        day.setHolidayDescription(h.getHolidayDescription());
+        day.setType(h.getType());
+        day.setState(h.getState());
+        day.setCountry(h.getCountry());
+        day.setSyncedAt(syncedAt);
+        return day;
+    }
+}
@@ -0,0 +1,150 @@
+package com.intranet.service.pdf;
+
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Stream;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import com.openhtmltopdf.extend.FSCacheEx;
+import com.openhtmltopdf.extend.FSCacheValue;
+import com.openhtmltopdf.extend.impl.FSDefaultCacheStore;
+import com.openhtmltopdf.pdfboxout.PdfRendererBuilder;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Single entry point for HTML → PDF rendering.
+ *
+ * - At most app.pdf.render.max-concurrent renders run at once; further
+ *   callers wait in FIFO order for up to app.pdf.render.queue-timeout-ms
+ *   and are then rejected instead of piling up on the heap.
+ * - Font metrics are cached across renders, and fonts from
+ *   app.pdf.fonts-dir (*.ttf, family = file name) are read once at startup.
+ * - The PDF is written to a file (temporary or cached) before anything is
+ *   sent, so callers never hand out a half-rendered document; no byte[]
+ *   copy is needed.
+ *
+ * Metrics: pdf.render (render time), pdf.render.queue.wait,
+ * pdf.render.active and pdf.render.waiting.
+ */
+@Slf4j
+@Service
+public class PdfRenderService {
+
+    private final Semaphore renderSlots;
+    private final long queueTimeoutMs;
+    private final FSCacheEx<String, FSCacheValue> fontMetricsCache = new FSDefaultCacheStore();
+    private final Map<String, byte[]> fonts;
+
+    private final Timer renderTimer;
+    private final Timer queueWaitTimer;
+    private final AtomicInteger active = new AtomicInteger();
+    private final AtomicInteger waiting = new AtomicInteger();
+
+    public PdfRenderService(MeterRegistry meterRegistry,
+                            @Value("${app.pdf.render.max-concurrent:4}") int maxConcurrent,
+                            @Value("${app.pdf.render.queue-timeout-ms:30000}") long queueTimeoutMs,
+                            @Value("${app.pdf.fonts-dir:}") String fontsDir) {
+        this.renderSlots = new Semaphore(Math.max(1, maxConcurrent), true);
+        this.queueTimeoutMs = queueTimeoutMs;
+        this.fonts = loadFonts(fontsDir);
+
+        this.renderTimer = Timer.builder("pdf.render")
+                .description("Time spent rendering one PDF")
+                .register(meterRegistry);
+        this.queueWaitTimer = Timer.builder("pdf.render.queue.wait")
+                .description("Time a render waited for a free slot")
+                .register(meterRegistry);
+        Gauge.builder("pdf.render.active", active, AtomicInteger::get).register(meterRegistry);
+        Gauge.builder("pdf.render.waiting", waiting, AtomicInteger::get).register(meterRegistry);
+    }
+
+    /** Renders the HTML into out. The stream is flushed, not closed. */
+    public void render(String html, OutputStream out) throws IOException {
+        acquireSlot();
+        active.incrementAndGet();
+        Timer.Sample sample = Timer.start();
+        try {
+            PdfRendererBuilder builder = newBuilder();
+            builder.withHtmlContent(html, null);
+            builder.toStream(out);
+            builder.run();
+            out.flush();
+        } finally {
+            sample.stop(renderTimer);
+            active.decrementAndGet();
+            renderSlots.release();
+        }
+    }
+
+    /** Renders to a temporary file; close the result to delete it. */
+    public RenderedPdf renderToTempFile(String html) throws IOException {
+        Path file = Files.createTempFile("report-", ".pdf");
+        try (OutputStream out = new BufferedOutputStream(Files.newOutputStream(file))) {
+            render(html, out);
+        } catch (IOException | RuntimeException e) {
+            Files.deleteIfExists(file);
+            throw e;
+        }
+        return new RenderedPdf(file, true);
+    }
+
+    private PdfRendererBuilder newBuilder() {
+        PdfRendererBuilder builder = new PdfRendererBuilder();
+        builder.useCacheStore(PdfRendererBuilder.CacheStore.PDF_FONT_METRICS, fontMetricsCache);
+        fonts.forEach((family, bytes) -> builder.useFont(() -> new ByteArrayInputStream(bytes), family));
+        return builder;
+    }
+
+    private void acquireSlot() throws IOException {
+        long start = System.nanoTime();
+        waiting.incrementAndGet();
+        try {
+            if (!renderSlots.tryAcquire(queueTimeoutMs, TimeUnit.MILLISECONDS)) {
+                throw new IOException("PDF renderer is busy, please try again shortly");
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IOException("Interrupted while waiting for the PDF renderer", e);
+        } finally {
+            waiting.decrementAndGet();
+            queueWaitTimer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        }
+    }
+
+    private static Map<String, byte[]> loadFonts(String fontsDir) {
+        Map<String, byte[]> loaded = new LinkedHashMap<>();
+        if (fontsDir == null || fontsDir.isBlank()) {
+            return loaded;
+        }
+        Path dir = Path.of(fontsDir);
+        if (!Files.isDirectory(dir)) {
+            log.warn("⚠ app.pdf.fonts-dir {} is not a directory; using built-in PDF fonts", fontsDir);
+            return loaded;
+        }
+        try (Stream<Path> files = Files.list(dir)) {
+            for (Path file : files.filter(f -> f.getFileName().toString().toLowerCase().endsWith(".ttf")).toList()) {
+                String name = file.getFileName().toString();
+                loaded.put(name.substring(0, name.length() - 4), Files.readAllBytes(file));
+            }
+        } catch (IOException e) {
+            log.warn("⚠ Could not load PDF fonts from {}: {}", fontsDir, e.getMessage());
+        }
+        log.info("🖋 Loaded {} PDF fonts from {}", loaded.size(), fontsDir);
+        return loaded;
+    }
+}
@@ -0,0 +1,50 @@
+package com.intranet.service.pdf;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import org.springframework.core.io.FileSystemResource;
+
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * A PDF on disk, so it can be attached to an email without holding the
+ * document in memory. Closing deletes a temporary file; a file owned by
+ * ReportPdfCache is left in place.
+ */
+@Slf4j
+public final class RenderedPdf implements AutoCloseable {
+
+    private final Path file;
+    private final boolean temporary;
+
+    RenderedPdf(Path file, boolean temporary) {
+        this.file = file;
+        this.temporary = temporary;
+    }
+
+    public Path path() {
+        return file;
+    }
+
+    public FileSystemResource resource() {
+        return new FileSystemResource(file);
+    }
+
+    public long size() throws IOException {
+        return Files.size(file);
+    }
+
+    @Override
+    public void close() {
+        if (!temporary) {
+            return;
+        }
+        try {
+            Files.deleteIfExists(file);
+        } catch (IOException e) {
+            log.warn("⚠ Could not delete temporary PDF {}: {}", file, e.getMessage());
+        }
+    }
+}
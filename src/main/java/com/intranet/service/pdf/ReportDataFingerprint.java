@@ -0,0 +1,70 @@
+package com.intranet.service.pdf;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.util.Arrays;
+import java.util.HexFormat;
+import java.util.List;
+
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import com.intranet.repository.TimeSheetEntryRepo;
+import com.intranet.repository.TimeSheetRepo;
+import com.intranet.repository.TimeSheetReviewRepo;
+import com.intranet.repository.WeeklyTimeSheetReviewRepo;
+
+import lombok.RequiredArgsConstructor;
+
+/**
+ * Version of the timesheet data behind a monthly report.
+ *
+ * Hashes a few aggregates (counts, id sums, hour sums, latest timestamps,
+ * per status) of the month's timesheets, entries, daily and weekly reviews.
+ * Any insert, delete, status change or hour edit changes the result, so it
+ * can key a rendered PDF without reading the rows themselves.
+ */
+@Service
+@RequiredArgsConstructor
+public class ReportDataFingerprint {
+
+    private final TimeSheetRepo timeSheetRepo;
+    private final TimeSheetEntryRepo timeSheetEntryRepo;
+    private final TimeSheetReviewRepo timeSheetReviewRepo;
+    private final WeeklyTimeSheetReviewRepo weeklyTimeSheetReviewRepo;
+
+    /** userId null = every user's data for the month. */
+    @Transactional(readOnly = true)
+    public String of(Long userId, YearMonth month) {
+        LocalDate start = month.atDay(1);
+        LocalDate end = month.atEndOfMonth();
+
+        MessageDigest digest = sha256();
+        update(digest, "timesheets", timeSheetRepo.fingerprintTimeSheets(userId, start, end));
+        update(digest, "entries", timeSheetEntryRepo.fingerprintEntries(userId, start, end));
+        update(digest, "reviews", timeSheetReviewRepo.fingerprintReviews(userId, start, end));
+        update(digest, "weekly", weeklyTimeSheetReviewRepo.fingerprintWeeklyReviews(userId, start, end));
+
+        // 128 bits is plenty to tell versions of one report apart
+        return HexFormat.of().formatHex(digest.digest(), 0, 16);
+    }
+
+    private static void update(MessageDigest digest, String section, List<Object[]> rows) {
+        StringBuilder sb = new StringBuilder(section).append('|');
+        for (Object[] row : rows) {
+            sb.append(Arrays.toString(row)).append(';');
+        }
+        digest.update(sb.toString().getBytes(StandardCharsets.UTF_8));
+    }
+
+    private static MessageDigest sha256() {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
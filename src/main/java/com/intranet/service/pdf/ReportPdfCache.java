@@ -0,0 +1,226 @@
+package com.intranet.service.pdf;
+
+import java.io.BufferedOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.attribute.FileTime;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.YearMonth;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.stream.Stream;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Rendered monthly report PDFs kept on local disk (app.pdf.cache.dir).
+ *
+ * - A file is named report type, subject, month and the
+ *   {@link ReportDataFingerprint} of that month, so a repeat download or
+ *   email of unchanged data is served from disk without building the report.
+ * - Once the timesheets or reviews change, the fingerprint changes and the
+ *   report is rendered again. The previous file of that key is removed only
+ *   after app.pdf.cache.superseded-grace-ms, since a download that started
+ *   before the re-render may still be reading it.
+ * - Only closed months (before the current one) are cached; the current
+ *   month still changes every day.
+ * - Concurrent misses for the same file render it once.
+ *
+ * The fingerprint is taken before the report is built, so a file never holds
+ * older data than its name says. Metrics: pdf.cache{result=hit|miss}.
+ */
+@Slf4j
+@Service
+public class ReportPdfCache {
+
+    public enum ReportType { USER_MONTHLY, MANAGER_MONTHLY, FINANCE_MONTHLY }
+
+    /** Builds the report HTML; only called on a cache miss. */
+    @FunctionalInterface
+    public interface HtmlSource {
+        String build() throws Exception;
+    }
+
+    private final PdfRenderService pdfRenderService;
+    private final ReportDataFingerprint fingerprint;
+    private final boolean enabled;
+    private final Path dir;
+    private final int retentionDays;
+    private final Duration supersededGrace;
+    private final ConcurrentMap<Path, CompletableFuture<Path>> inFlight = new ConcurrentHashMap<>();
+    // Older versions of a report -> when a newer one replaced them
+    private final ConcurrentMap<Path, Instant> superseded = new ConcurrentHashMap<>();
+
+    private final Counter hits;
+    private final Counter misses;
+
+    public ReportPdfCache(PdfRenderService pdfRenderService,
+                          ReportDataFingerprint fingerprint,
+                          MeterRegistry meterRegistry,
+                          @Value("${app.pdf.cache.enabled:true}") boolean enabled,
+                          @Value("${app.pdf.cache.dir:${java.io.tmpdir}/intranet-pdf-cache}") String dir,
+                          @Value("${app.pdf.cache.retention-days:90}") int retentionDays,
+                          @Value("${app.pdf.cache.superseded-grace-ms:600000}") long supersededGraceMs) {
+        this.pdfRenderService = pdfRenderService;
+        this.fingerprint = fingerprint;
+        this.enabled = enabled;
+        this.dir = Path.of(dir).toAbsolutePath().normalize();
+        this.retentionDays = retentionDays;
+        this.supersededGrace = Duration.ofMillis(Math.max(0, supersededGraceMs));
+
+        this.hits = Counter.builder("pdf.cache").tag("result", "hit")
+                .description("Report PDFs served from the disk cache")
+                .register(meterRegistry);
+        this.misses = Counter.builder("pdf.cache").tag("result", "miss")
+                .description("Report PDFs rendered because no cached file matched")
+                .register(meterRegistry);
+    }
+
+    public boolean isCacheable(int month, int year) {
+        return enabled && YearMonth.of(year, month).isBefore(YearMonth.now());
+    }
+
+    /**
+     * Cached PDF of the report, rendered first if the data changed.
+     * subjectId is the user / manager id, null for reports over everyone.
+     */
+    public Path getOrRender(ReportType type, Long subjectId, int month, int year, HtmlSource html) throws Exception {
+        YearMonth yearMonth = YearMonth.of(year, month);
+        // The user report only depends on that user's rows; the others span everyone's
+        Long dataScope = type == ReportType.USER_MONTHLY ? subjectId : null;
+        String stem = stem(type, subjectId, yearMonth);
+        Path file = dir.resolve(stem + fingerprint.of(dataScope, yearMonth) + ".pdf");
+
+        if (Files.exists(file)) {
+            hits.increment();
+            return file;
+        }
+
+        CompletableFuture<Path> mine = new CompletableFuture<>();
+        CompletableFuture<Path> running = inFlight.putIfAbsent(file, mine);
+        if (running != null) {
+            return await(running);
+        }
+        try {
+            if (!Files.exists(file)) {
+                misses.increment();
+                render(html.build(), file, stem);
+            }
+            mine.complete(file);
+            return file;
+        } catch (Exception e) {
+            mine.completeExceptionally(e);
+            throw e;
+        } finally {
+            inFlight.remove(file, mine);
+        }
+    }
+
+    /** Mail attachment: the cached file for closed months, a temporary render otherwise. */
+    public RenderedPdf attachment(ReportType type, Long subjectId, int month, int year, HtmlSource html) throws Exception {
+        if (isCacheable(month, year)) {
+            return new RenderedPdf(getOrRender(type, subjectId, month, year, html), false);
+        }
+        return pdfRenderService.renderToTempFile(html.build());
+    }
+
+    @Scheduled(cron = "${app.pdf.cache.purge-cron:0 45 3 * * *}")
+    public void purgeExpired() {
+        if (!Files.isDirectory(dir)) {
+            return;
+        }
+        FileTime cutoff = FileTime.from(Instant.now().minus(Duration.ofDays(retentionDays)));
+        int removed = 0;
+        for (Path file : list(dir, "")) {
+            try {
+                if (Files.getLastModifiedTime(file).compareTo(cutoff) < 0 && Files.deleteIfExists(file)) {
+                    removed++;
+                }
+            } catch (IOException e) {
+                log.warn("⚠ Could not purge cached PDF {}: {}", file, e.getMessage());
+            }
+        }
+        log.info("🧹 Removed {} cached report PDFs older than {} days", removed, retentionDays);
+    }
+
+    /** Deletes older report versions once their grace period is over. */
+    @Scheduled(fixedDelayString = "${app.pdf.cache.sweep-interval-ms:60000}")
+    public void removeSuperseded() {
+        Instant cutoff = Instant.now().minus(supersededGrace);
+        superseded.forEach((file, since) -> {
+            if (since.isAfter(cutoff)) {
+                return;
+            }
+            try {
+                Files.deleteIfExists(file);
+                superseded.remove(file, since);
+            } catch (IOException e) {
+                log.warn("⚠ Could not remove superseded PDF {}: {}", file, e.getMessage());
+            }
+        });
+    }
+
+    private void render(String html, Path file, String stem) throws IOException {
+        Files.createDirectories(dir);
+        Path tmp = Files.createTempFile(dir, stem, ".tmp");
+        try {
+            try (OutputStream out = new BufferedOutputStream(Files.newOutputStream(tmp))) {
+                pdfRenderService.render(html, out);
+            }
+            // Readers only ever see a complete file
+            Files.move(tmp, file, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+        } finally {
+            Files.deleteIfExists(tmp);
+        }
+
+        // Older versions of the same report are no longer served, but a
+        // response may still be sending one; removeSuperseded deletes them later
+        Instant now = Instant.now();
+        for (Path stale : list(dir, stem)) {
+            if (!stale.equals(file)) {
+                superseded.putIfAbsent(stale, now);
+            }
+        }
+        superseded.remove(file);
+    }
+
+    static String stem(ReportType type, Long subjectId, YearMonth month) {
+        return type.name().toLowerCase() + "-" + (subjectId == null ? "all" : subjectId) + "-" + month + "-";
+    }
+
+    private static List<Path> list(Path dir, String prefix) {
+        try (Stream<Path> files = Files.list(dir)) {
+            return files.filter(f -> {
+                String name = f.getFileName().toString();
+                return name.startsWith(prefix) && name.endsWith(".pdf");
+            }).toList();
+        } catch (IOException e) {
+            log.warn("⚠ Could not list PDF cache {}: {}", dir, e.getMessage());
+            return List.of();
+        }
+    }
+
+    private static Path await(CompletableFuture<Path> running) throws Exception {
+        try {
+            return running.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof Exception cause) {
+                throw cause;
+            }
+            throw e;
+        }
+    }
+}
@@ -0,0 +1,108 @@
+package com.intranet.service.pms;
+
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.function.Function;
+
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import com.intranet.config.CacheConfig;
+
+import lombok.RequiredArgsConstructor;
+
+/**
+ * Task-duration sums served to PMS, cached per project.
+ *
+ * Each project owns one bucket in taskDurationCache holding every
+ * (user set, date range) variant asked for so far. Writers call
+ * {@link #evictProjects} when entries of a project change; the bucket is
+ * dropped after commit, so the next request reads the new sums.
+ * A load that races with an eviction lands in the dropped bucket and is
+ * never served.
+ */
+@Component
+@RequiredArgsConstructor
+public class TaskDurationCache {
+
+    private static final int MAX_VARIANTS_PER_PROJECT = 100;
+
+    private final CacheManager cacheManager;
+
+    /**
+     * Cached value of every project for the given variant; missing projects
+     * are loaded together with one call to loader.
+     */
+    public <V> Map<Long, V> get(Collection<Long> projectIds, String variant,
+                                Function<Set<Long>, Map<Long, V>> loader, V empty) {
+        Map<Long, V> result = new LinkedHashMap<>();
+        Map<Long, ConcurrentMap<String, Object>> missing = new LinkedHashMap<>();
+
+        for (Long projectId : new LinkedHashSet<>(projectIds)) {
+            ConcurrentMap<String, Object> bucket = bucket(projectId);
+            @SuppressWarnings("unchecked")
+            V cached = (V) bucket.get(variant);
+            if (cached != null) {
+                result.put(projectId, cached);
+            } else {
+                missing.put(projectId, bucket);
+            }
+        }
+
+        if (!missing.isEmpty()) {
+            Map<Long, V> loaded = loader.apply(missing.keySet());
+            missing.forEach((projectId, bucket) -> {
+                V value = loaded.getOrDefault(projectId, empty);
+                if (bucket.size() >= MAX_VARIANTS_PER_PROJECT) {
+                    bucket.clear();
+                }
+                bucket.put(variant, value);
+                result.put(projectId, value);
+            });
+        }
+        return result;
+    }
+
+    /** Drops the cached sums of the projects once the current transaction commits. */
+    public void evictProjects(Collection<Long> projectIds) {
+        Set<Long> ids = new LinkedHashSet<>(projectIds);
+        ids.remove(null);
+        if (ids.isEmpty()) {
+            return;
+        }
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            evictNow(ids);
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                evictNow(ids);
+            }
+        });
+    }
+
+    private void evictNow(Set<Long> projectIds) {
+        Cache cache = cacheManager.getCache(CacheConfig.TASK_DURATION_CACHE);
+        if (cache != null) {
+            projectIds.forEach(cache::evict);
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private ConcurrentMap<String, Object> bucket(Long projectId) {
+        Cache cache = cacheManager.getCache(CacheConfig.TASK_DURATION_CACHE);
+        if (cache == null) {
+            return new ConcurrentHashMap<>();
+        }
+        return cache.get(projectId, ConcurrentHashMap::new);
+    }
+}
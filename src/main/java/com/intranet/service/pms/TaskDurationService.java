@@ -3,10 +3,18 @@ package com.intranet.service.pms;
 import java.math.BigDecimal;
 import java.time.LocalDate;
 import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.stream.Collectors;
 
 import org.springframework.stereotype.Service;
 
+import com.intranet.dto.pms.ProjectTaskDurationResponseDTO;
 import com.intranet.dto.pms.ProjectUserRequestDTO;
 import com.intranet.dto.pms.TaskDurationDTO;
 import com.intranet.dto.pms.TaskDurationResponseDTO;
@@ -19,6 +27,7 @@ import lombok.RequiredArgsConstructor;
 public class TaskDurationService {
 
     private final TimeSheetEntryRepo repository;
+    private final TaskDurationCache taskDurationCache;
 
     private String convertHoursToHHMM(BigDecimal hours) {
         int wholeHours = hours.intValue();
@@ -73,57 +82,89 @@ public class TaskDurationService {
     }
 
     public List<TaskDurationResponseDTO> getTaskDurationsForUsers(ProjectUserRequestDTO dto) {
-
-        List<TaskDurationResponseDTO> responseList = new ArrayList<>();
-
-        for (Long userId : dto.getUserIds()) {
-
-            List<Object[]> results =
-                    repository.findTaskDurationsByProjectAndUser(dto.getProjectId(), userId);
-
-            List<TaskDurationDTO> taskDurations = new ArrayList<>();
-
-            for (Object[] row : results) {
-                Long taskId = (Long) row[0];
-                BigDecimal totalHours = (BigDecimal) row[1];
-
-                String duration = convertHoursToHHMM(totalHours);
-
-                taskDurations.add(new TaskDurationDTO(taskId, duration));
-            }
-
-            responseList.add(new TaskDurationResponseDTO(userId, taskDurations));
-        }
-        return responseList;
+        return getTaskDurationsForProjects(Collections.singletonList(dto.getProjectId()), dto.getUserIds(), null, null)
+                .get(0).getUsers();
     }
 
 
     public List<TaskDurationResponseDTO> getTaskDurationsForUsersWithDateRange(ProjectUserRequestDTO dto, LocalDate startDate, LocalDate endDate) {
+        return getTaskDurationsForProjects(Collections.singletonList(dto.getProjectId()), dto.getUserIds(), startDate, endDate)
+                .get(0).getUsers();
+    }
 
-        List<TaskDurationResponseDTO> responseList = new ArrayList<>();
+    /**
+     * Task durations of every (project, user) pair, one response per project
+     * in request order and one entry per user in request order. Sums come
+     * from one grouped query for the projects not already cached.
+     * startDate/endDate are optional but must be given together.
+     */
+    public List<ProjectTaskDurationResponseDTO> getTaskDurationsForProjects(List<Long> projectIds,
+                                                                            List<Long> userIds,
+                                                                            LocalDate startDate,
+                                                                            LocalDate endDate) {
+        if (projectIds == null || projectIds.isEmpty()) {
+            throw new IllegalArgumentException("projectIds are required");
+        }
+        if (userIds == null) {
+            throw new IllegalArgumentException("userIds are required");
+        }
+        if ((startDate == null) != (endDate == null)) {
+            throw new IllegalArgumentException("startDate and endDate must be given together");
+        }
 
-        for (Long userId : dto.getUserIds()) {
+        Set<Long> distinctUsers = new TreeSet<>(userIds);
+        distinctUsers.remove(null);
 
-            List<Object[]> results =
-                    repository.findTaskDurationsByUserProjectAndDateRange(
-                            userId,
-                            dto.getProjectId(),
-                            startDate,
-                            endDate
-                    );
+        List<Long> knownProjects = projectIds.stream().filter(Objects::nonNull).toList();
 
-            List<TaskDurationDTO> taskDurations = new ArrayList<>();
+        Map<Long, Map<Long, List<TaskDurationDTO>>> byProject = distinctUsers.isEmpty() || knownProjects.isEmpty()
+                ? Map.of()
+                : taskDurationCache.get(
+                        knownProjects,
+                        variantKey(distinctUsers, startDate, endDate),
+                        missing -> loadTaskDurations(missing, distinctUsers, startDate, endDate),
+                        Map.of());
 
-            for (Object[] row : results) {
-                Long taskId = (Long) row[0];
-                BigDecimal totalHours = (BigDecimal) row[1];
+        List<ProjectTaskDurationResponseDTO> response = new ArrayList<>();
+        for (Long projectId : projectIds) {
+            Map<Long, List<TaskDurationDTO>> byUser = projectId != null
+                    ? byProject.getOrDefault(projectId, Map.of())
+                    : Map.of();
 
-                String duration = convertHoursToHHMM(totalHours);
-                taskDurations.add(new TaskDurationDTO(taskId, duration));
+            List<TaskDurationResponseDTO> users = new ArrayList<>();
+            for (Long userId : userIds) {
+                users.add(new TaskDurationResponseDTO(userId, byUser.getOrDefault(userId, List.of())));
             }
+            response.add(new ProjectTaskDurationResponseDTO(projectId, users));
+        }
+        return response;
+    }
+
+    private Map<Long, Map<Long, List<TaskDurationDTO>>> loadTaskDurations(Set<Long> projectIds,
+                                                                           Set<Long> userIds,
+                                                                           LocalDate startDate,
+                                                                           LocalDate endDate) {
+        List<Object[]> results = startDate == null
+                ? repository.findTaskDurationsByProjectsAndUsers(projectIds, userIds)
+                : repository.findTaskDurationsByProjectsAndUsersAndDateRange(projectIds, userIds, startDate, endDate);
 
-            responseList.add(new TaskDurationResponseDTO(userId, taskDurations));
+        // projectId → userId → task durations
+        Map<Long, Map<Long, List<TaskDurationDTO>>> byProject = new HashMap<>();
+        for (Object[] row : results) {
+            Long projectId = (Long) row[0];
+            Long userId = (Long) row[1];
+            Long taskId = (Long) row[2];
+            BigDecimal totalHours = row[3] != null ? (BigDecimal) row[3] : BigDecimal.ZERO;
+
+            byProject.computeIfAbsent(projectId, id -> new HashMap<>())
+                    .computeIfAbsent(userId, id -> new ArrayList<>())
+                    .add(new TaskDurationDTO(taskId, convertHoursToHHMM(totalHours)));
         }
-        return responseList;
+        return byProject;
+    }
+
+    private String variantKey(Set<Long> userIds, LocalDate startDate, LocalDate endDate) {
+        String range = startDate == null ? "all" : startDate + ".." + endDate;
+        return range + ":" + userIds.stream().map(String::valueOf).collect(Collectors.joining(","));
     }
 }
@@ -0,0 +1,181 @@
+package com.intranet.service.project;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+
+import com.intranet.util.cache.Snapshot;
+
+/**
+ * Immutable snapshot of who works on which PMS project.
+ *
+ * Built once from the ProjectDirectoryService project maps (id, name,
+ * ownerId/ownerName/ownerEmail, members[id, name, email], optional
+ * startDate/endDate) and indexed as owner -> projects, member -> projects
+ * and member -> managers, so resolving a manager's team or a member's
+ * managers is a map lookup instead of a scan of every project.
+ *
+ * Project maps are handed out read-only, in the shape the reports already use.
+ */
+public final class ProjectMembershipGraph implements Snapshot {
+
+    static final ProjectMembershipGraph EMPTY = new ProjectMembershipGraph(Map.of(), null);
+
+    private final Map<Long, Map<String, Object>> projects;
+    private final Map<Long, List<Map<String, Object>>> ownerProjects = new HashMap<>();
+    private final Map<Long, List<Map<String, Object>>> memberProjects = new HashMap<>();
+    private final Map<Long, Set<Long>> ownerMembers = new HashMap<>();
+    private final Map<Long, Set<Long>> memberManagers = new HashMap<>();
+    private final LocalDateTime syncedAt;
+
+    private ProjectMembershipGraph(Map<Long, Map<String, Object>> projects, LocalDateTime syncedAt) {
+        this.projects = projects;
+        this.syncedAt = syncedAt;
+        for (Map<String, Object> project : projects.values()) {
+            Long ownerId = idOf(project.get("ownerId"));
+            if (ownerId != null) {
+                ownerProjects.computeIfAbsent(ownerId, k -> new ArrayList<>()).add(project);
+            }
+            for (Long memberId : memberIds(project)) {
+                memberProjects.computeIfAbsent(memberId, k -> new ArrayList<>()).add(project);
+                if (ownerId != null) {
+                    ownerMembers.computeIfAbsent(ownerId, k -> new LinkedHashSet<>()).add(memberId);
+                    memberManagers.computeIfAbsent(memberId, k -> new LinkedHashSet<>()).add(ownerId);
+                }
+            }
+        }
+    }
+
+    static ProjectMembershipGraph of(Collection<Map<String, Object>> projects, LocalDateTime syncedAt) {
+        Map<Long, Map<String, Object>> byId = new LinkedHashMap<>();
+        for (Map<String, Object> project : projects) {
+            Long id = idOf(project.get("id"));
+            if (id != null) {
+                byId.put(id, readOnly(project));
+            }
+        }
+        return new ProjectMembershipGraph(Collections.unmodifiableMap(byId), syncedAt);
+    }
+
+    /**
+     * False until PMS was read once; the graph is not persisted, so every
+     * restart starts unloaded. A loaded graph may legitimately have no projects.
+     */
+    @Override
+    public boolean isLoaded() {
+        return syncedAt != null;
+    }
+
+    public Optional<Map<String, Object>> project(Long projectId) {
+        return Optional.ofNullable(projectId != null ? projects.get(projectId) : null);
+    }
+
+    /** Projects owned by the manager. */
+    public List<Map<String, Object>> projectsOwnedBy(Long ownerId) {
+        return List.copyOf(ownerProjects.getOrDefault(ownerId, List.of()));
+    }
+
+    /**
+     * Projects owned by the manager that run during [from, to]; a project
+     * without a start or end date is open on that side.
+     */
+    public List<Map<String, Object>> projectsOwnedBy(Long ownerId, LocalDate from, LocalDate to) {
+        return ownerProjects.getOrDefault(ownerId, List.of()).stream()
+                .filter(p -> activeDuring(p, from, to))
+                .toList();
+    }
+
+    /** Members of all projects owned by the manager. */
+    public Set<Long> teamOf(Long ownerId) {
+        return Collections.unmodifiableSet(ownerMembers.getOrDefault(ownerId, Set.of()));
+    }
+
+    /** Projects the user is a member of. */
+    public List<Map<String, Object>> projectsOf(Long memberId) {
+        return List.copyOf(memberProjects.getOrDefault(memberId, List.of()));
+    }
+
+    /** Owners of the projects the user is a member of. */
+    public Set<Long> managersOf(Long memberId) {
+        return Collections.unmodifiableSet(memberManagers.getOrDefault(memberId, Set.of()));
+    }
+
+    public int size() {
+        return projects.size();
+    }
+
+    @Override
+    public LocalDateTime syncedAt() {
+        return syncedAt;
+    }
+
+    /** Member ids of the given projects. */
+    public static Set<Long> memberIdsOf(Collection<Map<String, Object>> projects) {
+        Set<Long> ids = new LinkedHashSet<>();
+        for (Map<String, Object> project : projects) {
+            ids.addAll(memberIds(project));
+        }
+        return ids;
+    }
+
+    private static List<Long> memberIds(Map<String, Object> project) {
+        List<Long> ids = new ArrayList<>();
+        if (project.get("members") instanceof List<?> members) {
+            for (Object m : members) {
+                if (m instanceof Map<?, ?> member && idOf(member.get("id")) != null) {
+                    ids.add(idOf(member.get("id")));
+                }
+            }
+        }
+        return ids;
+    }
+
+    private static boolean activeDuring(Map<String, Object> project, LocalDate from, LocalDate to) {
+        LocalDate start = dateOf(project.get("startDate"));
+        LocalDate end = dateOf(project.get("endDate"));
+        return (start == null || !start.isAfter(to)) && (end == null || !end.isBefore(from));
+    }
+
+    private static LocalDate dateOf(Object value) {
+        if (value instanceof LocalDate date) {
+            return date;
+        }
+        if (value instanceof String text && text.length() >= 10) {
+            try {
+                return LocalDate.parse(text.substring(0, 10));
+            } catch (Exception e) {
+                return null;
+            }
+        }
+        return null;
+    }
+
+    private static Long idOf(Object value) {
+        return value instanceof Number n ? n.longValue() : null;
+    }
+
+    private static Map<String, Object> readOnly(Map<String, Object> project) {
+        Map<String, Object> copy = new LinkedHashMap<>(project);
+        if (project.get("members") instanceof List<?> members) {
+            List<Map<String, Object>> memberCopies = new ArrayList<>(members.size());
+            for (Object m : members) {
+                if (m instanceof Map<?, ?> member) {
+                    Map<String, Object> memberCopy = new LinkedHashMap<>();
+                    member.forEach((k, v) -> memberCopy.put(String.valueOf(k), v));
+                    memberCopies.add(Collections.unmodifiableMap(memberCopy));
+                }
+            }
+            copy.put("members", Collections.unmodifiableList(memberCopies));
+        }
+        return Collections.unmodifiableMap(copy);
+    }
+}
@@ -0,0 +1,69 @@
+package com.intranet.service.project;
+
+import java.time.LocalDateTime;
+import java.util.Map;
+
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import com.intranet.service.email.ums_corn_job_token.UmsAuthService;
+import com.intranet.util.cache.ProjectDirectoryService;
+import com.intranet.util.cache.SnapshotRefresher;
+
+import io.micrometer.core.instrument.MeterRegistry;
+
+/**
+ * Holds the current {@link ProjectMembershipGraph}.
+ *
+ * The graph is rebuilt from PMS /projects/tms every
+ * app.projects.membership.refresh-ms, on POST /api/project-info/membership/refresh,
+ * or on first use. It only lives in memory: nothing is stored, so the
+ * first {@link #graph} call after a restart waits for PMS, while
+ * {@link #current} (used off the request path) never does.
+ */
+@Service
+public class ProjectMembershipService extends SnapshotRefresher<ProjectMembershipGraph> {
+
+    private final ProjectDirectoryService projectDirectoryService;
+
+    public ProjectMembershipService(ProjectDirectoryService projectDirectoryService,
+                                    UmsAuthService umsAuthService,
+                                    MeterRegistry meterRegistry) {
+        super("Project membership", ProjectMembershipGraph.EMPTY, umsAuthService, meterRegistry,
+                "project.membership.refresh");
+        this.projectDirectoryService = projectDirectoryService;
+        meterRegistry.gauge("project.membership.projects", this, s -> s.snapshot().size());
+    }
+
+    @Scheduled(fixedDelayString = "${app.projects.membership.refresh-ms:600000}")
+    public void scheduledRefresh() {
+        refreshWithServiceToken();
+    }
+
+    /** Builds the graph from all PMS projects, uncached; fails when PMS cannot be read. */
+    @Override
+    protected ProjectMembershipGraph fetch(String authHeader, LocalDateTime now) {
+        Map<Long, Map<String, Object>> projects = projectDirectoryService.fetchAllProjectsUncached(authHeader);
+        ProjectMembershipGraph graph = ProjectMembershipGraph.of(projects.values(), now);
+        log.info("🗂️ Project membership graph built from PMS: {} projects", graph.size());
+        return graph;
+    }
+
+    /** The current graph as is, possibly {@link ProjectMembershipGraph#EMPTY}; never calls PMS. */
+    public ProjectMembershipGraph current() {
+        return snapshot();
+    }
+
+    /**
+     * The current graph; refreshes once if there is none yet.
+     *
+     * @throws IllegalStateException when no graph is available and PMS cannot be read
+     */
+    public ProjectMembershipGraph graph(String authHeader) {
+        ProjectMembershipGraph graph = loadedOrRefresh(authHeader);
+        if (!graph.isLoaded()) {
+            throw new IllegalStateException("Project membership is not available from PMS");
+        }
+        return graph;
+    }
+}
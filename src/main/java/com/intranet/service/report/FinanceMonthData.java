@@ -0,0 +1,108 @@
+package com.intranet.service.report;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import com.intranet.entity.TimeSheet;
+import com.intranet.entity.TimeSheetDailyRollup;
+import com.intranet.entity.TimeSheetProjectDailyRollup;
+import com.intranet.service.rollup.RollupDays;
+
+/**
+ * One month of non-draft daily and project rollup rows, reduced in a single
+ * pass into the totals the finance report needs: overall, per user, per
+ * project and per (project, user). Built once per report and shared by every
+ * breakdown.
+ */
+final class FinanceMonthData {
+
+    // Month-wide totals
+    BigDecimal totalHours = BigDecimal.ZERO;              // sheet hours, incl. auto-generated
+    BigDecimal billableHours = BigDecimal.ZERO;           // billable entries of manual sheets
+    BigDecimal nonBillableEntryHours = BigDecimal.ZERO;   // non-billable entries of all sheets
+    BigDecimal autoGeneratedHours = BigDecimal.ZERO;      // sheet hours of auto-generated sheets
+
+    final Map<Long, UserTotals> users = new HashMap<>();
+    final Map<Long, ProjectTotals> projects = new HashMap<>();
+
+    static final class UserTotals {
+        final Set<LocalDate> workedDates = new HashSet<>();
+        BigDecimal billableHours = BigDecimal.ZERO;              // manual sheets only
+        BigDecimal nonBillableHours = BigDecimal.ZERO;           // manual sheets only
+        BigDecimal nonBillableEntryHoursAllSheets = BigDecimal.ZERO;
+        BigDecimal autoGeneratedHours = BigDecimal.ZERO;
+    }
+
+    static final class ProjectTotals {
+        BigDecimal billableHours = BigDecimal.ZERO;
+        BigDecimal nonBillableHours = BigDecimal.ZERO;
+        final Map<Long, BigDecimal[]> byUser = new HashMap<>();   // userId → {billable, nonBillable}
+
+        BigDecimal totalHours() {
+            return billableHours.add(nonBillableHours);
+        }
+    }
+
+    private FinanceMonthData() {
+    }
+
+    static FinanceMonthData of(List<TimeSheetDailyRollup> days, List<TimeSheetProjectDailyRollup> projectDays, int year) {
+        FinanceMonthData data = new FinanceMonthData();
+        List<TimeSheetDailyRollup> kept = new ArrayList<>(days.size());
+        for (TimeSheetDailyRollup day : days) {
+            if (day.getStatus() == TimeSheet.Status.DRAFT) continue;
+            if (day.getWorkDate() == null || day.getWorkDate().getYear() != year) continue;
+            data.add(day);
+            kept.add(day);
+        }
+        RollupDays keptDays = RollupDays.of(kept);
+        for (TimeSheetProjectDailyRollup row : projectDays) {
+            TimeSheetDailyRollup day = keptDays.dayOf(row);
+            if (day != null) {
+                data.add(row, day.isAutoGenerated());
+            }
+        }
+        return data;
+    }
+
+    private void add(TimeSheetDailyRollup day) {
+        UserTotals user = users.computeIfAbsent(day.getUserId(), id -> new UserTotals());
+
+        totalHours = totalHours.add(day.getSheetHours());
+        if (day.isAutoGenerated()) {
+            autoGeneratedHours = autoGeneratedHours.add(day.getSheetHours());
+            user.autoGeneratedHours = user.autoGeneratedHours.add(day.getSheetHours());
+        } else {
+            user.workedDates.add(day.getWorkDate());
+        }
+    }
+
+    private void add(TimeSheetProjectDailyRollup row, boolean auto) {
+        UserTotals user = users.get(row.getUserId());
+        BigDecimal billable = row.getBillableHours();
+        BigDecimal nonBillable = row.getNonBillableHours();
+
+        nonBillableEntryHours = nonBillableEntryHours.add(nonBillable);
+        user.nonBillableEntryHoursAllSheets = user.nonBillableEntryHoursAllSheets.add(nonBillable);
+        if (auto) return;
+
+        billableHours = billableHours.add(billable);
+        user.billableHours = user.billableHours.add(billable);
+        user.nonBillableHours = user.nonBillableHours.add(nonBillable);
+
+        if (row.getProjectId() == null) return;
+        ProjectTotals project = projects.computeIfAbsent(row.getProjectId(), id -> new ProjectTotals());
+        BigDecimal[] userHours = project.byUser.computeIfAbsent(row.getUserId(),
+                id -> new BigDecimal[] {BigDecimal.ZERO, BigDecimal.ZERO});
+        project.billableHours = project.billableHours.add(billable);
+        project.nonBillableHours = project.nonBillableHours.add(nonBillable);
+        userHours[0] = userHours[0].add(billable);
+        userHours[1] = userHours[1].add(nonBillable);
+    }
+}
@@ -3,8 +3,8 @@ package com.intranet.service.report;
 import java.math.BigDecimal;
 import java.math.RoundingMode;
 import java.time.DayOfWeek;
-import java.time.Duration;
 import java.time.LocalDate;
+import java.time.YearMonth;
 import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.HashSet;
@@ -12,26 +12,30 @@ import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.CompletableFuture;
 import java.util.stream.Collectors;
 
 import org.springframework.beans.factory.annotation.Value;
-import org.springframework.core.ParameterizedTypeReference;
-import org.springframework.http.HttpEntity;
-import org.springframework.http.HttpHeaders;
-import org.springframework.http.HttpMethod;
-import org.springframework.http.ResponseEntity;
 import org.springframework.stereotype.Service;
-import org.springframework.web.client.RestTemplate;
 
 import com.intranet.entity.TimeSheet;
-import com.intranet.entity.TimeSheetEntry;
+import com.intranet.entity.TimeSheetDailyRollup;
+import com.intranet.entity.TimeSheetProjectDailyRollup;
 import com.intranet.entity.TimeSheetReview;
 import com.intranet.entity.WeeklyTimeSheetReview;
-import com.intranet.repository.TimeSheetRepo;
+import com.intranet.repository.TimeSheetDailyRollupRepo;
+import com.intranet.repository.TimeSheetProjectDailyRollupRepo;
 import com.intranet.repository.TimeSheetReviewRepo;
 import com.intranet.repository.WeeklyTimeSheetReviewRepo;
+import com.intranet.service.directory.UserDirectoryIndex;
+import com.intranet.service.project.ProjectMembershipGraph;
+import com.intranet.service.project.ProjectMembershipService;
+import com.intranet.service.rollup.RollupDays;
+import com.intranet.service.rollup.TimeSheetRollupService;
+import com.intranet.util.cache.UserDirectoryService;
 import com.intranet.service.HolidayExcludeUsersService;
 import com.intranet.service.external.ManagerWeeklySummaryService;
+import com.intranet.util.UpstreamCalls;
 
 import lombok.RequiredArgsConstructor;
 
@@ -43,20 +47,15 @@ public class ManagerMonthlyReportService {
      int expectedBaseHours; // 22 working days × 8 hours
     
 
-    private final TimeSheetRepo timeSheetRepo;
+    private final TimeSheetDailyRollupRepo dailyRollupRepo;
+    private final TimeSheetProjectDailyRollupRepo projectRollupRepo;
     private final TimeSheetReviewRepo timeSheetReviewRepo;
     private final WeeklyTimeSheetReviewRepo weeklyReviewRepo;
+    private final UserDirectoryService userDirectoryService;
     private final ManagerWeeklySummaryService managerWeeklySummaryService;
     private final HolidayExcludeUsersService holidayExcludeUsersService;
-
-    @Value("${pms.api.base-url}")
-    private String pmsBaseUrl;
-
-    @Value("${ums.api.base-url}")
-    private String umsBaseUrl;
-
-
-    private final RestTemplate restTemplate = new RestTemplate();
+    private final UpstreamCalls upstreamCalls;
+    private final ProjectMembershipService projectMembershipService;
 
     public Map<String, Object> generateManagerMonthlyReport(
             Long managerId,
@@ -68,115 +67,53 @@ public class ManagerMonthlyReportService {
             String authHeader
     ) {
 
-        HttpHeaders headers = new HttpHeaders();
-        headers.set("Authorization", authHeader);
-        HttpEntity<Void> entity = new HttpEntity<>(headers);
+        // LMS holidays do not depend on the projects; start them now
+        CompletableFuture<List<LocalDate>> holidaysCall = upstreamCalls.required(
+                "lms", "holidays", () -> holidayExcludeUsersService.getUserHolidayDates(month));
 
         // ------------------------------
-        // 1️⃣ Fetch Manager Projects
+        // 1️⃣ Manager Projects running in the month, from the project membership graph
         // ------------------------------
-
-        String formattedMonth = String.format("%02d", month);
-        String url = pmsBaseUrl + "/projects/owner/period?month=" + formattedMonth + "&year=" + year;
-
-        ResponseEntity<List<Map<String, Object>>> response = restTemplate.exchange(
-                url,
-                HttpMethod.GET,
-                entity,
-                new ParameterizedTypeReference<List<Map<String, Object>>>() {}
-        );
-
-        List<Map<String, Object>> projects = response.getBody();
-        if (projects == null || projects.isEmpty()) {
+        YearMonth period = YearMonth.of(year, month);
+        ProjectMembershipGraph membership = projectMembershipService.graph(authHeader);
+        List<Map<String, Object>> projects =
+                membership.projectsOwnedBy(managerId, period.atDay(1), period.atEndOfMonth());
+        if (projects.isEmpty()) {
             return emptySummary(startDate, endDate, managerName);
         }
-        // Count unique project IDs
-        Set<Long> projectIds = projects.stream()
-                .map(p -> ((Number) p.get("id")).longValue())
-                .collect(Collectors.toSet());
-
-        int uniqueProjectCount = projectIds.size();
-        // Collect memberIds
-        Set<Long> memberIds = new HashSet<>();
-        for (Map<String, Object> p : projects) {
-            List<Map<String, Object>> members =
-                    (List<Map<String, Object>>) p.get("members");
-
-            if (members != null) {
-                for (Map<String, Object> m : members) {
-                    Number idNum = (Number) m.get("id");
-                    if (idNum != null) {
-                        memberIds.add(idNum.longValue());
-                    }
-                }
-            }
-        }
+        int uniqueProjectCount = projects.size();
+        Set<Long> memberIds = ProjectMembershipGraph.memberIdsOf(projects);
 
         if (memberIds.isEmpty()) {
             return emptySummary(startDate, endDate, managerName);
         }
 
         // ------------------------------   
-        // 2️⃣ Load UMS Users (names + emails)
+        // 2️⃣ UMS Users (names + emails) from the local user directory
         // ------------------------------
+        UserDirectoryIndex userDirectory = userDirectoryService.directory(authHeader);
         Map<Long, String> nameCache = new HashMap<>();
         Map<Long, String> emailCache = new HashMap<>();
-
-        try {
-            String umsUrl = umsBaseUrl + "/admin/users?page=1&limit=500";
-
-            ResponseEntity<Map<String, Object>> umsResponse = restTemplate.exchange(
-                    umsUrl,
-                    HttpMethod.GET,
-                    entity,
-                    new ParameterizedTypeReference<Map<String, Object>>() {}
-            );
-
-            Map<String, Object> body = umsResponse.getBody();
-            if (body != null) {
-                List<Map<String, Object>> users =
-                        (List<Map<String, Object>>) body.get("users");
-
-                if (users != null) {
-                    for (Map<String, Object> u : users) {
-
-                        Number idNum = (Number) u.get("user_id");
-                        if (idNum == null) continue;
-
-                        Long id = idNum.longValue();
-                        String fn = (String) u.getOrDefault("first_name", "");
-                        String ln = (String) u.getOrDefault("last_name", "");
-                        String email = (String) u.getOrDefault("mail", "unknown@example.com");
-
-                        nameCache.put(id, (fn + " " + ln).trim());
-                        emailCache.put(id, email);
-                    }
-                }
-            }
-
-        } catch (Exception ignore) {}
-
-        // Defaults
         for (Long id : memberIds) {
-            if (!nameCache.containsKey(id)) nameCache.put(id, "Unknown");
-            if (!emailCache.containsKey(id)) emailCache.put(id, "unknown@example.com");
+            nameCache.put(id, userDirectory.name(id, "Unknown"));
+            emailCache.put(id, userDirectory.email(id, "unknown@example.com"));
         }
 
         // ------------------------------
-        // 3️⃣ Fetch timesheets
+        // 3️⃣ Fetch daily + project rollups of the members (one row per sheet / sheet and project)
         // ------------------------------
-        List<TimeSheet> sheets = timeSheetRepo
+        List<TimeSheetDailyRollup> sheets = dailyRollupRepo
                 .findByUserIdInAndWorkDateBetween(memberIds, startDate, endDate);
 
         sheets = sheets.stream()
                 .filter(ts -> ts.getStatus() != TimeSheet.Status.DRAFT)
                 .collect(Collectors.toList());
 
-        List<TimeSheetEntry> entries =
-                sheets.stream().flatMap(s -> s.getEntries().stream()).collect(Collectors.toList());
+        List<TimeSheetProjectDailyRollup> entries = RollupDays.of(sheets)
+                .keep(projectRollupRepo.findByUserIdInAndWorkDateBetween(memberIds, startDate, endDate));
 
         
-        BigDecimal billableHours = sumBillableHours(entries);
+        BigDecimal billableHours = sumBillableHours(sheets);
         BigDecimal nonBillableHours = calculateNonBillableHours(entries);
         BigDecimal autoGeneratedHours = calculateAutoGeneratedHours(sheets);
         BigDecimal billable_autogen=nonBillableHours.add(autoGeneratedHours);
@@ -188,10 +125,8 @@ public class ManagerMonthlyReportService {
                         .multiply(BigDecimal.valueOf(100)).doubleValue();
 
         // ✅ Step 1: Get holiday dates for users to exclude
-        List<LocalDate> holidayDates = holidayExcludeUsersService.getUserHolidayDates(month);
-
         // ✅ Step 2: Filter to only include holidays from this year
-        holidayDates = holidayDates.stream()
+        List<LocalDate> holidayDates = UpstreamCalls.await(holidaysCall).stream()
                 .filter(date -> date != null && date.getYear() == year)
                 .toList();
 
@@ -214,7 +149,7 @@ public class ManagerMonthlyReportService {
         // ------------------------------
         // 8️⃣ Project Breakdown
         List<Map<String, Object>> projectBreakdown =
-                generateProjectBreakdown(sheets, projects, nameCache);
+                generateProjectBreakdown(entries, projects, nameCache);
 
         // ------------------------------
         // 9️⃣ Project Hours Breakdown
@@ -299,32 +234,25 @@ public class ManagerMonthlyReportService {
     // HOURS CALCULATIONS
     // ------------------------------
 
-    private BigDecimal sumBillableHours(List<TimeSheetEntry> entries) {
+    // Per-entry from/to durations in hours.minutes form, summed per day by the rollup
+    private BigDecimal sumBillableHours(List<TimeSheetDailyRollup> sheets) {
         BigDecimal sum = BigDecimal.ZERO;
-        for (TimeSheetEntry e : entries) {
-            if (e.isBillable()) {
-                sum = sum.add(convert(e));
-            }
+        for (TimeSheetDailyRollup s : sheets) {
+            sum = sum.add(s.getBillableClockHours());
         }
         return sum;
     }
 
-    private BigDecimal convert(TimeSheetEntry e) {
-        if (e.getFromTime() == null || e.getToTime() == null) return BigDecimal.ZERO;
-
-        long mins = Duration.between(e.getFromTime(), e.getToTime()).toMinutes();
-        return new BigDecimal(String.format("%d.%02d", mins / 60, mins % 60));
-    }
-
     // ------------------------------
     // PENDING APPROVAL LOGIC
     // ------------------------------
     private Map<String, Object> computePending(
-            List<TimeSheet> sheets, Long managerId, Map<Long, String> names) {
+            List<TimeSheetDailyRollup> sheets, Long managerId, Map<Long, String> names) {
 
         List<Map<String, Object>> userList = new ArrayList<>();
 
-        List<TimeSheet> relevant = sheets.stream()
+        List<TimeSheetDailyRollup> relevant = sheets.stream()
+                .filter(t -> t.getWeekInfoId() != null)
                 .filter(t ->
                         "SUBMITTED".equals(t.getStatus().name()) ||
                         "PARTIALLY_APPROVED".equals(t.getStatus().name()))
@@ -338,7 +266,7 @@ public class ManagerMonthlyReportService {
         }
 
         Set<Long> weekIds = relevant.stream()
-                .map(t -> t.getWeekInfo().getId())
+                .map(TimeSheetDailyRollup::getWeekInfoId)
                 .collect(Collectors.toSet());
 
         List<TimeSheetReview> reviews =
@@ -352,11 +280,11 @@ public class ManagerMonthlyReportService {
                 .collect(Collectors.toSet());
 
         Map<Long, Set<Long>> pending = new HashMap<>();
-        for (TimeSheet ts : relevant) {
-            String key = ts.getUserId() + "-" + ts.getWeekInfo().getId();
+        for (TimeSheetDailyRollup ts : relevant) {
+            String key = ts.getUserId() + "-" + ts.getWeekInfoId();
             if (!reviewedKeys.contains(key)) {
                 pending.computeIfAbsent(ts.getUserId(), k -> new HashSet<>())
-                        .add(ts.getWeekInfo().getId());
+                        .add(ts.getWeekInfoId());
             }
         }
 
@@ -415,7 +343,7 @@ public class ManagerMonthlyReportService {
     // ------------------------------
     // WEEKLY SUMMARY
     // ------------------------------
-    private Map<String, BigDecimal> weeklySummary(List<TimeSheet> sheets) {
+    private Map<String, BigDecimal> weeklySummary(List<TimeSheetDailyRollup> sheets) {
 
         Map<String, BigDecimal> result = new LinkedHashMap<>();
 
@@ -423,18 +351,13 @@ public class ManagerMonthlyReportService {
             // if (d == DayOfWeek.SUNDAY) continue;
 
             long mins = 0;
-            for (TimeSheet s : sheets) {
-                if (s.getWorkDate().getDayOfWeek() == d) {
-                    for (TimeSheetEntry e : s.getEntries()) {
-                        if (e.getFromTime() != null && e.getToTime() != null) {
-                            mins += Duration.between(e.getFromTime(), e.getToTime()).toMinutes();
-                        }
-                    }
+            for (TimeSheetDailyRollup s : sheets) {
+                if (s.getWorkDate().getDayOfWeek() == d && s.getEntryMinutes() != null) {
+                    mins += s.getEntryMinutes();
                 }
             }
 
-            result.put(d.name(),
-                    new BigDecimal(String.format("%d.%02d", mins / 60, mins % 60)));
+            result.put(d.name(), TimeSheetRollupService.clockHours(mins));
         }
 
         return result;
@@ -479,44 +402,35 @@ public class ManagerMonthlyReportService {
 
         return map;
     }
-    private BigDecimal calculateNonBillableHours(List<TimeSheetEntry> entries) {
+    private BigDecimal calculateNonBillableHours(List<TimeSheetProjectDailyRollup> entries) {
     BigDecimal total = BigDecimal.ZERO;
 
-    for (TimeSheetEntry entry : entries) {
-        if (!entry.isBillable() && entry.getHoursWorked() != null) {
-            total = total.add(entry.getHoursWorked());
-        }
+    for (TimeSheetProjectDailyRollup entry : entries) {
+        total = total.add(entry.getNonBillableHours());
     }
 
     return total;
     }
 
-    private BigDecimal calculateAutoGeneratedHours(List<TimeSheet> sheets) {
+    private BigDecimal calculateAutoGeneratedHours(List<TimeSheetDailyRollup> sheets) {
         BigDecimal total = BigDecimal.ZERO;
 
-        for (TimeSheet sheet : sheets) {
-            if (sheet.getAutoGenerated()) {  // or getAutoGenerated() if Boolean
-                total = total.add(
-                        sheet.getHoursWorked() != null ? sheet.getHoursWorked() : BigDecimal.ZERO
-                );
+        for (TimeSheetDailyRollup sheet : sheets) {
+            if (sheet.isAutoGenerated()) {
+                total = total.add(sheet.getSheetHours());
             }
         }
 
         return total;
     }
         private List<Map<String, Object>> generateProjectBreakdown(
-            List<TimeSheet> sheets,
+            List<TimeSheetProjectDailyRollup> allEntries,
             List<Map<String, Object>> projects,
             Map<Long, String> nameCache
         ) {
 
             List<Map<String, Object>> breakdownList = new ArrayList<>();
 
-            // Flatten all entries once
-            List<TimeSheetEntry> allEntries = sheets.stream()
-                    .flatMap(s -> s.getEntries().stream())
-                    .collect(Collectors.toList());
-
             for (Map<String, Object> project : projects) {
 
                 Long projectId = ((Number) project.get("id")).longValue();
@@ -530,10 +444,10 @@ public class ManagerMonthlyReportService {
                 BigDecimal billable = BigDecimal.ZERO;
                 BigDecimal nonBillable = BigDecimal.ZERO;
 
-                for (TimeSheetEntry e : allEntries) {
+                for (TimeSheetProjectDailyRollup e : allEntries) {
                     if (e.getProjectId() != null && e.getProjectId().equals(projectId)) {
-                        if (e.isBillable()) billable = billable.add(e.getHoursWorked() != null ? e.getHoursWorked() : BigDecimal.ZERO);
-                        else nonBillable = nonBillable.add(e.getHoursWorked() != null ? e.getHoursWorked() : BigDecimal.ZERO);
+                        billable = billable.add(e.getBillableHours());
+                        nonBillable = nonBillable.add(e.getNonBillableHours());
                     }
                 }
 
@@ -559,15 +473,13 @@ public class ManagerMonthlyReportService {
                     BigDecimal userNonBill = BigDecimal.ZERO;
 
                     // Filter entries per user & project
-                    for (TimeSheetEntry e : allEntries) {
+                    for (TimeSheetProjectDailyRollup e : allEntries) {
                         if (e.getProjectId() != null &&
                             e.getProjectId().equals(projectId) &&
-                            e.getTimeSheet().getUserId().equals(userId)) {
-
-                            BigDecimal hrs = e.getHoursWorked() != null ? e.getHoursWorked() : BigDecimal.ZERO;
+                            e.getUserId().equals(userId)) {
 
-                            if (e.isBillable()) userBill = userBill.add(hrs);
-                            else userNonBill = userNonBill.add(hrs);
+                            userBill = userBill.add(e.getBillableHours());
+                            userNonBill = userNonBill.add(e.getNonBillableHours());
                         }
                     }
 
@@ -616,7 +528,7 @@ public class ManagerMonthlyReportService {
         }
         private Map<String, Object> generateProjectHoursBreakdown(
             List<Map<String, Object>> projects,
-            List<TimeSheetEntry> allEntries
+            List<TimeSheetProjectDailyRollup> allEntries
     ) {
 
         List<Map<String, Object>> projectBreakdownList = new ArrayList<>();
@@ -632,19 +544,17 @@ public class ManagerMonthlyReportService {
             String projectName = (String) project.get("name");
 
             // Filter entries for this project
-            List<TimeSheetEntry> projectEntries = allEntries.stream()
+            List<TimeSheetProjectDailyRollup> projectEntries = allEntries.stream()
                     .filter(e -> e.getProjectId() != null && e.getProjectId().equals(projectId))
                     .collect(Collectors.toList());
 
             // Calculate billable / non-billable
             BigDecimal billable = projectEntries.stream()
-                    .filter(TimeSheetEntry::isBillable)
-                    .map(e -> e.getHoursWorked() == null ? BigDecimal.ZERO : e.getHoursWorked())
+                    .map(TimeSheetProjectDailyRollup::getBillableHours)
                     .reduce(BigDecimal.ZERO, BigDecimal::add);
 
             BigDecimal nonBillable = projectEntries.stream()
-                    .filter(e -> !e.isBillable())
-                    .map(e -> e.getHoursWorked() == null ? BigDecimal.ZERO : e.getHoursWorked())
+                    .map(TimeSheetProjectDailyRollup::getNonBillableHours)
                     .reduce(BigDecimal.ZERO, BigDecimal::add);
 
             BigDecimal total = billable.add(nonBillable);
@@ -737,16 +647,14 @@ public class ManagerMonthlyReportService {
 
     return result;
     }
-    private Map<Long, BigDecimal> generateMemberHours(List<TimeSheet> sheets) {
+    private Map<Long, BigDecimal> generateMemberHours(List<TimeSheetDailyRollup> sheets) {
 
     Map<Long, BigDecimal> memberHours = new HashMap<>();
 
-    for (TimeSheet sheet : sheets) {
+    for (TimeSheetDailyRollup sheet : sheets) {
         Long userId = sheet.getUserId();
 
-        BigDecimal hrs = sheet.getHoursWorked() == null
-                ? BigDecimal.ZERO
-                : sheet.getHoursWorked();
+        BigDecimal hrs = sheet.getSheetHours();
 
         memberHours.put(userId,
                 memberHours.getOrDefault(userId, BigDecimal.ZERO).add(hrs));
@@ -888,27 +796,23 @@ public class ManagerMonthlyReportService {
     return result;
     }
     private Map<String, Object> generateBillableContribution(
-        List<TimeSheetEntry> entries,
+        List<TimeSheetProjectDailyRollup> entries,
         Map<Long, String> nameCache) {
 
     Map<String, Object> result = new LinkedHashMap<>();
 
     // Total billable hours
     BigDecimal totalBillable = entries.stream()
-            .filter(TimeSheetEntry::isBillable)
-            .map(e -> e.getHoursWorked() == null ? BigDecimal.ZERO : e.getHoursWorked())
+            .map(TimeSheetProjectDailyRollup::getBillableHours)
             .reduce(BigDecimal.ZERO, BigDecimal::add);
 
     List<Map<String, Object>> members = new ArrayList<>();
 
     // Group billable hours by user
     Map<Long, BigDecimal> userBill = new HashMap<>();
-    for (TimeSheetEntry e : entries) {
-        if (e.isBillable()) {
-            Long uid = e.getTimeSheet().getUserId();
-            BigDecimal hrs = e.getHoursWorked() == null ? BigDecimal.ZERO : e.getHoursWorked();
-            userBill.put(uid, userBill.getOrDefault(uid, BigDecimal.ZERO).add(hrs));
-        }
+    for (TimeSheetProjectDailyRollup e : entries) {
+        Long uid = e.getUserId();
+        userBill.put(uid, userBill.getOrDefault(uid, BigDecimal.ZERO).add(e.getBillableHours()));
     }
 
     // Build user list (only users with >0 hours)
@@ -937,26 +841,22 @@ public class ManagerMonthlyReportService {
     return result;
     }
     private Map<String, Object> generateNonBillableContribution(
-        List<TimeSheetEntry> entries,
+        List<TimeSheetProjectDailyRollup> entries,
         Map<Long, String> nameCache) {
 
     Map<String, Object> result = new LinkedHashMap<>();
 
     // Total non-billable hours
     BigDecimal totalNonBillable = entries.stream()
-            .filter(e -> !e.isBillable())
-            .map(e -> e.getHoursWorked() == null ? BigDecimal.ZERO : e.getHoursWorked())
+            .map(TimeSheetProjectDailyRollup::getNonBillableHours)
             .reduce(BigDecimal.ZERO, BigDecimal::add);
 
     List<Map<String, Object>> members = new ArrayList<>();
     Map<Long, BigDecimal> userNonBill = new HashMap<>();
 
-    for (TimeSheetEntry e : entries) {
-        if (!e.isBillable()) {
-            Long uid = e.getTimeSheet().getUserId();
-            BigDecimal hrs = e.getHoursWorked() == null ? BigDecimal.ZERO : e.getHoursWorked();
-            userNonBill.put(uid, userNonBill.getOrDefault(uid, BigDecimal.ZERO).add(hrs));
-        }
+    for (TimeSheetProjectDailyRollup e : entries) {
+        Long uid = e.getUserId();
+        userNonBill.put(uid, userNonBill.getOrDefault(uid, BigDecimal.ZERO).add(e.getNonBillableHours()));
     }
 
     for (Map.Entry<Long, BigDecimal> entry : userNonBill.entrySet()) {
@@ -984,24 +884,24 @@ public class ManagerMonthlyReportService {
     return result;
     }
     private Map<String, Object> generateAutoGeneratedContribution(
-        List<TimeSheet> sheets,
+        List<TimeSheetDailyRollup> sheets,
         Map<Long, String> nameCache) {
 
     Map<String, Object> result = new LinkedHashMap<>();
 
     // Total auto-generated hours
     BigDecimal totalAuto = sheets.stream()
-            .filter(TimeSheet::getAutoGenerated)
-            .map(ts -> ts.getHoursWorked() == null ? BigDecimal.ZERO : ts.getHoursWorked())
+            .filter(TimeSheetDailyRollup::isAutoGenerated)
+            .map(TimeSheetDailyRollup::getSheetHours)
             .reduce(BigDecimal.ZERO, BigDecimal::add);
 
     List<Map<String, Object>> members = new ArrayList<>();
     Map<Long, BigDecimal> userAuto = new HashMap<>();
 
-    for (TimeSheet sheet : sheets) {
-        if (sheet.getAutoGenerated()) {
+    for (TimeSheetDailyRollup sheet : sheets) {
+        if (sheet.isAutoGenerated()) {
             Long uid = sheet.getUserId();
-            BigDecimal hrs = sheet.getHoursWorked() == null ? BigDecimal.ZERO : sheet.getHoursWorked();
+            BigDecimal hrs = sheet.getSheetHours();
             userAuto.put(uid, userAuto.getOrDefault(uid, BigDecimal.ZERO).add(hrs));
         }
     }
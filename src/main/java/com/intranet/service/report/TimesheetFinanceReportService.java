@@ -9,9 +9,8 @@ import java.util.HashMap;
 import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
-import java.util.Objects;
 import java.util.Optional;
-import java.util.Set;
+import java.util.concurrent.CompletableFuture;
 import java.util.stream.Collectors;
 
 import org.springframework.beans.factory.annotation.Value;
@@ -21,13 +20,15 @@ import org.springframework.stereotype.Service;
 import org.springframework.web.context.request.RequestContextHolder;
 import org.springframework.web.context.request.ServletRequestAttributes;
 
-import com.intranet.dto.lms.LeaveDTO;
-import com.intranet.dto.lms.UserLeaveBreakdown;
 import com.intranet.entity.TimeSheet;
 import com.intranet.entity.TimeSheetEntry;
+import com.intranet.repository.TimeSheetDailyRollupRepo;
+import com.intranet.repository.TimeSheetProjectDailyRollupRepo;
 import com.intranet.repository.TimeSheetRepo;
 import com.intranet.service.HolidayExcludeUsersService;
+import com.intranet.util.UpstreamCalls;
 import com.intranet.util.cache.LeaveDirectoryService;
+import com.intranet.util.cache.LeaveMonthIndex;
 import com.intranet.util.cache.ProjectDirectoryService;
 import com.intranet.util.cache.UserDirectoryService;
 
@@ -45,10 +46,13 @@ public class TimesheetFinanceReportService {
      int expectedBaseHours; // 22 working days × 8 hours
 
     private final TimeSheetRepo timeSheetRepo;
+    private final TimeSheetDailyRollupRepo dailyRollupRepo;
+    private final TimeSheetProjectDailyRollupRepo projectRollupRepo;
     private final HolidayExcludeUsersService holidayExcludeUsersService;
     private final UserDirectoryService userDirectoryService;
     private final ProjectDirectoryService projectDirectoryService;
     private final LeaveDirectoryService leaveDirectoryService;
+    private final UpstreamCalls upstreamCalls;
 
     // ✅ Authorization header builder
     private HttpEntity<Void> buildEntityWithAuth() {
@@ -73,68 +77,55 @@ public class TimesheetFinanceReportService {
         // Step 4️⃣: Get Auth Header and Fetch User Info Cache
         HttpEntity<Void> entity = buildEntityWithAuth();
         String authHeader = entity.getHeaders().getFirst("Authorization");
-        Map<Long, Map<String, Object>> allUsers = userDirectoryService.fetchAllUsers(authHeader);
-        Map<Long, Map<String, Object>> projectDirectory =
-                projectDirectoryService.fetchAllProjects(authHeader);
-        
+        return buildFinanceReport(month, year, authHeader);
+    }
 
-        // ✅ Step 1: Get holiday dates for users to exclude
-        List<LocalDate> holidayDates = holidayExcludeUsersService.getUserHolidayDates(month);
+    public Map<String, Object> getTimesheetFinanceReportAutoEmail(int month, int year, String authHeader) {
+        return buildFinanceReport(month, year, authHeader);
+    }
 
-        // ✅ Step 2: Filter to only include holidays from this year
-        holidayDates = holidayDates.stream()
-                .filter(date -> date != null && date.getYear() == year)
-                .toList();
+    private Map<String, Object> buildFinanceReport(int month, int year, String authHeader) {
+
+        // ✅ Step 0: Start the independent UMS / PMS / LMS calls; the DB load below runs meanwhile
+        CompletableFuture<Map<Long, Map<String, Object>>> usersCall = upstreamCalls.optional(
+                "ums", "users", () -> userDirectoryService.fetchAllUsers(authHeader), Map.of());
+        CompletableFuture<Map<Long, Map<String, Object>>> projectsCall = upstreamCalls.optional(
+                "pms", "projects", () -> projectDirectoryService.fetchAllProjects(authHeader), Map.of());
+        CompletableFuture<List<LocalDate>> holidaysCall = upstreamCalls.required(
+                "lms", "holidays", () -> holidayExcludeUsersService.getUserHolidayDates(month));
+        CompletableFuture<LeaveMonthIndex> leavesCall = upstreamCalls.required(
+                "lms", "leaves", () -> leaveDirectoryService.fetchLeaveIndex(year, month, authHeader));
 
         // ✅ Step 2: Define current month range
         LocalDate firstDay = LocalDate.of(year, month, 1);
         LocalDate lastDay = firstDay.withDayOfMonth(firstDay.lengthOfMonth());
         int totalDaysInMonth = firstDay.lengthOfMonth();
 
+        // ✅ Step 4: Load the month's daily + project rollups once and reduce them in one pass
+        FinanceMonthData data = FinanceMonthData.of(
+                dailyRollupRepo.findByWorkDateBetween(firstDay, lastDay),
+                projectRollupRepo.findByWorkDateBetween(firstDay, lastDay), year);
+
+        Map<Long, Map<String, Object>> allUsers = UpstreamCalls.await(usersCall);
+        Map<Long, Map<String, Object>> projectDirectory = UpstreamCalls.await(projectsCall);
+
+        // ✅ Step 1: Holiday dates for users to exclude, only those from this year
+        List<LocalDate> holidayDates = UpstreamCalls.await(holidaysCall).stream()
+                .filter(date -> date != null && date.getYear() == year)
+                .toList();
+
         // ✅ Calculate working days
         int totalWorkingDays = totalDaysInMonth - holidayDates.size();
-        
-        // ✅ Step 4: Fetch all timesheets for this month and year (exclude DRAFT)
-        List<TimeSheet> allTimeSheets = timeSheetRepo.findByWorkDateBetween(firstDay, lastDay)
-                .stream()
-                .filter(ts -> ts.getStatus() != TimeSheet.Status.DRAFT)
-                .collect(Collectors.toList());
-
-        // ✅ Step 5: Filter strictly by same year (safety check)
-        List<TimeSheet> currentYearTimeSheets = allTimeSheets.stream()
-                .filter(ts -> ts.getWorkDate() != null && ts.getWorkDate().getYear() == year)
-                .toList();
 
-         // ✅ Step 6: Calculate total hours (include auto-generated)
-        BigDecimal totalHours = currentYearTimeSheets.stream()
-                .map(TimeSheet::getHoursWorked)
-                .filter(h -> h != null)
-                .reduce(BigDecimal.ZERO, BigDecimal::add);
+         // ✅ Step 6: Total hours (include auto-generated)
+        BigDecimal totalHours = data.totalHours;
 
         // ✅ Step 7: Total Billable Hours (exclude auto-generated)
-        BigDecimal totalBillableHours = currentYearTimeSheets.stream()
-                .filter(ts -> !ts.getAutoGenerated()) // exclude system-generated
-                .flatMap(ts -> ts.getEntries().stream())
-                .filter(TimeSheetEntry::isBillable)
-                .map(TimeSheetEntry::getHoursWorked)
-                .filter(h -> h != null)
-                .reduce(BigDecimal.ZERO, BigDecimal::add);
+        BigDecimal totalBillableHours = data.billableHours;
 
         // ✅ Step 8: Total Non-Billable Hours (include auto-generated + non-billable entries)
-        BigDecimal nonBillableFromEntries = currentYearTimeSheets.stream()
-                .flatMap(ts -> ts.getEntries().stream())
-                .filter(e -> !e.isBillable())
-                .map(TimeSheetEntry::getHoursWorked)
-                .filter(h -> h != null)
-                .reduce(BigDecimal.ZERO, BigDecimal::add);
-
-        BigDecimal autoGeneratedHours = currentYearTimeSheets.stream()
-                .filter(TimeSheet::getAutoGenerated)
-                .map(TimeSheet::getHoursWorked)
-                .filter(h -> h != null)
-                .reduce(BigDecimal.ZERO, BigDecimal::add);
-
-        BigDecimal totalNonBillableHours = nonBillableFromEntries.add(autoGeneratedHours);
+        BigDecimal autoGeneratedHours = data.autoGeneratedHours;
+        BigDecimal totalNonBillableHours = data.nonBillableEntryHours.add(autoGeneratedHours);
 
         // ✅ Step 8: Calculate Utilization Rate = (Billable / Non-Billable) * 100
         BigDecimal utilizationRate = BigDecimal.ZERO;
@@ -149,11 +140,14 @@ public class TimesheetFinanceReportService {
             utilizationRateStr = utilizationRate.toPlainString() + "%";
         }
 
+        // ✅ All leaves of the month, fetched once and grouped per employee
+        LeaveMonthIndex leaveIndex = UpstreamCalls.await(leavesCall);
+
         // 9. Hours Breakdown
         Map<String, Object> hoursBreakdown = new LinkedHashMap<>();
         hoursBreakdown.put("billableHours", totalBillableHours);
         hoursBreakdown.put("nonBillableHours", totalNonBillableHours);
-        hoursBreakdown.put("leaveHours", calculateLeaveHours(month, year, authHeader));
+        hoursBreakdown.put("leaveHours", calculateLeaveHours(leaveIndex));
         hoursBreakdown.put("totalHours", totalHours);
 
         // Step 🔟: Build final response
@@ -170,83 +164,36 @@ public class TimesheetFinanceReportService {
         response.put("autoGeneratedHours", autoGeneratedHours);
         response.put("utilizationRate", utilizationRateStr);
         response.put("hoursBreakdown", hoursBreakdown);
-        response.put("employeeBreakdown", buildEmployeeBreakdown(month, year, allUsers));
-        response.put("employeeProductivity", buildEmployeeProductivity(month, year, allUsers, holidayDates));
-        response.put("projectBreakdown", buildProjectBreakdown(month, year, projectDirectory));
+        response.put("employeeBreakdown", buildEmployeeBreakdown(data, allUsers));
+        response.put("employeeProductivity", buildEmployeeProductivity(month, year, data, allUsers, holidayDates));
+        response.put("projectBreakdown", buildProjectBreakdown(data, projectDirectory));
         response.put("projectUserHoursBreakdown",
-                buildProjectUserHoursBreakdown(month, year, projectDirectory, allUsers));
+                buildProjectUserHoursBreakdown(data, projectDirectory, allUsers));
         response.put("leaveHoursBreakdown",
-        buildLeaveHoursBreakdown(month, year, authHeader, allUsers));
+        buildLeaveHoursBreakdown(leaveIndex, allUsers));
 
         return response;
     }
-    public List<Map<String, Object>> buildEmployeeBreakdown(int month, int year, Map<Long, Map<String, Object>> allUsers) {
-
-        // Step 1️⃣: Define month range
-        LocalDate firstDay = LocalDate.of(year, month, 1);
-        LocalDate lastDay = firstDay.withDayOfMonth(firstDay.lengthOfMonth());
-
-        // Step 2️⃣: Fetch all timesheets for the given month & year (exclude DRAFT)
-        List<TimeSheet> allTimeSheets = timeSheetRepo.findByWorkDateBetween(firstDay, lastDay)
-                .stream()
-                .filter(ts -> ts.getStatus() != TimeSheet.Status.DRAFT)
-                .filter(ts -> ts.getWorkDate() != null &&
-                        ts.getWorkDate().getMonthValue() == month &&
-                        ts.getWorkDate().getYear() == year)
-                .toList();
 
-        // Step 3️⃣: Get unique user IDs
-        Set<Long> userIds = allTimeSheets.stream()
-                .map(TimeSheet::getUserId)
-                .filter(Objects::nonNull)
-                .collect(Collectors.toSet());
+    private List<Map<String, Object>> buildEmployeeBreakdown(FinanceMonthData data, Map<Long, Map<String, Object>> allUsers) {
 
         // Step 5️⃣: Prepare employee breakdown list
         List<Map<String, Object>> employeeBreakdown = new ArrayList<>();
 
-        for (Long userId : userIds) {
+        for (Map.Entry<Long, FinanceMonthData.UserTotals> userEntry : data.users.entrySet()) {
 
-            // Filter timesheets for this user in given month & year
-            List<TimeSheet> userSheets = allTimeSheets.stream()
-                    .filter(ts -> ts.getUserId().equals(userId) &&
-                            ts.getWorkDate().getMonthValue() == month &&
-                            ts.getWorkDate().getYear() == year)
-                    .toList();
+            Long userId = userEntry.getKey();
+            FinanceMonthData.UserTotals user = userEntry.getValue();
 
             // ✅ Working Days (exclude auto-generated)
-            long workingDays = userSheets.stream()
-                    .filter(ts -> !ts.getAutoGenerated())
-                    .map(TimeSheet::getWorkDate)
-                    .distinct()
-                    .count();
+            long workingDays = user.workedDates.size();
 
             // ✅ Billable Hours (entries where isBillable = true)
-            BigDecimal billableHours = userSheets.stream()
-                    .filter(ts -> !ts.getAutoGenerated())
-                    .flatMap(ts -> ts.getEntries().stream())
-                    .filter(TimeSheetEntry::isBillable)
-                    .map(TimeSheetEntry::getHoursWorked)
-                    .filter(Objects::nonNull)
-                    .reduce(BigDecimal.ZERO, BigDecimal::add);
+            BigDecimal billableHours = user.billableHours;
 
             // ✅ Non-Billable Hours (entries where isBillable = false + auto-generated)
-            BigDecimal nonBillableFromEntries = userSheets.stream()
-                    .flatMap(ts -> ts.getEntries().stream())
-                    .filter(e -> !e.isBillable())
-                    .map(TimeSheetEntry::getHoursWorked)
-                    .filter(Objects::nonNull)
-                    .reduce(BigDecimal.ZERO, BigDecimal::add);
-
-            BigDecimal autoGeneratedHours = userSheets.stream()
-                    .filter(TimeSheet::getAutoGenerated)
-                    .map(TimeSheet::getHoursWorked)
-                    .filter(Objects::nonNull)
-                    .reduce(BigDecimal.ZERO, BigDecimal::add);
-
-            BigDecimal nonBillableHours = nonBillableFromEntries.add(autoGeneratedHours);
-
-        //     // ✅ Leave Hours (fixed 8 for now)
-        //     BigDecimal leaveHours = BigDecimal.valueOf(8);
+            BigDecimal autoGeneratedHours = user.autoGeneratedHours;
+            BigDecimal nonBillableHours = user.nonBillableEntryHoursAllSheets.add(autoGeneratedHours);
 
             // ✅ Total Hours = Billable + Non-Billable
             BigDecimal totalHours = billableHours.add(nonBillableHours);
@@ -271,7 +218,6 @@ public class TimesheetFinanceReportService {
             emp.put("workingDays", workingDays);
             emp.put("billableHours", billableHours);
             emp.put("nonBillableHours", nonBillableHours);
-        //     emp.put("leaveHours", leaveHours);
             emp.put("autoGeneratedHours", autoGeneratedHours);
             emp.put("totalHours", totalHours);
             emp.put("productivity", productivity.toPlainString() + "%");
@@ -281,73 +227,32 @@ public class TimesheetFinanceReportService {
 
         return employeeBreakdown;
     }
-        public List<Map<String, Object>> buildEmployeeProductivity(int month, int year, Map<Long, Map<String, Object>> allUsers,List<LocalDate> holidayDates) {
-
-        // Step 1️⃣: Define date range for month
-        LocalDate firstDay = LocalDate.of(year, month, 1);
-        LocalDate lastDay = firstDay.withDayOfMonth(firstDay.lengthOfMonth());
-
-        // Step 2️⃣: Fetch all timesheets for month and year (exclude DRAFT)
-        List<TimeSheet> allTimeSheets = timeSheetRepo.findByWorkDateBetween(firstDay, lastDay)
-                .stream()
-                .filter(ts -> ts.getStatus() != TimeSheet.Status.DRAFT)
-                .filter(ts -> ts.getWorkDate() != null &&
-                        ts.getWorkDate().getMonthValue() == month &&
-                        ts.getWorkDate().getYear() == year)
-                .toList();
+        private List<Map<String, Object>> buildEmployeeProductivity(int month, int year, FinanceMonthData data,
+                                                                    Map<Long, Map<String, Object>> allUsers, List<LocalDate> holidayDates) {
 
-        // Step 3️⃣: Get distinct user IDs
-        Set<Long> userIds = allTimeSheets.stream()
-                .map(TimeSheet::getUserId)
-                .filter(Objects::nonNull)
-                .collect(Collectors.toSet());
+        int monthlyhrs = calculateExpectedHours(month, year, holidayDates);
 
         // Step 5️⃣: Build employee productivity details
         List<Map<String, Object>> productivityList = new ArrayList<>();
 
-        for (Long userId : userIds) {
+        for (Map.Entry<Long, FinanceMonthData.UserTotals> userEntry : data.users.entrySet()) {
 
-            List<TimeSheet> userSheets = allTimeSheets.stream()
-                    .filter(ts -> ts.getUserId().equals(userId))
-                    .toList();
+            Long userId = userEntry.getKey();
+            FinanceMonthData.UserTotals user = userEntry.getValue();
 
             // ✅ Working Days (exclude auto-generated)
-            long workingDays = userSheets.stream()
-                    .filter(ts -> !Boolean.TRUE.equals(ts.getAutoGenerated()))
-                    .map(TimeSheet::getWorkDate)
-                    .distinct()
-                    .count();
-
-            // ✅ Billable Hours (exclude auto-generated)
-            BigDecimal billableHours = userSheets.stream()
-                    .filter(ts -> !Boolean.TRUE.equals(ts.getAutoGenerated()))
-                    .flatMap(ts -> ts.getEntries().stream())
-                    .filter(TimeSheetEntry::isBillable)
-                    .map(TimeSheetEntry::getHoursWorked)
-                    .filter(Objects::nonNull)
-                    .reduce(BigDecimal.ZERO, BigDecimal::add);
-
-            // ✅ Non-Billable Hours (exclude auto-generated)
-            BigDecimal nonBillableHours = userSheets.stream()
-                    .filter(ts -> !Boolean.TRUE.equals(ts.getAutoGenerated()))
-                    .flatMap(ts -> ts.getEntries().stream())
-                    .filter(e -> !e.isBillable())
-                    .map(TimeSheetEntry::getHoursWorked)
-                    .filter(Objects::nonNull)
-                    .reduce(BigDecimal.ZERO, BigDecimal::add);
+            long workingDays = user.workedDates.size();
+
+            // ✅ Billable / Non-Billable Hours (exclude auto-generated)
+            BigDecimal billableHours = user.billableHours;
+            BigDecimal nonBillableHours = user.nonBillableHours;
 
             // ✅ Auto-Generated Hours
-            BigDecimal autoGeneratedHours = userSheets.stream()
-                    .filter(TimeSheet::getAutoGenerated)
-                    .map(TimeSheet::getHoursWorked)
-                    .filter(Objects::nonNull)
-                    .reduce(BigDecimal.ZERO, BigDecimal::add);
+            BigDecimal autoGeneratedHours = user.autoGeneratedHours;
 
             // ✅ Total Hours = billable + non-billable + auto-generated
             BigDecimal totalHours = billableHours.add(nonBillableHours).add(autoGeneratedHours);
 
-          int monthlyhrs=calculateExpectedHours(month, year, holidayDates);
-          
             // ✅ Productivity = (billable + non-billable) / 160 * 100
             BigDecimal productivity = BigDecimal.ZERO;
             if (billableHours.add(nonBillableHours).compareTo(BigDecimal.ZERO) > 0) {
@@ -378,43 +283,18 @@ public class TimesheetFinanceReportService {
 
         return productivityList;
     }
-        public List<Map<String, Object>> buildProjectBreakdown(
-        int month,
-        int year,
+        private List<Map<String, Object>> buildProjectBreakdown(
+        FinanceMonthData data,
         Map<Long, Map<String, Object>> projectDirectory
         ) {
 
-        // Step 1️⃣: Define month date range
-        LocalDate firstDay = LocalDate.of(year, month, 1);
-        LocalDate lastDay = firstDay.withDayOfMonth(firstDay.lengthOfMonth());
-
-        // Step 2️⃣: Fetch all NON-auto-generated timesheets for this month & year (exclude DRAFT)
-        List<TimeSheet> monthSheets = timeSheetRepo.findByWorkDateBetween(firstDay, lastDay)
-                .stream()
-                .filter(ts -> ts.getStatus() != TimeSheet.Status.DRAFT)
-                .filter(ts -> ts.getWorkDate() != null &&
-                        ts.getWorkDate().getMonthValue() == month &&
-                        ts.getWorkDate().getYear() == year)
-                .filter(ts -> !Boolean.TRUE.equals(ts.getAutoGenerated())) // exclude auto-generated
-                .collect(Collectors.toList());
-
-        // Step 3️⃣: Collect all entries for this month
-        List<TimeSheetEntry> entries = monthSheets.stream()
-                .flatMap(ts -> ts.getEntries().stream())
-                .collect(Collectors.toList());
-
-        // Step 4️⃣: Group entries by project ID
-        Map<Long, List<TimeSheetEntry>> projectEntryMap = entries.stream()
-                .filter(e -> e.getProjectId() != null)
-                .collect(Collectors.groupingBy(TimeSheetEntry::getProjectId));
-
-        // Step 6️⃣: Build final result
+        // Step 6️⃣: Build final result (manual timesheets only, grouped by project)
         List<Map<String, Object>> projectBreakdown = new ArrayList<>();
 
-        for (Map.Entry<Long, List<TimeSheetEntry>> entry : projectEntryMap.entrySet()) {
+        for (Map.Entry<Long, FinanceMonthData.ProjectTotals> entry : data.projects.entrySet()) {
 
                 Long projectId = entry.getKey();
-                List<TimeSheetEntry> projectEntries = entry.getValue();
+                FinanceMonthData.ProjectTotals project = entry.getValue();
 
                 // Project metadata from PMS
                 Map<String, Object> projectInfo = projectDirectory.get(projectId);
@@ -427,34 +307,14 @@ public class TimesheetFinanceReportService {
 
                 int teamMembers = members != null ? members.size() : 0;
 
-                // Total hours
-                BigDecimal totalHours = projectEntries.stream()
-                        .map(TimeSheetEntry::getHoursWorked)
-                        .filter(Objects::nonNull)
-                        .reduce(BigDecimal.ZERO, BigDecimal::add);
-
-                // Billable hours for this project
-                BigDecimal billableHours = projectEntries.stream()
-                        .filter(TimeSheetEntry::isBillable)
-                        .map(TimeSheetEntry::getHoursWorked)
-                        .filter(Objects::nonNull)
-                        .reduce(BigDecimal.ZERO, BigDecimal::add);
-
-                // Non-billable hours for this project
-                BigDecimal nonBillableHours = projectEntries.stream()
-                        .filter(e -> !e.isBillable())
-                        .map(TimeSheetEntry::getHoursWorked)
-                        .filter(Objects::nonNull)
-                        .reduce(BigDecimal.ZERO, BigDecimal::add);
-
                 // Build project response
                 Map<String, Object> projectMap = new LinkedHashMap<>();
                 projectMap.put("projectId", projectId);
                 projectMap.put("projectName", projectName);
                 projectMap.put("teamMembers", teamMembers);
-                projectMap.put("totalHours", totalHours);
-                projectMap.put("billableHours", billableHours);
-                projectMap.put("nonBillableHours", nonBillableHours);
+                projectMap.put("totalHours", project.totalHours());
+                projectMap.put("billableHours", project.billableHours);
+                projectMap.put("nonBillableHours", project.nonBillableHours);
 
                 projectBreakdown.add(projectMap);
         }
@@ -463,41 +323,19 @@ public class TimesheetFinanceReportService {
         }
 
 
-        public List<Map<String, Object>> buildProjectUserHoursBreakdown(
-        int month,
-        int year,
+        private List<Map<String, Object>> buildProjectUserHoursBreakdown(
+        FinanceMonthData data,
         Map<Long, Map<String, Object>> projectDirectory,
         Map<Long, Map<String, Object>> allUsers
         ) {
 
-        // Step 1: Date range
-        LocalDate firstDay = LocalDate.of(year, month, 1);
-        LocalDate lastDay = firstDay.withDayOfMonth(firstDay.lengthOfMonth());
-
-        // Step 2: Fetch NON-auto-generated timesheets (exclude DRAFT)
-        List<TimeSheet> monthSheets = timeSheetRepo.findByWorkDateBetween(firstDay, lastDay)
-                .stream()
-                .filter(ts -> ts.getStatus() != TimeSheet.Status.DRAFT)
-                .filter(ts -> ts.getWorkDate() != null &&
-                        ts.getWorkDate().getMonthValue() == month &&
-                        ts.getWorkDate().getYear() == year)
-                .filter(ts -> !Boolean.TRUE.equals(ts.getAutoGenerated()))
-                .collect(Collectors.toList());
-
-        // Step 3: Flatten entries
-        List<TimeSheetEntry> monthEntries = monthSheets.stream()
-                .flatMap(ts -> ts.getEntries().stream())
-                .collect(Collectors.toList());
-
-        // Step 4: Only consider projects that appear in timesheets
-        Set<Long> usedProjectIds = monthEntries.stream()
-                .map(TimeSheetEntry::getProjectId)
-                .filter(Objects::nonNull)
-                .collect(Collectors.toSet());
-
         List<Map<String, Object>> projectBreakdown = new ArrayList<>();
 
-        for (Long projectId : usedProjectIds) {
+        // Only consider projects that appear in timesheets
+        for (Map.Entry<Long, FinanceMonthData.ProjectTotals> projectEntry : data.projects.entrySet()) {
+
+                Long projectId = projectEntry.getKey();
+                Map<Long, BigDecimal[]> hoursByUser = projectEntry.getValue().byUser;
 
                 Map<String, Object> projectInfo = projectDirectory.get(projectId);
                 if (projectInfo == null) continue;
@@ -533,23 +371,10 @@ public class TimesheetFinanceReportService {
                         .map(u -> (String) u.get("name"))
                         .orElse("Unknown User");
 
-                // Entries for this member for this project
-                List<TimeSheetEntry> userProjectEntries = monthEntries.stream()
-                        .filter(e -> Objects.equals(e.getProjectId(), projectId))
-                        .filter(e -> Objects.equals(e.getTimeSheet().getUserId(), memberId))
-                        .collect(Collectors.toList());
-
-                BigDecimal billableHours = userProjectEntries.stream()
-                        .filter(TimeSheetEntry::isBillable)
-                        .map(TimeSheetEntry::getHoursWorked)
-                        .filter(Objects::nonNull)
-                        .reduce(BigDecimal.ZERO, BigDecimal::add);
-
-                BigDecimal nonBillableHours = userProjectEntries.stream()
-                        .filter(e -> !e.isBillable())
-                        .map(TimeSheetEntry::getHoursWorked)
-                        .filter(Objects::nonNull)
-                        .reduce(BigDecimal.ZERO, BigDecimal::add);
+                // Hours of this member on this project
+                BigDecimal[] memberHours = hoursByUser.get(memberId);
+                BigDecimal billableHours = memberHours != null ? memberHours[0] : BigDecimal.ZERO;
+                BigDecimal nonBillableHours = memberHours != null ? memberHours[1] : BigDecimal.ZERO;
 
                 BigDecimal totalHours = billableHours.add(nonBillableHours);
 
@@ -607,203 +432,42 @@ public class TimesheetFinanceReportService {
         }
 
 
-    private BigDecimal calculateLeaveHours(int month, int year, String authHeader) {
-
-    try{
-
-    // Fetch all leaves for the month using the directory cache
-    List<LeaveDTO> leaves = leaveDirectoryService.fetchLeaves(year, month, authHeader);
-
-    BigDecimal totalLeaveHours = BigDecimal.ZERO;
-
-    LocalDate monthStart = LocalDate.of(year, month, 1);
-    LocalDate monthEnd = monthStart.withDayOfMonth(monthStart.lengthOfMonth());
-
-    for (LeaveDTO leave : leaves) {
-
-       
-         if ("PENDING".equalsIgnoreCase(leave.getStatus())) {
-            throw new IllegalStateException("Leave is still pending needs review for Employee Id " + leave.getEmployeeId() + " at " + leave.getStartDate()+".");
-        }
-
-        // ✔ Skip non-approved leaves
-        if (!"APPROVED".equalsIgnoreCase(leave.getStatus())) {
-            continue;
-        }
-
-
-
-        // Adjust range to fit inside this month
-        LocalDate start = leave.getStartDate();
-        LocalDate end = leave.getEndDate();
-
-        // ✔ Trim dates outside this month window
-        LocalDate effectiveStart = start.isBefore(monthStart) ? monthStart : start;
-        LocalDate effectiveEnd = end.isAfter(monthEnd) ? monthEnd : end;
-
-        // Loop through all dates
-        LocalDate date = effectiveStart;
-        while (!date.isAfter(effectiveEnd)) {
-
-            // ✔ Only count Monday–Friday
-            switch (date.getDayOfWeek()) {
-                case SATURDAY:
-                case SUNDAY:
-                    break;   // skip weekends
-
-                default:
-                    // ✔ Each valid day counts as 8 hours
-                    totalLeaveHours = totalLeaveHours.add(BigDecimal.valueOf(leaveHours));
-            }
-
-            date = date.plusDays(1);
-        }
-    }
-
-    return totalLeaveHours;
+    private BigDecimal calculateLeaveHours(LeaveMonthIndex leaveIndex) {
 
-    }
+    // ✔ Every leave must be reviewed before the month can be reported
+    leaveIndex.firstPending().ifPresent(leave -> {
+        throw new IllegalStateException("Leave is still pending needs review for Employee Id " + leave.getEmployeeId() + " at " + leave.getStartDate()+".");
+    });
 
-    catch(IllegalStateException e){
-        throw e;
-    }
-    catch(Exception e){
-        return null;
-    }
+    // ✔ Each approved weekday counts as leaveHours
+    long leaveDays = leaveIndex.approvedDates().values().stream()
+            .mapToLong(List::size)
+            .sum();
 
+    return BigDecimal.valueOf(leaveDays * leaveHours);
     }
 
-        public UserLeaveBreakdown calculateLeaveDetailsForUser(
-                Long userId, int month, int year, String authHeader) {
-
-        // Fetch all leaves for the month using LMS cache
-        List<LeaveDTO> leaves = leaveDirectoryService.fetchLeavesUserId(userId,year, month, authHeader);
-
-        BigDecimal totalLeaveHours = BigDecimal.ZERO;
-        int totalLeaveDays = 0;
-        List<LocalDate> leaveDates = new ArrayList<>();
-
-        LocalDate monthStart = LocalDate.of(year, month, 1);
-        LocalDate monthEnd = monthStart.withDayOfMonth(monthStart.lengthOfMonth());
-
-        for (LeaveDTO leave : leaves) {
-
-                // Skip different user
-                if (!leave.getEmployeeId().equals(userId)) {
-                continue;
-                }
-
-                // Skip non-approved leaves
-                if (!"APPROVED".equalsIgnoreCase(leave.getStatus())) {
-                continue;
-                }
-
-                LocalDate start = leave.getStartDate();
-                LocalDate end = leave.getEndDate();
-
-                // Clamp to month
-                LocalDate effectiveStart = start.isBefore(monthStart) ? monthStart : start;
-                LocalDate effectiveEnd = end.isAfter(monthEnd) ? monthEnd : end;
-
-                // Iterate dates
-                LocalDate date = effectiveStart;
-                while (!date.isAfter(effectiveEnd)) {
-
-                switch (date.getDayOfWeek()) {
-                        case SATURDAY:
-                        case SUNDAY:
-                        break; // skip weekends
-
-                        default:
-                        totalLeaveHours = totalLeaveHours.add(BigDecimal.valueOf(leaveHours));
-                        totalLeaveDays++;
-                        leaveDates.add(date);
-                }
-
-                date = date.plusDays(1);
-                }
-        }
-
-        // Build response object
-        UserLeaveBreakdown breakdown = new UserLeaveBreakdown();
-        breakdown.totalHours = totalLeaveHours;
-        breakdown.totalDays = totalLeaveDays;
-        breakdown.leaveDates = leaveDates;
-
-        return breakdown;
-        }
-
         private List<Map<String, Object>> buildLeaveHoursBreakdown(
-        int month,
-        int year,
-        String authHeader,
+        LeaveMonthIndex leaveIndex,
         Map<Long, Map<String, Object>> allUsers
 ) {
 
-    List<LeaveDTO> leaves = leaveDirectoryService.fetchLeaves(year, month, authHeader);
-
-    LocalDate monthStart = LocalDate.of(year, month, 1);
-    LocalDate monthEnd = monthStart.withDayOfMonth(monthStart.lengthOfMonth());
-
-    // Store per-user stats
-    Map<Long, Integer> userDaysMap = new HashMap<>();
-    Map<Long, BigDecimal> userHoursMap = new HashMap<>();
-
-    for (LeaveDTO leave : leaves) {
-
-        // Only approved leaves
-        if (!"APPROVED".equalsIgnoreCase(leave.getStatus())) {
-            continue;
-        }
-
-        Long userId = leave.getEmployeeId();
-
-        LocalDate start = leave.getStartDate();
-        LocalDate end = leave.getEndDate();
-
-        // Trim range to the month
-        LocalDate effectiveStart = start.isBefore(monthStart) ? monthStart : start;
-        LocalDate effectiveEnd = end.isAfter(monthEnd) ? monthEnd : end;
-
-        // Count weekdays
-        int days = 0;
-
-        LocalDate date = effectiveStart;
-        while (!date.isAfter(effectiveEnd)) {
-
-            switch (date.getDayOfWeek()) {
-                case SATURDAY:
-                case SUNDAY:
-                    break; // skip weekends
-                default:
-                    days++;
-            }
-
-            date = date.plusDays(1);
-        }
-
-        if (days > 0) {
-            userDaysMap.put(userId, userDaysMap.getOrDefault(userId, 0) + days);
-
-            BigDecimal hours = BigDecimal.valueOf(days * leaveHours);
-            userHoursMap.put(
-                    userId,
-                    userHoursMap.getOrDefault(userId, BigDecimal.ZERO).add(hours)
-            );
-        }
-    }
+    // Per-user approved leave weekdays, already expanded by the index
+    Map<Long, List<LocalDate>> approvedDates = leaveIndex.approvedDates();
 
     // Total leave hours for month — needed for contribution
-    BigDecimal totalLeaveHours = userHoursMap.values().stream()
-            .reduce(BigDecimal.ZERO, BigDecimal::add);
+    BigDecimal totalLeaveHours = calculateLeaveHours(leaveIndex);
 
     // Build final breakdown list
     List<Map<String, Object>> breakdown = new ArrayList<>();
 
-    for (Long userId : userDaysMap.keySet()) {
+    for (Map.Entry<Long, List<LocalDate>> userDates : approvedDates.entrySet()) {
 
-        int noOfDays = userDaysMap.get(userId);
-        BigDecimal leaveHours = userHoursMap.get(userId);
+        int noOfDays = userDates.getValue().size();
+        if (noOfDays == 0) continue;
+
+        Long userId = userDates.getKey();
+        BigDecimal leaveHours = BigDecimal.valueOf((long) noOfDays * this.leaveHours);
 
         BigDecimal contribution = BigDecimal.ZERO;
 
@@ -957,114 +621,4 @@ public class TimesheetFinanceReportService {
 
     return expectedBaseHours - (weekdayHolidays * 8);
  }
- public Map<String, Object> getTimesheetFinanceReportAutoEmail(int month, int year, String authHeader) {
-
-        // Step 4️⃣: Get Auth Header and Fetch User Info Cache
-        Map<Long, Map<String, Object>> allUsers = userDirectoryService.fetchAllUsers(authHeader);
-        Map<Long, Map<String, Object>> projectDirectory =
-                projectDirectoryService.fetchAllProjects(authHeader);
-        
-
-        // ✅ Step 1: Get holiday dates for users to exclude
-        List<LocalDate> holidayDates = holidayExcludeUsersService.getUserHolidayDates(month);
-
-        // ✅ Step 2: Filter to only include holidays from this year
-        holidayDates = holidayDates.stream()
-                .filter(date -> date != null && date.getYear() == year)
-                .toList();
-
-        // ✅ Step 2: Define current month range
-        LocalDate firstDay = LocalDate.of(year, month, 1);
-        LocalDate lastDay = firstDay.withDayOfMonth(firstDay.lengthOfMonth());
-        int totalDaysInMonth = firstDay.lengthOfMonth();
-
-        // ✅ Calculate working days
-        int totalWorkingDays = totalDaysInMonth - holidayDates.size();
-        
-        // ✅ Step 4: Fetch all timesheets for this month and year (exclude DRAFT)
-        List<TimeSheet> allTimeSheets = timeSheetRepo.findByWorkDateBetween(firstDay, lastDay)
-                .stream()
-                .filter(ts -> ts.getStatus() != TimeSheet.Status.DRAFT)
-                .collect(Collectors.toList());
-
-        // ✅ Step 5: Filter strictly by same year (safety check)
-        List<TimeSheet> currentYearTimeSheets = allTimeSheets.stream()
-                .filter(ts -> ts.getWorkDate() != null && ts.getWorkDate().getYear() == year)
-                .toList();
-
-         // ✅ Step 6: Calculate total hours (include auto-generated)
-        BigDecimal totalHours = currentYearTimeSheets.stream()
-                .map(TimeSheet::getHoursWorked)
-                .filter(h -> h != null)
-                .reduce(BigDecimal.ZERO, BigDecimal::add);
-
-        // ✅ Step 7: Total Billable Hours (exclude auto-generated)
-        BigDecimal totalBillableHours = currentYearTimeSheets.stream()
-                .filter(ts -> !ts.getAutoGenerated()) // exclude system-generated
-                .flatMap(ts -> ts.getEntries().stream())
-                .filter(TimeSheetEntry::isBillable)
-                .map(TimeSheetEntry::getHoursWorked)
-                .filter(h -> h != null)
-                .reduce(BigDecimal.ZERO, BigDecimal::add);
-
-        // ✅ Step 8: Total Non-Billable Hours (include auto-generated + non-billable entries)
-        BigDecimal nonBillableFromEntries = currentYearTimeSheets.stream()
-                .flatMap(ts -> ts.getEntries().stream())
-                .filter(e -> !e.isBillable())
-                .map(TimeSheetEntry::getHoursWorked)
-                .filter(h -> h != null)
-                .reduce(BigDecimal.ZERO, BigDecimal::add);
-        
-        BigDecimal autoGeneratedHours = currentYearTimeSheets.stream()
-                .filter(TimeSheet::getAutoGenerated)
-                .map(TimeSheet::getHoursWorked)
-                .filter(h -> h != null)
-                .reduce(BigDecimal.ZERO, BigDecimal::add);
-
-        BigDecimal totalNonBillableHours = nonBillableFromEntries.add(autoGeneratedHours); 
-
-        // ✅ Step 8: Calculate Utilization Rate = (Billable / Non-Billable) * 100
-        BigDecimal utilizationRate = BigDecimal.ZERO;
-        String utilizationRateStr = "0.00%";
-
-        if (totalNonBillableHours.compareTo(BigDecimal.ZERO) > 0) {
-            utilizationRate = totalBillableHours
-                    .divide(totalHours, 4, RoundingMode.HALF_UP)
-                    .multiply(BigDecimal.valueOf(100))
-                    .setScale(2, RoundingMode.HALF_UP);
-
-            utilizationRateStr = utilizationRate.toPlainString() + "%";
-        }
-
-        // 9. Hours Breakdown
-        Map<String, Object> hoursBreakdown = new LinkedHashMap<>();
-        hoursBreakdown.put("billableHours", totalBillableHours);
-        hoursBreakdown.put("nonBillableHours", totalNonBillableHours);
-        hoursBreakdown.put("leaveHours", calculateLeaveHours(month, year, authHeader));
-        hoursBreakdown.put("totalHours", totalHours);
-        
-        // Step 🔟: Build final response
-        Map<String, Object> response = new LinkedHashMap<>();
-        response.put("month", month);
-        response.put("year", year);
-        response.put("totalEmployees", allUsers.size());
-        response.put("totalHolidayDates", holidayDates.size());
-        response.put("totalWorkingDays", totalWorkingDays);
-        response.put("holidayDates", holidayDates);
-        response.put("totalHoursWorked", totalHours);
-        response.put("totalBillableHours", totalBillableHours);
-        response.put("totalNonBillableHours", totalNonBillableHours);
-        response.put("autoGeneratedHours", autoGeneratedHours);
-        response.put("utilizationRate", utilizationRateStr);
-        response.put("hoursBreakdown", hoursBreakdown);
-        response.put("employeeBreakdown", buildEmployeeBreakdown(month, year, allUsers));
-        response.put("employeeProductivity", buildEmployeeProductivity(month, year, allUsers, holidayDates));
-        response.put("projectBreakdown", buildProjectBreakdown(month, year, projectDirectory));
-        response.put("projectUserHoursBreakdown",
-                buildProjectUserHoursBreakdown(month, year, projectDirectory, allUsers));
-        response.put("leaveHoursBreakdown",
-        buildLeaveHoursBreakdown(month, year, authHeader, allUsers));
-
-        return response;
-    }
 }
@@ -0,0 +1,46 @@
+package com.intranet.service.rollup;
+
+import java.time.LocalDate;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import com.intranet.entity.TimeSheetDailyRollup;
+import com.intranet.entity.TimeSheetProjectDailyRollup;
+
+/**
+ * Daily rollup rows keyed by (user, day), so project rows can be matched to
+ * the day (sheet) they belong to. Readers filter the days first (status,
+ * user) and keep only the project rows whose day is still present, the way
+ * the reports used to keep only the entries of the sheets they kept.
+ */
+public final class RollupDays {
+
+    private final Map<Key, TimeSheetDailyRollup> byKey;
+
+    private RollupDays(Map<Key, TimeSheetDailyRollup> byKey) {
+        this.byKey = byKey;
+    }
+
+    public static RollupDays of(Collection<TimeSheetDailyRollup> days) {
+        Map<Key, TimeSheetDailyRollup> byKey = new HashMap<>(days.size() * 2);
+        for (TimeSheetDailyRollup day : days) {
+            byKey.put(new Key(day.getUserId(), day.getWorkDate()), day);
+        }
+        return new RollupDays(byKey);
+    }
+
+    /** The day of a project row, or null when that day is not part of this set. */
+    public TimeSheetDailyRollup dayOf(TimeSheetProjectDailyRollup row) {
+        return byKey.get(new Key(row.getUserId(), row.getWorkDate()));
+    }
+
+    /** The project rows whose day is part of this set. */
+    public List<TimeSheetProjectDailyRollup> keep(Collection<TimeSheetProjectDailyRollup> rows) {
+        return rows.stream().filter(row -> dayOf(row) != null).toList();
+    }
+
+    private record Key(Long userId, LocalDate workDate) {
+    }
+}
@@ -0,0 +1,306 @@
+package com.intranet.service.rollup;
+
+import java.math.BigDecimal;
+import java.time.DayOfWeek;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.intranet.entity.TimeSheet;
+import com.intranet.entity.TimeSheetDailyRollup;
+import com.intranet.entity.TimeSheetEntry;
+import com.intranet.entity.TimeSheetProjectDailyRollup;
+import com.intranet.repository.TimeSheetDailyRollupRepo;
+import com.intranet.repository.TimeSheetProjectDailyRollupRepo;
+import com.intranet.repository.TimeSheetRepo;
+
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Keeps the timesheet rollup tables (daily, project-daily) in step with the
+ * timesheet and entry tables. Weekly and monthly figures are grouped from the
+ * daily rows on their week_start / month_start columns.
+ *
+ * Writers call {@link #markDirty(TimeSheet)} after changing a sheet. Inside a
+ * transaction the (user, day) keys are collected and recomputed after the
+ * commit, each in its own transaction, so a rollup failure never rolls back
+ * the user's change. Outside a transaction the key is recomputed immediately.
+ * A refresh locks the source sheet, so refreshes of the same day run one after
+ * the other and the last one reads the last committed state.
+ *
+ * {@link #rebuild(LocalDate, LocalDate)} recomputes a whole range from the
+ * source tables and is used for the initial backfill and for repairs.
+ */
+@Slf4j
+@Service
+public class TimeSheetRollupService {
+
+    private final TimeSheetRepo timeSheetRepo;
+    private final TimeSheetDailyRollupRepo dailyRollupRepo;
+    private final TimeSheetProjectDailyRollupRepo projectRollupRepo;
+    private final TransactionTemplate tx;
+    private final TransactionTemplate requiresNew;
+
+    @Value("${app.rollup.backfill-on-startup:true}")
+    private boolean backfillOnStartup;
+
+    public TimeSheetRollupService(TimeSheetRepo timeSheetRepo,
+                                  TimeSheetDailyRollupRepo dailyRollupRepo,
+                                  TimeSheetProjectDailyRollupRepo projectRollupRepo,
+                                  PlatformTransactionManager transactionManager) {
+        this.timeSheetRepo = timeSheetRepo;
+        this.dailyRollupRepo = dailyRollupRepo;
+        this.projectRollupRepo = projectRollupRepo;
+        this.tx = new TransactionTemplate(transactionManager);
+        this.requiresNew = new TransactionTemplate(transactionManager);
+        this.requiresNew.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+    }
+
+    public void markDirty(TimeSheet timeSheet) {
+        if (timeSheet != null) {
+            markDirty(timeSheet.getUserId(), timeSheet.getWorkDate());
+        }
+    }
+
+    public void markDirty(Long userId, LocalDate workDate) {
+        if (userId == null || workDate == null) {
+            return;
+        }
+        RollupKey key = new RollupKey(userId, workDate);
+
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            refresh(Set.of(key));
+            return;
+        }
+
+        DirtyKeys dirtyKeys = (DirtyKeys) TransactionSynchronizationManager.getResource(this);
+        if (dirtyKeys == null) {
+            dirtyKeys = new DirtyKeys();
+            TransactionSynchronizationManager.bindResource(this, dirtyKeys);
+            TransactionSynchronizationManager.registerSynchronization(dirtyKeys);
+        }
+        dirtyKeys.keys.add(key);
+    }
+
+    /**
+     * Recomputes every rollup row for workDates in [startDate, endDate],
+     * one month per transaction.
+     */
+    public int rebuild(LocalDate startDate, LocalDate endDate) {
+        if (startDate == null || endDate == null || endDate.isBefore(startDate)) {
+            throw new IllegalArgumentException("Invalid date range for rollup rebuild");
+        }
+
+        int sheets = 0;
+        LocalDate chunkStart = startDate;
+        while (!chunkStart.isAfter(endDate)) {
+            LocalDate monthEnd = chunkStart.withDayOfMonth(chunkStart.lengthOfMonth());
+            LocalDate chunkEnd = monthEnd.isAfter(endDate) ? endDate : monthEnd;
+            LocalDate from = chunkStart;
+
+            Integer count = tx.execute(status -> rebuildDays(from, chunkEnd));
+            sheets += count != null ? count : 0;
+            chunkStart = chunkEnd.plusDays(1);
+        }
+
+        log.info("✅ Rebuilt timesheet rollups for {} → {} ({} timesheets)", startDate, endDate, sheets);
+        return sheets;
+    }
+
+    /**
+     * Backfills on startup when the rollups are empty or hold rows written
+     * before the entry_minutes column existed.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void backfillIfEmpty() {
+        if (!backfillOnStartup) {
+            return;
+        }
+        try {
+            if (dailyRollupRepo.count() > 0 && !dailyRollupRepo.existsByEntryMinutesIsNull()) {
+                return;
+            }
+            LocalDate earliest = timeSheetRepo.findEarliestWorkDate();
+            LocalDate latest = timeSheetRepo.findLatestWorkDate();
+            if (earliest == null || latest == null) {
+                return;
+            }
+            log.info("🕒 Timesheet rollups are empty or outdated, backfilling {} → {}", earliest, latest);
+            rebuild(earliest, latest);
+        } catch (Exception e) {
+            log.error("❌ Timesheet rollup backfill failed: {}", e.getMessage());
+        }
+    }
+
+    /** The daily rollup row of one sheet, as the refresh and the rebuild write it. */
+    public static TimeSheetDailyRollup dailyRow(TimeSheet ts) {
+        BigDecimal billable = BigDecimal.ZERO;
+        BigDecimal nonBillable = BigDecimal.ZERO;
+        BigDecimal billableClock = BigDecimal.ZERO;
+        long minutes = 0;
+        List<TimeSheetEntry> entries = ts.getEntries() != null ? ts.getEntries() : List.of();
+        for (TimeSheetEntry e : entries) {
+            BigDecimal hours = e.getHoursWorked() != null ? e.getHoursWorked() : BigDecimal.ZERO;
+            long entryMinutes = e.getFromTime() != null && e.getToTime() != null
+                    ? Duration.between(e.getFromTime(), e.getToTime()).toMinutes()
+                    : 0;
+            minutes += entryMinutes;
+            if (e.isBillable()) {
+                billable = billable.add(hours);
+                if (e.getFromTime() != null && e.getToTime() != null) {
+                    billableClock = billableClock.add(clockHours(entryMinutes));
+                }
+            } else {
+                nonBillable = nonBillable.add(hours);
+            }
+        }
+
+        TimeSheetDailyRollup daily = new TimeSheetDailyRollup();
+        daily.setUserId(ts.getUserId());
+        daily.setWorkDate(ts.getWorkDate());
+        daily.setWeekStart(weekStart(ts.getWorkDate()));
+        daily.setMonthStart(monthStart(ts.getWorkDate()));
+        daily.setTimeSheetId(ts.getId());
+        daily.setWeekInfoId(ts.getWeekInfo() != null ? ts.getWeekInfo().getId() : null);
+        daily.setStatus(ts.getStatus());
+        daily.setAutoGenerated(Boolean.TRUE.equals(ts.getAutoGenerated()));
+        daily.setSheetHours(ts.getHoursWorked() != null ? ts.getHoursWorked() : BigDecimal.ZERO);
+        daily.setBillableHours(billable);
+        daily.setNonBillableHours(nonBillable);
+        daily.setBillableClockHours(billableClock);
+        daily.setEntryMinutes(Math.toIntExact(minutes));
+        daily.setEntryCount(entries.size());
+        daily.setRefreshedAt(LocalDateTime.now());
+        return daily;
+    }
+
+    /** The project-daily rollup rows of one sheet, one per project it has entries for. */
+    public static List<TimeSheetProjectDailyRollup> projectRows(TimeSheet ts) {
+        Map<Long, TimeSheetProjectDailyRollup> byProject = new HashMap<>();
+        if (ts.getEntries() == null) {
+            return List.of();
+        }
+        for (TimeSheetEntry e : ts.getEntries()) {
+            BigDecimal hours = e.getHoursWorked() != null ? e.getHoursWorked() : BigDecimal.ZERO;
+            TimeSheetProjectDailyRollup row = byProject.computeIfAbsent(e.getProjectId(), projectId -> {
+                TimeSheetProjectDailyRollup r = new TimeSheetProjectDailyRollup();
+                r.setUserId(ts.getUserId());
+                r.setWorkDate(ts.getWorkDate());
+                r.setProjectId(projectId);
+                return r;
+            });
+            if (e.isBillable()) {
+                row.setBillableHours(row.getBillableHours().add(hours));
+            } else {
+                row.setNonBillableHours(row.getNonBillableHours().add(hours));
+            }
+        }
+        return new ArrayList<>(byProject.values());
+    }
+
+    /** Minutes written as hours.minutes (90 → 1.30), the form the manager reports use. */
+    public static BigDecimal clockHours(long minutes) {
+        return new BigDecimal(String.format("%d.%02d", minutes / 60, minutes % 60));
+    }
+
+    // ---------------------------------------------------------------------
+
+    private void refresh(Set<RollupKey> keys) {
+        for (RollupKey key : keys) {
+            try {
+                requiresNew.executeWithoutResult(status -> refreshDay(key.userId(), key.workDate()));
+            } catch (Exception e) {
+                log.error("❌ Rollup refresh of user {} on {} failed, POST /api/rollups/rebuild repairs it: {}",
+                        key.userId(), key.workDate(), e.getMessage());
+            }
+        }
+    }
+
+    private void refreshDay(Long userId, LocalDate workDate) {
+        Optional<TimeSheet> sheet = timeSheetRepo.lockByUserIdAndWorkDate(userId, workDate);
+
+        projectRollupRepo.deleteByUserIdAndWorkDate(userId, workDate);
+
+        if (sheet.isEmpty()) {
+            dailyRollupRepo.deleteByUserIdAndWorkDate(userId, workDate);
+            return;
+        }
+
+        TimeSheet ts = sheet.get();
+        dailyRollupRepo.upsert(dailyRow(ts));
+        projectRollupRepo.saveAll(projectRows(ts));
+    }
+
+    private int rebuildDays(LocalDate startDate, LocalDate endDate) {
+        projectRollupRepo.deleteByWorkDateBetween(startDate, endDate);
+        dailyRollupRepo.deleteByWorkDateBetween(startDate, endDate);
+
+        // The fetch join repeats a sheet once per entry
+        List<TimeSheet> sheets = timeSheetRepo.findByWorkDateBetweenWithWeekInfoAndEntries(startDate, endDate)
+                .stream()
+                .collect(Collectors.toMap(TimeSheet::getId, Function.identity(), (a, b) -> a))
+                .values().stream().toList();
+
+        List<TimeSheetDailyRollup> dailyRows = new ArrayList<>(sheets.size());
+        List<TimeSheetProjectDailyRollup> projectRows = new ArrayList<>();
+        for (TimeSheet ts : sheets) {
+            dailyRows.add(dailyRow(ts));
+            projectRows.addAll(projectRows(ts));
+        }
+        dailyRollupRepo.saveAll(dailyRows);
+        projectRollupRepo.saveAll(projectRows);
+        return sheets.size();
+    }
+
+    private static LocalDate weekStart(LocalDate date) {
+        return date.with(DayOfWeek.MONDAY);
+    }
+
+    private static LocalDate monthStart(LocalDate date) {
+        return date.withDayOfMonth(1);
+    }
+
+    private record RollupKey(Long userId, LocalDate workDate) {
+    }
+
+    /**
+     * Keys touched by the current transaction; recomputed once it has
+     * committed. A rollback drops them, the source rows did not change.
+     */
+    private final class DirtyKeys implements TransactionSynchronization {
+
+        private final Set<RollupKey> keys = new LinkedHashSet<>();
+
+        @Override
+        public void afterCommit() {
+            if (!keys.isEmpty()) {
+                refresh(new LinkedHashSet<>(keys));
+                keys.clear();
+            }
+        }
+
+        @Override
+        public void afterCompletion(int status) {
+            TransactionSynchronizationManager.unbindResourceIfPossible(TimeSheetRollupService.this);
+        }
+    }
+}
@@ -36,6 +36,8 @@ import com.intranet.entity.WeekInfo;
 import com.intranet.repository.InternalProjectRepo;
 import com.intranet.repository.TimeSheetOnHolidaysRepo;
 import com.intranet.repository.TimeSheetRepo;
+import com.intranet.service.directory.UserDirectoryIndex;
+import com.intranet.util.cache.UserDirectoryService;
 
 import lombok.RequiredArgsConstructor;
 
@@ -47,6 +49,7 @@ public class InternalWeeklySummaryService {
     private final TimeSheetRepo timeSheetRepo;
     private final TimeSheetOnHolidaysRepo timeSheetOnHolidaysRepo;
     private final InternalProjectRepo internalProjectRepo;
+    private final UserDirectoryService userDirectoryService;
 
     @Value("${ums.api.base-url}")
     private String umsBaseUrl;
@@ -58,14 +61,10 @@ public class InternalWeeklySummaryService {
                                                                   LocalDate startOfMonth,
                                                                   LocalDate endOfMonth) {
 
-        HttpHeaders headers = new HttpHeaders();
-        headers.set("Authorization", authHeader);
-        HttpEntity<Void> entity = new HttpEntity<>(headers);
-
-        Map<Long, Map<String, Object>> userCache = fetchAllUsers(entity);
+        UserDirectoryIndex userDirectory = userDirectoryService.directory(authHeader);
         List<TimeSheet> allSheets = timeSheetRepo.findAllNonDraft();
 
-        return buildInternalWeeklySummary(allSheets, userCache, startOfMonth, endOfMonth);
+        return buildInternalWeeklySummary(allSheets, userDirectory, startOfMonth, endOfMonth);
     }
 
     public List<ManagerWeeklySummaryDTO> getInternalWeeklySummaryForReportingManager(String authHeader,
@@ -87,14 +86,14 @@ public class InternalWeeklySummaryService {
         if (userIds.isEmpty()) return Collections.emptyList();
 
         // STEP 3: Aggregate against the scoped timesheet set
-        Map<Long, Map<String, Object>> userCache = fetchAllUsers(getEntity);
+        UserDirectoryIndex userDirectory = userDirectoryService.directory(authHeader);
         List<TimeSheet> scopedSheets = timeSheetRepo.findNonDraftByUserIds(userIds);
 
-        return buildInternalWeeklySummary(scopedSheets, userCache, startOfMonth, endOfMonth);
+        return buildInternalWeeklySummary(scopedSheets, userDirectory, startOfMonth, endOfMonth);
     }
 
     private List<ManagerWeeklySummaryDTO> buildInternalWeeklySummary(List<TimeSheet> sheets,
-                                                                     Map<Long, Map<String, Object>> userCache,
+                                                                     UserDirectoryIndex userDirectory,
                                                                      LocalDate startOfMonth,
                                                                      LocalDate endOfMonth) {
 
@@ -146,8 +145,7 @@ public class InternalWeeklySummaryService {
                     Long userId = entry.getKey();
                     List<TimeSheet> userSheets = entry.getValue();
 
-                    Map<String, Object> userInfo = userCache.get(userId);
-                    String fullName = extractName(userInfo);
+                    String fullName = userDirectory.name(userId, "Unknown");
 
                     BigDecimal totalBillable = sumBillable(userSheets, internalProjectMap);
                     BigDecimal nonBillable = sumNonBillable(userSheets, internalProjectMap);
@@ -175,30 +173,6 @@ public class InternalWeeklySummaryService {
     // -------------------------------------------------------------
     // USER FETCH
     // -------------------------------------------------------------
-    @SuppressWarnings("unchecked")
-    private Map<Long, Map<String, Object>> fetchAllUsers(HttpEntity<Void> entity) {
-        try {
-            String url = String.format("%s/admin/users?page=1&limit=500", umsBaseUrl);
-
-            ResponseEntity<Map<String, Object>> res =
-                    restTemplate.exchange(url, HttpMethod.GET, entity,
-                            new ParameterizedTypeReference<Map<String, Object>>() {});
-
-            Map<String, Object> body = res.getBody();
-            if (body != null && body.containsKey("users")) {
-                List<Map<String, Object>> list = (List<Map<String, Object>>) body.get("users");
-
-                return list.stream().collect(Collectors.toMap(
-                        u -> ((Number) u.get("user_id")).longValue(),
-                        u -> u
-                ));
-            }
-        } catch (Exception e) {
-            e.printStackTrace();
-        }
-        return Collections.emptyMap();
-    }
-
     @SuppressWarnings("unchecked")
     private List<String> fetchReportingManagerEmployeeIds(HttpEntity<Void> entity, String managerEmpid) {
         String url = String.format("%s/hr/reporting-manager/%s/employees", eosBaseUrl, managerEmpid);
@@ -250,15 +224,6 @@ public class InternalWeeklySummaryService {
         }
     }
 
-    private String extractName(Map<String, Object> user) {
-        if (user == null) return "Unknown";
-        String f = (String) user.getOrDefault("first_name", "");
-        String l = (String) user.getOrDefault("last_name", "");
-        String name = (f + " " + l).trim();
-        return name.isEmpty() ? "Unknown" : name;
-    }
-
-
     // -------------------------------------------------------------
     // HOURS CALCULATION (only entries that belong to internal projects)
     // -------------------------------------------------------------
@@ -0,0 +1,164 @@
+package com.intranet.service.week;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Optional;
+import java.util.function.IntPredicate;
+
+import com.intranet.entity.WeekInfo;
+
+/**
+ * Immutable, sorted snapshot of the week_info rows.
+ *
+ * Weeks are ordered by start date and kept as parallel arrays of epoch days,
+ * so date -> week is a binary search and date range -> weeks a binary search
+ * plus a scan of the matching slice. No week is longer than seven days,
+ * which bounds how far back a lookup has to look.
+ *
+ * Weeks are handed out as detached copies without their collections; use
+ * WeekInfoRepo.getReferenceById(id) to link a week to a new entity.
+ */
+public final class WeekCalendar {
+
+    static final WeekCalendar EMPTY = new WeekCalendar(new WeekInfo[0], false);
+
+    private static final int MAX_WEEK_DAYS = 7;
+
+    private final WeekInfo[] weeks;
+    private final long[] startDays;
+    private final long[] endDays;
+    private final boolean loaded;
+    private final long maxId;
+
+    private WeekCalendar(WeekInfo[] weeks, boolean loaded) {
+        this.weeks = weeks;
+        this.startDays = new long[weeks.length];
+        this.endDays = new long[weeks.length];
+        long max = 0;
+        for (int i = 0; i < weeks.length; i++) {
+            startDays[i] = weeks[i].getStartDate().toEpochDay();
+            endDays[i] = weeks[i].getEndDate().toEpochDay();
+            if (weeks[i].getId() != null) {
+                max = Math.max(max, weeks[i].getId());
+            }
+        }
+        this.loaded = loaded;
+        this.maxId = max;
+    }
+
+    static WeekCalendar of(Collection<WeekInfo> weeks) {
+        WeekInfo[] sorted = weeks.stream()
+                .filter(w -> w.getStartDate() != null && w.getEndDate() != null)
+                .map(WeekCalendar::copy)
+                .sorted(Comparator.comparing(WeekInfo::getStartDate).thenComparing(WeekInfo::getEndDate))
+                .toArray(WeekInfo[]::new);
+        return new WeekCalendar(sorted, true);
+    }
+
+    /** This calendar plus the given weeks; weeks already present (same id) are replaced. */
+    WeekCalendar with(Collection<WeekInfo> added) {
+        List<WeekInfo> merged = new ArrayList<>(Arrays.asList(weeks));
+        for (WeekInfo week : added) {
+            merged.removeIf(w -> w.getId() != null && w.getId().equals(week.getId()));
+            merged.add(week);
+        }
+        return of(merged);
+    }
+
+    public boolean isLoaded() {
+        return loaded;
+    }
+
+    /** The week containing the date; the latest-starting one if weeks overlap. */
+    public Optional<WeekInfo> find(LocalDate date) {
+        long day = date.toEpochDay();
+        for (int i = lastStartingOnOrBefore(day); i >= 0 && startDays[i] > day - MAX_WEEK_DAYS; i--) {
+            if (endDays[i] >= day) {
+                return Optional.of(copy(weeks[i]));
+            }
+        }
+        return Optional.empty();
+    }
+
+    /** Weeks starting between from and to (inclusive), like findByStartDateBetween. */
+    public List<WeekInfo> startingBetween(LocalDate from, LocalDate to) {
+        long last = to.toEpochDay();
+        return collect(firstStartingOnOrAfter(from.toEpochDay()), i -> startDays[i] <= last, i -> true);
+    }
+
+    /** Weeks lying completely inside [from, to]. */
+    public List<WeekInfo> within(LocalDate from, LocalDate to) {
+        long last = to.toEpochDay();
+        return collect(firstStartingOnOrAfter(from.toEpochDay()), i -> startDays[i] <= last, i -> endDays[i] <= last);
+    }
+
+    /** Weeks sharing at least one day with [from, to]. */
+    public List<WeekInfo> overlapping(LocalDate from, LocalDate to) {
+        long first = from.toEpochDay();
+        long last = to.toEpochDay();
+        int start = Math.max(0, firstStartingOnOrAfter(first - MAX_WEEK_DAYS + 1));
+        return collect(start, i -> startDays[i] <= last, i -> endDays[i] >= first);
+    }
+
+    /** Weeks with the given month/year columns, like findByMonthAndYear. */
+    public List<WeekInfo> ofMonth(int month, int year) {
+        // month/year is the month a week was generated for, at most a week away from its start
+        LocalDate first = LocalDate.of(year, month, 1);
+        List<WeekInfo> candidates = overlapping(first.minusDays(MAX_WEEK_DAYS), first.plusMonths(1).plusDays(MAX_WEEK_DAYS));
+        candidates.removeIf(w -> w.getMonth() == null || w.getMonth() != month || w.getYear() == null || w.getYear() != year);
+        return candidates;
+    }
+
+    public int size() {
+        return weeks.length;
+    }
+
+    /** Highest week_info id in this snapshot, 0 when empty. */
+    long maxId() {
+        return maxId;
+    }
+
+    private List<WeekInfo> collect(int from, IntPredicate inRange, IntPredicate matches) {
+        List<WeekInfo> result = new ArrayList<>();
+        for (int i = from; i < weeks.length && inRange.test(i); i++) {
+            if (matches.test(i)) {
+                result.add(copy(weeks[i]));
+            }
+        }
+        return result;
+    }
+
+    private int lastStartingOnOrBefore(long day) {
+        return firstStartingOnOrAfter(day + 1) - 1;
+    }
+
+    private int firstStartingOnOrAfter(long day) {
+        int low = 0;
+        int high = startDays.length;
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (startDays[mid] < day) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+        return low;
+    }
+
+    private static WeekInfo copy(WeekInfo week) {
+        WeekInfo copy = new WeekInfo();
+        copy.setId(week.getId());
+        copy.setStartDate(week.getStartDate());
+        copy.setEndDate(week.getEndDate());
+        copy.setWeekNo(week.getWeekNo());
+        copy.setYear(week.getYear());
+        copy.setMonth(week.getMonth());
+        copy.setIncompleteWeek(week.getIncompleteWeek());
+        return copy;
+    }
+}
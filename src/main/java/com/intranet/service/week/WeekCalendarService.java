@@ -0,0 +1,191 @@
+package com.intranet.service.week;
+
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.time.temporal.WeekFields;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.annotation.Order;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.intranet.entity.WeekInfo;
+import com.intranet.repository.WeekInfoRepo;
+
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Serves week_info lookups from an in-memory {@link WeekCalendar}.
+ *
+ * The calendar is loaded at startup (or on first use). Weeks generated by
+ * WeekInfoService are added after their transaction commits, and weeks
+ * created on demand by {@link #findOrCreate} are added right away. Weeks
+ * created by another instance are picked up in two ways: a date that is not
+ * in the calendar is looked up in week_info (and added when found), and at
+ * most every app.weeks.calendar.check-ms the highest week_info id is
+ * compared with the calendar's and the calendar is reloaded when it moved.
+ * Readers never lock; writers swap in a new snapshot.
+ */
+@Slf4j
+@Service
+public class WeekCalendarService {
+
+    private final WeekInfoRepo weekInfoRepo;
+    private final TransactionTemplate requiresNew;
+    private final long checkIntervalNanos;
+
+    private volatile WeekCalendar calendar = WeekCalendar.EMPTY;
+    private volatile long checkedAt = System.nanoTime();
+
+    public WeekCalendarService(WeekInfoRepo weekInfoRepo,
+                               PlatformTransactionManager transactionManager,
+                               @Value("${app.weeks.calendar.check-ms:30000}") long checkIntervalMs) {
+        this.weekInfoRepo = weekInfoRepo;
+        this.checkIntervalNanos = TimeUnit.MILLISECONDS.toNanos(Math.max(0, checkIntervalMs));
+        this.requiresNew = new TransactionTemplate(transactionManager);
+        this.requiresNew.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+    }
+
+    @Order(0)
+    @EventListener(ApplicationReadyEvent.class)
+    public void onStartup() {
+        try {
+            reload();
+        } catch (Exception e) {
+            log.warn("⚠️ Week calendar not loaded at startup, will load on first use: {}", e.getMessage());
+        }
+    }
+
+    /** Re-reads every week from the database. */
+    public synchronized void reload() {
+        checkedAt = System.nanoTime();
+        calendar = WeekCalendar.of(weekInfoRepo.findAll());
+        log.info("📅 Week calendar loaded: {} weeks", calendar.size());
+    }
+
+    public WeekCalendar calendar() {
+        WeekCalendar current = calendar;
+        if (current.isLoaded()) {
+            if (System.nanoTime() - checkedAt >= checkIntervalNanos) {
+                reloadIfChanged();
+                return calendar;
+            }
+            return current;
+        }
+        synchronized (this) {
+            if (!calendar.isLoaded()) {
+                reload();
+            }
+            return calendar;
+        }
+    }
+
+    /** The week containing the date; checks week_info when the calendar has none. */
+    public Optional<WeekInfo> find(LocalDate date) {
+        Optional<WeekInfo> known = calendar().find(date);
+        if (known.isPresent()) {
+            return known;
+        }
+        Optional<WeekInfo> stored = weekInfoRepo.findByStartDateLessThanEqualAndEndDateGreaterThanEqual(date, date);
+        if (stored.isEmpty()) {
+            return Optional.empty();
+        }
+        add(List.of(stored.get()));
+        return calendar.find(date);
+    }
+
+    private synchronized void reloadIfChanged() {
+        if (System.nanoTime() - checkedAt < checkIntervalNanos) {
+            return;
+        }
+        checkedAt = System.nanoTime();
+        try {
+            Long maxId = weekInfoRepo.findMaxId();
+            if (maxId != null && maxId != calendar.maxId()) {
+                reload();
+            }
+        } catch (Exception e) {
+            log.warn("⚠️ Week calendar freshness check failed, keeping {} weeks: {}", calendar.size(), e.getMessage());
+        }
+    }
+
+    /**
+     * The week containing the date, creating the Monday-Sunday week if there
+     * is none. Creation commits in its own transaction; when another thread
+     * or instance created the same week first, that week is returned.
+     */
+    public WeekInfo findOrCreate(LocalDate date) {
+        Optional<WeekInfo> known = find(date);
+        if (known.isPresent()) {
+            return known.get();
+        }
+        synchronized (this) {
+            known = find(date);
+            if (known.isPresent()) {
+                return known.get();
+            }
+            LocalDate start = date.with(DayOfWeek.MONDAY);
+            LocalDate end = date.with(DayOfWeek.SUNDAY);
+            WeekInfo week;
+            try {
+                week = requiresNew.execute(status -> weekInfoRepo
+                        .findByStartDateLessThanEqualAndEndDateGreaterThanEqual(date, date)
+                        .orElseGet(() -> weekInfoRepo.save(newWeek(start, end))));
+            } catch (DataIntegrityViolationException e) {
+                // Created concurrently by another instance
+                week = requiresNew.execute(status -> weekInfoRepo.findByStartDateAndEndDate(start, end).orElseThrow(() -> e));
+            }
+            calendar = calendar.with(List.of(week));
+            return calendar.find(date).orElseThrow();
+        }
+    }
+
+    /**
+     * Adds weeks saved in the current transaction once it commits (right
+     * away without a transaction).
+     */
+    public void addAfterCommit(Collection<WeekInfo> weeks) {
+        if (weeks.isEmpty()) {
+            return;
+        }
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            add(weeks);
+            return;
+        }
+        List<WeekInfo> saved = List.copyOf(weeks);
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                add(saved);
+            }
+        });
+    }
+
+    private synchronized void add(Collection<WeekInfo> weeks) {
+        if (calendar.isLoaded()) {
+            calendar = calendar.with(weeks);
+        }
+    }
+
+    private static WeekInfo newWeek(LocalDate start, LocalDate end) {
+        WeekInfo weekInfo = new WeekInfo();
+        weekInfo.setStartDate(start);
+        weekInfo.setEndDate(end);
+        weekInfo.setWeekNo(start.get(WeekFields.ISO.weekOfYear()));
+        weekInfo.setYear(start.getYear());
+        weekInfo.setMonth(start.getMonthValue());
+        weekInfo.setIncompleteWeek(false);
+        return weekInfo;
+    }
+}
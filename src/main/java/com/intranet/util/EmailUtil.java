@@ -1,35 +1,42 @@
 package com.intranet.util;
 
 import jakarta.mail.MessagingException;
-import jakarta.mail.internet.MimeMessage;
 import lombok.RequiredArgsConstructor;
 
-import org.springframework.beans.factory.annotation.Value;
-import org.springframework.mail.javamail.JavaMailSender;
-import org.springframework.mail.javamail.MimeMessageHelper;
-import org.springframework.scheduling.annotation.Async;
+import java.time.LocalDateTime;
+
 import org.springframework.stereotype.Component;
 
+import com.intranet.entity.OutboundEmail;
+import com.intranet.repository.OutboundEmailRepo;
+
+/**
+ * Queues HTML emails in the outbound_email table. MailQueueDispatcher sends
+ * them in batches over a shared SMTP connection, with rate limiting and
+ * retries, so a queued mail survives restarts and SMTP outages.
+ *
+ * Called inside a transaction, the mail is only queued if that transaction
+ * commits.
+ */
 @Component
 @RequiredArgsConstructor
 public class EmailUtil {
 
-    
-    private final JavaMailSender mailSender;
+    private final OutboundEmailRepo outboundEmailRepo;
 
-    @Value("${spring.mail.username}")
-    private String fromEmail;
-
-    @Async
     public void sendEmail(String to, String subject, String htmlContent) throws MessagingException {
-        MimeMessage message = mailSender.createMimeMessage();
-
-        MimeMessageHelper helper = new MimeMessageHelper(message, true, "UTF-8");
-        helper.setFrom(fromEmail);
-        helper.setTo(to);
-        helper.setSubject(subject);
-        helper.setText(htmlContent, true); // HTML enabled
-        
-        mailSender.send(message);
+        if (to == null || to.isBlank()) {
+            throw new MessagingException("Recipient address is required");
+        }
+        LocalDateTime now = LocalDateTime.now();
+        outboundEmailRepo.save(OutboundEmail.builder()
+                .recipient(to.trim())
+                .subject(subject != null ? subject : "")
+                .htmlBody(htmlContent != null ? htmlContent : "")
+                .status(OutboundEmail.Status.PENDING)
+                .attempts(0)
+                .nextAttemptAt(now)
+                .createdAt(now)
+                .build());
     }
 }
@@ -0,0 +1,82 @@
+package com.intranet.util;
+
+import java.util.Collection;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * Bounded lock-free ring buffer for many producers and a single consumer.
+ *
+ * Producers claim a slot with one CAS on the tail and publish the element
+ * into it; the consumer takes slots in order and frees them. offer() never
+ * blocks: it returns false when the buffer is full, and the caller decides
+ * what to do with the element. The capacity is rounded up to a power of two.
+ */
+public final class MpscRingBuffer<E> {
+
+    private final AtomicReferenceArray<E> slots;
+    private final int mask;
+    private final AtomicLong tail = new AtomicLong();
+    private final AtomicLong head = new AtomicLong();
+
+    public MpscRingBuffer(int capacity) {
+        int size = Integer.highestOneBit(Math.max(2, capacity) - 1) << 1;
+        this.slots = new AtomicReferenceArray<>(size);
+        this.mask = size - 1;
+    }
+
+    /** Any thread. False when the buffer is full. */
+    public boolean offer(E element) {
+        if (element == null) {
+            throw new NullPointerException("element");
+        }
+        while (true) {
+            long t = tail.get();
+            if (t - head.get() > mask) {
+                return false;
+            }
+            if (tail.compareAndSet(t, t + 1)) {
+                slots.lazySet((int) t & mask, element);
+                return true;
+            }
+        }
+    }
+
+    /** Consumer thread only. Null when empty (or the next slot is not yet published). */
+    public E poll() {
+        long h = head.get();
+        int index = (int) h & mask;
+        E element = slots.get(index);
+        if (element == null) {
+            return null;
+        }
+        // Free the slot before it can be claimed again
+        slots.lazySet(index, null);
+        head.lazySet(h + 1);
+        return element;
+    }
+
+    /** Consumer thread only. Moves up to max elements into target; returns how many. */
+    public int drainTo(Collection<? super E> target, int max) {
+        int drained = 0;
+        E element;
+        while (drained < max && (element = poll()) != null) {
+            target.add(element);
+            drained++;
+        }
+        return drained;
+    }
+
+    public int size() {
+        long size = tail.get() - head.get();
+        return (int) Math.max(0, Math.min(size, capacity()));
+    }
+
+    public boolean isEmpty() {
+        return size() == 0;
+    }
+
+    public int capacity() {
+        return mask + 1;
+    }
+}
@@ -0,0 +1,82 @@
+package com.intranet.util;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import io.micrometer.core.instrument.binder.jvm.ExecutorServiceMetrics;
+
+/**
+ * Runs independent, CPU-bound per-item work (one resource / project / role of
+ * a report) on the reportComputePool.
+ *
+ * - Results come back in input order, so reports stay deterministic.
+ * - Lists shorter than app.compute.parallel-threshold, or everything when
+ *   app.compute.parallel=false, run on the calling thread.
+ * - The mapping function must only use data already loaded: it runs without
+ *   the caller's request, security or persistence context.
+ */
+@Component
+public class ParallelCompute {
+
+    private final ForkJoinPool reportComputePool;
+    private final boolean enabled;
+    private final int threshold;
+
+    public ParallelCompute(@Qualifier("reportComputePool") ForkJoinPool reportComputePool,
+                           MeterRegistry meterRegistry,
+                           @Value("${app.compute.parallel:true}") boolean enabled,
+                           @Value("${app.compute.parallel-threshold:32}") int threshold) {
+        this.reportComputePool = reportComputePool;
+        this.enabled = enabled;
+        this.threshold = threshold;
+        new ExecutorServiceMetrics(reportComputePool, "reportComputePool", Tags.empty()).bindTo(meterRegistry);
+    }
+
+    public <T, R> List<R> map(List<T> items, Function<? super T, ? extends R> fn) {
+        if (!enabled || items.size() < threshold || reportComputePool.getParallelism() < 2) {
+            List<R> results = new ArrayList<>(items.size());
+            for (T item : items) {
+                results.add(fn.apply(item));
+            }
+            return results;
+        }
+        try {
+            // A parallel stream started inside a ForkJoinPool task runs in that pool
+            return reportComputePool.submit(() -> items.parallelStream()
+                    .<R>map(fn)
+                    .collect(Collectors.toList()))
+                    .get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while computing report", e);
+        } catch (ExecutionException e) {
+            Throwable cause = original(e.getCause());
+            if (cause instanceof RuntimeException re) {
+                throw re;
+            }
+            if (cause instanceof Error err) {
+                throw err;
+            }
+            throw new IllegalStateException(cause);
+        }
+    }
+
+    // ForkJoin re-creates exceptions crossing threads (same type, original as cause)
+    private static Throwable original(Throwable ex) {
+        Throwable cause = ex;
+        while (cause.getCause() != null && cause.getCause().getClass() == cause.getClass()) {
+            cause = cause.getCause();
+        }
+        return cause;
+    }
+}
@@ -0,0 +1,131 @@
+package com.intranet.util;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.function.Supplier;
+
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.core.env.Environment;
+import org.springframework.stereotype.Component;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Starts independent UMS / PMS / LMS calls concurrently so a report waits for
+ * the slowest upstream instead of the sum of all of them.
+ *
+ * - Calls run on the bounded upstreamCallExecutor, which carries the caller's
+ *   request and security context (buildEntityWithAuth keeps working).
+ * - Each call has a deadline: app.upstream.deadline-ms.<ums|pms|lms>,
+ *   falling back to app.upstream.deadline-ms. A call past its deadline is
+ *   cancelled: dropped if still queued, interrupted if running.
+ * - required(): failure or deadline surfaces from {@link #await}.
+ *   optional(): failure or deadline is logged and the fallback is used.
+ *
+ * Start every call first, run the DB work on the request thread, then await.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class UpstreamCalls {
+
+    private static final long DEFAULT_DEADLINE_MS = 15000;
+
+    @Qualifier("upstreamCallExecutor")
+    private final Executor upstreamCallExecutor;
+    private final Environment environment;
+
+    public <T> CompletableFuture<T> required(String upstream, String what, Supplier<T> call) {
+        long deadlineMs = deadlineMs(upstream);
+        return start(call, deadlineMs)
+                .handle((value, ex) -> {
+                    if (ex == null) {
+                        return value;
+                    }
+                    Throwable cause = unwrap(ex);
+                    if (cause instanceof TimeoutException) {
+                        throw new IllegalStateException(
+                                upstream.toUpperCase() + " " + what + " did not respond within " + deadlineMs + " ms");
+                    }
+                    if (cause instanceof RuntimeException re) {
+                        throw re;
+                    }
+                    throw new IllegalStateException(cause);
+                });
+    }
+
+    public <T> CompletableFuture<T> optional(String upstream, String what, Supplier<T> call, T fallback) {
+        long deadlineMs = deadlineMs(upstream);
+        return start(call, deadlineMs)
+                .exceptionally(ex -> {
+                    Throwable cause = unwrap(ex);
+                    String reason = cause instanceof TimeoutException
+                            ? "no response within " + deadlineMs + " ms"
+                            : cause.getMessage();
+                    log.warn("⚠ {} {} unavailable, continuing without it: {}", upstream.toUpperCase(), what, reason);
+                    return fallback;
+                });
+    }
+
+    /**
+     * Waits for a call started above and rethrows its original exception
+     * (not wrapped in CompletionException), so existing handlers still match.
+     */
+    public static <T> T await(CompletableFuture<T> future) {
+        try {
+            return future.join();
+        } catch (CompletionException e) {
+            Throwable cause = unwrap(e);
+            if (cause instanceof RuntimeException re) {
+                throw re;
+            }
+            if (cause instanceof Error err) {
+                throw err;
+            }
+            throw new IllegalStateException(cause);
+        }
+    }
+
+    // Runs the call on the pool; on timeout the task is cancelled so it stops holding a pool thread
+    private <T> CompletableFuture<T> start(Supplier<T> call, long deadlineMs) {
+        CompletableFuture<T> result = new CompletableFuture<>();
+        FutureTask<Void> task = new FutureTask<>(() -> {
+            try {
+                result.complete(call.get());
+            } catch (Throwable ex) {
+                result.completeExceptionally(ex);
+            }
+            return null;
+        });
+        upstreamCallExecutor.execute(task);
+        return result.orTimeout(deadlineMs, TimeUnit.MILLISECONDS)
+                .whenComplete((value, ex) -> {
+                    if (ex != null && unwrap(ex) instanceof TimeoutException) {
+                        task.cancel(true);
+                    }
+                });
+    }
+
+    private long deadlineMs(String upstream) {
+        Long perUpstream = environment.getProperty("app.upstream.deadline-ms." + upstream, Long.class);
+        if (perUpstream != null) {
+            return perUpstream;
+        }
+        return environment.getProperty("app.upstream.deadline-ms", Long.class, DEFAULT_DEADLINE_MS);
+    }
+
+    private static Throwable unwrap(Throwable ex) {
+        Throwable cause = ex;
+        while ((cause instanceof CompletionException || cause instanceof ExecutionException)
+                && cause.getCause() != null) {
+            cause = cause.getCause();
+        }
+        return cause;
+    }
+}
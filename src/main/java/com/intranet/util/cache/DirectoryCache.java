@@ -0,0 +1,73 @@
+package com.intranet.util.cache;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.stereotype.Component;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+import java.util.concurrent.Callable;
+
+/**
+ * Read-through access to the directory caches declared in CacheConfig.
+ *
+ * - Keys are scoped by a hash of the caller's Authorization header, so a
+ *   response fetched with one token is never served to another token.
+ * - Concurrent misses on the same key share a single upstream call.
+ * - A loader that throws is not cached; the exception propagates.
+ */
+@Component
+@RequiredArgsConstructor
+public class DirectoryCache {
+
+    private final CacheManager cacheManager;
+
+    public <T> T get(String cacheName, String authHeader, String key, Callable<T> loader) {
+        Cache cache = cacheManager.getCache(cacheName);
+        if (cache == null) {
+            return call(loader);
+        }
+        try {
+            return cache.get(authScope(authHeader) + ":" + key, loader);
+        } catch (Cache.ValueRetrievalException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof RuntimeException re) {
+                throw re;
+            }
+            throw e;
+        }
+    }
+
+    public void evictAll(String cacheName) {
+        Cache cache = cacheManager.getCache(cacheName);
+        if (cache != null) {
+            cache.clear();
+        }
+    }
+
+    private <T> T call(Callable<T> loader) {
+        try {
+            return loader.call();
+        } catch (RuntimeException e) {
+            throw e;
+        } catch (Exception e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    static String authScope(String authHeader) {
+        if (authHeader == null || authHeader.isBlank()) {
+            return "anonymous";
+        }
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            byte[] hash = digest.digest(authHeader.getBytes(StandardCharsets.UTF_8));
+            return HexFormat.of().formatHex(hash, 0, 16);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
+}
@@ -2,12 +2,12 @@ package com.intranet.util.cache;
 
 import lombok.RequiredArgsConstructor;
 import org.springframework.beans.factory.annotation.Value;
-import org.springframework.cache.annotation.Cacheable;
 import org.springframework.core.ParameterizedTypeReference;
 import org.springframework.http.*;
 import org.springframework.stereotype.Service;
 import org.springframework.web.client.RestTemplate;
 
+import com.intranet.config.CacheConfig;
 import com.intranet.dto.lms.LeaveDTO;
 
 import java.time.LocalDate;
@@ -21,13 +21,27 @@ public class LeaveDirectoryService {
     @Value("${lms.api.base-url}")
     private String lmsBaseUrl;
 
-    private final RestTemplate restTemplate = new RestTemplate();
+    private final RestTemplate restTemplate;
+    private final DirectoryCache directoryCache;
 
     /**
-     * Fetch all leaves for a given year & month.
+     * Fetch all leaves for a given year & month (cached in leaveCache).
      */
-    @Cacheable(value = "leaveCache", key = "'leaves_'+#year+'_'+#month")
     public List<LeaveDTO> fetchLeaves(int year, int month, String authHeader) {
+        return directoryCache.get(CacheConfig.LEAVE_CACHE, authHeader, "leaves_" + year + "_" + month,
+                () -> loadLeaves(year, month, authHeader));
+    }
+
+    /**
+     * All leaves of the month grouped by employee, built from the cached
+     * fetchLeaves response. Use this instead of one fetchLeavesUserId call
+     * per employee.
+     */
+    public LeaveMonthIndex fetchLeaveIndex(int year, int month, String authHeader) {
+        return LeaveMonthIndex.of(fetchLeaves(year, month, authHeader), year, month);
+    }
+
+    private List<LeaveDTO> loadLeaves(int year, int month, String authHeader) {
 
         HttpHeaders headers = new HttpHeaders();
         headers.set("Authorization", authHeader);
@@ -61,8 +75,18 @@ public class LeaveDirectoryService {
         }
     }
 
-    // @Cacheable(value = "leaveCache", key = "'leaves__'+#year+'_'+#month")
     public List<LeaveDTO> fetchLeavesUserId(Long userId,int year, int month, String authHeader) {
+        try {
+            return directoryCache.get(CacheConfig.LEAVE_CACHE, authHeader,
+                    "leaves_" + userId + "_" + year + "_" + month,
+                    () -> loadLeavesUserId(userId, year, month, authHeader));
+        } catch (Exception e) {
+            System.err.println("⚠ Failed to fetch leaves: " + e.getMessage());
+            return Collections.emptyList();
+        }
+    }
+
+    private List<LeaveDTO> loadLeavesUserId(Long userId, int year, int month, String authHeader) {
 
         HttpHeaders headers = new HttpHeaders();
         headers.set("Authorization", authHeader);
@@ -70,33 +94,26 @@ public class LeaveDirectoryService {
 
         String url = String.format("%s/api/leave-requests/getLeaveRequests/%d?year=%d&month=%d", lmsBaseUrl, userId,year, month);
 
-        try {
-
-            ResponseEntity<Map<String, Object>> response = restTemplate.exchange(
-                    url,
-                    HttpMethod.GET,
-                    entity,
-                    new ParameterizedTypeReference<Map<String, Object>>() {}
-            );
-
-            Map<String, Object> body = response.getBody();
-            if (body == null || !body.containsKey("data")) {
-                return Collections.emptyList();
-            }
-
-            List<Map<String, Object>> leaves = (List<Map<String, Object>>) body.get("data");
-
-            return leaves.stream()
-                    .map(this::convertToDto)
-                    .collect(Collectors.toList());
+        ResponseEntity<Map<String, Object>> response = restTemplate.exchange(
+                url,
+                HttpMethod.GET,
+                entity,
+                new ParameterizedTypeReference<Map<String, Object>>() {}
+        );
 
-        } catch (Exception e) {
-            System.err.println("⚠ Failed to fetch leaves: " + e.getMessage());
+        Map<String, Object> body = response.getBody();
+        if (body == null || !body.containsKey("data")) {
             return Collections.emptyList();
         }
+
+        List<Map<String, Object>> leaves = (List<Map<String, Object>>) body.get("data");
+
+        return leaves.stream()
+                .map(this::convertToDto)
+                .collect(Collectors.toList());
     }
 
-    // @Cacheable(value = "leaveCache", key = "'leaves__User'+#year+'_'+#month")
+    // Not cached: the report must see PENDING leaves the moment they are reviewed.
     public List<LeaveDTO> fetchLeavesUserIdUserReport(Long userId, int year, int month, String authHeader) {
 
     HttpHeaders headers = new HttpHeaders();
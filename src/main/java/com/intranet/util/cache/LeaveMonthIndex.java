@@ -0,0 +1,90 @@
+package com.intranet.util.cache;
+
+import com.intranet.dto.lms.LeaveDTO;
+
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.util.*;
+
+/**
+ * All LMS leaves of one month, grouped by employee, with every approved leave
+ * already expanded to the weekdays it covers inside that month.
+ *
+ * Built per report from the cached {@link LeaveDirectoryService#fetchLeaves}
+ * response (the index itself is not cached), so per-user leave figures for a
+ * whole report are map lookups instead of one LMS call per employee. Approved
+ * leaves without a start or end date are kept in {@link #leavesOf} but cover
+ * no dates.
+ */
+public final class LeaveMonthIndex {
+
+    private final Map<Long, List<LeaveDTO>> leavesByEmployee;
+    private final Map<Long, List<LocalDate>> approvedDatesByEmployee;
+    private final LeaveDTO firstPending;
+
+    private LeaveMonthIndex(Map<Long, List<LeaveDTO>> leavesByEmployee,
+                            Map<Long, List<LocalDate>> approvedDatesByEmployee,
+                            LeaveDTO firstPending) {
+        this.leavesByEmployee = leavesByEmployee;
+        this.approvedDatesByEmployee = approvedDatesByEmployee;
+        this.firstPending = firstPending;
+    }
+
+    public static LeaveMonthIndex of(List<LeaveDTO> leaves, int year, int month) {
+        LocalDate monthStart = LocalDate.of(year, month, 1);
+        LocalDate monthEnd = monthStart.withDayOfMonth(monthStart.lengthOfMonth());
+
+        Map<Long, List<LeaveDTO>> byEmployee = new LinkedHashMap<>();
+        Map<Long, List<LocalDate>> approvedDates = new LinkedHashMap<>();
+        LeaveDTO firstPending = null;
+
+        for (LeaveDTO leave : leaves) {
+            Long employeeId = leave.getEmployeeId();
+            byEmployee.computeIfAbsent(employeeId, id -> new ArrayList<>()).add(leave);
+
+            if (firstPending == null && "PENDING".equalsIgnoreCase(leave.getStatus())) {
+                firstPending = leave;
+            }
+            if (!"APPROVED".equalsIgnoreCase(leave.getStatus())
+                    || leave.getStartDate() == null || leave.getEndDate() == null) {
+                continue;
+            }
+
+            // Clamp to the month and keep Monday–Friday only
+            LocalDate start = leave.getStartDate().isBefore(monthStart) ? monthStart : leave.getStartDate();
+            LocalDate end = leave.getEndDate().isAfter(monthEnd) ? monthEnd : leave.getEndDate();
+
+            List<LocalDate> dates = approvedDates.computeIfAbsent(employeeId, id -> new ArrayList<>());
+            for (LocalDate d = start; !d.isAfter(end); d = d.plusDays(1)) {
+                if (d.getDayOfWeek() != DayOfWeek.SATURDAY && d.getDayOfWeek() != DayOfWeek.SUNDAY) {
+                    dates.add(d);
+                }
+            }
+        }
+
+        byEmployee.replaceAll((id, list) -> List.copyOf(list));
+        approvedDates.replaceAll((id, list) -> List.copyOf(list));
+        return new LeaveMonthIndex(
+                Collections.unmodifiableMap(byEmployee),
+                Collections.unmodifiableMap(approvedDates),
+                firstPending);
+    }
+
+    public List<LeaveDTO> leavesOf(Long employeeId) {
+        return leavesByEmployee.getOrDefault(employeeId, List.of());
+    }
+
+    /** Approved leave weekdays of the employee within the month, in LMS order. */
+    public List<LocalDate> approvedDatesOf(Long employeeId) {
+        return approvedDatesByEmployee.getOrDefault(employeeId, List.of());
+    }
+
+    /** Employees with at least one approved leave weekday in the month. */
+    public Map<Long, List<LocalDate>> approvedDates() {
+        return approvedDatesByEmployee;
+    }
+
+    public Optional<LeaveDTO> firstPending() {
+        return Optional.ofNullable(firstPending);
+    }
+}
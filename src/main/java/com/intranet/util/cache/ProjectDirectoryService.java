@@ -1,7 +1,6 @@
 package com.intranet.util.cache;
 
 import org.springframework.beans.factory.annotation.Value;
-import org.springframework.cache.annotation.Cacheable;
 import org.springframework.core.ParameterizedTypeReference;
 import org.springframework.http.*;
 import org.springframework.stereotype.Service;
@@ -9,6 +8,8 @@ import org.springframework.web.client.RestTemplate;
 
 import lombok.RequiredArgsConstructor;
 
+import com.intranet.config.CacheConfig;
+
 import java.util.*;
 import java.util.stream.Collectors;
 
@@ -19,13 +20,30 @@ public class ProjectDirectoryService {
     @Value("${pms.api.base-url}")
     private String pmsBaseUrl;
 
-    private final RestTemplate restTemplate = new RestTemplate();
+    private final RestTemplate restTemplate;
+    private final DirectoryCache directoryCache;
 
     /**
-     * Fetch all projects from PMS (cached)
+     * Fetch all projects from PMS (cached in projectCache, scoped per Authorization header)
      */
-    @Cacheable(value = "projectCache", key = "'allProjects'")
     public Map<Long, Map<String, Object>> fetchAllProjects(String authHeader) {
+        try {
+            return directoryCache.get(CacheConfig.PROJECT_CACHE, authHeader, "allProjects",
+                    () -> loadAllProjects(authHeader));
+        } catch (Exception e) {
+            System.err.println("⚠️ PMS Fetch Error: " + e.getMessage());
+            return Collections.emptyMap();
+        }
+    }
+
+    /**
+     * Fetch all projects from PMS without the cache; PMS errors are thrown
+     */
+    public Map<Long, Map<String, Object>> fetchAllProjectsUncached(String authHeader) {
+        return loadAllProjects(authHeader);
+    }
+
+    private Map<Long, Map<String, Object>> loadAllProjects(String authHeader) {
 
         HttpHeaders headers = new HttpHeaders();
         headers.set("Authorization", authHeader);
@@ -33,26 +51,20 @@ public class ProjectDirectoryService {
 
         String pmsUrl = String.format("%s/projects/tms", pmsBaseUrl);
 
-        try {
-            ResponseEntity<List<Map<String, Object>>> response = restTemplate.exchange(
-                    pmsUrl, HttpMethod.GET, entity,
-                    new ParameterizedTypeReference<>() {}
-            );
-
-            List<Map<String, Object>> projects =
-                    Optional.ofNullable(response.getBody()).orElse(Collections.emptyList());
+        ResponseEntity<List<Map<String, Object>>> response = restTemplate.exchange(
+                pmsUrl, HttpMethod.GET, entity,
+                new ParameterizedTypeReference<>() {}
+        );
 
-            return projects.stream()
-                    .filter(p -> p.get("id") != null)
-                    .collect(Collectors.toMap(
-                            p -> ((Number) p.get("id")).longValue(),
-                            this::convertProjectToMap
-                    ));
+        List<Map<String, Object>> projects =
+                Optional.ofNullable(response.getBody()).orElse(Collections.emptyList());
 
-        } catch (Exception e) {
-            System.err.println("⚠️ PMS Fetch Error: " + e.getMessage());
-            return Collections.emptyMap();
-        }
+        return projects.stream()
+                .filter(p -> p.get("id") != null)
+                .collect(Collectors.toMap(
+                        p -> ((Number) p.get("id")).longValue(),
+                        this::convertProjectToMap
+                ));
     }
 
     /**
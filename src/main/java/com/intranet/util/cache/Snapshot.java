@@ -0,0 +1,15 @@
+package com.intranet.util.cache;
+
+import java.time.LocalDateTime;
+
+/**
+ * Immutable copy of data owned by another service (UMS, PMS, LMS), held by
+ * a {@link SnapshotRefresher} and replaced as a whole.
+ */
+public interface Snapshot {
+
+    boolean isLoaded();
+
+    /** When the data was read from its source; null for the empty placeholder. */
+    LocalDateTime syncedAt();
+}
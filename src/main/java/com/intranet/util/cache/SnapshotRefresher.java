@@ -0,0 +1,100 @@
+package com.intranet.util.cache;
+
+import java.time.LocalDateTime;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.intranet.service.email.ums_corn_job_token.UmsAuthService;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+
+/**
+ * Holds the current {@link Snapshot} of an upstream service and replaces it
+ * on {@link #refresh}.
+ *
+ * - Readers never lock; a refresh builds the next snapshot and swaps it in.
+ * - A refresh whose {@link #fetch} throws changes nothing, so the last good
+ *   snapshot keeps being served while the upstream service is down.
+ * - {@link #loadedOrRefresh} gives callers a snapshot before the first
+ *   scheduled refresh has run, refreshing once with their token.
+ *
+ * Subclasses schedule {@link #refreshWithServiceToken} and decide what an
+ * unavailable snapshot means for their callers. Metrics:
+ * {metric}{result=success|failed}.
+ */
+public abstract class SnapshotRefresher<S extends Snapshot> {
+
+    protected final Logger log = LoggerFactory.getLogger(getClass());
+
+    private final String name;
+    private final UmsAuthService umsAuthService;
+    private final Counter successes;
+    private final Counter failures;
+
+    private volatile S snapshot;
+
+    protected SnapshotRefresher(String name, S empty, UmsAuthService umsAuthService,
+                                MeterRegistry meterRegistry, String metric) {
+        this.name = name;
+        this.snapshot = empty;
+        this.umsAuthService = umsAuthService;
+        this.successes = meterRegistry.counter(metric, "result", "success");
+        this.failures = meterRegistry.counter(metric, "result", "failed");
+    }
+
+    /**
+     * Reads the upstream service (and stores what the subclass persists) and
+     * returns the next snapshot. Throw to keep the current one.
+     */
+    protected abstract S fetch(String authHeader, LocalDateTime now) throws Exception;
+
+    /** Returns false (and keeps the last snapshot) when the refresh failed. */
+    public synchronized boolean refresh(String authHeader) {
+        S next;
+        try {
+            next = fetch(authHeader, LocalDateTime.now());
+        } catch (Exception e) {
+            failures.increment();
+            log.warn("⚠️ {} refresh failed, keeping the one of {}: {}", name, snapshot.syncedAt(), e.getMessage());
+            return false;
+        }
+        snapshot = next;
+        successes.increment();
+        return true;
+    }
+
+    /** For @Scheduled refreshes, which run without a caller token. */
+    protected void refreshWithServiceToken() {
+        try {
+            refresh("Bearer " + umsAuthService.getUmsToken());
+        } catch (Exception e) {
+            log.warn("⚠️ Scheduled {} refresh skipped: {}", name, e.getMessage());
+        }
+    }
+
+    /** The current snapshot as is, possibly the empty placeholder. */
+    protected S snapshot() {
+        return snapshot;
+    }
+
+    /** Installs a snapshot read back from the local copy, e.g. at startup. */
+    protected synchronized void replace(S loaded) {
+        snapshot = loaded;
+    }
+
+    /** The current snapshot; refreshes once if none is loaded yet. Check isLoaded on the result. */
+    protected S loadedOrRefresh(String authHeader) {
+        S current = snapshot;
+        if (current.isLoaded()) {
+            return current;
+        }
+        synchronized (this) {
+            if (!snapshot.isLoaded()) {
+                refresh(authHeader);
+            }
+            return snapshot;
+        }
+    }
+}
@@ -1,110 +1,56 @@
 package com.intranet.util.cache;
 
-import org.springframework.beans.factory.annotation.Value;
-import org.springframework.cache.annotation.Cacheable;
-import org.springframework.core.ParameterizedTypeReference;
-import org.springframework.http.*;
 import org.springframework.stereotype.Service;
-import org.springframework.web.client.RestTemplate;
 
 import lombok.RequiredArgsConstructor;
 
+import com.intranet.service.directory.UserDirectoryIndex;
+import com.intranet.service.directory.UserDirectoryReplica;
+
 import java.util.*;
-import java.util.stream.Collectors;
 
+/**
+ * UMS users in the shapes the services have always used, served from the
+ * local {@link UserDirectoryReplica} instead of a live /admin/users call.
+ */
 @Service
 @RequiredArgsConstructor
 public class UserDirectoryService {
 
-    @Value("${ums.api.base-url}")
-    private String umsBaseUrl;
+    private final UserDirectoryReplica userDirectoryReplica;
 
-    private final RestTemplate restTemplate = new RestTemplate();
+    /** The local user directory (synced once with this token if it is still empty). */
+    public UserDirectoryIndex directory(String authHeader) {
+        return userDirectoryReplica.directory(authHeader);
+    }
 
     /**
-     * Fetch all users from UMS and return a user cache:
-     * key = userId, value = Map with "name", "email", etc.
+     * All users: key = userId, value = Map with "name", "email".
      */
-    
-    @Cacheable(value = "userCache", key = "'allUsers'")
     public Map<Long, Map<String, Object>> fetchAllUsers(String authHeader) {
-        HttpHeaders headers = new HttpHeaders();
-        headers.set("Authorization", authHeader);
-        HttpEntity<Void> entity = new HttpEntity<>(headers);
-
-        String umsUrl = String.format("%s/admin/users?page=1&limit=500", umsBaseUrl);
-
-        try {
-            ResponseEntity<Map<String, Object>> response = restTemplate.exchange(
-                    umsUrl, HttpMethod.GET, entity,
-                    new ParameterizedTypeReference<>() {}
-            );
-
-            Map<String, Object> body = response.getBody();
-            if (body == null || !body.containsKey("users")) return Collections.emptyMap();
-
-            List<Map<String, Object>> users = (List<Map<String, Object>>) body.get("users");
-
-            return users.stream()
-                    .collect(Collectors.toMap(
-                            u -> ((Number) u.get("user_id")).longValue(),
-                            u -> {
-                                String firstName = (String) u.getOrDefault("first_name", "");
-                                String lastName = (String) u.getOrDefault("last_name", "");
-                                String fullName = (firstName + " " + lastName).trim();
-                                String email = (String) u.getOrDefault("mail", "unknown@example.com");
-
-                                Map<String, Object> userMap = new HashMap<>();
-                                userMap.put("name", fullName.isEmpty() ? "Unknown User" : fullName);
-                                userMap.put("email", email);
-                                return userMap;
-                            }
-                    ));
-
-        } catch (Exception e) {
-            System.err.println("⚠️ Failed to fetch users from UMS: " + e.getMessage());
-            return Collections.emptyMap();
+        Map<Long, Map<String, Object>> users = new HashMap<>();
+        for (UserDirectoryIndex.User u : directory(authHeader).all()) {
+            users.put(u.id(), userMap(u));
         }
+        return users;
     }
 
+    /** All users as maps with "id", "name", "email". */
     public List<Map<String, Object>> fetchAllUsers2(String authHeader) {
-        HttpHeaders headers = new HttpHeaders();
-        headers.set("Authorization", authHeader);
-        HttpEntity<Void> entity = new HttpEntity<>(headers);
-
-        String umsUrl = String.format("%s/admin/users?page=1&limit=500", umsBaseUrl);
-
-        try {
-            ResponseEntity<Map<String, Object>> response = restTemplate.exchange(
-                    umsUrl, HttpMethod.GET, entity,
-                    new ParameterizedTypeReference<>() {}
-            );
-
-            Map<String, Object> body = response.getBody();
-            if (body == null || !body.containsKey("users")) return List.of();
-
-            List<Map<String, Object>> users = (List<Map<String, Object>>) body.get("users");
-
-            return users.stream()
-                    .map(u -> {
-                        Long id = ((Number) u.get("user_id")).longValue();
-                        String firstName = (String) u.getOrDefault("first_name", "");
-                        String lastName = (String) u.getOrDefault("last_name", "");
-                        String fullName = (firstName + " " + lastName).trim();
-                        String email = (String) u.getOrDefault("mail", "unknown@example.com");
-
-                        Map<String, Object> userMap = new HashMap<>();
-                        userMap.put("id", id);
-                        userMap.put("name", fullName.isEmpty() ? "Unknown User" : fullName);
-                        userMap.put("email", email);
-                        return userMap;
-                    })
-                    .collect(Collectors.toList());
-
-        } catch (Exception e) {
-            System.err.println("⚠️ Failed to fetch users from UMS: " + e.getMessage());
-            return List.of();
-        }
+        List<Map<String, Object>> users = new ArrayList<>();
+        for (UserDirectoryIndex.User u : directory(authHeader).all()) {
+            Map<String, Object> userMap = userMap(u);
+            userMap.put("id", u.id());
+            users.add(userMap);
         }
+        return users;
+    }
 
+    private static Map<String, Object> userMap(UserDirectoryIndex.User u) {
+        String fullName = u.fullName();
+        Map<String, Object> userMap = new HashMap<>();
+        userMap.put("name", fullName.isEmpty() ? "Unknown User" : fullName);
+        userMap.put("email", u.email() != null ? u.email() : UserDirectoryIndex.UNKNOWN_EMAIL);
+        return userMap;
+    }
 }
@@ -0,0 +1,84 @@
+package com.intranet.util.export;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * RFC 4180 CSV: records end with CRLF, fields containing a comma, quote or
+ * line break are quoted and embedded quotes doubled. Output is flushed every
+ * FLUSH_EVERY rows so the client starts receiving data long before the
+ * export is complete.
+ */
+public class CsvTableWriter implements TableWriter {
+
+    private static final int FLUSH_EVERY = 500;
+
+    private final Writer out;
+    private boolean firstSection = true;
+    private int pendingRows;
+
+    public CsvTableWriter(OutputStream out) {
+        this.out = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8));
+    }
+
+    @Override
+    public void section(String title) throws IOException {
+        if (!firstSection) {
+            out.write("\r\n");
+        }
+        firstSection = false;
+        row(title);
+    }
+
+    @Override
+    public void header(String... columns) throws IOException {
+        row((Object[]) columns);
+    }
+
+    @Override
+    public void row(Object... cells) throws IOException {
+        for (int i = 0; i < cells.length; i++) {
+            if (i > 0) {
+                out.write(',');
+            }
+            out.write(escape(format(cells[i])));
+        }
+        out.write("\r\n");
+        if (++pendingRows >= FLUSH_EVERY) {
+            out.flush();
+            pendingRows = 0;
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        out.flush();
+    }
+
+    private static String format(Object cell) {
+        if (cell == null) {
+            return "";
+        }
+        if (cell instanceof Percent p) {
+            return p.value().toPlainString() + "%";
+        }
+        if (cell instanceof BigDecimal d) {
+            return d.toPlainString();
+        }
+        return cell.toString();
+    }
+
+    static String escape(String value) {
+        boolean quote = false;
+        for (int i = 0; i < value.length() && !quote; i++) {
+            char c = value.charAt(i);
+            quote = c == ',' || c == '"' || c == '\n' || c == '\r';
+        }
+        return quote ? '"' + value.replace("\"", "\"\"") + '"' : value;
+    }
+}
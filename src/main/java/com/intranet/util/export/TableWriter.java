@@ -0,0 +1,36 @@
+package com.intranet.util.export;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.math.BigDecimal;
+
+/**
+ * Row-at-a-time sink for tabular exports. Rows are written out as they are
+ * passed in; nothing but the current row is held in memory.
+ *
+ * A report is a sequence of titled sections. CSV writes them one after
+ * another separated by a blank line, XLSX gives each its own sheet.
+ * Cells may be strings, numbers, dates, {@link Percent} or null (empty).
+ */
+public interface TableWriter extends Closeable {
+
+    /** Starts a new titled block of rows. */
+    void section(String title) throws IOException;
+
+    /** Column headings of the current section. */
+    void header(String... columns) throws IOException;
+
+    void row(Object... cells) throws IOException;
+
+    /** Completes the document; the underlying stream is not closed. */
+    @Override
+    void close() throws IOException;
+
+    /** A number shown with a trailing "%" (12.5 → 12.5%). */
+    record Percent(BigDecimal value) {
+    }
+
+    static Percent percent(BigDecimal value) {
+        return value == null ? null : new Percent(value);
+    }
+}
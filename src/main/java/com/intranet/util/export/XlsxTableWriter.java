@@ -0,0 +1,246 @@
+package com.intranet.util.export;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.zip.Deflater;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipOutputStream;
+
+/**
+ * Minimal streaming .xlsx (SpreadsheetML) writer.
+ *
+ * Each section becomes a worksheet whose XML is deflated straight into the
+ * target stream while rows arrive, so memory stays flat however many rows
+ * are written. Strings are stored inline (no shared-string table to keep
+ * in memory); the workbook, relationships and styles parts are small and
+ * written on {@link #close()}, once all sheet names are known.
+ *
+ * Styles: 1 = bold (titles, headings), 2 = number with "%" suffix,
+ * 3 = date.
+ */
+public class XlsxTableWriter implements TableWriter {
+
+    private static final String MAIN_NS = "http://schemas.openxmlformats.org/spreadsheetml/2006/main";
+    private static final String REL_NS = "http://schemas.openxmlformats.org/officeDocument/2006/relationships";
+    private static final String XML_DECL = "<?xml version=\"1.0\" encoding=\"UTF-8\" standalone=\"yes\"?>\n";
+    private static final LocalDate EXCEL_EPOCH = LocalDate.of(1899, 12, 30);
+
+    private static final int STYLE_BOLD = 1;
+    private static final int STYLE_PERCENT = 2;
+    private static final int STYLE_DATE = 3;
+
+    private final ZipOutputStream zip;
+    private final Writer out;
+    private final List<String> sheetNames = new ArrayList<>();
+    private final Set<String> usedNames = new HashSet<>();
+    private boolean sheetOpen;
+    private int rowNum;
+
+    public XlsxTableWriter(OutputStream target) {
+        this.zip = new ZipOutputStream(target, StandardCharsets.UTF_8);
+        this.zip.setLevel(Deflater.BEST_SPEED);
+        this.out = new BufferedWriter(new OutputStreamWriter(zip, StandardCharsets.UTF_8));
+    }
+
+    @Override
+    public void section(String title) throws IOException {
+        startSheet(title);
+        writeRow(STYLE_BOLD, title);
+    }
+
+    @Override
+    public void header(String... columns) throws IOException {
+        ensureSheet();
+        writeRow(STYLE_BOLD, (Object[]) columns);
+    }
+
+    @Override
+    public void row(Object... cells) throws IOException {
+        ensureSheet();
+        writeRow(0, cells);
+    }
+
+    @Override
+    public void close() throws IOException {
+        ensureSheet();
+        endSheet();
+
+        StringBuilder overrides = new StringBuilder();
+        StringBuilder sheets = new StringBuilder();
+        StringBuilder rels = new StringBuilder();
+        for (int i = 1; i <= sheetNames.size(); i++) {
+            overrides.append("<Override PartName=\"/xl/worksheets/sheet").append(i)
+                    .append(".xml\" ContentType=\"application/vnd.openxmlformats-officedocument.spreadsheetml.worksheet+xml\"/>");
+            sheets.append("<sheet name=\"").append(xml(sheetNames.get(i - 1)))
+                    .append("\" sheetId=\"").append(i).append("\" r:id=\"rId").append(i).append("\"/>");
+            rels.append("<Relationship Id=\"rId").append(i)
+                    .append("\" Type=\"").append(REL_NS).append("/worksheet\" Target=\"worksheets/sheet").append(i).append(".xml\"/>");
+        }
+        rels.append("<Relationship Id=\"rId").append(sheetNames.size() + 1)
+                .append("\" Type=\"").append(REL_NS).append("/styles\" Target=\"styles.xml\"/>");
+
+        part("[Content_Types].xml",
+                "<Types xmlns=\"http://schemas.openxmlformats.org/package/2006/content-types\">"
+                + "<Default Extension=\"rels\" ContentType=\"application/vnd.openxmlformats-package.relationships+xml\"/>"
+                + "<Default Extension=\"xml\" ContentType=\"application/xml\"/>"
+                + "<Override PartName=\"/xl/workbook.xml\" ContentType=\"application/vnd.openxmlformats-officedocument.spreadsheetml.sheet.main+xml\"/>"
+                + "<Override PartName=\"/xl/styles.xml\" ContentType=\"application/vnd.openxmlformats-officedocument.spreadsheetml.styles+xml\"/>"
+                + overrides
+                + "</Types>");
+        part("_rels/.rels",
+                "<Relationships xmlns=\"http://schemas.openxmlformats.org/package/2006/relationships\">"
+                + "<Relationship Id=\"rId1\" Type=\"" + REL_NS + "/officeDocument\" Target=\"xl/workbook.xml\"/>"
+                + "</Relationships>");
+        part("xl/workbook.xml",
+                "<workbook xmlns=\"" + MAIN_NS + "\" xmlns:r=\"" + REL_NS + "\"><sheets>" + sheets + "</sheets></workbook>");
+        part("xl/_rels/workbook.xml.rels",
+                "<Relationships xmlns=\"http://schemas.openxmlformats.org/package/2006/relationships\">" + rels + "</Relationships>");
+        part("xl/styles.xml",
+                "<styleSheet xmlns=\"" + MAIN_NS + "\">"
+                + "<numFmts count=\"1\"><numFmt numFmtId=\"164\" formatCode=\"0.00&quot;%&quot;\"/></numFmts>"
+                + "<fonts count=\"2\"><font><sz val=\"11\"/><name val=\"Calibri\"/></font>"
+                + "<font><b/><sz val=\"11\"/><name val=\"Calibri\"/></font></fonts>"
+                + "<fills count=\"2\"><fill><patternFill patternType=\"none\"/></fill>"
+                + "<fill><patternFill patternType=\"gray125\"/></fill></fills>"
+                + "<borders count=\"1\"><border><left/><right/><top/><bottom/><diagonal/></border></borders>"
+                + "<cellStyleXfs count=\"1\"><xf numFmtId=\"0\" fontId=\"0\" fillId=\"0\" borderId=\"0\"/></cellStyleXfs>"
+                + "<cellXfs count=\"4\">"
+                + "<xf numFmtId=\"0\" fontId=\"0\" fillId=\"0\" borderId=\"0\" xfId=\"0\"/>"
+                + "<xf numFmtId=\"0\" fontId=\"1\" fillId=\"0\" borderId=\"0\" xfId=\"0\" applyFont=\"1\"/>"
+                + "<xf numFmtId=\"164\" fontId=\"0\" fillId=\"0\" borderId=\"0\" xfId=\"0\" applyNumberFormat=\"1\"/>"
+                + "<xf numFmtId=\"14\" fontId=\"0\" fillId=\"0\" borderId=\"0\" xfId=\"0\" applyNumberFormat=\"1\"/>"
+                + "</cellXfs>"
+                + "<cellStyles count=\"1\"><cellStyle name=\"Normal\" xfId=\"0\" builtinId=\"0\"/></cellStyles>"
+                + "</styleSheet>");
+
+        // Completes the archive without closing the caller's stream
+        zip.finish();
+        zip.flush();
+    }
+
+    private void ensureSheet() throws IOException {
+        if (!sheetOpen) {
+            startSheet("Sheet" + (sheetNames.size() + 1));
+        }
+    }
+
+    private void startSheet(String title) throws IOException {
+        endSheet();
+        sheetNames.add(sheetName(title));
+        zip.putNextEntry(new ZipEntry("xl/worksheets/sheet" + sheetNames.size() + ".xml"));
+        out.write(XML_DECL);
+        out.write("<worksheet xmlns=\"" + MAIN_NS + "\"><sheetData>");
+        sheetOpen = true;
+        rowNum = 0;
+    }
+
+    private void endSheet() throws IOException {
+        if (!sheetOpen) {
+            return;
+        }
+        out.write("</sheetData></worksheet>");
+        out.flush();
+        zip.closeEntry();
+        sheetOpen = false;
+    }
+
+    private void writeRow(int style, Object... cells) throws IOException {
+        rowNum++;
+        out.write("<row r=\"" + rowNum + "\">");
+        for (int i = 0; i < cells.length; i++) {
+            Object cell = cells[i];
+            if (cell == null) {
+                continue;
+            }
+            String ref = column(i) + rowNum;
+            if (cell instanceof Percent p) {
+                number(ref, STYLE_PERCENT, p.value().toPlainString());
+            } else if (cell instanceof BigDecimal d) {
+                number(ref, style, d.toPlainString());
+            } else if (cell instanceof Number n && isFinite(n)) {
+                number(ref, style, n.toString());
+            } else if (cell instanceof LocalDate date) {
+                number(ref, STYLE_DATE, Long.toString(ChronoUnit.DAYS.between(EXCEL_EPOCH, date)));
+            } else {
+                out.write("<c r=\"" + ref + "\" t=\"inlineStr\"" + styleAttr(style) + "><is><t xml:space=\"preserve\">");
+                out.write(xml(cell.toString()));
+                out.write("</t></is></c>");
+            }
+        }
+        out.write("</row>");
+    }
+
+    private void number(String ref, int style, String value) throws IOException {
+        out.write("<c r=\"" + ref + "\"" + styleAttr(style) + "><v>" + value + "</v></c>");
+    }
+
+    private void part(String name, String xml) throws IOException {
+        zip.putNextEntry(new ZipEntry(name));
+        out.write(XML_DECL);
+        out.write(xml);
+        out.flush();
+        zip.closeEntry();
+    }
+
+    private String sheetName(String title) {
+        String base = title == null ? "" : title.replaceAll("[\\[\\]:*?/\\\\]", " ").trim();
+        if (base.isEmpty()) {
+            base = "Sheet" + (sheetNames.size() + 1);
+        }
+        base = base.length() > 31 ? base.substring(0, 31) : base;
+        String name = base;
+        for (int n = 2; !usedNames.add(name.toLowerCase()); n++) {
+            String suffix = " (" + n + ")";
+            name = base.substring(0, Math.min(base.length(), 31 - suffix.length())) + suffix;
+        }
+        return name;
+    }
+
+    private static String styleAttr(int style) {
+        return style == 0 ? "" : " s=\"" + style + "\"";
+    }
+
+    private static boolean isFinite(Number n) {
+        return !(n instanceof Double d && !Double.isFinite(d)) && !(n instanceof Float f && !Float.isFinite(f));
+    }
+
+    /** 0 → A, 25 → Z, 26 → AA. */
+    static String column(int index) {
+        StringBuilder name = new StringBuilder();
+        for (int i = index + 1; i > 0; i = (i - 1) / 26) {
+            name.insert(0, (char) ('A' + (i - 1) % 26));
+        }
+        return name.toString();
+    }
+
+    /** Escapes markup and drops characters XML 1.0 cannot carry. */
+    static String xml(String value) {
+        StringBuilder escaped = new StringBuilder(value.length());
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            switch (c) {
+                case '&' -> escaped.append("&amp;");
+                case '<' -> escaped.append("&lt;");
+                case '>' -> escaped.append("&gt;");
+                case '"' -> escaped.append("&quot;");
+                default -> {
+                    if (c >= 0x20 || c == '\t' || c == '\n' || c == '\r') {
+                        escaped.append(c);
+                    }
+                }
+            }
+        }
+        return escaped.toString();
+    }
+}
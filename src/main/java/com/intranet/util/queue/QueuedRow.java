@@ -0,0 +1,38 @@
+package com.intranet.util.queue;
+
+import java.time.LocalDateTime;
+
+/**
+ * A row of a database-backed work queue (outbound_email, event_outbox):
+ * claimed by one worker at a time, retried with backoff, dead-lettered in
+ * the end. The status transitions are left to the entity, whose Status enum
+ * names them after its own work (SENDING/SENT, DISPATCHING/DISPATCHED).
+ */
+public interface QueuedRow {
+
+    Long getId();
+
+    int getAttempts();
+
+    void setAttempts(int attempts);
+
+    void setNextAttemptAt(LocalDateTime nextAttemptAt);
+
+    void setLockedUntil(LocalDateTime lockedUntil);
+
+    String getLastError();
+
+    void setLastError(String lastError);
+
+    /** Taken by a worker; due again once lockedUntil has passed. */
+    void markClaimed();
+
+    /** Waiting for its next attempt at nextAttemptAt. */
+    void markPending();
+
+    /** Handled successfully at the given time. */
+    void markDone(LocalDateTime at);
+
+    /** Given up on; never claimed again. */
+    void markDead();
+}
@@ -0,0 +1,76 @@
+package com.intranet.util.queue;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Claim and retry rules shared by the queue dispatchers.
+ *
+ * - {@link #claim} marks rows taken until now + claimTimeoutMs, after which a
+ *   row whose worker died is due again.
+ * - {@link #fail} counts an attempt and either schedules the next one with
+ *   exponential backoff or, at maxAttempts, dead-letters the row.
+ *
+ * Built from the dispatcher's own app.*.max-attempts / backoff / claim
+ * settings; the dispatchers keep their counters and log lines.
+ */
+public record RetryPolicy(int maxAttempts, long backoffInitialMs, long backoffMaxMs, long claimTimeoutMs) {
+
+    private static final int MAX_ERROR_LENGTH = 2000;
+
+    public <R extends QueuedRow> List<R> claim(List<R> rows, LocalDateTime now) {
+        LocalDateTime until = now.plus(Duration.ofMillis(claimTimeoutMs));
+        for (R row : rows) {
+            row.markClaimed();
+            row.setLockedUntil(until);
+        }
+        return rows;
+    }
+
+    public void succeed(QueuedRow row, LocalDateTime now) {
+        row.markDone(now);
+        row.setLockedUntil(null);
+        row.setLastError(null);
+    }
+
+    /**
+     * Records a failed attempt.
+     *
+     * @return true when the row was dead-lettered, false when it is due again later
+     */
+    public boolean fail(QueuedRow row, Exception error, LocalDateTime now) {
+        int attempts = row.getAttempts() + 1;
+        row.setAttempts(attempts);
+        row.setLockedUntil(null);
+        row.setLastError(describe(error));
+
+        if (attempts >= maxAttempts) {
+            row.markDead();
+            return true;
+        }
+        row.markPending();
+        row.setNextAttemptAt(now.plus(Duration.ofMillis(backoffMs(attempts, backoffInitialMs, backoffMaxMs))));
+        return false;
+    }
+
+    /** For rows that can never succeed (e.g. a malformed address): dead at once, attempt counted. */
+    public static void deadLetter(QueuedRow row, Exception error) {
+        row.setAttempts(row.getAttempts() + 1);
+        row.setLockedUntil(null);
+        row.setLastError(describe(error));
+        row.markDead();
+    }
+
+    /** initial, 2×, 4×, ... capped at max. */
+    public static long backoffMs(int attempts, long initialMs, long maxMs) {
+        int shift = Math.min(Math.max(attempts - 1, 0), 30);
+        long delay = initialMs << shift;
+        return delay <= 0 || delay > maxMs ? maxMs : delay;
+    }
+
+    static String describe(Exception error) {
+        String message = error.getClass().getSimpleName() + ": " + error.getMessage();
+        return message.length() > MAX_ERROR_LENGTH ? message.substring(0, MAX_ERROR_LENGTH) : message;
+    }
+}
@@ -0,0 +1,90 @@
+package com.intranet.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.intranet.controller.AuditLogController;
+import com.intranet.dto.audit.AuditLogPageDTO;
+import com.intranet.entity.AuditLog;
+import com.intranet.repository.AuditLogRepo;
+import com.intranet.repository.AuditLogSpecs;
+import com.intranet.service.audit.AuditLogCursor;
+import com.intranet.service.audit.AuditLogWriter;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.CriteriaQuery;
+import jakarta.persistence.criteria.Path;
+import jakarta.persistence.criteria.Root;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
+import org.springframework.http.ResponseEntity;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.function.Function;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@SuppressWarnings({"unchecked", "rawtypes"})
+class AuditLogServiceTest {
+
+    private static final LocalDateTime T1 = LocalDateTime.of(2026, 5, 3, 10, 15, 30);
+
+    private final AuditLogRepo repo = mock(AuditLogRepo.class);
+    private final AuditLogService service = new AuditLogService(repo, mock(AuditLogWriter.class), new ObjectMapper());
+    private final JpaSpecificationExecutor.SpecificationFluentQuery query = mock(JpaSpecificationExecutor.SpecificationFluentQuery.class, RETURNS_SELF);
+
+    AuditLogServiceTest() {
+        when(repo.findBy(any(Specification.class), any(Function.class)))
+                .thenAnswer(i -> i.<Function>getArgument(1).apply(query));
+    }
+
+    @Test
+    void shouldContinueWithinRowsOfTheSameInstantById() {
+        // Three rows share T1; the page boundary falls between them
+        when(query.all()).thenReturn(List.of(row(5L, T1), row(4L, T1), row(3L, T1)));
+
+        AuditLogPageDTO first = service.getAuditLogs(null, null, null, null, null, null, 2);
+
+        assertEquals(List.of(5L, 4L), first.getContent().stream().map(AuditLog::getId).toList());
+        assertTrue(first.isHasMore());
+        assertEquals(new AuditLogCursor(T1, 4L), AuditLogCursor.decode(first.getNextCursor()));
+        verify(query).sortBy(AuditLogSpecs.NEWEST_FIRST);
+        verify(query).limit(3);
+
+        when(query.all()).thenReturn(List.of(row(3L, T1), row(9L, T1.minusSeconds(1))));
+        AuditLogPageDTO second = service.getAuditLogs(null, null, null, null, null, first.getNextCursor(), 2);
+
+        assertEquals(List.of(3L, 9L), second.getContent().stream().map(AuditLog::getId).toList());
+        assertFalse(second.isHasMore());
+        assertNull(second.getNextCursor());
+
+        // The second query asks for createdAt < T1 OR (createdAt = T1 AND id < 4)
+        ArgumentCaptor<Specification<AuditLog>> spec = ArgumentCaptor.forClass(Specification.class);
+        verify(repo, times(2)).findBy(spec.capture(), any(Function.class));
+        Root<AuditLog> root = mock(Root.class);
+        Path createdAt = mock(Path.class);
+        Path id = mock(Path.class);
+        doReturn(createdAt).when(root).get("createdAt");
+        doReturn(id).when(root).get("id");
+        CriteriaBuilder cb = mock(CriteriaBuilder.class);
+        spec.getAllValues().get(1).toPredicate(root, mock(CriteriaQuery.class), cb);
+        verify(cb).lessThan(createdAt, T1);
+        verify(cb).equal(createdAt, T1);
+        verify(cb).lessThan(id, 4L);
+    }
+
+    @Test
+    void shouldAnswerAnInvalidCursorWithBadRequest() {
+        ResponseEntity<?> response = new AuditLogController(service)
+                .getAuditLogs(null, null, null, null, null, "not-a-cursor", 50);
+
+        assertEquals(400, response.getStatusCode().value());
+        verifyNoInteractions(repo);
+    }
+
+    private static AuditLog row(Long id, LocalDateTime createdAt) {
+        return AuditLog.builder().id(id).createdAt(createdAt).build();
+    }
+}
@@ -0,0 +1,143 @@
+package com.intranet.service.Manager;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.intranet.entity.OutboxEvent;
+import com.intranet.repository.OutboxEventRepo;
+import com.intranet.repository.TimeSheetRepo;
+import com.intranet.repository.TimeSheetReviewRepo;
+import com.intranet.service.directory.UserDirectoryIndex;
+import com.intranet.service.directory.UserDirectoryReplica;
+import com.intranet.service.project.ProjectMembershipGraph;
+import com.intranet.service.project.ProjectMembershipService;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+class ManagerPushServiceTest {
+
+    private final TimeSheetRepo timeSheetRepo = mock(TimeSheetRepo.class);
+    private final TimeSheetReviewRepo reviewRepo = mock(TimeSheetReviewRepo.class);
+    private final OutboxEventRepo outboxRepo = mock(OutboxEventRepo.class);
+    private final ProjectMembershipService membership = mock(ProjectMembershipService.class);
+    private final ProjectMembershipGraph graph = mock(ProjectMembershipGraph.class);
+    private final UserDirectoryReplica directory = mock(UserDirectoryReplica.class);
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    ManagerPushServiceTest() {
+        when(membership.current()).thenReturn(graph);
+        UserDirectoryIndex index = mock(UserDirectoryIndex.class);
+        when(index.name(anyLong(), anyString())).thenAnswer(i -> "User " + i.getArgument(0));
+        when(directory.current()).thenReturn(index);
+    }
+
+    private ManagerPushService service(int maxConnections, int maxPerManager) {
+        return service(Runnable::run, maxConnections, maxPerManager, 60_000);
+    }
+
+    private ManagerPushService service(Executor executor, int maxConnections, int maxPerManager, long writeTimeoutMs) {
+        return new ManagerPushService(timeSheetRepo, reviewRepo, outboxRepo, membership, directory, new ObjectMapper(),
+                executor, meterRegistry, maxConnections, maxPerManager, 60_000, 4, writeTimeoutMs, 90);
+    }
+
+    @Test
+    void shouldCountSubmittedWeeksNotYetDecidedByManager() {
+        LocalDate since = LocalDate.of(2026, 7, 1);
+        when(timeSheetRepo.findUserWeeksByStatusSince(eq(Set.of(1L, 2L)), any(), eq(since)))
+                .thenReturn(List.of(new Object[]{1L, 10L}, new Object[]{1L, 11L}, new Object[]{2L, 10L}));
+        when(reviewRepo.findReviewedUserWeeks(eq(9L), any(), any()))
+                .thenReturn(List.<Object[]>of(new Object[]{1L, 10L}));
+
+        Map<String, Object> counts = service(10, 2).pendingCounts(9L, Set.of(1L, 2L), since);
+
+        assertEquals(2, counts.get("pending"));
+        assertEquals(List.of(Map.of("userId", 1L, "userName", "User 1", "pendingWeeks", 1),
+                        Map.of("userId", 2L, "userName", "User 2", "pendingWeeks", 1)),
+                counts.get("pendingUsers"));
+    }
+
+    @Test
+    void shouldRejectStreamsBeyondPerManagerAndNodeLimits() {
+        ManagerPushService service = service(3, 2);
+
+        assertTrue(service.subscribe(9L, "Bearer t").isPresent());
+        assertTrue(service.subscribe(9L, "Bearer t").isPresent());
+        assertTrue(service.subscribe(9L, "Bearer t").isEmpty());
+        assertTrue(service.subscribe(8L, "Bearer t").isPresent());
+        assertTrue(service.subscribe(7L, "Bearer t").isEmpty());
+        assertEquals(3, service.openConnections());
+    }
+
+    @Test
+    void shouldPushEventsDispatchedOnAnotherNodeFromTheFeed() throws Exception {
+        when(outboxRepo.findMaxFeedSeq()).thenReturn(41L);
+        when(graph.teamOf(9L)).thenReturn(Set.of(1L));
+        when(graph.managersOf(1L)).thenReturn(Set.of(9L));
+        SseEmitter emitter = mock(SseEmitter.class);
+        ManagerPushService service = service(10, 2);
+        service.subscribe(9L, "Bearer t", emitter);
+        verify(timeSheetRepo, times(1)).findUserWeeksByStatusSince(eq(Set.of(1L)), any(), any());
+
+        // Another node dispatched feed_seq 42; nothing was published here
+        OutboxEvent row = OutboxEvent.builder().feedSeq(42L).eventType("WeekSubmitted").userId(1L)
+                .payload("{\"userId\":1,\"weekId\":10,\"timeSheetIds\":[100,101]}").build();
+        when(outboxRepo.findByFeedSeqGreaterThanOrderByFeedSeqAsc(eq(41L), any())).thenReturn(List.of(row));
+        service.readFeed();
+
+        verify(emitter, times(3)).send(any(SseEmitter.SseEventBuilder.class));
+        verify(timeSheetRepo, times(2)).findUserWeeksByStatusSince(eq(Set.of(1L)), any(), any());
+
+        // The cursor moved past 42
+        service.readFeed();
+        verify(outboxRepo).findByFeedSeqGreaterThanOrderByFeedSeqAsc(eq(42L), any());
+        verify(emitter, times(3)).send(any(SseEmitter.SseEventBuilder.class));
+    }
+
+    @Test
+    void shouldCloseAStreamWhoseWriteStalls() throws Exception {
+        ExecutorService executor = Executors.newCachedThreadPool();
+        try {
+            CountDownLatch writing = new CountDownLatch(1);
+            SseEmitter emitter = mock(SseEmitter.class);
+            doAnswer(i -> {
+                writing.countDown();
+                try {
+                    // A client that stopped reading
+                    Thread.sleep(60_000);
+                } catch (InterruptedException e) {
+                    throw new IOException("write interrupted");
+                }
+                return null;
+            }).when(emitter).send(any(SseEmitter.SseEventBuilder.class));
+            ManagerPushService service = service(executor, 10, 2, 50);
+
+            service.subscribe(9L, "Bearer t", emitter);
+            assertTrue(writing.await(5, TimeUnit.SECONDS));
+            Thread.sleep(100);
+            service.closeStalledWrites();
+
+            assertEquals(0, service.openConnections());
+            assertEquals(1, meterRegistry.counter("manager.push.dropped", "reason", "stalled").count());
+            // The writer gets its thread back; complete() would have waited on the blocked send
+            executor.shutdown();
+            assertTrue(executor.awaitTermination(5, TimeUnit.SECONDS));
+            verify(emitter, never()).complete();
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+}
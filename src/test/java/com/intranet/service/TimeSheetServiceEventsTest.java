@@ -0,0 +1,205 @@
+package com.intranet.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.intranet.dto.AddEntryDTO;
+import com.intranet.dto.DeleteTimeSheetEntriesRequest;
+import com.intranet.dto.TimeSheetEntryCreateDTO;
+import com.intranet.dto.TimeSheetUpdateRequest;
+import com.intranet.entity.OutboxEvent;
+import com.intranet.entity.TimeSheet;
+import com.intranet.entity.TimeSheetEntry;
+import com.intranet.entity.WeekInfo;
+import com.intranet.repository.HolidayExcludeUsersRepo;
+import com.intranet.repository.InternalProjectRepo;
+import com.intranet.repository.OutboxEventRepo;
+import com.intranet.repository.TimeSheetEntryRepo;
+import com.intranet.repository.TimeSheetOnHolidaysRepo;
+import com.intranet.repository.TimeSheetRepo;
+import com.intranet.repository.WeekInfoRepo;
+import com.intranet.service.events.DomainEventDispatcher;
+import com.intranet.service.events.DomainEventOutbox;
+import com.intranet.service.events.TimesheetEvent;
+import com.intranet.service.pms.TaskDurationCache;
+import com.intranet.service.rollup.TimeSheetRollupService;
+import com.intranet.service.week.WeekCalendarService;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.web.client.RestTemplate;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * The four entry-changing methods of TimeSheetService each append one event
+ * to the outbox, inside the service's own transaction.
+ */
+class TimeSheetServiceEventsTest {
+
+    private static final LocalDate DAY = LocalDate.of(2026, 10, 14);
+
+    private final ObjectMapper objectMapper = new ObjectMapper().findAndRegisterModules();
+    private final TimeSheetRepo timeSheetRepo = mock(TimeSheetRepo.class);
+    private final TimeSheetEntryRepo entryRepo = mock(TimeSheetEntryRepo.class);
+    private final WeekCalendarService weekCalendarService = mock(WeekCalendarService.class);
+    private final OutboxEventRepo outboxRepo = mock(OutboxEventRepo.class);
+    private final DomainEventDispatcher dispatcher = mock(DomainEventDispatcher.class);
+    private final TimeSheetService service = new TimeSheetService(timeSheetRepo, mock(WeekInfoRepo.class),
+            weekCalendarService, mock(InternalProjectRepo.class), entryRepo, mock(HolidayExcludeUsersRepo.class),
+            mock(TimeSheetOnHolidaysRepo.class), mock(TimeSheetRollupService.class), mock(TaskDurationCache.class),
+            new DomainEventOutbox(outboxRepo, objectMapper, dispatcher), mock(RestTemplate.class));
+
+    @BeforeEach
+    void startTransaction() {
+        ReflectionTestUtils.setField(service, "timeSheetEntryRepository", entryRepo);
+        TransactionSynchronizationManager.initSynchronization();
+    }
+
+    @AfterEach
+    void clearSynchronization() {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+    }
+
+    @Test
+    void shouldAppendInTheTransactionOfTheServiceMethod() throws Exception {
+        for (String method : List.of("createTimeSheet", "addEntriesToTimeSheet", "deleteEntries", "updateEntries")) {
+            Transactional tx = List.of(TimeSheetService.class.getMethods()).stream()
+                    .filter(m -> m.getName().equals(method))
+                    .findFirst().orElseThrow()
+                    .getAnnotation(Transactional.class);
+            assertNotNull(tx, method);
+            assertEquals(Propagation.REQUIRED, tx.propagation(), method);
+        }
+        Transactional append = DomainEventOutbox.class.getMethod("append", TimesheetEvent.class)
+                .getAnnotation(Transactional.class);
+        assertEquals(Propagation.MANDATORY, append.propagation());
+    }
+
+    @Test
+    void shouldAppendSheetCreated() throws Exception {
+        WeekInfo week = new WeekInfo();
+        week.setId(3L);
+        when(weekCalendarService.findOrCreate(DAY)).thenReturn(week);
+        when(timeSheetRepo.save(any(TimeSheet.class))).thenAnswer(i -> {
+            TimeSheet ts = i.getArgument(0);
+            ts.setId(11L);
+            ts.getEntries().get(0).setId(1L);
+            return ts;
+        });
+
+        service.createTimeSheet(42L, DAY, List.of(dto(9, 17)));
+
+        assertEvent(new TimesheetEvent.SheetCreated(11L, 42L, DAY, List.of(1L)));
+    }
+
+    @Test
+    void shouldAppendEntriesAdded() throws Exception {
+        TimeSheet ts = sheet(entry(1L, 9, 13));
+        when(timeSheetRepo.findById(11L)).thenReturn(Optional.of(ts));
+        when(entryRepo.findByTimeSheet_IdOrderByFromTimeAsc(11L)).thenReturn(List.copyOf(ts.getEntries()));
+        when(entryRepo.saveAll(anyList())).thenAnswer(i -> {
+            List<TimeSheetEntry> saved = i.getArgument(0);
+            saved.get(0).setId(2L);
+            return saved;
+        });
+        AddEntryDTO add = new AddEntryDTO();
+        add.setTimeSheetId(11L);
+        add.setEntries(List.of(dto(13, 17)));
+
+        service.addEntriesToTimeSheet(add);
+
+        assertEvent(new TimesheetEvent.EntriesAdded(11L, 42L, DAY, List.of(2L)));
+    }
+
+    @Test
+    void shouldAppendEntriesUpdated() throws Exception {
+        TimeSheetEntry morning = entry(1L, 9, 13);
+        TimeSheetEntry afternoon = entry(2L, 14, 18);
+        TimeSheet ts = sheet(morning, afternoon);
+        when(timeSheetRepo.findById(11L)).thenReturn(Optional.of(ts));
+        when(entryRepo.findByTimeSheet_IdOrderByFromTimeAsc(11L)).thenReturn(List.of(morning, afternoon));
+        when(entryRepo.findById(2L)).thenReturn(Optional.of(afternoon));
+        TimeSheetUpdateRequest.EntryUpdateDto change = new TimeSheetUpdateRequest.EntryUpdateDto();
+        change.setId(2L);
+        change.setFromTime(DAY.atTime(13, 0));
+        change.setToTime(DAY.atTime(17, 0));
+        TimeSheetUpdateRequest update = new TimeSheetUpdateRequest();
+        update.setEntries(List.of(change));
+
+        service.updateEntries(11L, update);
+
+        assertEvent(new TimesheetEvent.EntriesUpdated(11L, 42L, DAY, List.of(2L)));
+    }
+
+    @Test
+    void shouldAppendEntriesDeleted() throws Exception {
+        TimeSheet ts = sheet(entry(1L, 9, 13), entry(2L, 14, 18));
+        when(timeSheetRepo.findById(11L)).thenReturn(Optional.of(ts));
+        DeleteTimeSheetEntriesRequest delete = new DeleteTimeSheetEntriesRequest();
+        delete.setEntryIds(List.of(2L));
+
+        service.deleteEntries(11L, delete);
+
+        assertEvent(new TimesheetEvent.EntriesDeleted(11L, 42L, DAY, List.of(2L), false));
+    }
+
+    /** One row with the event, and the dispatcher woken only once the transaction committed. */
+    private void assertEvent(TimesheetEvent expected) throws Exception {
+        ArgumentCaptor<OutboxEvent> row = ArgumentCaptor.forClass(OutboxEvent.class);
+        verify(outboxRepo).save(row.capture());
+        assertEquals(expected.getClass().getSimpleName(), row.getValue().getEventType());
+        assertEquals(42L, row.getValue().getUserId());
+        assertEquals(OutboxEvent.Status.PENDING, row.getValue().getStatus());
+        assertEquals(expected, objectMapper.readValue(row.getValue().getPayload(), expected.getClass()));
+
+        verify(dispatcher, never()).wakeUp();
+        for (TransactionSynchronization sync : TransactionSynchronizationManager.getSynchronizations()) {
+            sync.afterCommit();
+        }
+        verify(dispatcher).wakeUp();
+    }
+
+    private static TimeSheet sheet(TimeSheetEntry... entries) {
+        TimeSheet ts = new TimeSheet();
+        ts.setId(11L);
+        ts.setUserId(42L);
+        ts.setWorkDate(DAY);
+        ts.setStatus(TimeSheet.Status.DRAFT);
+        ts.setEntries(new ArrayList<>(List.of(entries)));
+        for (TimeSheetEntry entry : entries) {
+            entry.setTimeSheet(ts);
+        }
+        return ts;
+    }
+
+    private static TimeSheetEntry entry(Long id, int fromHour, int toHour) {
+        TimeSheetEntry entry = new TimeSheetEntry();
+        entry.setId(id);
+        entry.setProjectId(10L);
+        entry.setFromTime(DAY.atTime(fromHour, 0));
+        entry.setToTime(DAY.atTime(toHour, 0));
+        return entry;
+    }
+
+    private static TimeSheetEntryCreateDTO dto(int fromHour, int toHour) {
+        TimeSheetEntryCreateDTO dto = new TimeSheetEntryCreateDTO();
+        dto.setProjectId(10L);
+        dto.setFromTime(DAY.atTime(fromHour, 0));
+        dto.setToTime(DAY.atTime(toHour, 0));
+        return dto;
+    }
+}
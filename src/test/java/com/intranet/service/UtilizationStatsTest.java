@@ -0,0 +1,92 @@
+package com.intranet.service;
+
+import org.junit.jupiter.api.Test;
+
+import com.intranet.dto.rms.UtilizationReportRequestDTO;
+import com.intranet.entity.TimeSheet;
+import com.intranet.entity.TimeSheetDailyRollup;
+import com.intranet.entity.TimeSheetEntry;
+import com.intranet.service.rollup.TimeSheetRollupService;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class UtilizationStatsTest {
+
+    // Monday
+    private static final LocalDate START = LocalDate.of(2025, 1, 6);
+
+    @Test
+    void shouldCountStreaksFromFirstWeekInDateOrder() {
+        List<TimeSheet> sheets = new ArrayList<>();
+        // Weeks 1-4 at 10h/day (125%), week 5 at 4h/day (50%)
+        for (int week = 0; week < 5; week++) {
+            for (int day = 0; day < 5; day++) {
+                sheets.add(sheet(START.plusWeeks(week).plusDays(day), week < 4 ? "10" : "4"));
+            }
+        }
+
+        UtilizationStats stats = UtilizationStats.of(days(sheets), List.of(), Set.of(), request(START, START.plusWeeks(5).minusDays(1)));
+
+        assertEquals(4, stats.consecutiveWeeksOver);
+        assertEquals(0, stats.consecutiveWeeksUnder);
+        assertTrue(stats.consistentlyOverUtilized());
+        assertEquals(25, stats.approvedDays);
+        assertEquals(100, stats.confidenceScore);
+    }
+
+    @Test
+    void shouldSplitBillableNonBillableAndInternalHours() {
+        TimeSheet ts = sheet(START, "8");
+        ts.setEntries(List.of(
+                entry(ts, 1L, true, "3"),
+                entry(ts, 2L, false, "2"),
+                entry(ts, 99L, false, "1.5"),
+                entry(ts, null, false, "0.5")));
+
+        UtilizationStats stats = UtilizationStats.of(days(List.of(ts)), TimeSheetRollupService.projectRows(ts),
+                Set.of(99L), request(START, START));
+
+        assertEquals(new BigDecimal("7.0"), stats.totalHours);
+        assertEquals(new BigDecimal("3"), stats.billableHours);
+        assertEquals(new BigDecimal("2.5"), stats.nonBillableHours);
+        assertEquals(new BigDecimal("1.5"), stats.internalHours);
+        assertEquals(BigDecimal.valueOf(8), stats.plannedHours);
+        assertEquals(Set.of(1L, 2L, 99L), stats.uniqueProjects);
+    }
+
+    // The rows TimeSheetRollupService keeps for these sheets
+    private static List<TimeSheetDailyRollup> days(List<TimeSheet> sheets) {
+        return sheets.stream().map(TimeSheetRollupService::dailyRow).toList();
+    }
+
+    private static UtilizationReportRequestDTO request(LocalDate start, LocalDate end) {
+        UtilizationReportRequestDTO request = new UtilizationReportRequestDTO();
+        request.setStartDate(start);
+        request.setEndDate(end);
+        return request;
+    }
+
+    private static TimeSheet sheet(LocalDate date, String hours) {
+        TimeSheet ts = new TimeSheet();
+        ts.setUserId(1L);
+        ts.setWorkDate(date);
+        ts.setHoursWorked(new BigDecimal(hours));
+        ts.setStatus(TimeSheet.Status.APPROVED);
+        return ts;
+    }
+
+    private static TimeSheetEntry entry(TimeSheet ts, Long projectId, boolean billable, String hours) {
+        TimeSheetEntry e = new TimeSheetEntry();
+        e.setTimeSheet(ts);
+        e.setProjectId(projectId);
+        e.setBillable(billable);
+        e.setHoursWorked(new BigDecimal(hours));
+        return e;
+    }
+}
@@ -0,0 +1,22 @@
+package com.intranet.service.audit;
+
+import com.intranet.entity.AuditLog;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDateTime;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class AuditLogCursorTest {
+
+    @Test
+    void shouldRoundTripAndRejectGarbage() {
+        AuditLog last = AuditLog.builder().id(42L).createdAt(LocalDateTime.of(2026, 5, 3, 10, 15, 30, 123_456_000)).build();
+
+        AuditLogCursor cursor = AuditLogCursor.decode(AuditLogCursor.of(last).encode());
+
+        assertEquals(new AuditLogCursor(last.getCreatedAt(), 42L), cursor);
+        assertNull(AuditLogCursor.decode(null));
+        assertThrows(IllegalArgumentException.class, () -> AuditLogCursor.decode("not-a-cursor"));
+    }
+}
@@ -0,0 +1,122 @@
+package com.intranet.service.audit;
+
+import com.fasterxml.jackson.databind.json.JsonMapper;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+
+import javax.sql.DataSource;
+import java.io.BufferedReader;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.sql.Connection;
+import java.sql.DatabaseMetaData;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.ResultSetMetaData;
+import java.sql.Timestamp;
+import java.time.YearMonth;
+import java.util.List;
+import java.util.zip.GZIPInputStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+class AuditLogPartitionManagerTest {
+
+    @TempDir
+    Path archiveDir;
+
+    private final JdbcTemplate jdbcTemplate = mock(JdbcTemplate.class);
+    private final Connection connection = mock(Connection.class);
+    private final ResultSet lockResult = mock(ResultSet.class);
+
+    AuditLogPartitionManagerTest() throws Exception {
+        when(jdbcTemplate.getDataSource()).thenReturn(mock(DataSource.class));
+        when(jdbcTemplate.execute(any(ConnectionCallback.class)))
+                .thenAnswer(i -> i.<ConnectionCallback<?>>getArgument(0).doInConnection(connection));
+        PreparedStatement statement = mock(PreparedStatement.class);
+        when(connection.prepareStatement(anyString())).thenReturn(statement);
+        when(statement.executeQuery()).thenReturn(lockResult);
+        when(lockResult.next()).thenReturn(true);
+    }
+
+    private AuditLogPartitionManager manager(String database, boolean convertExisting, int retentionMonths) throws Exception {
+        DatabaseMetaData metaData = mock(DatabaseMetaData.class);
+        when(metaData.getDatabaseProductName()).thenReturn(database);
+        when(connection.getMetaData()).thenReturn(metaData);
+        return new AuditLogPartitionManager(jdbcTemplate, JsonMapper.builder().findAndAddModules().build(),
+                true, convertExisting, 3, retentionMonths, archiveDir.toString());
+    }
+
+    @Test
+    void shouldDefineOnePartitionPerMonthBeforePmax() {
+        List<YearMonth> months = AuditLogPartitionManager.monthsBetween(YearMonth.of(2025, 11), YearMonth.of(2026, 1));
+
+        assertEquals("PARTITION p202511 VALUES LESS THAN ('2025-12-01 00:00:00'), "
+                + "PARTITION p202512 VALUES LESS THAN ('2026-01-01 00:00:00'), "
+                + "PARTITION p202601 VALUES LESS THAN ('2026-02-01 00:00:00'), "
+                + "PARTITION pmax VALUES LESS THAN (MAXVALUE)",
+                AuditLogPartitionManager.partitionDefinitions(months));
+        assertEquals(YearMonth.of(2025, 12), AuditLogPartitionManager.monthOf("p202512"));
+        assertNull(AuditLogPartitionManager.monthOf("pmax"));
+    }
+
+    @Test
+    void shouldArchiveThenDeleteExpiredMonthsWithTheRegularTemplateOffMySql() throws Exception {
+        YearMonth expired = YearMonth.now().minusMonths(3);
+        Timestamp from = Timestamp.valueOf(expired.atDay(1).atStartOfDay());
+        Timestamp to = Timestamp.valueOf(expired.plusMonths(1).atDay(1).atStartOfDay());
+        when(jdbcTemplate.queryForObject("SELECT MIN(created_at) FROM audit_log", Timestamp.class)).thenReturn(from);
+        ResultSet rows = mock(ResultSet.class);
+        ResultSetMetaData columns = mock(ResultSetMetaData.class);
+        when(rows.getMetaData()).thenReturn(columns);
+        when(columns.getColumnCount()).thenReturn(1);
+        when(columns.getColumnLabel(1)).thenReturn("id");
+        when(rows.getObject(1)).thenReturn(1L, 2L);
+        doAnswer(i -> {
+            RowCallbackHandler handler = i.getArgument(1);
+            handler.processRow(rows);
+            handler.processRow(rows);
+            return null;
+        }).when(jdbcTemplate).query(anyString(), any(RowCallbackHandler.class), any(Object[].class));
+        when(jdbcTemplate.update(startsWith("DELETE"), any(Object[].class))).thenReturn(2);
+
+        manager("H2", false, 2).maintain();
+
+        verify(jdbcTemplate).update("DELETE FROM audit_log WHERE created_at >= ? AND created_at < ? LIMIT 10000", from, to);
+        verify(connection, never()).prepareStatement(contains("GET_LOCK"));
+        Path archive = archiveDir.resolve(AuditLogPartitionManager.archiveFileName(expired));
+        try (BufferedReader reader = new BufferedReader(new InputStreamReader(
+                new GZIPInputStream(Files.newInputStream(archive)), StandardCharsets.UTF_8))) {
+            assertEquals(List.of("{\"id\":1}", "{\"id\":2}"), reader.lines().toList());
+        }
+    }
+
+    @Test
+    void shouldNotConvertAnUnpartitionedTableUnlessAskedTo() throws Exception {
+        when(lockResult.getInt(1)).thenReturn(1);
+        when(jdbcTemplate.queryForList(anyString(), eq(String.class), any(Object[].class))).thenReturn(List.of());
+
+        manager("MySQL", false, 0).maintain();
+
+        verify(jdbcTemplate, never()).execute(anyString());
+        verify(connection).prepareStatement("SELECT RELEASE_LOCK(?)");
+    }
+
+    @Test
+    void shouldSkipTheRunWhenAnotherInstanceHoldsTheLock() throws Exception {
+        when(lockResult.getInt(1)).thenReturn(0);
+
+        manager("MySQL", true, 12).maintain();
+
+        verify(jdbcTemplate, never()).queryForList(anyString(), eq(String.class), any(Object[].class));
+        verify(jdbcTemplate, never()).execute(anyString());
+        verify(connection, never()).prepareStatement("SELECT RELEASE_LOCK(?)");
+    }
+}
@@ -0,0 +1,95 @@
+package com.intranet.service.audit;
+
+import com.fasterxml.jackson.databind.json.JsonMapper;
+import com.intranet.entity.AuditAction;
+import com.intranet.entity.AuditLog;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.jdbc.CannotGetJdbcConnectionException;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+class AuditLogWriterTest {
+
+    @TempDir
+    Path spillDir;
+
+    private final JdbcTemplate jdbcTemplate = mock(JdbcTemplate.class);
+    private final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+
+    private AuditLogWriter writer(int batchSize, AuditLogWriter.OverflowPolicy overflow, int capacity) {
+        // Long flush interval: only full batches and the shutdown flush write
+        return new AuditLogWriter(jdbcTemplate, JsonMapper.builder().findAndAddModules().build(), registry,
+                capacity, batchSize, 60_000, overflow, 0, spillDir.toString());
+    }
+
+    @Test
+    void shouldInsertEachBatchWithOneMultiRowStatement() throws Exception {
+        AuditLogWriter writer = writer(5, AuditLogWriter.OverflowPolicy.DROP, 64);
+        writer.start();
+        try {
+            IntStream.range(0, 12).forEach(i -> writer.submit(event(i)));
+        } finally {
+            writer.stop();
+        }
+
+        verify(jdbcTemplate, times(2)).update(eq(AuditLogWriter.insertSql(5)), any(Object[].class));
+        verify(jdbcTemplate).update(eq(AuditLogWriter.insertSql(2)), any(Object[].class));
+        assertEquals(12, registry.counter("audit.log.written").count());
+    }
+
+    @Test
+    void shouldSpillWhileTheDatabaseIsDownAndReplayLater() throws Exception {
+        AuditLogWriter writer = writer(10, AuditLogWriter.OverflowPolicy.SPILL, 2);
+        when(jdbcTemplate.update(anyString(), any(Object[].class)))
+                .thenThrow(new CannotGetJdbcConnectionException("down"));
+
+        // Not started: nothing would drain the buffer, so events go to disk
+        IntStream.range(0, 3).forEach(i -> writer.submit(event(i)));
+        assertEquals(3, registry.counter("audit.log.spilled").count());
+        assertEquals(1, writer.write(List.of(event(9))).size(), "unavailable rows are handed back");
+
+        reset(jdbcTemplate);
+        writer.replaySpill();
+
+        verify(jdbcTemplate).update(eq(AuditLogWriter.insertSql(3)), any(Object[].class));
+        try (var files = Files.list(spillDir)) {
+            assertEquals(0, files.count());
+        }
+    }
+
+    @Test
+    void shouldStopAfterTheWebServerAndSpillEventsSubmittedAfterStop() throws Exception {
+        AuditLogWriter writer = writer(10, AuditLogWriter.OverflowPolicy.DROP, 64);
+        // WebServerStartStopLifecycle runs at DEFAULT_PHASE - 2048; lower phases stop later
+        assertTrue(writer.getPhase() < SmartLifecycle.DEFAULT_PHASE - 2048);
+
+        writer.start();
+        writer.submit(event(1));
+        writer.stop();
+        verify(jdbcTemplate).update(eq(AuditLogWriter.insertSql(1)), any(Object[].class));
+
+        // A request finishing during shutdown is kept, even with overflow DROP
+        writer.submit(event(2));
+        assertEquals(1, registry.counter("audit.log.spilled").count());
+        assertEquals(0, registry.counter("audit.log.dropped", "reason", "overflow").count());
+    }
+
+    private static AuditLog event(int i) {
+        return AuditLog.builder()
+                .userId((long) i)
+                .action(AuditAction.values()[0])
+                .entityType("TimeSheet")
+                .build();
+    }
+}
@@ -0,0 +1,58 @@
+package com.intranet.service.cornjobs.CompleteWeekHoliday;
+
+import com.intranet.service.rollup.TimeSheetRollupService;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.SimpleTransactionStatus;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+class FullHolidayWeekBatchWriterTest {
+
+    private final JdbcTemplate jdbcTemplate = mock(JdbcTemplate.class);
+    private final TimeSheetRollupService rollupService = mock(TimeSheetRollupService.class);
+    private final PlatformTransactionManager txManager = mock(PlatformTransactionManager.class);
+
+    @Test
+    void shouldWriteInChunksAndCarryOnAfterAFailedChunk() {
+        when(txManager.getTransaction(any())).thenAnswer(inv -> new SimpleTransactionStatus());
+        AtomicInteger sheetBatches = new AtomicInteger();
+        when(jdbcTemplate.batchUpdate(startsWith("INSERT INTO timesheet"), anyList())).thenAnswer(inv -> {
+            if (sheetBatches.incrementAndGet() == 2) {
+                throw new IllegalStateException("duplicate entry");
+            }
+            List<Object[]> rows = inv.getArgument(1);
+            return new int[rows.size()];
+        });
+
+        LocalDate monday = LocalDate.of(2026, 9, 7);
+        List<LocalDate> week = monday.datesUntil(monday.plusDays(7)).toList();
+        List<FullHolidayWeekBatchWriter.WeekFill> fills = List.of(
+                new FullHolidayWeekBatchWriter.WeekFill(1L, 10L, week),
+                new FullHolidayWeekBatchWriter.WeekFill(2L, 10L, week),
+                new FullHolidayWeekBatchWriter.WeekFill(3L, 10L, week.subList(0, 2)),
+                new FullHolidayWeekBatchWriter.WeekFill(4L, 10L, List.of()),
+                new FullHolidayWeekBatchWriter.WeekFill(5L, 10L, week));
+
+        FullHolidayWeekBatchWriter writer = new FullHolidayWeekBatchWriter(jdbcTemplate, rollupService, txManager, 2);
+        FullHolidayWeekBatchWriter.Result result = writer.write(fills);
+
+        // Chunks: [1,2] ok, [3,4] fails and rolls back, [5] ok
+        assertEquals(3, result.weeks());
+        assertEquals(21, result.sheets());
+        assertEquals(1, result.failedChunks());
+        assertEquals("duplicate entry", result.firstError());
+        verify(jdbcTemplate, times(3)).batchUpdate(startsWith("INSERT INTO timesheet"), anyList());
+        verify(jdbcTemplate, times(2)).batchUpdate(startsWith("INSERT INTO weekly_timesheet_review"), anyList());
+        verify(txManager, times(2)).commit(any());
+        verify(txManager).rollback(any());
+        verify(rollupService, times(21)).markDirty(anyLong(), any(LocalDate.class));
+    }
+}
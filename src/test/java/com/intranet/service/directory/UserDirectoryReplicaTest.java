@@ -0,0 +1,103 @@
+package com.intranet.service.directory;
+
+import com.intranet.entity.UserDirectoryEntry;
+import com.intranet.repository.UserDirectoryRepo;
+import com.intranet.service.email.ums_corn_job_token.UmsAuthService;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.core.ParameterizedTypeReference;
+import org.springframework.http.HttpEntity;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.ResponseEntity;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.web.client.RestTemplate;
+
+import java.time.LocalDateTime;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+class UserDirectoryReplicaTest {
+
+    private final RestTemplate restTemplate = mock(RestTemplate.class);
+    private final UserDirectoryRepo repo = mock(UserDirectoryRepo.class);
+
+    private UserDirectoryReplica replica() {
+        return new UserDirectoryReplica(repo, restTemplate, mock(UmsAuthService.class),
+                mock(PlatformTransactionManager.class), new SimpleMeterRegistry(), "http://ums", 2, 100);
+    }
+
+    private static Map<String, Object> user(long id) {
+        return Map.of("user_id", id, "first_name", "User", "last_name", String.valueOf(id), "mail", "u" + id + "@example.com");
+    }
+
+    private void page(int page, long... ids) {
+        List<Map<String, Object>> users = Arrays.stream(ids).mapToObj(UserDirectoryReplicaTest::user).toList();
+        when(restTemplate.exchange(eq("http://ums/admin/users?page=" + page + "&limit=2"), eq(HttpMethod.GET),
+                any(HttpEntity.class), any(ParameterizedTypeReference.class)))
+                .thenReturn(ResponseEntity.ok(Map.of("users", users)));
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void shouldReadUntilAnEmptyPageAndIndexAllUsers() {
+        // UMS caps the limit at one user on page 2; the short page is not the last one
+        page(1, 3, 1);
+        page(2, 2);
+        page(3, 5, 4);
+        page(4);
+        UserDirectoryReplica replica = replica();
+
+        assertTrue(replica.refresh("Bearer t"));
+
+        UserDirectoryIndex index = replica.directory("Bearer t");
+        assertEquals(5, index.size());
+        assertEquals(List.of(1L, 2L, 3L, 4L, 5L), index.all().stream().map(UserDirectoryIndex.User::id).toList());
+        assertEquals("User 4", index.name(4L, "Unknown"));
+        assertEquals("Unknown", index.name(6L, "Unknown"));
+        assertEquals("u5@example.com", index.email(5L, "none"));
+        verify(restTemplate, times(4)).exchange(anyString(), any(), any(HttpEntity.class), any(ParameterizedTypeReference.class));
+        verify(repo).saveAll(argThat((Collection<UserDirectoryEntry> saved) -> saved.size() == 5));
+    }
+
+    @Test
+    void shouldStopAtAPageWithNoNewUsers() {
+        // UMS ignoring the page parameter answers every page with the same users
+        when(restTemplate.exchange(startsWith("http://ums/admin/users"), eq(HttpMethod.GET),
+                any(HttpEntity.class), any(ParameterizedTypeReference.class)))
+                .thenReturn(ResponseEntity.ok(Map.of("users", List.of(user(1), user(2)))));
+        UserDirectoryReplica replica = replica();
+
+        assertTrue(replica.refresh("Bearer t"));
+
+        assertEquals(2, replica.directory("Bearer t").size());
+        verify(restTemplate, times(2)).exchange(anyString(), any(), any(HttpEntity.class), any(ParameterizedTypeReference.class));
+    }
+
+    @Test
+    void shouldWriteOnlyChangedUsers() {
+        LocalDateTime then = LocalDateTime.of(2026, 1, 1, 0, 0);
+        Map<Long, UserDirectoryEntry> stored = new HashMap<>();
+        IntStream.rangeClosed(1, 3).forEach(i ->
+                stored.put((long) i, UserDirectoryReplica.toEntry(user(i), then)));
+
+        UserDirectoryEntry renamed = UserDirectoryReplica.toEntry(user(2), LocalDateTime.now());
+        renamed.setLastName("Renamed");
+        List<UserDirectoryEntry> fetched = List.of(
+                UserDirectoryReplica.toEntry(user(1), LocalDateTime.now()),
+                renamed,
+                UserDirectoryReplica.toEntry(user(7), LocalDateTime.now()));
+
+        List<UserDirectoryEntry> changed = UserDirectoryReplica.changedEntries(stored, fetched);
+
+        assertEquals(List.of(2L, 7L), changed.stream().map(UserDirectoryEntry::getUserId).toList());
+        assertNull(UserDirectoryReplica.toEntry(Map.of("first_name", "No id"), then));
+    }
+}
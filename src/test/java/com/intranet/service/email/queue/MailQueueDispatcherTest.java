@@ -0,0 +1,179 @@
+package com.intranet.service.email.queue;
+
+import com.intranet.entity.OutboundEmail;
+import com.intranet.repository.OutboundEmailRepo;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.mail.Session;
+import jakarta.mail.internet.MimeMessage;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.domain.Pageable;
+import org.springframework.mail.MailSendException;
+import org.springframework.mail.javamail.JavaMailSender;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionStatus;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Executor;
+import java.util.stream.LongStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+class MailQueueDispatcherTest {
+
+    private final OutboundEmailRepo repo = mock(OutboundEmailRepo.class);
+    private final JavaMailSender mailSender = mock(JavaMailSender.class);
+    private final PlatformTransactionManager txManager = mock(PlatformTransactionManager.class);
+    private final List<MimeMessage> created = new ArrayList<>();
+
+    MailQueueDispatcherTest() {
+        when(txManager.getTransaction(any())).thenAnswer(i -> mock(TransactionStatus.class));
+        when(repo.saveAll(anyList())).thenAnswer(i -> i.getArgument(0));
+        when(mailSender.createMimeMessage()).thenAnswer(i -> {
+            MimeMessage message = new MimeMessage((Session) null);
+            created.add(message);
+            return message;
+        });
+    }
+
+    private MailQueueDispatcher dispatcher(Executor executor, int workers, int batchSize, int maxPerMinute) {
+        MailQueueDispatcher dispatcher = new MailQueueDispatcher(repo, mailSender, executor, txManager,
+                new SimpleMeterRegistry(), workers);
+        ReflectionTestUtils.setField(dispatcher, "fromEmail", "timesheet@example.com");
+        ReflectionTestUtils.setField(dispatcher, "enabled", true);
+        ReflectionTestUtils.setField(dispatcher, "batchSize", batchSize);
+        ReflectionTestUtils.setField(dispatcher, "maxPerMinute", maxPerMinute);
+        ReflectionTestUtils.setField(dispatcher, "maxAttempts", 3);
+        ReflectionTestUtils.setField(dispatcher, "backoffInitialMs", 60_000L);
+        ReflectionTestUtils.setField(dispatcher, "backoffMaxMs", 3_600_000L);
+        ReflectionTestUtils.setField(dispatcher, "claimTimeoutMs", 600_000L);
+        return dispatcher;
+    }
+
+    @Test
+    void shouldClaimDueMailsAsSendingBeforeHandingThemToAWorker() {
+        List<Runnable> workers = new ArrayList<>();
+        OutboundEmail first = mail(1L, 0);
+        OutboundEmail second = mail(2L, 0);
+        when(repo.findDueForUpdate(any(), any())).thenReturn(new ArrayList<>(List.of(first, second)));
+
+        LocalDateTime before = LocalDateTime.now();
+        dispatcher(workers::add, 1, 50, 120).poll();
+
+        // One worker: one batch claimed, nothing sent yet
+        assertEquals(1, workers.size());
+        verify(repo, times(1)).findDueForUpdate(any(), any());
+        verifyNoInteractions(mailSender);
+        for (OutboundEmail mail : List.of(first, second)) {
+            assertEquals(OutboundEmail.Status.SENDING, mail.getStatus());
+            assertTrue(mail.getLockedUntil().isAfter(before.plusMinutes(9)));
+        }
+
+        workers.get(0).run();
+        verify(mailSender).send(any(MimeMessage[].class));
+        assertEquals(OutboundEmail.Status.SENT, first.getStatus());
+        assertNull(first.getLockedUntil());
+        assertNotNull(second.getSentAt());
+    }
+
+    @Test
+    void shouldPickUpMailWhoseClaimExpired() {
+        OutboundEmail stuck = mail(1L, 1);
+        stuck.setStatus(OutboundEmail.Status.SENDING);
+        stuck.setLockedUntil(LocalDateTime.now().minusMinutes(1));
+        when(repo.findDueForUpdate(any(), any())).thenReturn(new ArrayList<>(List.of(stuck)), new ArrayList<>());
+
+        LocalDateTime before = LocalDateTime.now();
+        dispatcher(Runnable::run, 1, 50, 120).poll();
+
+        verify(repo, times(2)).findDueForUpdate(argThat(now -> !now.isBefore(before)), any());
+        verify(mailSender).send(any(MimeMessage[].class));
+        assertEquals(OutboundEmail.Status.SENT, stuck.getStatus());
+        assertEquals(1, stuck.getAttempts());
+    }
+
+    @Test
+    void shouldNotClaimMoreThanMaxPerMinute() {
+        List<Runnable> workers = new ArrayList<>();
+        when(repo.findDueForUpdate(any(), any())).thenAnswer(i -> {
+            Pageable page = i.getArgument(1);
+            return new ArrayList<>(LongStream.rangeClosed(1, page.getPageSize()).mapToObj(id -> mail(id, 0)).toList());
+        });
+        MailQueueDispatcher dispatcher = dispatcher(workers::add, 4, 2, 3);
+
+        dispatcher.poll();
+        dispatcher.poll();
+
+        // 2 + 1 rows in the first poll, then the minute is used up
+        verify(repo).findDueForUpdate(any(), eq(Pageable.ofSize(2)));
+        verify(repo).findDueForUpdate(any(), eq(Pageable.ofSize(1)));
+        verify(repo, times(2)).findDueForUpdate(any(), any());
+        assertEquals(2, workers.size());
+    }
+
+    @Test
+    void shouldRetryOnlyTheMessagesTheServerRejected() {
+        OutboundEmail delivered = mail(1L, 0);
+        OutboundEmail rejected = mail(2L, 0);
+        when(repo.findDueForUpdate(any(), any())).thenReturn(new ArrayList<>(List.of(delivered, rejected)), new ArrayList<>());
+        doAnswer(i -> {
+            // Messages are built in claim order
+            throw new MailSendException(Map.of(created.get(1), new IllegalStateException("550 mailbox unavailable")));
+        }).when(mailSender).send(any(MimeMessage[].class));
+
+        LocalDateTime before = LocalDateTime.now();
+        dispatcher(Runnable::run, 1, 50, 120).poll();
+
+        assertEquals(OutboundEmail.Status.SENT, delivered.getStatus());
+        assertEquals(0, delivered.getAttempts());
+        assertEquals(OutboundEmail.Status.PENDING, rejected.getStatus());
+        assertEquals(1, rejected.getAttempts());
+        assertNull(rejected.getLockedUntil());
+        assertTrue(rejected.getLastError().contains("550 mailbox unavailable"));
+        assertFalse(rejected.getNextAttemptAt().isBefore(before.plusSeconds(60)));
+    }
+
+    @Test
+    void shouldDeadLetterAfterMaxAttemptsAndUnbuildableMailsAtOnce() {
+        OutboundEmail lastTry = mail(1L, 2);
+        OutboundEmail firstTry = mail(2L, 0);
+        OutboundEmail noRecipient = mail(3L, 0);
+        noRecipient.setRecipient(null);
+        when(repo.findDueForUpdate(any(), any()))
+                .thenReturn(new ArrayList<>(List.of(lastTry, firstTry, noRecipient)), new ArrayList<>());
+        List<Integer> sentSizes = new ArrayList<>();
+        doAnswer(i -> {
+            sentSizes.add(i.getArguments().length);
+            // Connection failure: nothing in the batch went out
+            throw new MailSendException("Connection refused");
+        }).when(mailSender).send(any(MimeMessage[].class));
+
+        dispatcher(Runnable::run, 1, 50, 120).poll();
+
+        assertEquals(OutboundEmail.Status.DEAD, lastTry.getStatus());
+        assertEquals(3, lastTry.getAttempts());
+        assertEquals(OutboundEmail.Status.PENDING, firstTry.getStatus());
+        assertEquals(1, firstTry.getAttempts());
+        assertEquals(OutboundEmail.Status.DEAD, noRecipient.getStatus());
+        assertEquals(1, noRecipient.getAttempts());
+        assertEquals(List.of(2), sentSizes, "the unbuildable mail is never handed to the sender");
+    }
+
+    private static OutboundEmail mail(Long id, int attempts) {
+        return OutboundEmail.builder()
+                .id(id)
+                .recipient("user" + id + "@example.com")
+                .subject("Timesheet reminder")
+                .htmlBody("<p>Please submit</p>")
+                .status(OutboundEmail.Status.PENDING)
+                .attempts(attempts)
+                .nextAttemptAt(LocalDateTime.now().minusMinutes(1))
+                .createdAt(LocalDateTime.now().minusMinutes(5))
+                .build();
+    }
+}
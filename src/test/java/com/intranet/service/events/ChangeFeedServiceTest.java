@@ -0,0 +1,122 @@
+package com.intranet.service.events;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.intranet.entity.OutboxEvent;
+import com.intranet.repository.OutboxEventRepo;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+class ChangeFeedServiceTest {
+
+    private final ObjectMapper objectMapper = new ObjectMapper().findAndRegisterModules();
+    private final OutboxEventRepo repo = mock(OutboxEventRepo.class);
+    private final ChangeFeedService service = new ChangeFeedService(repo, objectMapper, Runnable::run, 500, 2000, 30000);
+
+    private static OutboxEvent row(long seq, String type) {
+        return OutboxEvent.builder()
+                .id(seq + 100)
+                .feedSeq(seq)
+                .eventType(type)
+                .userId(42L)
+                .payload("{\"userId\":42,\"weekId\":3}")
+                .createdAt(LocalDateTime.of(2026, 10, 14, 9, 0))
+                .build();
+    }
+
+    @Test
+    void shouldAdvanceCursorPastFilteredEventsAndWriteRawPayload() throws Exception {
+        when(repo.findMinFeedSeq()).thenReturn(1L);
+        when(repo.findByFeedSeqGreaterThanOrderByFeedSeqAsc(eq(5L), any()))
+                .thenReturn(List.of(row(6, "WeekSubmitted"), row(7, "EntriesAdded")));
+
+        ChangeFeedService.ChangeFeedPage page = service.page(5, 2, Set.of("WeekSubmitted"));
+
+        assertEquals(1, page.count());
+        assertEquals(7, page.nextCursor());
+        assertTrue(page.hasMore());
+        JsonNode line = objectMapper.readTree(page.ndjson().trim());
+        assertEquals(6, line.get("seq").asLong());
+        assertEquals(3, line.get("data").get("weekId").asLong());
+    }
+
+    @Test
+    void shouldAskForResyncWhenCursorWasPurged() throws Exception {
+        when(repo.findMinFeedSeq()).thenReturn(50L);
+
+        ChangeFeedService.ChangeFeedPage page = service.changesAfter(10, null, Set.of(), 1000).get();
+
+        assertTrue(page.resyncRequired());
+        assertEquals(49, page.nextCursor());
+        verify(repo, never()).findByFeedSeqGreaterThanOrderByFeedSeqAsc(anyLong(), any());
+    }
+
+    @Test
+    void shouldAskForResyncWhenCursorIsAheadOfTheFeed() {
+        when(repo.findMinFeedSeq()).thenReturn(1L);
+        when(repo.findMaxFeedSeq()).thenReturn(20L);
+
+        ChangeFeedService.ChangeFeedPage page = service.page(90, 10, Set.of());
+
+        assertTrue(page.resyncRequired());
+        assertEquals(20, page.nextCursor());
+    }
+
+    @Test
+    void shouldAnswerALongPollWhenAnEventIsDispatched() {
+        when(repo.findMinFeedSeq()).thenReturn(1L);
+        when(repo.findMaxFeedSeq()).thenReturn(5L);
+        CompletableFuture<ChangeFeedService.ChangeFeedPage> waiting = service.changesAfter(5, null, Set.of(), 30_000);
+        assertFalse(waiting.isDone());
+
+        when(repo.findMaxFeedSeq()).thenReturn(6L);
+        when(repo.findByFeedSeqGreaterThanOrderByFeedSeqAsc(eq(5L), any())).thenReturn(List.of(row(6, "EntriesAdded")));
+        service.onEvent(new TimesheetEvent.EntriesAdded(11L, 42L, LocalDate.of(2026, 10, 14), List.of(1L)));
+
+        ChangeFeedService.ChangeFeedPage page = waiting.getNow(null);
+        assertNotNull(page);
+        assertEquals(1, page.count());
+        assertEquals(6, page.nextCursor());
+    }
+
+    @Test
+    void shouldAnswerEmptyWhenTheWaitIsOver() throws Exception {
+        when(repo.findMinFeedSeq()).thenReturn(1L);
+        when(repo.findMaxFeedSeq()).thenReturn(5L);
+
+        ChangeFeedService.ChangeFeedPage page = service.changesAfter(5, null, Set.of(), 50).get();
+
+        assertEquals(0, page.count());
+        assertEquals(5, page.nextCursor());
+        assertFalse(page.resyncRequired());
+    }
+
+    @Test
+    void shouldServeWaitersOnceForABatchOfEvents() {
+        List<Runnable> serves = new ArrayList<>();
+        ChangeFeedService feed = new ChangeFeedService(repo, objectMapper, serves::add, 500, 2000, 30000);
+        when(repo.findMinFeedSeq()).thenReturn(1L);
+        when(repo.findMaxFeedSeq()).thenReturn(5L);
+        feed.changesAfter(5, null, Set.of("WeekSubmitted"), 30_000);
+        TimesheetEvent event = new TimesheetEvent.EntriesAdded(11L, 42L, LocalDate.of(2026, 10, 14), List.of(1L));
+
+        feed.onEvent(event);
+        feed.onEvent(event);
+        feed.onEvent(event);
+        assertEquals(1, serves.size());
+
+        serves.get(0).run();
+        feed.onEvent(event);
+        assertEquals(2, serves.size());
+    }
+}
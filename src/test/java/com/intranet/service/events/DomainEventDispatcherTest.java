@@ -0,0 +1,176 @@
+package com.intranet.service.events;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.intranet.entity.OutboxEvent;
+import com.intranet.repository.OutboxEventRepo;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionStatus;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+class DomainEventDispatcherTest {
+
+    private static final TimesheetEvent ADDED =
+            new TimesheetEvent.EntriesAdded(11L, 42L, LocalDate.of(2026, 10, 14), List.of(1L, 2L));
+
+    private final ObjectMapper objectMapper = new ObjectMapper().findAndRegisterModules();
+    private final OutboxEventRepo repo = mock(OutboxEventRepo.class);
+    private final ApplicationEventPublisher publisher = mock(ApplicationEventPublisher.class);
+    private final PlatformTransactionManager txManager = mock(PlatformTransactionManager.class);
+    private final DomainEventDispatcher dispatcher;
+
+    DomainEventDispatcherTest() {
+        when(txManager.getTransaction(any())).thenAnswer(i -> mock(TransactionStatus.class));
+        when(repo.saveAllAndFlush(anyList())).thenAnswer(i -> i.getArgument(0));
+        dispatcher = new DomainEventDispatcher(repo, publisher, objectMapper, Runnable::run, txManager,
+                new SimpleMeterRegistry());
+        ReflectionTestUtils.setField(dispatcher, "enabled", true);
+        ReflectionTestUtils.setField(dispatcher, "batchSize", 100);
+        ReflectionTestUtils.setField(dispatcher, "maxAttempts", 3);
+        ReflectionTestUtils.setField(dispatcher, "backoffInitialMs", 10_000L);
+        ReflectionTestUtils.setField(dispatcher, "backoffMaxMs", 600_000L);
+        ReflectionTestUtils.setField(dispatcher, "claimTimeoutMs", 300_000L);
+    }
+
+    @Test
+    void shouldClaimWithFeedPositionsBeforePublishing() {
+        OutboxEvent first = row(1L, 0);
+        OutboxEvent second = row(2L, 0);
+        when(repo.findDueForUpdate(any(), any())).thenReturn(new ArrayList<>(List.of(first, second)));
+        when(repo.findMaxFeedSeq()).thenReturn(7L);
+        // The whole batch is claimed before the first event goes out
+        List<OutboxEvent.Status> statusWhenPublished = new ArrayList<>();
+        doAnswer(i -> statusWhenPublished.add(second.getStatus())).when(publisher).publishEvent(any(Object.class));
+
+        LocalDateTime before = LocalDateTime.now();
+        dispatcher.wakeUp();
+
+        assertEquals(List.of(OutboxEvent.Status.DISPATCHING, OutboxEvent.Status.DISPATCHING), statusWhenPublished);
+        assertEquals(8L, first.getFeedSeq());
+        assertEquals(9L, second.getFeedSeq());
+        verify(publisher, times(2)).publishEvent(ADDED);
+        for (OutboxEvent event : List.of(first, second)) {
+            assertEquals(OutboxEvent.Status.DISPATCHED, event.getStatus());
+            assertNull(event.getLockedUntil());
+            assertFalse(event.getDispatchedAt().isBefore(before));
+        }
+        verify(repo).saveAll(List.of(first, second));
+    }
+
+    @Test
+    void shouldRetryAFailedListenerWithBackoff() {
+        OutboxEvent failing = row(1L, 0);
+        OutboxEvent next = row(2L, 0);
+        when(repo.findDueForUpdate(any(), any())).thenReturn(new ArrayList<>(List.of(failing, next)));
+        doThrow(new IllegalStateException("listener down")).doNothing().when(publisher).publishEvent(any(Object.class));
+
+        LocalDateTime before = LocalDateTime.now();
+        dispatcher.wakeUp();
+
+        assertEquals(OutboxEvent.Status.PENDING, failing.getStatus());
+        assertEquals(1, failing.getAttempts());
+        assertNull(failing.getLockedUntil());
+        assertEquals("IllegalStateException: listener down", failing.getLastError());
+        assertFalse(failing.getNextAttemptAt().isBefore(before.plusSeconds(10)));
+        assertEquals(OutboxEvent.Status.DISPATCHED, next.getStatus(), "later events are not held back");
+    }
+
+    @Test
+    void shouldDeadLetterAfterMaxAttempts() {
+        OutboxEvent lastTry = row(1L, 2);
+        OutboxEvent unknownType = row(2L, 0);
+        unknownType.setEventType("NoSuchEvent");
+        when(repo.findDueForUpdate(any(), any())).thenReturn(new ArrayList<>(List.of(lastTry, unknownType)));
+        doThrow(new IllegalStateException("listener down")).when(publisher).publishEvent(any(Object.class));
+
+        dispatcher.wakeUp();
+
+        assertEquals(OutboxEvent.Status.DEAD, lastTry.getStatus());
+        assertEquals(3, lastTry.getAttempts());
+        assertEquals(OutboxEvent.Status.PENDING, unknownType.getStatus());
+        assertTrue(unknownType.getLastError().contains("Unknown event type NoSuchEvent"));
+    }
+
+    @Test
+    void shouldRedeliverAnEventWhoseClaimExpiredAtItsFeedPosition() {
+        OutboxEvent stuck = row(1L, 0);
+        stuck.setFeedSeq(5L);
+        stuck.setStatus(OutboxEvent.Status.DISPATCHING);
+        stuck.setLockedUntil(LocalDateTime.now().minusMinutes(1));
+        when(repo.findDueForUpdate(any(), any())).thenReturn(new ArrayList<>(List.of(stuck)));
+
+        LocalDateTime before = LocalDateTime.now();
+        dispatcher.wakeUp();
+
+        verify(repo).findDueForUpdate(argThat(now -> !now.isBefore(before)), any());
+        verify(repo, never()).findMaxFeedSeq();
+        assertEquals(5L, stuck.getFeedSeq());
+        verify(publisher).publishEvent(ADDED);
+        assertEquals(OutboxEvent.Status.DISPATCHED, stuck.getStatus());
+    }
+
+    @Test
+    void shouldLeaveEventsToTheNextDrainWhenAnotherInstanceTookTheirFeedPositions() {
+        OutboxEvent event = row(1L, 0);
+        when(repo.findDueForUpdate(any(), any())).thenReturn(new ArrayList<>(List.of(event)));
+        when(repo.findMaxFeedSeq()).thenReturn(7L);
+        when(repo.saveAllAndFlush(anyList()))
+                .thenThrow(new DataIntegrityViolationException("Duplicate entry '8' for key 'ux_event_outbox_feed_seq'"))
+                .thenAnswer(i -> i.getArgument(0));
+
+        assertDoesNotThrow(dispatcher::wakeUp);
+        verifyNoInteractions(publisher);
+        verify(repo, never()).saveAll(anyList());
+
+        // The losing transaction rolled back; on the next drain the row is claimed again
+        event.setFeedSeq(null);
+        event.setStatus(OutboxEvent.Status.PENDING);
+        when(repo.findMaxFeedSeq()).thenReturn(8L);
+        dispatcher.wakeUp();
+
+        assertEquals(9L, event.getFeedSeq());
+        verify(publisher).publishEvent(ADDED);
+    }
+
+    @Test
+    void shouldKeepTheNewestEventWhenPurging() {
+        when(repo.findMaxFeedSeqCreatedBefore(any())).thenReturn(40L, 30L);
+        when(repo.findMaxFeedSeq()).thenReturn(40L);
+
+        dispatcher.purgeDispatched();
+        dispatcher.purgeDispatched();
+
+        // Everything is old enough, but 40 stays so the next claim continues at 41
+        verify(repo).deleteFeedThrough(39L);
+        verify(repo).deleteFeedThrough(30L);
+    }
+
+    private OutboxEvent row(Long id, int attempts) {
+        try {
+            return OutboxEvent.builder()
+                    .id(id)
+                    .eventType(DomainEventOutbox.typeOf(ADDED))
+                    .userId(ADDED.userId())
+                    .payload(objectMapper.writeValueAsString(ADDED))
+                    .status(OutboxEvent.Status.PENDING)
+                    .attempts(attempts)
+                    .nextAttemptAt(LocalDateTime.now().minusMinutes(1))
+                    .createdAt(LocalDateTime.now().minusMinutes(5))
+                    .build();
+        } catch (Exception e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
@@ -0,0 +1,29 @@
+package com.intranet.service.events;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDate;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class DomainEventOutboxTest {
+
+    private final ObjectMapper objectMapper = new ObjectMapper().findAndRegisterModules();
+
+    @Test
+    void shouldRoundTripEventsThroughStoredTypeAndPayload() throws Exception {
+        List<TimesheetEvent> events = List.of(
+                new TimesheetEvent.EntriesDeleted(7L, 42L, LocalDate.of(2026, 10, 14), List.of(1L, 2L), true),
+                new TimesheetEvent.SheetReviewed(7L, 42L, 3L, 9L, "APPROVED", "PARTIALLY_APPROVED"),
+                new TimesheetEvent.WeekStatusChanged(42L, 3L, null, "SUBMITTED"));
+
+        for (TimesheetEvent event : events) {
+            String type = DomainEventOutbox.typeOf(event);
+            String payload = objectMapper.writeValueAsString(event);
+            assertEquals(event, objectMapper.readValue(payload, DomainEventOutbox.classOf(type)));
+        }
+        assertNull(DomainEventOutbox.classOf("NoSuchEvent"));
+    }
+}
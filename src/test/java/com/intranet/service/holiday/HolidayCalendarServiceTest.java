@@ -0,0 +1,86 @@
+package com.intranet.service.holiday;
+
+import com.intranet.dto.HolidayDTO;
+import com.intranet.repository.HolidayCalendarRepo;
+import com.intranet.service.email.ums_corn_job_token.UmsAuthService;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.core.ParameterizedTypeReference;
+import org.springframework.http.HttpEntity;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.ResponseEntity;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionStatus;
+import org.springframework.web.client.ResourceAccessException;
+import org.springframework.web.client.RestTemplate;
+
+import java.time.LocalDate;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+class HolidayCalendarServiceTest {
+
+    private static final LocalDate REPUBLIC_DAY = LocalDate.of(2026, 1, 26);
+
+    private final HolidayCalendarRepo repo = mock(HolidayCalendarRepo.class);
+    private final RestTemplate restTemplate = mock(RestTemplate.class);
+    private final PlatformTransactionManager txManager = mock(PlatformTransactionManager.class);
+    private final HolidayCalendarService service;
+
+    HolidayCalendarServiceTest() {
+        when(txManager.getTransaction(any())).thenAnswer(i -> mock(TransactionStatus.class));
+        service = new HolidayCalendarService(repo, restTemplate, mock(UmsAuthService.class), txManager,
+                new SimpleMeterRegistry(), "http://lms");
+    }
+
+    private void lmsReturns(List<HolidayDTO> january) {
+        doAnswer(i -> ResponseEntity.ok(i.<String>getArgument(0).endsWith("/month/1") ? january : List.of()))
+                .when(restTemplate).exchange(anyString(), eq(HttpMethod.GET), any(HttpEntity.class),
+                        any(ParameterizedTypeReference.class));
+    }
+
+    @Test
+    void shouldKeepThePreviousCalendarWhenLmsReturnsNothing() {
+        HolidayDTO republicDay = new HolidayDTO();
+        republicDay.setHolidayId(1L);
+        republicDay.setHolidayDate(REPUBLIC_DAY);
+        republicDay.setHolidayName("Republic Day");
+        lmsReturns(List.of(republicDay));
+        assertTrue(service.refresh("Bearer t"));
+
+        lmsReturns(List.of());
+        assertFalse(service.refresh("Bearer t"));
+
+        assertTrue(service.calendar(null).isHoliday(REPUBLIC_DAY));
+        verify(repo, times(1)).deleteAllInBatch();
+    }
+
+    @Test
+    void shouldKeepThePreviousCalendarWhenLmsFails() {
+        HolidayDTO republicDay = new HolidayDTO();
+        republicDay.setHolidayId(1L);
+        republicDay.setHolidayDate(REPUBLIC_DAY);
+        lmsReturns(List.of(republicDay));
+        assertTrue(service.refresh("Bearer t"));
+
+        doThrow(new ResourceAccessException("connect timed out")).when(restTemplate)
+                .exchange(anyString(), eq(HttpMethod.GET), any(HttpEntity.class), any(ParameterizedTypeReference.class));
+        assertFalse(service.refresh("Bearer t"));
+
+        assertTrue(service.calendar(null).isHoliday(REPUBLIC_DAY));
+        verify(repo, times(1)).deleteAllInBatch();
+    }
+
+    @Test
+    void shouldNotStoreAnEmptyFirstSync() {
+        lmsReturns(List.of());
+
+        assertFalse(service.refresh("Bearer t"));
+
+        verify(repo, never()).deleteAllInBatch();
+        assertThrows(IllegalStateException.class, () -> service.calendar(null));
+    }
+}
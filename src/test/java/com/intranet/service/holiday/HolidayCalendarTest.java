@@ -0,0 +1,56 @@
+package com.intranet.service.holiday;
+
+import com.intranet.dto.HolidayDTO;
+import com.intranet.entity.HolidayCalendarDay;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class HolidayCalendarTest {
+
+    private static HolidayCalendarDay day(long id, LocalDate date, String name) {
+        HolidayCalendarDay day = new HolidayCalendarDay();
+        day.setHolidayId(id);
+        day.setHolidayDate(date);
+        day.setHolidayName(name);
+        day.setSyncedAt(LocalDateTime.of(2026, 1, 1, 0, 30));
+        return day;
+    }
+
+    @Test
+    void shouldAnswerHolidayChecksAndMonthLists() {
+        HolidayCalendar calendar = HolidayCalendar.of(List.of(
+                day(1, LocalDate.of(2026, 1, 26), "Republic Day"),
+                day(2, LocalDate.of(2025, 1, 26), "Republic Day"),
+                day(3, LocalDate.of(2026, 8, 15), "Independence Day")), LocalDateTime.now());
+
+        assertTrue(calendar.isLoaded());
+        assertTrue(calendar.isHoliday(LocalDate.of(2026, 8, 15)));
+        assertFalse(calendar.isHoliday(LocalDate.of(2026, 8, 16)));
+        assertFalse(calendar.isHoliday(LocalDate.of(2027, 8, 15)));
+        assertEquals("Independence Day", calendar.holiday(LocalDate.of(2026, 8, 15)).orElseThrow().getHolidayName());
+
+        assertEquals(1, calendar.holidaysOfMonth(2026, 1).size());
+        assertEquals(2, calendar.holidaysOfMonth(1).size());
+        assertTrue(calendar.holidaysOfMonth(2026, 2).isEmpty());
+        assertFalse(HolidayCalendar.EMPTY.isLoaded());
+    }
+
+    @Test
+    void lookupsShouldReturnFreshCopies() {
+        HolidayCalendar calendar = HolidayCalendar.of(List.of(
+                day(3, LocalDate.of(2026, 8, 15), "Independence Day")), LocalDateTime.now());
+
+        HolidayDTO first = calendar.holidaysOfMonth(2026, 8).get(0);
+        first.setSubmitTimesheet(true);
+        first.setHolidayName("changed");
+
+        HolidayDTO again = calendar.holiday(LocalDate.of(2026, 8, 15)).orElseThrow();
+        assertFalse(again.isSubmitTimesheet());
+        assertEquals("Independence Day", again.getHolidayName());
+    }
+}
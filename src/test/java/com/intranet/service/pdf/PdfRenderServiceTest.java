@@ -0,0 +1,88 @@
+package com.intranet.service.pdf;
+
+import org.junit.jupiter.api.Test;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class PdfRenderServiceTest {
+
+    private static final String HTML = "<html><body><p>Monthly report</p></body></html>";
+
+    @Test
+    void shouldStreamPdfAndRecordRenderTime() throws IOException {
+        SimpleMeterRegistry registry = new SimpleMeterRegistry();
+        PdfRenderService service = new PdfRenderService(registry, 2, 1000, "");
+
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        service.render(HTML, out);
+
+        assertTrue(new String(out.toByteArray(), 0, 4, StandardCharsets.US_ASCII).startsWith("%PDF"));
+        assertEquals(1, registry.get("pdf.render").timer().count());
+    }
+
+    @Test
+    void shouldDeleteTempFileOnClose() throws IOException {
+        PdfRenderService service = new PdfRenderService(new SimpleMeterRegistry(), 2, 1000, "");
+
+        Path file;
+        try (RenderedPdf pdf = service.renderToTempFile(HTML)) {
+            file = pdf.resource().getFile().toPath();
+            assertTrue(pdf.size() > 0);
+        }
+        assertFalse(Files.exists(file));
+    }
+
+    @Test
+    void shouldRejectWhenNoSlotFreesUpInTime() throws Exception {
+        PdfRenderService service = new PdfRenderService(new SimpleMeterRegistry(), 1, 50, "");
+        CountDownLatch rendering = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        ExecutorService executor = Executors.newSingleThreadExecutor();
+        try {
+            // Holds the only slot until released
+            executor.submit(() -> {
+                service.render(HTML, new OutputStream() {
+                    @Override
+                    public void write(int b) throws IOException {
+                        block();
+                    }
+
+                    @Override
+                    public void write(byte[] b, int off, int len) throws IOException {
+                        block();
+                    }
+
+                    private void block() {
+                        rendering.countDown();
+                        try {
+                            release.await(5, TimeUnit.SECONDS);
+                        } catch (InterruptedException e) {
+                            Thread.currentThread().interrupt();
+                        }
+                    }
+                });
+                return null;
+            });
+            assertTrue(rendering.await(5, TimeUnit.SECONDS));
+
+            IOException e = assertThrows(IOException.class, () -> service.renderToTempFile(HTML));
+            assertTrue(e.getMessage().contains("busy"));
+        } finally {
+            release.countDown();
+            executor.shutdownNow();
+        }
+    }
+}
@@ -0,0 +1,100 @@
+package com.intranet.service.pdf;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import com.intranet.service.pdf.ReportPdfCache.ReportType;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.YearMonth;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class ReportPdfCacheTest {
+
+    private static final YearMonth CLOSED = YearMonth.now().minusMonths(1);
+
+    @TempDir
+    Path dir;
+
+    private ReportDataFingerprint fingerprint;
+    private ReportPdfCache cache;
+    private final AtomicInteger builds = new AtomicInteger();
+
+    @BeforeEach
+    void setUp() {
+        SimpleMeterRegistry registry = new SimpleMeterRegistry();
+        fingerprint = mock(ReportDataFingerprint.class);
+        cache = new ReportPdfCache(new PdfRenderService(registry, 2, 1000, ""),
+                fingerprint, registry, true, dir.toString(), 90, 600_000);
+    }
+
+    @Test
+    void shouldServeRepeatRequestsFromDiskWithoutBuildingReport() throws Exception {
+        when(fingerprint.of(eq(7L), any())).thenReturn("v1");
+
+        Path first = cache.getOrRender(ReportType.USER_MONTHLY, 7L, CLOSED.getMonthValue(), CLOSED.getYear(), this::html);
+        Path second = cache.getOrRender(ReportType.USER_MONTHLY, 7L, CLOSED.getMonthValue(), CLOSED.getYear(), this::html);
+
+        assertEquals(first, second);
+        assertEquals(1, builds.get());
+        assertTrue(Files.size(first) > 0);
+    }
+
+    @Test
+    void shouldRenderAgainAndKeepOldFileUntilGracePeriodEnds() throws Exception {
+        when(fingerprint.of(eq(7L), any())).thenReturn("v1", "v2");
+
+        Path old = cache.getOrRender(ReportType.USER_MONTHLY, 7L, CLOSED.getMonthValue(), CLOSED.getYear(), this::html);
+        Path current = cache.getOrRender(ReportType.USER_MONTHLY, 7L, CLOSED.getMonthValue(), CLOSED.getYear(), this::html);
+
+        assertNotEquals(old, current);
+        assertEquals(2, builds.get());
+        // A download of the old version may still be running
+        cache.removeSuperseded();
+        assertTrue(Files.exists(old));
+        assertTrue(Files.exists(current));
+    }
+
+    @Test
+    void shouldDropOldFileOnceGracePeriodEnded() throws Exception {
+        SimpleMeterRegistry registry = new SimpleMeterRegistry();
+        ReportPdfCache noGrace = new ReportPdfCache(new PdfRenderService(registry, 2, 1000, ""),
+                fingerprint, registry, true, dir.toString(), 90, 0);
+        when(fingerprint.of(eq(7L), any())).thenReturn("v1", "v2");
+
+        Path old = noGrace.getOrRender(ReportType.USER_MONTHLY, 7L, CLOSED.getMonthValue(), CLOSED.getYear(), this::html);
+        Path current = noGrace.getOrRender(ReportType.USER_MONTHLY, 7L, CLOSED.getMonthValue(), CLOSED.getYear(), this::html);
+        noGrace.removeSuperseded();
+
+        assertFalse(Files.exists(old));
+        assertTrue(Files.exists(current));
+    }
+
+    @Test
+    void shouldNotCacheCurrentMonth() throws Exception {
+        YearMonth now = YearMonth.now();
+        assertFalse(cache.isCacheable(now.getMonthValue(), now.getYear()));
+
+        Path file;
+        try (RenderedPdf pdf = cache.attachment(ReportType.FINANCE_MONTHLY, null, now.getMonthValue(), now.getYear(), this::html)) {
+            file = pdf.path();
+            assertFalse(file.startsWith(dir));
+        }
+        assertFalse(Files.exists(file));
+    }
+
+    private String html() {
+        builds.incrementAndGet();
+        return "<html><body><p>Report</p></body></html>";
+    }
+}
@@ -0,0 +1,51 @@
+package com.intranet.service.pms;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.cache.caffeine.CaffeineCacheManager;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class TaskDurationCacheTest {
+
+    private TaskDurationCache taskDurationCache;
+    private final List<Set<Long>> loads = new ArrayList<>();
+
+    @BeforeEach
+    void setUp() {
+        CaffeineCacheManager cacheManager = new CaffeineCacheManager("taskDurationCache");
+        cacheManager.setAllowNullValues(false);
+        taskDurationCache = new TaskDurationCache(cacheManager);
+    }
+
+    @Test
+    void shouldLoadOnlyMissingProjectsInOneCall() {
+        taskDurationCache.get(List.of(1L), "all:7", this::load, "");
+
+        Map<Long, String> result = taskDurationCache.get(List.of(1L, 2L, 3L), "all:7", this::load, "");
+
+        assertEquals(List.of(Set.of(1L), Set.of(2L, 3L)), loads);
+        assertEquals(Map.of(1L, "p1", 2L, "p2", 3L, "p3"), result);
+    }
+
+    @Test
+    void shouldReloadProjectAfterEviction() {
+        taskDurationCache.get(List.of(1L, 2L), "all:7", this::load, "");
+
+        taskDurationCache.evictProjects(List.of(2L));
+        taskDurationCache.get(List.of(1L, 2L), "all:7", this::load, "");
+
+        assertEquals(List.of(Set.of(1L, 2L), Set.of(2L)), loads);
+    }
+
+    private Map<Long, String> load(Set<Long> projectIds) {
+        loads.add(Set.copyOf(projectIds));
+        return projectIds.stream().collect(Collectors.toMap(id -> id, id -> "p" + id));
+    }
+}
@@ -0,0 +1,57 @@
+package com.intranet.service.project;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ProjectMembershipGraphTest {
+
+    private static Map<String, Object> project(long id, Long ownerId, String start, String end, long... memberIds) {
+        Map<String, Object> p = new HashMap<>();
+        p.put("id", id);
+        p.put("name", "Project " + id);
+        p.put("ownerId", ownerId);
+        p.put("members", Arrays.stream(memberIds)
+                .mapToObj(m -> Map.<String, Object>of("id", m, "name", "User " + m))
+                .toList());
+        if (start != null) p.put("startDate", start);
+        if (end != null) p.put("endDate", end);
+        return p;
+    }
+
+    private final ProjectMembershipGraph graph = ProjectMembershipGraph.of(List.of(
+            project(1, 100L, "2026-01-01", "2026-06-30", 10, 11),
+            project(2, 100L, null, null, 11, 12),
+            project(3, 200L, "2026-09-01", null, 11),
+            project(4, null, null, null, 13)), LocalDateTime.now());
+
+    @Test
+    void shouldIndexOwnersMembersAndManagers() {
+        assertEquals(Set.of(10L, 11L, 12L), graph.teamOf(100L));
+        assertEquals(Set.of(11L), graph.teamOf(200L));
+        assertEquals(Set.of(100L, 200L), graph.managersOf(11L));
+        assertTrue(graph.managersOf(13L).isEmpty());
+        assertEquals(1, graph.projectsOf(13L).size());
+        assertEquals(3, graph.projectsOf(11L).size());
+        assertEquals("Project 4", graph.project(4L).orElseThrow().get("name"));
+        assertTrue(graph.teamOf(999L).isEmpty());
+        assertFalse(ProjectMembershipGraph.EMPTY.isLoaded());
+        assertThrows(UnsupportedOperationException.class, () -> graph.project(1L).orElseThrow().put("name", "x"));
+    }
+
+    @Test
+    void shouldFilterOwnedProjectsByPeriod() {
+        List<Map<String, Object>> october = graph.projectsOwnedBy(100L, LocalDate.of(2026, 10, 1), LocalDate.of(2026, 10, 31));
+        assertEquals(List.of(2L), october.stream().map(p -> p.get("id")).toList());
+        assertEquals(2, graph.projectsOwnedBy(100L, LocalDate.of(2026, 6, 1), LocalDate.of(2026, 6, 30)).size());
+        assertEquals(Set.of(11L, 12L), ProjectMembershipGraph.memberIdsOf(october));
+    }
+}
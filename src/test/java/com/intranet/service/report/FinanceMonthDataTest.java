@@ -0,0 +1,89 @@
+package com.intranet.service.report;
+
+import com.intranet.entity.TimeSheet;
+import com.intranet.entity.TimeSheetEntry;
+import com.intranet.service.rollup.TimeSheetRollupService;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class FinanceMonthDataTest {
+
+    private static final LocalDate MON = LocalDate.of(2025, 3, 3);
+
+    // Figures the report produced when it still read timesheets and entries
+    @Test
+    void shouldMatchTotalsOfTheSheetBasedReport() {
+        List<TimeSheet> sheets = List.of(
+                sheet(1L, MON, TimeSheet.Status.SUBMITTED, false, "8",
+                        entry(10L, true, "5"), entry(20L, false, "2"), entry(null, false, "1")),
+                sheet(1L, MON.plusDays(1), TimeSheet.Status.APPROVED, true, "8",
+                        entry(30L, false, "8"), entry(10L, true, "2")),
+                sheet(2L, MON, TimeSheet.Status.APPROVED, false, "6",
+                        entry(10L, true, "4"), entry(10L, false, "2")),
+                sheet(2L, MON.plusDays(2), TimeSheet.Status.DRAFT, false, "3",
+                        entry(10L, true, "3")),
+                sheet(3L, LocalDate.of(2024, 12, 31), TimeSheet.Status.APPROVED, false, "8",
+                        entry(10L, true, "8")));
+
+        FinanceMonthData data = FinanceMonthData.of(
+                sheets.stream().map(TimeSheetRollupService::dailyRow).toList(),
+                sheets.stream().flatMap(ts -> TimeSheetRollupService.projectRows(ts).stream()).toList(),
+                2025);
+
+        assertEquals(0, new BigDecimal("22").compareTo(data.totalHours));
+        assertEquals(0, new BigDecimal("9").compareTo(data.billableHours));
+        assertEquals(0, new BigDecimal("13").compareTo(data.nonBillableEntryHours));
+        assertEquals(0, new BigDecimal("8").compareTo(data.autoGeneratedHours));
+
+        assertEquals(Set.of(1L, 2L), data.users.keySet());
+        FinanceMonthData.UserTotals user1 = data.users.get(1L);
+        assertEquals(Set.of(MON), user1.workedDates);
+        assertEquals(0, new BigDecimal("5").compareTo(user1.billableHours));
+        assertEquals(0, new BigDecimal("3").compareTo(user1.nonBillableHours));
+        assertEquals(0, new BigDecimal("11").compareTo(user1.nonBillableEntryHoursAllSheets));
+        assertEquals(0, new BigDecimal("8").compareTo(user1.autoGeneratedHours));
+        FinanceMonthData.UserTotals user2 = data.users.get(2L);
+        assertEquals(0, new BigDecimal("2").compareTo(user2.nonBillableHours));
+        assertEquals(0, BigDecimal.ZERO.compareTo(user2.autoGeneratedHours));
+
+        assertEquals(Set.of(10L, 20L), data.projects.keySet());
+        FinanceMonthData.ProjectTotals p10 = data.projects.get(10L);
+        assertEquals(0, new BigDecimal("9").compareTo(p10.billableHours));
+        assertEquals(0, new BigDecimal("2").compareTo(p10.nonBillableHours));
+        assertEquals(0, new BigDecimal("5").compareTo(p10.byUser.get(1L)[0]));
+        assertEquals(0, new BigDecimal("4").compareTo(p10.byUser.get(2L)[0]));
+        assertEquals(0, new BigDecimal("2").compareTo(p10.byUser.get(2L)[1]));
+        assertEquals(0, new BigDecimal("2").compareTo(data.projects.get(20L).totalHours()));
+    }
+
+    private static TimeSheet sheet(Long userId, LocalDate date, TimeSheet.Status status, boolean auto,
+                                   String hours, TimeSheetEntry... entries) {
+        TimeSheet ts = new TimeSheet();
+        ts.setUserId(userId);
+        ts.setWorkDate(date);
+        ts.setStatus(status);
+        ts.setAutoGenerated(auto);
+        ts.setHoursWorked(new BigDecimal(hours));
+        ts.setEntries(new ArrayList<>());
+        for (TimeSheetEntry e : entries) {
+            e.setTimeSheet(ts);
+            ts.getEntries().add(e);
+        }
+        return ts;
+    }
+
+    private static TimeSheetEntry entry(Long projectId, boolean billable, String hours) {
+        TimeSheetEntry e = new TimeSheetEntry();
+        e.setProjectId(projectId);
+        e.setBillable(billable);
+        e.setHoursWorked(new BigDecimal(hours));
+        return e;
+    }
+}
@@ -0,0 +1,171 @@
+package com.intranet.service.report;
+
+import com.intranet.entity.TimeSheet;
+import com.intranet.entity.TimeSheetEntry;
+import com.intranet.entity.TimeSheetReview;
+import com.intranet.entity.WeekInfo;
+import com.intranet.repository.TimeSheetDailyRollupRepo;
+import com.intranet.repository.TimeSheetProjectDailyRollupRepo;
+import com.intranet.repository.TimeSheetReviewRepo;
+import com.intranet.repository.WeeklyTimeSheetReviewRepo;
+import com.intranet.service.HolidayExcludeUsersService;
+import com.intranet.service.directory.UserDirectoryIndex;
+import com.intranet.service.external.ManagerWeeklySummaryService;
+import com.intranet.service.project.ProjectMembershipGraph;
+import com.intranet.service.project.ProjectMembershipService;
+import com.intranet.service.rollup.TimeSheetRollupService;
+import com.intranet.util.UpstreamCalls;
+import com.intranet.util.cache.UserDirectoryService;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+class ManagerMonthlyReportServiceTest {
+
+    // Monday
+    private static final LocalDate MON = LocalDate.of(2025, 3, 3);
+    private static final Long MANAGER = 9L;
+
+    private final TimeSheetDailyRollupRepo dailyRollupRepo = mock(TimeSheetDailyRollupRepo.class);
+    private final TimeSheetProjectDailyRollupRepo projectRollupRepo = mock(TimeSheetProjectDailyRollupRepo.class);
+    private final TimeSheetReviewRepo reviewRepo = mock(TimeSheetReviewRepo.class);
+    private final WeeklyTimeSheetReviewRepo weeklyReviewRepo = mock(WeeklyTimeSheetReviewRepo.class);
+    private final UserDirectoryService userDirectoryService = mock(UserDirectoryService.class);
+    private final ManagerWeeklySummaryService weeklySummaryService = mock(ManagerWeeklySummaryService.class);
+    private final HolidayExcludeUsersService holidayService = mock(HolidayExcludeUsersService.class);
+    private final UpstreamCalls upstreamCalls = mock(UpstreamCalls.class);
+    private final ProjectMembershipService membershipService = mock(ProjectMembershipService.class);
+
+    // Figures the report produced when it still read timesheets and entries
+    @Test
+    @SuppressWarnings("unchecked")
+    void shouldMatchTotalsOfTheSheetBasedReport() {
+        WeekInfo week = new WeekInfo();
+        week.setId(100L);
+        List<TimeSheet> sheets = List.of(
+                sheet(1L, MON, TimeSheet.Status.SUBMITTED, false, "8", week,
+                        entry(10L, true, "5.5", 9, 0, 14, 30), entry(20L, false, "2", 14, 30, 16, 30)),
+                sheet(1L, MON.plusDays(1), TimeSheet.Status.APPROVED, true, "8", week,
+                        untimedEntry(10L, true, "8")),
+                sheet(2L, MON, TimeSheet.Status.PARTIALLY_APPROVED, false, "6", week,
+                        entry(10L, true, "1.75", 9, 0, 10, 45), entry(10L, false, "4.25", 11, 0, 15, 15)),
+                sheet(2L, MON.plusDays(2), TimeSheet.Status.DRAFT, false, "3", week,
+                        entry(10L, true, "3", 9, 0, 12, 0)));
+        TimeSheetReview reviewed = new TimeSheetReview();
+        reviewed.setUserId(2L);
+        reviewed.setWeekInfo(week);
+        reviewed.setStatus(TimeSheetReview.Status.APPROVED);
+        stubSources(sheets, List.of(reviewed));
+
+        Map<String, Object> report = service().generateManagerMonthlyReport(
+                MANAGER, "Manager", MON.withDayOfMonth(1), MON.withDayOfMonth(31), 3, 2025, "Bearer t");
+
+        assertHours("6.75", report.get("billableHours"));
+        assertHours("6.25", report.get("nonBillableHours"));
+        assertHours("13.00", report.get("totalHours"));
+        assertHours("8", report.get("autoGeneratedHours"));
+        assertEquals(1, report.get("pending"));
+
+        Map<String, BigDecimal> weekly = (Map<String, BigDecimal>) report.get("weeklySummary");
+        assertHours("13.30", weekly.get("MONDAY"));
+        assertHours("0", weekly.get("TUESDAY"));
+        assertHours("0", weekly.get("WEDNESDAY"));
+
+        List<Map<String, Object>> breakdown = (List<Map<String, Object>>) report.get("projectBreakdown");
+        Map<String, Object> alpha = breakdown.get(0);
+        assertHours("15.25", alpha.get("billableHours"));
+        assertHours("4.25", alpha.get("nonBillableHours"));
+        List<Map<String, Object>> alphaMembers = (List<Map<String, Object>>) alpha.get("membersContribution");
+        assertHours("13.5", alphaMembers.get(0).get("billableHours"));
+        assertHours("4.25", alphaMembers.get(1).get("nonBillableHours"));
+        assertHours("2", breakdown.get(1).get("nonBillableHours"));
+
+        Map<String, Object> billable = (Map<String, Object>) report.get("billableContribution");
+        assertHours("15.25", billable.get("totalBillableHours"));
+        assertEquals(2, ((List<?>) billable.get("members")).size());
+        Map<String, Object> auto = (Map<String, Object>) report.get("autoGeneratedContribution");
+        assertHours("8", auto.get("totalAutoHours"));
+
+        List<Map<String, Object>> under = (List<Map<String, Object>>)
+                ((Map<String, Object>) report.get("underutilizedInsight")).get("underutilized");
+        assertEquals(List.of(2L, 1L), under.stream().map(m -> m.get("userId")).toList());
+        assertHours("16", under.get(1).get("totalHours"));
+    }
+
+    private ManagerMonthlyReportService service() {
+        ManagerMonthlyReportService service = new ManagerMonthlyReportService(dailyRollupRepo, projectRollupRepo, reviewRepo,
+                weeklyReviewRepo, userDirectoryService, weeklySummaryService, holidayService, upstreamCalls,
+                membershipService);
+        service.expectedBaseHours = 176;
+        return service;
+    }
+
+    private void stubSources(List<TimeSheet> sheets, List<TimeSheetReview> reviews) {
+        List<Map<String, Object>> projects = List.of(
+                Map.of("id", 10L, "name", "Alpha", "members", List.of(Map.of("id", 1L, "name", "A"), Map.of("id", 2L, "name", "B"))),
+                Map.of("id", 20L, "name", "Beta", "members", List.of(Map.of("id", 1L, "name", "A"))));
+        ProjectMembershipGraph graph = mock(ProjectMembershipGraph.class);
+        when(graph.projectsOwnedBy(eq(MANAGER), any(), any())).thenReturn(projects);
+        when(membershipService.graph(any())).thenReturn(graph);
+        when(userDirectoryService.directory(any())).thenReturn(mock(UserDirectoryIndex.class));
+        when(upstreamCalls.required(any(), any(), any())).thenReturn(CompletableFuture.completedFuture(List.of()));
+        when(dailyRollupRepo.findByUserIdInAndWorkDateBetween(any(), any(), any()))
+                .thenReturn(sheets.stream().map(TimeSheetRollupService::dailyRow).toList());
+        when(projectRollupRepo.findByUserIdInAndWorkDateBetween(any(), any(), any()))
+                .thenReturn(sheets.stream().flatMap(ts -> TimeSheetRollupService.projectRows(ts).stream()).toList());
+        when(reviewRepo.findByManagerIdAndWeekInfo_IdIn(eq(MANAGER), any())).thenReturn(reviews);
+    }
+
+    private static void assertHours(String expected, Object actual) {
+        assertEquals(0, new BigDecimal(expected).compareTo(new BigDecimal(actual.toString())),
+                () -> "expected " + expected + " but was " + actual);
+    }
+
+    private static TimeSheet sheet(Long userId, LocalDate date, TimeSheet.Status status, boolean auto,
+                                   String hours, WeekInfo week, TimeSheetEntry... entries) {
+        TimeSheet ts = new TimeSheet();
+        ts.setUserId(userId);
+        ts.setWorkDate(date);
+        ts.setStatus(status);
+        ts.setAutoGenerated(auto);
+        ts.setHoursWorked(new BigDecimal(hours));
+        ts.setWeekInfo(week);
+        ts.setEntries(new ArrayList<>());
+        for (TimeSheetEntry e : entries) {
+            e.setTimeSheet(ts);
+            if (e.getFromTime() != null) {
+                e.setFromTime(LocalDateTime.of(date, e.getFromTime().toLocalTime()));
+                e.setToTime(LocalDateTime.of(date, e.getToTime().toLocalTime()));
+            }
+            ts.getEntries().add(e);
+        }
+        return ts;
+    }
+
+    private static TimeSheetEntry entry(Long projectId, boolean billable, String hours,
+                                        int fromH, int fromM, int toH, int toM) {
+        TimeSheetEntry e = untimedEntry(projectId, billable, hours);
+        e.setFromTime(LocalDateTime.of(MON, LocalTime.of(fromH, fromM)));
+        e.setToTime(LocalDateTime.of(MON, LocalTime.of(toH, toM)));
+        return e;
+    }
+
+    private static TimeSheetEntry untimedEntry(Long projectId, boolean billable, String hours) {
+        TimeSheetEntry e = new TimeSheetEntry();
+        e.setProjectId(projectId);
+        e.setBillable(billable);
+        e.setHoursWorked(new BigDecimal(hours));
+        return e;
+    }
+}
@@ -0,0 +1,173 @@
+package com.intranet.service.rollup;
+
+import com.intranet.entity.TimeSheet;
+import com.intranet.entity.TimeSheetDailyRollup;
+import com.intranet.entity.TimeSheetEntry;
+import com.intranet.entity.TimeSheetProjectDailyRollup;
+import com.intranet.entity.WeekInfo;
+import com.intranet.repository.TimeSheetDailyRollupRepo;
+import com.intranet.repository.TimeSheetProjectDailyRollupRepo;
+import com.intranet.repository.TimeSheetRepo;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionStatus;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+class TimeSheetRollupServiceTest {
+
+    // Wednesday
+    private static final LocalDate DAY = LocalDate.of(2025, 3, 5);
+
+    private final TimeSheetRepo timeSheetRepo = mock(TimeSheetRepo.class);
+    private final TimeSheetDailyRollupRepo dailyRepo = mock(TimeSheetDailyRollupRepo.class);
+    private final TimeSheetProjectDailyRollupRepo projectRepo = mock(TimeSheetProjectDailyRollupRepo.class);
+    private final PlatformTransactionManager txManager = mock(PlatformTransactionManager.class);
+    private final TimeSheetRollupService service;
+
+    TimeSheetRollupServiceTest() {
+        when(txManager.getTransaction(any())).thenAnswer(i -> mock(TransactionStatus.class));
+        service = new TimeSheetRollupService(timeSheetRepo, dailyRepo, projectRepo, txManager);
+    }
+
+    @AfterEach
+    void clearSynchronization() {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void shouldRebuildOneDailyRowPerSheetAndSplitEntriesByProject() {
+        TimeSheet ts = sheet(1L, DAY, entry(10L, true, "3", 9, 0, 12, 0),
+                entry(10L, false, "1", 12, 0, 13, 0), entry(20L, true, "1.5", 14, 0, 15, 30));
+        // The fetch join returns the sheet once per entry
+        when(timeSheetRepo.findByWorkDateBetweenWithWeekInfoAndEntries(DAY, DAY)).thenReturn(List.of(ts, ts, ts));
+
+        assertEquals(1, service.rebuild(DAY, DAY));
+
+        verify(dailyRepo).deleteByWorkDateBetween(DAY, DAY);
+        verify(projectRepo).deleteByWorkDateBetween(DAY, DAY);
+        ArgumentCaptor<List<TimeSheetDailyRollup>> daily = ArgumentCaptor.forClass(List.class);
+        verify(dailyRepo).saveAll(daily.capture());
+        TimeSheetDailyRollup row = daily.getValue().get(0);
+        assertEquals(1, daily.getValue().size());
+        assertEquals(LocalDate.of(2025, 3, 3), row.getWeekStart());
+        assertEquals(LocalDate.of(2025, 3, 1), row.getMonthStart());
+        assertEquals(100L, row.getWeekInfoId());
+        assertEquals(0, new BigDecimal("4.5").compareTo(row.getBillableHours()));
+        assertEquals(0, new BigDecimal("1").compareTo(row.getNonBillableHours()));
+        assertEquals(0, new BigDecimal("4.30").compareTo(row.getBillableClockHours()));
+        assertEquals(330, row.getEntryMinutes());
+        assertEquals(3, row.getEntryCount());
+
+        ArgumentCaptor<List<TimeSheetProjectDailyRollup>> projects = ArgumentCaptor.forClass(List.class);
+        verify(projectRepo).saveAll(projects.capture());
+        List<TimeSheetProjectDailyRollup> rows = new ArrayList<>(projects.getValue());
+        rows.sort(Comparator.comparing(TimeSheetProjectDailyRollup::getProjectId));
+        assertEquals(List.of(10L, 20L), rows.stream().map(TimeSheetProjectDailyRollup::getProjectId).toList());
+        assertEquals(0, new BigDecimal("3").compareTo(rows.get(0).getBillableHours()));
+        assertEquals(0, new BigDecimal("1").compareTo(rows.get(0).getNonBillableHours()));
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void shouldApplyDeltaImmediatelyOutsideATransaction() {
+        TimeSheet ts = sheet(1L, DAY, entry(10L, true, "2", 9, 0, 11, 0));
+        when(timeSheetRepo.lockByUserIdAndWorkDate(1L, DAY)).thenReturn(Optional.of(ts));
+
+        service.markDirty(ts);
+
+        ArgumentCaptor<TimeSheetDailyRollup> row = ArgumentCaptor.forClass(TimeSheetDailyRollup.class);
+        verify(dailyRepo).upsert(row.capture());
+        assertEquals(0, new BigDecimal("2").compareTo(row.getValue().getBillableHours()));
+        verify(projectRepo).deleteByUserIdAndWorkDate(1L, DAY);
+        ArgumentCaptor<List<TimeSheetProjectDailyRollup>> projects = ArgumentCaptor.forClass(List.class);
+        verify(projectRepo).saveAll(projects.capture());
+        assertEquals(1, projects.getValue().size());
+        verify(txManager).commit(any());
+    }
+
+    @Test
+    void shouldDeleteRowsOfARemovedSheet() {
+        when(timeSheetRepo.lockByUserIdAndWorkDate(1L, DAY)).thenReturn(Optional.empty());
+
+        service.markDirty(1L, DAY);
+
+        verify(dailyRepo).deleteByUserIdAndWorkDate(1L, DAY);
+        verify(projectRepo).deleteByUserIdAndWorkDate(1L, DAY);
+        verify(dailyRepo, never()).upsert(any());
+    }
+
+    @Test
+    void shouldRefreshEachKeyOnceAfterCommit() {
+        TimeSheet ts = sheet(1L, DAY, entry(10L, true, "2", 9, 0, 11, 0));
+        when(timeSheetRepo.lockByUserIdAndWorkDate(1L, DAY)).thenReturn(Optional.of(ts));
+        TransactionSynchronizationManager.initSynchronization();
+
+        service.markDirty(ts);
+        service.markDirty(1L, DAY);
+        verifyNoInteractions(timeSheetRepo, dailyRepo, projectRepo);
+
+        for (TransactionSynchronization sync : TransactionSynchronizationManager.getSynchronizations()) {
+            sync.afterCommit();
+            sync.afterCompletion(TransactionSynchronization.STATUS_COMMITTED);
+        }
+        verify(dailyRepo, times(1)).upsert(any());
+        assertNull(TransactionSynchronizationManager.getResource(service));
+    }
+
+    @Test
+    void shouldDropKeysOnRollbackAndKeepCallerUnaffectedByRefreshFailures() {
+        TransactionSynchronizationManager.initSynchronization();
+        service.markDirty(1L, DAY);
+        for (TransactionSynchronization sync : TransactionSynchronizationManager.getSynchronizations()) {
+            sync.afterCompletion(TransactionSynchronization.STATUS_ROLLED_BACK);
+        }
+        verifyNoInteractions(timeSheetRepo);
+        TransactionSynchronizationManager.clearSynchronization();
+
+        when(timeSheetRepo.lockByUserIdAndWorkDate(1L, DAY)).thenThrow(new IllegalStateException("lock wait timeout"));
+        assertDoesNotThrow(() -> service.markDirty(1L, DAY));
+        verify(txManager).rollback(any());
+    }
+
+    private static TimeSheet sheet(Long userId, LocalDate date, TimeSheetEntry... entries) {
+        WeekInfo week = new WeekInfo();
+        week.setId(100L);
+        TimeSheet ts = new TimeSheet();
+        ts.setUserId(userId);
+        ts.setWorkDate(date);
+        ts.setWeekInfo(week);
+        ts.setStatus(TimeSheet.Status.SUBMITTED);
+        ts.setAutoGenerated(false);
+        ts.setHoursWorked(new BigDecimal("8"));
+        ts.setEntries(new ArrayList<>(List.of(entries)));
+        return ts;
+    }
+
+    private static TimeSheetEntry entry(Long projectId, boolean billable, String hours,
+                                        int fromH, int fromM, int toH, int toM) {
+        TimeSheetEntry e = new TimeSheetEntry();
+        e.setProjectId(projectId);
+        e.setBillable(billable);
+        e.setHoursWorked(new BigDecimal(hours));
+        e.setFromTime(DAY.atTime(fromH, fromM));
+        e.setToTime(DAY.atTime(toH, toM));
+        return e;
+    }
+}
@@ -0,0 +1,64 @@
+package com.intranet.service.week;
+
+import com.intranet.entity.WeekInfo;
+import com.intranet.repository.WeekInfoRepo;
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+class WeekCalendarServiceTest {
+
+    private static final LocalDate OCT_5 = LocalDate.of(2026, 10, 5);
+    private static final LocalDate OCT_12 = LocalDate.of(2026, 10, 12);
+
+    private final WeekInfoRepo repo = mock(WeekInfoRepo.class);
+
+    private static WeekInfo week(long id, LocalDate start) {
+        WeekInfo week = new WeekInfo();
+        week.setId(id);
+        week.setStartDate(start);
+        week.setEndDate(start.plusDays(6));
+        week.setMonth(start.getMonthValue());
+        week.setYear(start.getYear());
+        return week;
+    }
+
+    @Test
+    void shouldLookUpAndKeepAWeekCreatedOnAnotherInstance() {
+        WeekCalendarService service = new WeekCalendarService(repo, mock(PlatformTransactionManager.class), 60_000);
+        when(repo.findAll()).thenReturn(List.of(week(1, OCT_5)));
+        service.reload();
+        when(repo.findByStartDateLessThanEqualAndEndDateGreaterThanEqual(OCT_12, OCT_12))
+                .thenReturn(Optional.of(week(2, OCT_12)));
+
+        assertEquals(2L, service.find(OCT_12).orElseThrow().getId());
+        assertEquals(2L, service.find(OCT_12.plusDays(1)).orElseThrow().getId());
+
+        verify(repo, times(1)).findByStartDateLessThanEqualAndEndDateGreaterThanEqual(any(), any());
+        assertEquals(2, service.calendar().size());
+    }
+
+    @Test
+    void shouldReloadWhenWeekInfoGrewElsewhere() {
+        WeekCalendarService service = new WeekCalendarService(repo, mock(PlatformTransactionManager.class), 0);
+        when(repo.findAll()).thenReturn(List.of(week(1, OCT_5)));
+        service.reload();
+        when(repo.findMaxId()).thenReturn(1L);
+
+        assertEquals(1, service.calendar().ofMonth(10, 2026).size());
+        verify(repo, times(1)).findAll();
+
+        when(repo.findAll()).thenReturn(List.of(week(1, OCT_5), week(2, OCT_12)));
+        when(repo.findMaxId()).thenReturn(2L);
+
+        assertEquals(2, service.calendar().ofMonth(10, 2026).size());
+        verify(repo, times(2)).findAll();
+    }
+}
@@ -0,0 +1,57 @@
+package com.intranet.service.week;
+
+import com.intranet.entity.WeekInfo;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDate;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class WeekCalendarTest {
+
+    private static WeekInfo week(long id, LocalDate start, LocalDate end, int month) {
+        WeekInfo week = new WeekInfo();
+        week.setId(id);
+        week.setStartDate(start);
+        week.setEndDate(end);
+        week.setMonth(month);
+        week.setYear(2026);
+        return week;
+    }
+
+    // Month-clamped weeks as generated by WeekInfoService: Sep 28-30 belongs to September, Oct 1-4 to October
+    private final WeekCalendar calendar = WeekCalendar.of(List.of(
+            week(3, LocalDate.of(2026, 10, 5), LocalDate.of(2026, 10, 11), 10),
+            week(1, LocalDate.of(2026, 9, 28), LocalDate.of(2026, 9, 30), 9),
+            week(2, LocalDate.of(2026, 10, 1), LocalDate.of(2026, 10, 4), 10)));
+
+    @Test
+    void shouldResolveDateToWeek() {
+        assertEquals(1L, calendar.find(LocalDate.of(2026, 9, 30)).orElseThrow().getId());
+        assertEquals(2L, calendar.find(LocalDate.of(2026, 10, 1)).orElseThrow().getId());
+        assertEquals(3L, calendar.find(LocalDate.of(2026, 10, 11)).orElseThrow().getId());
+        assertTrue(calendar.find(LocalDate.of(2026, 10, 12)).isEmpty());
+        assertTrue(calendar.find(LocalDate.of(2026, 9, 27)).isEmpty());
+        assertTrue(WeekCalendar.EMPTY.find(LocalDate.of(2026, 10, 1)).isEmpty());
+    }
+
+    @Test
+    void shouldResolveRangesInStartOrder() {
+        LocalDate first = LocalDate.of(2026, 10, 1);
+        LocalDate last = LocalDate.of(2026, 10, 7);
+
+        assertEquals(List.of(1L, 2L, 3L), ids(calendar.overlapping(LocalDate.of(2026, 9, 30), last)));
+        assertEquals(List.of(2L), ids(calendar.within(first, last)));
+        assertEquals(List.of(2L, 3L), ids(calendar.startingBetween(first, last)));
+        assertEquals(List.of(2L, 3L), ids(calendar.ofMonth(10, 2026)));
+
+        WeekCalendar grown = calendar.with(List.of(week(4, LocalDate.of(2026, 10, 12), LocalDate.of(2026, 10, 18), 10)));
+        assertEquals(4L, grown.find(LocalDate.of(2026, 10, 14)).orElseThrow().getId());
+        assertEquals(3, calendar.size());
+    }
+
+    private static List<Long> ids(List<WeekInfo> weeks) {
+        return weeks.stream().map(WeekInfo::getId).toList();
+    }
+}
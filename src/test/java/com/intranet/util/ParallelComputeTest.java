@@ -0,0 +1,68 @@
+package com.intranet.util;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ForkJoinPool;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ParallelComputeTest {
+
+    private ForkJoinPool pool;
+    private ParallelCompute parallelCompute;
+
+    @BeforeEach
+    void setUp() {
+        pool = new ForkJoinPool(4);
+        parallelCompute = new ParallelCompute(pool, new SimpleMeterRegistry(), true, 8);
+    }
+
+    @AfterEach
+    void tearDown() {
+        pool.shutdownNow();
+    }
+
+    @Test
+    void shouldKeepInputOrderAndUseThePool() {
+        List<Integer> items = IntStream.range(0, 1000).boxed().toList();
+        Set<String> threads = ConcurrentHashMap.newKeySet();
+
+        List<Integer> squares = parallelCompute.map(items, i -> {
+            threads.add(Thread.currentThread().getName());
+            return i * i;
+        });
+
+        assertEquals(items.stream().map(i -> i * i).toList(), squares);
+        assertTrue(threads.stream().allMatch(name -> name.startsWith("ForkJoinPool-")),
+                "work ran outside the dedicated pool: " + threads);
+    }
+
+    @Test
+    void shouldRunSmallListsOnCallingThread() {
+        String caller = Thread.currentThread().getName();
+
+        List<String> names = parallelCompute.map(List.of(1, 2, 3), i -> Thread.currentThread().getName());
+
+        assertEquals(List.of(caller, caller, caller), names);
+    }
+
+    @Test
+    void shouldRethrowOriginalException() {
+        List<Integer> items = IntStream.range(0, 100).boxed().toList();
+
+        IllegalArgumentException e = assertThrows(IllegalArgumentException.class, () ->
+                parallelCompute.map(items, i -> {
+                    if (i == 42) throw new IllegalArgumentException("bad resource 42");
+                    return i;
+                }));
+        assertEquals("bad resource 42", e.getMessage());
+    }
+}
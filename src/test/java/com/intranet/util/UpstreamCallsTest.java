@@ -0,0 +1,102 @@
+package com.intranet.util;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.env.MockEnvironment;
+
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class UpstreamCallsTest {
+
+    private ExecutorService executor;
+    private UpstreamCalls upstreamCalls;
+
+    @BeforeEach
+    void setUp() {
+        executor = Executors.newFixedThreadPool(4);
+        MockEnvironment environment = new MockEnvironment()
+                .withProperty("app.upstream.deadline-ms", "2000")
+                .withProperty("app.upstream.deadline-ms.lms", "100");
+        upstreamCalls = new UpstreamCalls(executor, environment);
+    }
+
+    @AfterEach
+    void tearDown() {
+        executor.shutdownNow();
+    }
+
+    @Test
+    void shouldRunCallsConcurrently() {
+        CountDownLatch bothStarted = new CountDownLatch(2);
+
+        CompletableFuture<String> users = upstreamCalls.required("ums", "users", () -> awaitOther(bothStarted, "users"));
+        CompletableFuture<String> projects = upstreamCalls.required("pms", "projects", () -> awaitOther(bothStarted, "projects"));
+
+        assertEquals("users", UpstreamCalls.await(users));
+        assertEquals("projects", UpstreamCalls.await(projects));
+    }
+
+    @Test
+    void shouldRethrowOriginalExceptionOfRequiredCall() {
+        CompletableFuture<String> holidays = upstreamCalls.required("lms", "holidays", () -> {
+            throw new IllegalStateException("Failed to fetch holidays from LMS for month: 3");
+        });
+
+        IllegalStateException e = assertThrows(IllegalStateException.class, () -> UpstreamCalls.await(holidays));
+        assertEquals("Failed to fetch holidays from LMS for month: 3", e.getMessage());
+    }
+
+    @Test
+    void shouldUseFallbackWhenOptionalCallMissesDeadline() {
+        CompletableFuture<List<String>> leaves = upstreamCalls.optional("lms", "leaves", () -> {
+            sleep(1000);
+            return List.of("late");
+        }, List.of());
+
+        assertEquals(List.of(), UpstreamCalls.await(leaves));
+    }
+
+    @Test
+    void shouldInterruptOptionalCallThatMissedDeadline() throws Exception {
+        CountDownLatch interrupted = new CountDownLatch(1);
+        CompletableFuture<List<String>> leaves = upstreamCalls.optional("lms", "leaves", () -> {
+            try {
+                Thread.sleep(5000);
+            } catch (InterruptedException e) {
+                interrupted.countDown();
+            }
+            return List.of("late");
+        }, List.of());
+
+        assertEquals(List.of(), UpstreamCalls.await(leaves));
+        assertTrue(interrupted.await(1, TimeUnit.SECONDS));
+    }
+
+    private static String awaitOther(CountDownLatch latch, String value) {
+        latch.countDown();
+        try {
+            if (!latch.await(1, TimeUnit.SECONDS)) {
+                throw new IllegalStateException("calls ran one after another");
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        return value;
+    }
+
+    private static void sleep(long ms) {
+        try {
+            Thread.sleep(ms);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
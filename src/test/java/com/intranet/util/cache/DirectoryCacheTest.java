@@ -0,0 +1,54 @@
+package com.intranet.util.cache;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.cache.caffeine.CaffeineCacheManager;
+
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class DirectoryCacheTest {
+
+    private DirectoryCache directoryCache;
+
+    @BeforeEach
+    void setUp() {
+        CaffeineCacheManager cacheManager = new CaffeineCacheManager("userCache");
+        cacheManager.setAllowNullValues(false);
+        directoryCache = new DirectoryCache(cacheManager);
+    }
+
+    @Test
+    void shouldServeRepeatedLookupsFromCache() {
+        AtomicInteger calls = new AtomicInteger();
+
+        directoryCache.get("userCache", "Bearer a", "allUsers", () -> List.of(calls.incrementAndGet()));
+        List<Integer> second = directoryCache.get("userCache", "Bearer a", "allUsers",
+                () -> List.of(calls.incrementAndGet()));
+
+        assertEquals(1, calls.get());
+        assertEquals(List.of(1), second);
+    }
+
+    @Test
+    void shouldNotShareEntriesAcrossAuthHeaders() {
+        List<String> first = directoryCache.get("userCache", "Bearer a", "allUsers", () -> List.of("a"));
+        List<String> second = directoryCache.get("userCache", "Bearer b", "allUsers", () -> List.of("b"));
+
+        assertEquals(List.of("a"), first);
+        assertEquals(List.of("b"), second);
+    }
+
+    @Test
+    void shouldNotCacheFailedLoads() {
+        assertThrows(IllegalStateException.class, () ->
+                directoryCache.get("userCache", "Bearer a", "allUsers", () -> {
+                    throw new IllegalStateException("UMS down");
+                }));
+
+        List<String> result = directoryCache.get("userCache", "Bearer a", "allUsers", () -> List.of("ok"));
+        assertEquals(List.of("ok"), result);
+    }
+}
@@ -0,0 +1,54 @@
+package com.intranet.util.cache;
+
+import com.intranet.dto.lms.LeaveDTO;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDate;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class LeaveMonthIndexTest {
+
+    private static LeaveDTO leave(long employeeId, String start, String end, String status) {
+        LeaveDTO dto = new LeaveDTO();
+        dto.setEmployeeId(employeeId);
+        dto.setStartDate(start != null ? LocalDate.parse(start) : null);
+        dto.setEndDate(end != null ? LocalDate.parse(end) : null);
+        dto.setStatus(status);
+        return dto;
+    }
+
+    @Test
+    void shouldExpandApprovedLeavesToWeekdaysInsideTheMonth() {
+        // 2025-05-30 (Fri) .. 2025-06-03 (Tue) → only June 2 and 3 fall in June on weekdays
+        LeaveMonthIndex index = LeaveMonthIndex.of(List.of(
+                leave(1L, "2025-05-30", "2025-06-03", "APPROVED"),
+                leave(2L, "2025-06-10", "2025-06-10", "REJECTED")), 2025, 6);
+
+        assertEquals(List.of(LocalDate.of(2025, 6, 2), LocalDate.of(2025, 6, 3)), index.approvedDatesOf(1L));
+        assertTrue(index.approvedDatesOf(2L).isEmpty());
+        assertEquals(1, index.leavesOf(2L).size());
+        assertTrue(index.firstPending().isEmpty());
+    }
+
+    @Test
+    void shouldReportFirstPendingLeave() {
+        LeaveMonthIndex index = LeaveMonthIndex.of(List.of(
+                leave(1L, "2025-06-02", "2025-06-02", "APPROVED"),
+                leave(3L, "2025-06-04", "2025-06-05", "PENDING")), 2025, 6);
+
+        assertEquals(3L, index.firstPending().orElseThrow().getEmployeeId());
+    }
+
+    @Test
+    void shouldSkipApprovedLeavesWithoutStartOrEndDate() {
+        LeaveMonthIndex index = LeaveMonthIndex.of(List.of(
+                leave(1L, null, "2025-06-03", "APPROVED"),
+                leave(1L, "2025-06-04", null, "APPROVED"),
+                leave(1L, "2025-06-05", "2025-06-05", "APPROVED")), 2025, 6);
+
+        assertEquals(List.of(LocalDate.of(2025, 6, 5)), index.approvedDatesOf(1L));
+        assertEquals(3, index.leavesOf(1L).size());
+    }
+}
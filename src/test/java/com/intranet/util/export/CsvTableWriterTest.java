@@ -0,0 +1,35 @@
+package com.intranet.util.export;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class CsvTableWriterTest {
+
+    @Test
+    void shouldQuoteOnlyFieldsThatNeedIt() {
+        assertEquals("plain", CsvTableWriter.escape("plain"));
+        assertEquals("\"a,b\"", CsvTableWriter.escape("a,b"));
+        assertEquals("\"say \"\"hi\"\"\"", CsvTableWriter.escape("say \"hi\""));
+        assertEquals("\"two\nlines\"", CsvTableWriter.escape("two\nlines"));
+    }
+
+    @Test
+    void shouldSeparateSectionsWithABlankLine() throws Exception {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        try (TableWriter writer = new CsvTableWriter(out)) {
+            writer.section("SUMMARY");
+            writer.row("Utilization %", TableWriter.percent(new BigDecimal("87.50")));
+            writer.section("ALERTS");
+            writer.header("ID", "Title");
+            writer.row(1L, null);
+        }
+
+        assertEquals("SUMMARY\r\nUtilization %,87.50%\r\n\r\nALERTS\r\nID,Title\r\n1,\r\n",
+                out.toString(StandardCharsets.UTF_8));
+    }
+}
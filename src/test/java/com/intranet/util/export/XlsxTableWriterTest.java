@@ -0,0 +1,62 @@
+package com.intranet.util.export;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipInputStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class XlsxTableWriterTest {
+
+    @Test
+    void shouldWriteOneWorksheetPerSection() throws Exception {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        try (TableWriter writer = new XlsxTableWriter(out)) {
+            writer.section("RESOURCE UTILIZATION");
+            writer.header("Name", "Hours", "Utilization %");
+            writer.row("Tom & <Jerry>", new BigDecimal("40.5"), TableWriter.percent(new BigDecimal("95")));
+            writer.section("ALERTS");
+            writer.row("none");
+        }
+
+        Map<String, String> parts = unzip(out.toByteArray());
+        assertTrue(parts.keySet().containsAll(List.of("[Content_Types].xml", "_rels/.rels",
+                "xl/workbook.xml", "xl/_rels/workbook.xml.rels", "xl/styles.xml",
+                "xl/worksheets/sheet1.xml", "xl/worksheets/sheet2.xml")));
+
+        String workbook = parts.get("xl/workbook.xml");
+        assertTrue(workbook.contains("name=\"RESOURCE UTILIZATION\""));
+        assertTrue(workbook.contains("name=\"ALERTS\""));
+
+        String sheet = parts.get("xl/worksheets/sheet1.xml");
+        assertTrue(sheet.contains("Tom &amp; &lt;Jerry&gt;"));
+        assertTrue(sheet.contains("<c r=\"B3\"><v>40.5</v></c>"));
+        assertTrue(sheet.contains("<c r=\"C3\" s=\"2\"><v>95</v></c>"));
+    }
+
+    @Test
+    void shouldNameColumnsLikeExcel() {
+        assertEquals("A", XlsxTableWriter.column(0));
+        assertEquals("Z", XlsxTableWriter.column(25));
+        assertEquals("AA", XlsxTableWriter.column(26));
+        assertEquals("AZ", XlsxTableWriter.column(51));
+    }
+
+    private static Map<String, String> unzip(byte[] bytes) throws Exception {
+        Map<String, String> parts = new HashMap<>();
+        try (ZipInputStream zip = new ZipInputStream(new ByteArrayInputStream(bytes))) {
+            for (ZipEntry entry = zip.getNextEntry(); entry != null; entry = zip.getNextEntry()) {
+                parts.put(entry.getName(), new String(zip.readAllBytes(), StandardCharsets.UTF_8));
+            }
+        }
+        return parts;
+    }
+}
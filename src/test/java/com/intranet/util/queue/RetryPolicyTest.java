@@ -0,0 +1,69 @@
+package com.intranet.util.queue;
+
+import com.intranet.entity.OutboxEvent;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class RetryPolicyTest {
+
+    private static final LocalDateTime NOW = LocalDateTime.of(2026, 10, 17, 12, 0);
+
+    private final RetryPolicy policy = new RetryPolicy(3, 10_000, 600_000, 300_000);
+
+    @Test
+    void shouldDoubleBackoffUntilCap() {
+        assertEquals(10_000, RetryPolicy.backoffMs(1, 10_000, 600_000));
+        assertEquals(80_000, RetryPolicy.backoffMs(4, 10_000, 600_000));
+        assertEquals(600_000, RetryPolicy.backoffMs(7, 10_000, 600_000));
+        assertEquals(600_000, RetryPolicy.backoffMs(60, 10_000, 600_000));
+    }
+
+    @Test
+    void shouldClaimUntilTheTimeoutAndReleaseOnSuccess() {
+        OutboxEvent row = OutboxEvent.builder().status(OutboxEvent.Status.PENDING).lastError("earlier").build();
+
+        policy.claim(List.of(row), NOW);
+        assertEquals(OutboxEvent.Status.DISPATCHING, row.getStatus());
+        assertEquals(NOW.plusMinutes(5), row.getLockedUntil());
+
+        policy.succeed(row, NOW.plusSeconds(1));
+        assertEquals(OutboxEvent.Status.DISPATCHED, row.getStatus());
+        assertEquals(NOW.plusSeconds(1), row.getDispatchedAt());
+        assertNull(row.getLockedUntil());
+        assertNull(row.getLastError());
+    }
+
+    @Test
+    void shouldBackOffThenDeadLetterAtMaxAttempts() {
+        OutboxEvent row = OutboxEvent.builder().status(OutboxEvent.Status.DISPATCHING)
+                .lockedUntil(NOW.plusMinutes(5)).build();
+
+        assertFalse(policy.fail(row, new IllegalStateException("listener down"), NOW));
+        assertEquals(OutboxEvent.Status.PENDING, row.getStatus());
+        assertEquals(NOW.plusSeconds(10), row.getNextAttemptAt());
+        assertNull(row.getLockedUntil());
+        assertEquals("IllegalStateException: listener down", row.getLastError());
+
+        assertFalse(policy.fail(row, new IllegalStateException("listener down"), NOW));
+        assertEquals(NOW.plusSeconds(20), row.getNextAttemptAt());
+
+        assertTrue(policy.fail(row, new IllegalStateException("listener down"), NOW));
+        assertEquals(OutboxEvent.Status.DEAD, row.getStatus());
+        assertEquals(3, row.getAttempts());
+    }
+
+    @Test
+    void shouldDeadLetterAtOnceAndTruncateTheError() {
+        OutboxEvent row = OutboxEvent.builder().status(OutboxEvent.Status.DISPATCHING).build();
+
+        RetryPolicy.deadLetter(row, new IllegalArgumentException("x".repeat(5000)));
+
+        assertEquals(OutboxEvent.Status.DEAD, row.getStatus());
+        assertEquals(1, row.getAttempts());
+        assertEquals(2000, row.getLastError().length());
+    }
+}